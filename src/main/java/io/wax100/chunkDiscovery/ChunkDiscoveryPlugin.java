@@ -1,30 +1,58 @@
 package io.wax100.chunkDiscovery;
 
+import io.wax100.chunkDiscovery.cache.BedrockVerdictCache;
 import io.wax100.chunkDiscovery.database.DatabaseManager;
+import io.wax100.chunkDiscovery.database.SchemaMigrator;
 import io.wax100.chunkDiscovery.service.DiscoveryService;
 import io.wax100.chunkDiscovery.service.RewardService;
 import io.wax100.chunkDiscovery.config.WorldBorderConfig;
-import io.wax100.chunkDiscovery.manager.MilestoneConfig;
+import io.wax100.chunkDiscovery.initializer.ConfigReloader;
 import io.wax100.chunkDiscovery.initializer.PluginInitializer;
+import io.wax100.chunkDiscovery.exception.ChunkDiscoveryException;
 import io.wax100.chunkDiscovery.exception.ConfigurationException;
-import io.wax100.chunkDiscovery.exception.DatabaseException;
+import io.wax100.chunkDiscovery.util.ExecutorRegistry;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
 public class ChunkDiscoveryPlugin extends JavaPlugin {
 
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
     private DiscoveryService discoveryService;
     private RewardService rewardService;
+    private BedrockVerdictCache bedrockVerdictCache;
+    private SchemaMigrator schemaMigrator;
+    private ConfigReloader configReloader;
+    private volatile FileConfiguration reloadedConfig;
 
     @Override
     public void onEnable() {
         try {
+            // DB接続などは非同期で行い、完了後にメインスレッドで結果を受け取る
             PluginInitializer initializer = new PluginInitializer(this);
-            var result = initializer.initialize();
+            initializer.initialize().whenComplete((result, error) -> {
+                if (error != null) {
+                    if (error instanceof ChunkDiscoveryException) {
+                        getLogger().severe("プラグインの初期化に失敗しました: " + error.getMessage());
+                    } else {
+                        getLogger().log(Level.SEVERE, "プラグインの初期化中に予期しないエラーが発生しました: " + error.getMessage(), error);
+                    }
+                    if (isEnabled()) {
+                        getServer().getPluginManager().disablePlugin(this);
+                    }
+                    return;
+                }
+                this.discoveryService = result.discoveryService();
+                this.rewardService = result.rewardService();
+                this.bedrockVerdictCache = result.bedrockVerdictCache();
+                this.schemaMigrator = result.schemaMigrator();
+                this.configReloader = new ConfigReloader(this);
+            });
             
-            this.discoveryService = result.discoveryService();
-            this.rewardService = result.rewardService();
-            
-        } catch (ConfigurationException | DatabaseException e) {
+        } catch (ConfigurationException e) {
             getLogger().severe("プラグインの初期化に失敗しました: " + e.getMessage());
             getServer().getPluginManager().disablePlugin(this);
         } catch (Exception e) {
@@ -37,6 +65,22 @@ public class ChunkDiscoveryPlugin extends JavaPlugin {
     @Override
     public void onDisable() {
         try {
+            // 移行中の場合は現在のバッチの確定を待って中断する（次回起動時に再開）
+            if (schemaMigrator != null) {
+                schemaMigrator.stop();
+            }
+            // 書き込み待ちの発見をDBへ反映してから接続を閉じる
+            if (discoveryService != null) {
+                discoveryService.shutdown();
+            }
+            // 書き込み待ちのボーダーサイズをDBへ反映する
+            WorldBorderConfig.shutdown();
+            // 受け付け済みのDB処理を優先度順に実行し終えてから接続を閉じる
+            ExecutorRegistry.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+            // 発見処理の停止後にリージョンストアのビットマップを書き出して閉じる
+            if (discoveryService != null) {
+                discoveryService.closeChunkStore();
+            }
             DatabaseManager.shutdown();
             getLogger().info("ChunkDiscoveryPlugin が正常に無効化されました。");
         } catch (Exception e) {
@@ -46,35 +90,32 @@ public class ChunkDiscoveryPlugin extends JavaPlugin {
 
     /**
      * 設定ファイルをリロードする（ボーダーサイズ保持機能付き）
+     *
+     * 読み込み・検証・DBからの読み込みはメインスレッド以外で行い、反映のみメインスレッドで行う。
+     * @return 反映完了時にフェーズごとの所要時間で完了する Future
      */
-    public void reloadPluginConfig() {
-        try {
-            getLogger().info("設定をリロードしています...");
-
-            reloadConfig();
-            
-            var validator = new io.wax100.chunkDiscovery.initializer.ConfigValidator(getConfig(), getLogger());
-            if (!validator.validate()) {
-                getLogger().severe("リロードされた設定ファイルに無効な値が含まれています。");
-                return;
-            }
-
-            // ワールドボーダー設定をリロード（DBから復元）
-            WorldBorderConfig.reloadSettings();
-
-            // マイルストーン設定をリロード
-            MilestoneConfig.init(this);
-
-            // 報酬設定をリロード
-            rewardService.reloadRewards();
+    public CompletableFuture<ConfigReloader.Timings> reloadPluginConfigAsync() {
+        return configReloader.reload();
+    }
 
-            getLogger().info("設定ファイルがリロードされました。ワールドボーダーサイズは保持されています。");
-        } catch (Exception e) {
-            getLogger().severe("設定リロード中にエラーが発生しました: " + e.getMessage());
-        }
+    /**
+     * リロードで読み込んだ設定を反映する（メインスレッドから呼び出す）
+     */
+    public void applyReloadedConfig(FileConfiguration config) {
+        this.reloadedConfig = config;
     }
 
+    @Override
+    public FileConfiguration getConfig() {
+        FileConfiguration config = reloadedConfig;
+        return config != null ? config : super.getConfig();
+    }
 
+    @Override
+    public void reloadConfig() {
+        super.reloadConfig();
+        this.reloadedConfig = null;
+    }
 
     public DiscoveryService getDiscoveryService() {
         return discoveryService;
@@ -83,4 +124,11 @@ public class ChunkDiscoveryPlugin extends JavaPlugin {
     public RewardService getRewardService() {
         return rewardService;
     }
+
+    /**
+     * 岩盤判定キャッシュを取得（設定で無効の場合は null）
+     */
+    public BedrockVerdictCache getBedrockVerdictCache() {
+        return bedrockVerdictCache;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package io.wax100.chunkDiscovery.cache;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * チャンク最下層の岩盤判定結果を保持するキャッシュ
+ *
+ * 判定結果はチャンクの PersistentDataContainer に INT で保存し、
+ * 再起動後も床の走査をせずに再利用する。前段にワールド別のLRUを置く。
+ *
+ * 保存値: 上位ビットにワールドごとのバージョン、最下位ビットに判定結果。
+ * ワールドのバージョンを進めると、既存の保存値はすべて無効になる。
+ * バージョンは保存値に収まる範囲全体で比較するため、無効化を繰り返しても古い判定結果が有効に戻ることはない。
+ * 以前の1バイト形式の保存値は未判定として扱い、次の判定で上書きする。
+ *
+ * メインスレッドからのみ呼び出すこと。
+ */
+public class BedrockVerdictCache {
+
+    /**
+     * 判定結果
+     */
+    public enum Verdict {
+        /** 最下層がすべて岩盤 */
+        VALID,
+        /** 岩盤で埋まっていない */
+        INVALID,
+        /** 未判定（床の走査が必要） */
+        UNKNOWN
+    }
+
+    /** バージョンとして使える範囲（INT から判定ビットを除いた範囲） */
+    private static final int VERSION_MASK = Integer.MAX_VALUE >>> 1;
+
+    private final NamespacedKey verdictKey;
+    private final NamespacedKey versionKey;
+    private final int capacity;
+    private final Map<String, Map<Long, Boolean>> worlds = new HashMap<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder storedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param plugin NamespacedKey の名前空間に使うプラグイン
+     * @param capacity ワールドあたりのLRU保持件数
+     */
+    public BedrockVerdictCache(Plugin plugin, int capacity) {
+        this.verdictKey = new NamespacedKey(plugin, "bedrock_verdict");
+        this.versionKey = new NamespacedKey(plugin, "bedrock_verdict_version");
+        this.capacity = capacity;
+    }
+
+    /**
+     * チャンクの判定結果を LRU → PersistentDataContainer の順に参照する
+     * @param chunk 対象チャンク（読み込み済みであること）
+     * @return 判定結果（保存されていなければ UNKNOWN）
+     */
+    public Verdict get(Chunk chunk) {
+        World world = chunk.getWorld();
+        long key = ChunkKey.of(chunk);
+        Map<Long, Boolean> lru = lru(world.getName());
+
+        Boolean cached = lru.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached ? Verdict.VALID : Verdict.INVALID;
+        }
+
+        Integer stored = readInt(chunk.getPersistentDataContainer(), verdictKey);
+        if (stored != null && (stored >>> 1) == currentVersion(world)) {
+            boolean valid = (stored & 1) != 0;
+            lru.put(key, valid);
+            storedHits.increment();
+            return valid ? Verdict.VALID : Verdict.INVALID;
+        }
+
+        misses.increment();
+        return Verdict.UNKNOWN;
+    }
+
+    /**
+     * 判定結果を記録する
+     *
+     * チャンクがアンロード済みの場合、PersistentDataContainer への書き込みで
+     * 再読み込みが発生しないよう LRU のみに記録する。
+     */
+    public void put(Chunk chunk, boolean valid) {
+        World world = chunk.getWorld();
+        lru(world.getName()).put(ChunkKey.of(chunk), valid);
+
+        if (chunk.isLoaded()) {
+            int value = (currentVersion(world) << 1) | (valid ? 1 : 0);
+            chunk.getPersistentDataContainer().set(verdictKey, PersistentDataType.INTEGER, value);
+        }
+    }
+
+    /**
+     * 1チャンク分の判定結果を破棄する（最下層の岩盤が変化した場合など）
+     */
+    public void invalidate(Chunk chunk) {
+        Map<Long, Boolean> lru = worlds.get(chunk.getWorld().getName());
+        if (lru != null) {
+            lru.remove(ChunkKey.of(chunk));
+        }
+        chunk.getPersistentDataContainer().remove(verdictKey);
+    }
+
+    /**
+     * ワールド内の全判定結果を無効化する
+     *
+     * 各チャンクの保存値は書き換えず、ワールドのバージョンを進めることで
+     * 未読み込みのチャンクも含めて一括で無効にする。
+     * @param world 対象ワールド
+     * @return 新しいバージョン
+     */
+    public int invalidateWorld(World world) {
+        int next = (currentVersion(world) + 1) & VERSION_MASK;
+        world.getPersistentDataContainer().set(versionKey, PersistentDataType.INTEGER, next);
+        worlds.remove(world.getName());
+        return next;
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.sum();
+    }
+
+    public long getStoredHits() {
+        return storedHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * LRUに保持している判定結果の件数（全ワールド合計）
+     */
+    public int size() {
+        int total = 0;
+        for (Map<Long, Boolean> lru : worlds.values()) {
+            total += lru.size();
+        }
+        return total;
+    }
+
+    private int currentVersion(World world) {
+        Integer version = readInt(world.getPersistentDataContainer(), versionKey);
+        return version != null ? version & VERSION_MASK : 0;
+    }
+
+    /**
+     * INT の保存値を取得する（未保存、または以前の1バイト形式の場合は null）
+     */
+    private static Integer readInt(PersistentDataContainer container, NamespacedKey key) {
+        if (!container.has(key, PersistentDataType.INTEGER)) {
+            return null;
+        }
+        return container.get(key, PersistentDataType.INTEGER);
+    }
+
+    private Map<Long, Boolean> lru(String worldName) {
+        return worlds.computeIfAbsent(worldName, name -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package io.wax100.chunkDiscovery.cache;
+
+import io.wax100.chunkDiscovery.util.LongHashSet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * オンラインプレイヤーの発見済みチャンクを保持するセッションキャッシュ
+ *
+ * 責任：
+ * - ログイン時に非同期で読み込んだ発見済みチャンクキーの保持
+ * - チャンク境界移動時の発見済み判定（DBアクセスなし）
+ * - ヒット/ミス件数・読み込み失敗件数の計測
+ */
+public class DiscoveredChunkCache {
+
+    /**
+     * キャッシュ照会結果
+     */
+    public enum Lookup {
+        /** 発見済み */
+        DISCOVERED,
+        /** 未発見 */
+        UNDISCOVERED,
+        /** キャッシュ未読み込み（発見候補として扱い、書き込み時にDBで確定する） */
+        UNKNOWN
+    }
+
+    private final Map<UUID, PlayerChunks> players = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder failedLoads = new LongAdder();
+
+    /**
+     * プレイヤーのキャッシュ領域を確保する（読み込み完了までは UNKNOWN を返す）
+     * @param playerId プレイヤーのUUID
+     * @return 読み込み結果を反映するためのエントリ
+     */
+    public PlayerChunks prepare(UUID playerId) {
+        PlayerChunks entry = new PlayerChunks();
+        players.put(playerId, entry);
+        return entry;
+    }
+
+    /**
+     * DBから読み込んだ発見済みチャンクをエントリに反映し、照会可能な状態にする
+     * @param entry prepare で確保したエントリ
+     * @param discovered ワールド名 -> 発見済みチャンクキー
+     */
+    public void complete(PlayerChunks entry, Map<String, LongHashSet> discovered) {
+        entry.load(discovered);
+    }
+
+    /**
+     * 読み込みの失敗を記録する（エントリは読み込み中のまま残り、再読み込みの完了後に照会可能になる）
+     * @param entry prepare で確保したエントリ
+     */
+    public void fail(PlayerChunks entry) {
+        entry.failures++;
+        failedLoads.increment();
+    }
+
+    /**
+     * エントリがプレイヤーの現在のキャッシュか（ログアウトや再ログインで置き換えられていないか）
+     */
+    public boolean isCurrent(UUID playerId, PlayerChunks entry) {
+        return players.get(playerId) == entry;
+    }
+
+    /**
+     * プレイヤーのキャッシュを破棄する
+     */
+    public void invalidate(UUID playerId) {
+        players.remove(playerId);
+    }
+
+    /**
+     * 指定チャンクが発見済みかキャッシュから判定する
+     * @param playerId プレイヤーのUUID
+     * @param worldName ワールド名
+     * @param chunkKey パック済みチャンクキー
+     * @return 判定結果（未読み込みの場合は UNKNOWN、ただし読み込み中に発見したチャンクは DISCOVERED）
+     */
+    public Lookup lookup(UUID playerId, String worldName, long chunkKey) {
+        PlayerChunks entry = players.get(playerId);
+        if (entry == null) {
+            misses.increment();
+            return Lookup.UNKNOWN;
+        }
+        if (!entry.isLoaded()) {
+            // 読み込み中に発見したチャンクは再度発見処理へ渡さない
+            if (entry.contains(worldName, chunkKey)) {
+                hits.increment();
+                return Lookup.DISCOVERED;
+            }
+            misses.increment();
+            return Lookup.UNKNOWN;
+        }
+        hits.increment();
+        return entry.contains(worldName, chunkKey) ? Lookup.DISCOVERED : Lookup.UNDISCOVERED;
+    }
+
+    /**
+     * 発見済みチャンクを追加する（読み込み中でも記録し、読み込み結果とマージされる）
+     */
+    public void markDiscovered(UUID playerId, String worldName, long chunkKey) {
+        PlayerChunks entry = players.get(playerId);
+        if (entry != null) {
+            entry.add(worldName, chunkKey);
+        }
+    }
+
+    /**
+     * 発見済みとして追加したチャンクを取り消す（書き込みに失敗した場合、次の移動で再び発見処理へ渡す）
+     */
+    public void unmarkDiscovered(UUID playerId, String worldName, long chunkKey) {
+        PlayerChunks entry = players.get(playerId);
+        if (entry != null) {
+            entry.remove(worldName, chunkKey);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 読み込みに失敗した回数（再試行分を含む）
+     */
+    public long getFailedLoads() {
+        return failedLoads.sum();
+    }
+
+    /**
+     * キャッシュ済みのプレイヤー数を取得
+     */
+    public int getCachedPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * 1プレイヤー分の発見済みチャンク（ワールド別）
+     */
+    public static final class PlayerChunks {
+        private final Map<String, LongHashSet> worlds = new HashMap<>();
+        private volatile boolean loaded;
+        // 読み込みに失敗した回数（再試行の間隔の計算に使用）
+        private volatile int failures;
+
+        synchronized void load(Map<String, LongHashSet> discovered) {
+            for (Map.Entry<String, LongHashSet> e : discovered.entrySet()) {
+                LongHashSet existing = worlds.get(e.getKey());
+                if (existing == null) {
+                    worlds.put(e.getKey(), e.getValue());
+                } else {
+                    // 読み込み中に発見されたチャンクとマージ
+                    e.getValue().addAll(existing);
+                    worlds.put(e.getKey(), e.getValue());
+                }
+            }
+            loaded = true;
+        }
+
+        synchronized boolean contains(String worldName, long chunkKey) {
+            LongHashSet set = worlds.get(worldName);
+            return set != null && set.contains(chunkKey);
+        }
+
+        synchronized void add(String worldName, long chunkKey) {
+            worlds.computeIfAbsent(worldName, w -> new LongHashSet()).add(chunkKey);
+        }
+
+        synchronized void remove(String worldName, long chunkKey) {
+            LongHashSet set = worlds.get(worldName);
+            if (set != null) {
+                set.remove(chunkKey);
+            }
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * 読み込みに失敗した回数
+         */
+        public int getFailures() {
+            return failures;
+        }
+    }
+}
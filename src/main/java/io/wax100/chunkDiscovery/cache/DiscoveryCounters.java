@@ -0,0 +1,97 @@
+package io.wax100.chunkDiscovery.cache;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * サーバー全体・ワールド別の発見済みチャンク数を保持するカウンター
+ *
+ * 起動時にDBから読み込み、以降は世界初発見のたびに加算する。
+ * 加算漏れやDBの直接編集に備え、定期的にDBの件数と突き合わせて補正する。
+ */
+public class DiscoveryCounters {
+
+    private final LongAdder global = new LongAdder();
+    private final Map<String, LongAdder> worlds = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * 世界初発見を記録する
+     * @param worldName 発見されたワールド
+     */
+    public void increment(String worldName) {
+        worlds.computeIfAbsent(worldName, name -> new LongAdder()).increment();
+        global.increment();
+    }
+
+    /**
+     * 補正の基準となる状態を取得する（DBの件数を取得する前に呼び出すこと）
+     */
+    public Snapshot snapshot() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<String, LongAdder> e : worlds.entrySet()) {
+            counts.put(e.getKey(), e.getValue().sum());
+        }
+        return new Snapshot(counts);
+    }
+
+    /**
+     * DBの件数との差分を反映する
+     *
+     * 反映後の件数は「DBの件数 + DBの件数を取得している間に行われた加算」になる。
+     * 取得中の加算がDBの件数に含まれていた場合は一時的に多めになるが、次回の補正で解消される。
+     * 加算の有無によらず必ず反映するため、発見が絶えない状況でも読み込みが完了する。
+     * @param before DBの件数を取得する前に取得した状態
+     * @param dbCounts ワールド名 -> DB上の発見済みチャンク数
+     */
+    public void reconcile(Snapshot before, Map<String, Integer> dbCounts) {
+        Set<String> names = new HashSet<>(before.counts().keySet());
+        names.addAll(dbCounts.keySet());
+        for (String name : names) {
+            long delta = dbCounts.getOrDefault(name, 0) - before.counts().getOrDefault(name, 0L);
+            if (delta != 0) {
+                // 差分を加えることで、取得中・取得後に行われた加算は保持される
+                worlds.computeIfAbsent(name, n -> new LongAdder()).add(delta);
+                global.add(delta);
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * DBの件数を一度でも反映済みか
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public long getGlobalTotal() {
+        return global.sum();
+    }
+
+    public long getWorldTotal(String worldName) {
+        LongAdder adder = worlds.get(worldName);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * 補正前の状態
+     * @param counts ワールド名 -> 件数
+     */
+    public record Snapshot(Map<String, Long> counts) {
+        /**
+         * 合計件数
+         */
+        public long total() {
+            long total = 0;
+            for (long count : counts.values()) {
+                total += count;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.wax100.chunkDiscovery.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * プレイヤーID（UUID文字列）から最後に確認した名前を引くキャッシュ
+ *
+ * 上限件数を超えた場合は最も長く参照されていない名前から破棄する（LRU）。
+ * ログイン時に登録し、ランキング表示などでキャッシュにない名前はDBからまとめて読み込んで登録する。
+ */
+public class PlayerNameCache {
+
+    private final Map<String, String> names;
+
+    /**
+     * @param maxSize 保持する名前の上限件数
+     */
+    public PlayerNameCache(int maxSize) {
+        this.names = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * 名前を登録する
+     */
+    public synchronized void put(String playerId, String name) {
+        names.put(playerId, name);
+    }
+
+    /**
+     * 名前を取得
+     * @return キャッシュにない場合は null
+     */
+    public synchronized String get(String playerId) {
+        return names.get(playerId);
+    }
+
+    /**
+     * 複数の名前を取得
+     * @param playerIds プレイヤーID
+     * @param missing キャッシュになかったプレイヤーIDの追加先
+     * @return プレイヤーID -> 名前（キャッシュにあったもののみ）
+     */
+    public synchronized Map<String, String> getAll(Collection<String> playerIds, Collection<String> missing) {
+        Map<String, String> result = new HashMap<>();
+        for (String playerId : playerIds) {
+            String name = names.get(playerId);
+            if (name != null) {
+                result.put(playerId, name);
+            } else {
+                missing.add(playerId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 複数の名前を登録する
+     */
+    public synchronized void putAll(Map<String, String> playerNames) {
+        names.putAll(playerNames);
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,269 @@
+package io.wax100.chunkDiscovery.cache;
+
+import io.wax100.chunkDiscovery.model.PlayerData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * プレイヤーの発見総数ランキングをメモリ上に保持する順序統計木
+ *
+ * (発見総数の降順, プレイヤーIDの昇順) をキーとし、部分木のノード数を持つ treap で
+ * 上位N件・プレイヤーの順位・前後のプレイヤーを O(log n) で取得する。
+ * 起動時にDBから読み込み、以降は発見総数の加算結果を反映する。
+ * 発見総数は増加のみのため、並行して届いた古い値（現在値以下）は無視する。
+ */
+public class PlayerRanking {
+
+    private final Map<String, Node> nodes = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+    private volatile boolean loaded;
+
+    /**
+     * 順位付きのプレイヤー
+     * @param rank 順位（1始まり）
+     * @param player プレイヤーと発見総数
+     */
+    public record Ranked(int rank, PlayerData player) {}
+
+    /**
+     * DBから読み込んだ発見総数を反映する（読み込み中に反映された値の方が大きい場合はそちらを残す）
+     */
+    public synchronized void load(Collection<PlayerData> players) {
+        for (PlayerData player : players) {
+            update(player.getPlayerId(), player.getTotalChunks());
+        }
+        loaded = true;
+    }
+
+    /**
+     * DBから一度でも読み込み済みか
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * プレイヤーの発見総数を更新する
+     * @return 更新した場合 true（現在値以下の場合は false）
+     */
+    public synchronized boolean update(String playerId, int totalChunks) {
+        Node current = nodes.get(playerId);
+        if (current != null) {
+            if (current.total >= totalChunks) {
+                return false;
+            }
+            root = remove(root, current);
+        }
+        Node node = new Node(playerId, totalChunks, random.nextInt());
+        nodes.put(playerId, node);
+        root = insert(root, node);
+        return true;
+    }
+
+    /**
+     * 上位N件を取得
+     */
+    public synchronized List<PlayerData> top(int limit) {
+        List<PlayerData> result = new ArrayList<>(Math.min(limit, size(root)));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while (result.size() < limit && (node != null || !stack.isEmpty())) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            result.add(node.toPlayerData());
+            node = node.right;
+        }
+        return result;
+    }
+
+    /**
+     * プレイヤーの順位を取得
+     * @return 1始まりの順位、ランキングにいない場合は 0
+     */
+    public synchronized int rankOf(String playerId) {
+        Node target = nodes.get(playerId);
+        if (target == null) {
+            return 0;
+        }
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int c = compare(target, node);
+            if (c == 0) {
+                return rank + size(node.left) + 1;
+            }
+            if (c < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * プレイヤーの前後のプレイヤーを取得
+     * @param radius 前後それぞれの人数
+     * @return 順位順のリスト（本人を含む）、ランキングにいない場合は空
+     */
+    public synchronized List<Ranked> around(String playerId, int radius) {
+        int rank = rankOf(playerId);
+        if (rank == 0) {
+            return List.of();
+        }
+        int from = Math.max(1, rank - radius);
+        int to = Math.min(size(root), rank + radius);
+        List<Ranked> result = new ArrayList<>(to - from + 1);
+        for (int r = from; r <= to; r++) {
+            result.add(new Ranked(r, select(r).toPlayerData()));
+        }
+        return result;
+    }
+
+    /**
+     * ランキングのプレイヤー数
+     */
+    public synchronized int size() {
+        return size(root);
+    }
+
+    private Node select(int rank) {
+        Node node = root;
+        int k = rank;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (k <= leftSize) {
+                node = node.left;
+            } else if (k == leftSize + 1) {
+                return node;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IllegalArgumentException("rank out of range: " + rank);
+    }
+
+    private static Node insert(Node node, Node item) {
+        if (node == null) {
+            return item;
+        }
+        if (item.priority > node.priority) {
+            Node[] parts = split(node, item);
+            item.left = parts[0];
+            item.right = parts[1];
+            item.updateSize();
+            return item;
+        }
+        if (compare(item, node) < 0) {
+            node.left = insert(node.left, item);
+        } else {
+            node.right = insert(node.right, item);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private static Node remove(Node node, Node item) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(item, node);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = remove(node.left, item);
+        } else {
+            node.right = remove(node.right, item);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    /**
+     * key より前のノードと後のノードに分ける
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(node, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            node.updateSize();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        node.updateSize();
+        return new Node[] {parts[0], node};
+    }
+
+    /**
+     * left の全ノードが right の全ノードより前である2つの木を結合する
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.updateSize();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.updateSize();
+        return right;
+    }
+
+    /**
+     * a が b より上位なら負の値
+     */
+    private static int compare(Node a, Node b) {
+        int byTotal = Integer.compare(b.total, a.total);
+        return byTotal != 0 ? byTotal : a.playerId.compareTo(b.playerId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final String playerId;
+        private final int total;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        Node(String playerId, int total, int priority) {
+            this.playerId = playerId;
+            this.total = total;
+            this.priority = priority;
+        }
+
+        void updateSize() {
+            size = 1 + PlayerRanking.size(left) + PlayerRanking.size(right);
+        }
+
+        PlayerData toPlayerData() {
+            return new PlayerData(playerId, total);
+        }
+    }
+}
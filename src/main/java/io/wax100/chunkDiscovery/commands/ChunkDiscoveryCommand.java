@@ -1,11 +1,23 @@
 package io.wax100.chunkDiscovery.commands;
 
 import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
+import io.wax100.chunkDiscovery.cache.BedrockVerdictCache;
+import io.wax100.chunkDiscovery.cache.DiscoveryCounters;
+import io.wax100.chunkDiscovery.cache.DiscoveredChunkCache;
+import io.wax100.chunkDiscovery.cache.PlayerRanking;
 import io.wax100.chunkDiscovery.service.DiscoveryService;
+import io.wax100.chunkDiscovery.service.DiscoveryWriteBehind;
 import io.wax100.chunkDiscovery.model.PlayerData;
 import io.wax100.chunkDiscovery.config.WorldBorderConfig;
+import io.wax100.chunkDiscovery.config.WorldBorderUpdateScheduler;
+import io.wax100.chunkDiscovery.config.WorldBorderWriteBehind;
+import io.wax100.chunkDiscovery.util.DbExecutor;
+import io.wax100.chunkDiscovery.util.ExecutorRegistry;
+import io.wax100.chunkDiscovery.util.PrimaryThreadGuard;
+import io.wax100.chunkDiscovery.util.VirtualThreadPinningMonitor;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -13,8 +25,14 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.bukkit.generator.WorldInfo;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
@@ -29,7 +47,7 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (args.length == 0) {
-            sender.sendMessage(ChatColor.YELLOW + "Usage: /chunkdiscovery [stats|top|info|check|reload|world]");
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /chunkdiscovery [stats|top|info|check|reload|world|metrics|invalidate]");
             return true;
         }
 
@@ -55,9 +73,15 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
                 case "world":
                     handleWorldCommand(sender, args);
                     break;
+                case "metrics":
+                    handleMetricsCommand(sender);
+                    break;
+                case "invalidate":
+                    handleInvalidateCommand(sender, args);
+                    break;
                 default:
                     sender.sendMessage(ChatColor.RED + "Unknown subcommand: " + sub);
-                    sender.sendMessage(ChatColor.YELLOW + "Available commands: stats, top, info, check, reload, world");
+                    sender.sendMessage(ChatColor.YELLOW + "Available commands: stats, top, info, check, reload, world, metrics, invalidate");
             }
         } catch (Exception e) {
             plugin.getLogger().severe("コマンド実行中にエラーが発生しました: " + e.getMessage());
@@ -91,22 +115,23 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
             targetPlayerName = player.getName();
         }
 
-        // 非同期で統計を取得
-        discoveryService.getPlayerTotalChunksAsync(targetPlayerId).thenAccept(total -> {
-            // 現在のワールドでの統計も取得
-            String currentWorld = player.getWorld().getName();
-            discoveryService.getPlayerWorldChunksAsync(targetPlayerId, currentWorld).thenAccept(worldTotal -> {
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    player.sendMessage(ChatColor.GREEN + "=== " + targetPlayerName + " の統計 ===");
-                    player.sendMessage(ChatColor.WHITE + "全体発見数: " + ChatColor.YELLOW + total);
-                    player.sendMessage(ChatColor.WHITE + currentWorld + "での発見数: " + ChatColor.AQUA + worldTotal);
-
-                    // 現在のワールドボーダーサイズも表示
-                    double currentBorderSize = WorldBorderConfig.getCurrentBorderSize(currentWorld);
-                    player.sendMessage(ChatColor.WHITE + currentWorld + "のボーダーサイズ: " + ChatColor.GOLD + String.format("%.1f", currentBorderSize));
-                });
+        // 全体・現在のワールドでの発見数とボーダーサイズを非同期で取得し、メインスレッドでは表示のみ行う
+        String currentWorld = player.getWorld().getName();
+        CompletableFuture<Integer> totalFuture = discoveryService.getPlayerTotalChunksAsync(targetPlayerId);
+        CompletableFuture<Integer> worldFuture = discoveryService.getPlayerWorldChunksAsync(targetPlayerId, currentWorld);
+        CompletableFuture<Double> borderFuture = discoveryService.getBorderSizeAsync(currentWorld);
+
+        CompletableFuture.allOf(totalFuture, worldFuture, borderFuture).thenRun(() -> {
+            int total = totalFuture.join();
+            int worldTotal = worldFuture.join();
+            double currentBorderSize = borderFuture.join();
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                player.sendMessage(ChatColor.GREEN + "=== " + targetPlayerName + " の統計 ===");
+                player.sendMessage(ChatColor.WHITE + "全体発見数: " + ChatColor.YELLOW + total);
+                player.sendMessage(ChatColor.WHITE + currentWorld + "での発見数: " + ChatColor.AQUA + worldTotal);
+                player.sendMessage(ChatColor.WHITE + currentWorld + "のボーダーサイズ: " + ChatColor.GOLD + String.format("%.1f", currentBorderSize));
             });
-        });
+        }).exceptionally(throwable -> notifyBusy(player));
     }
 
     private void handleWorldCommand(CommandSender sender, String[] args) {
@@ -130,14 +155,18 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
 
         String playerId = player.getUniqueId().toString();
 
-        // 指定されたワールドでの統計を表示
-        discoveryService.getPlayerWorldChunksAsync(playerId, worldName).thenAccept(worldTotal -> {
+        // 指定されたワールドでの発見数とボーダーサイズを非同期で取得して表示
+        CompletableFuture<Integer> worldFuture = discoveryService.getPlayerWorldChunksAsync(playerId, worldName);
+        CompletableFuture<Double> borderFuture = discoveryService.getBorderSizeAsync(worldName);
+
+        CompletableFuture.allOf(worldFuture, borderFuture).thenRun(() -> {
+            int worldTotal = worldFuture.join();
+            double currentBorderSize = borderFuture.join();
             Bukkit.getScheduler().runTask(plugin, () -> {
                 player.sendMessage(ChatColor.GREEN + "=== " + worldName + " での統計 ===");
                 player.sendMessage(ChatColor.WHITE + "あなたの発見数: " + ChatColor.AQUA + worldTotal);
 
                 // ワールドボーダー情報
-                double currentBorderSize = WorldBorderConfig.getCurrentBorderSize(worldName);
                 WorldBorderConfig.WorldBorderSetting setting = WorldBorderConfig.getSettingForWorld(worldName);
 
                 player.sendMessage(ChatColor.WHITE + "現在のボーダーサイズ: " + ChatColor.GOLD + String.format("%.1f", currentBorderSize));
@@ -151,7 +180,7 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
                     player.sendMessage(ChatColor.WHITE + "次のマイルストーンまで: " + ChatColor.YELLOW + remaining + " チャンク");
                 }
             });
-        });
+        }).exceptionally(throwable -> notifyBusy(player));
     }
 
     private void handleTopCommand(CommandSender sender, String[] args) {
@@ -168,25 +197,70 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
 
         final int finalLimit = limit;
 
-        // 非同期でランキングを取得
-        discoveryService.getTopPlayersAsync(finalLimit).thenAccept(topPlayers -> {
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                sender.sendMessage(ChatColor.GOLD + "=== Top " + finalLimit + " チャンク発見者 ===");
+        String selfId = sender instanceof Player player ? player.getUniqueId().toString() : null;
 
-                if (topPlayers.isEmpty()) {
-                    sender.sendMessage(ChatColor.GRAY + "まだチャンクを発見したプレイヤーがいません。");
-                    return;
-                }
+        // 非同期でランキングを取得し、表示するプレイヤーの名前をまとめて解決してから表示
+        discoveryService.getTopPlayersAsync(finalLimit).thenCompose(topPlayers -> {
+            int selfRank = selfId != null ? discoveryService.getPlayerRank(selfId) : 0;
+            List<PlayerRanking.Ranked> around = selfRank > finalLimit
+                    ? discoveryService.getPlayersAround(selfId, 1)
+                    : List.of();
 
-                for (int i = 0; i < topPlayers.size(); i++) {
-                    PlayerData pd = topPlayers.get(i);
-                    String rankMessage = ChatColor.YELLOW + "" + (i + 1) + ". " +
-                            ChatColor.WHITE + getPlayerNameFromId(pd.getPlayerId()) + " - " +
-                            ChatColor.AQUA + pd.getTotalChunks() + " チャンク";
-                    sender.sendMessage(rankMessage);
-                }
-            });
-        });
+            Set<String> playerIds = new LinkedHashSet<>();
+            topPlayers.forEach(pd -> playerIds.add(pd.getPlayerId()));
+            around.forEach(ranked -> playerIds.add(ranked.player().getPlayerId()));
+
+            return discoveryService.resolvePlayerNamesAsync(playerIds).thenAccept(names ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    sender.sendMessage(ChatColor.GOLD + "=== Top " + finalLimit + " チャンク発見者 ===");
+
+                    if (topPlayers.isEmpty()) {
+                        sender.sendMessage(ChatColor.GRAY + "まだチャンクを発見したプレイヤーがいません。");
+                        return;
+                    }
+
+                    for (int i = 0; i < topPlayers.size(); i++) {
+                        PlayerData pd = topPlayers.get(i);
+                        String rankMessage = ChatColor.YELLOW + "" + (i + 1) + ". " +
+                                ChatColor.WHITE + nameOf(names, pd.getPlayerId()) + " - " +
+                                ChatColor.AQUA + pd.getTotalChunks() + " チャンク";
+                        sender.sendMessage(rankMessage);
+                    }
+
+                    if (sender instanceof Player player) {
+                        sendOwnRank(player, selfRank, around, names);
+                    }
+                }));
+        }).exceptionally(throwable -> notifyBusy(sender));
+    }
+
+    /**
+     * 実行したプレイヤーの順位を表示する（上位に入っていない場合は前後のプレイヤーも表示）
+     */
+    private void sendOwnRank(Player player, int rank, List<PlayerRanking.Ranked> around, Map<String, String> names) {
+        if (rank == 0) {
+            player.sendMessage(ChatColor.GRAY + "あなたはまだランキングに入っていません。");
+            return;
+        }
+
+        player.sendMessage(ChatColor.GREEN + "あなたの順位: " + ChatColor.YELLOW + rank + "位" +
+                ChatColor.GRAY + " / " + discoveryService.getRankedPlayerCount() + "人");
+        String playerId = player.getUniqueId().toString();
+        for (PlayerRanking.Ranked ranked : around) {
+            PlayerData pd = ranked.player();
+            boolean self = pd.getPlayerId().equals(playerId);
+            player.sendMessage((self ? ChatColor.GREEN : ChatColor.GRAY) + "" + ranked.rank() + ". " +
+                    nameOf(names, pd.getPlayerId()) + " - " + pd.getTotalChunks() + " チャンク");
+        }
+    }
+
+    /**
+     * DBが混雑していて統計を取得できなかったことを通知する
+     */
+    private Void notifyBusy(CommandSender sender) {
+        Bukkit.getScheduler().runTask(plugin, () ->
+                sender.sendMessage(ChatColor.RED + "サーバーが混雑しているため統計を取得できませんでした。しばらくしてから再度お試しください。"));
+        return null;
     }
 
     private void handleInfoCommand(CommandSender sender) {
@@ -201,18 +275,21 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        // 現在のチャンクの有効性をチェック
-        boolean isDiscovered = discoveryService.isDiscovered(player, player.getLocation().getChunk());
-        String discoveredMessage = "このチャンクは" +
-                (isDiscovered ? ChatColor.YELLOW + "既に発見済み" : ChatColor.GREEN + "未発見") +
-                ChatColor.WHITE + "です。";
-
-        player.sendMessage(discoveredMessage);
-
-        // 現在のワールド情報
+        // 現在のチャンクの発見状況とワールドでの発見数を非同期で取得して表示
         String worldName = player.getWorld().getName();
-        int worldChunks = discoveryService.getPlayerChunksInWorld(player.getUniqueId().toString(), worldName);
-        player.sendMessage(ChatColor.WHITE + worldName + "での発見数: " + ChatColor.AQUA + worldChunks);
+        CompletableFuture<Boolean> discoveredFuture =
+                discoveryService.isDiscoveredAsync(player, player.getLocation().getChunk());
+        CompletableFuture<Integer> worldFuture =
+                discoveryService.getPlayerWorldChunksAsync(player.getUniqueId().toString(), worldName);
+
+        discoveredFuture.thenAcceptBoth(worldFuture, (isDiscovered, worldChunks) ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                player.sendMessage("このチャンクは" +
+                        (isDiscovered ? ChatColor.YELLOW + "既に発見済み" : ChatColor.GREEN + "未発見") +
+                        ChatColor.WHITE + "です。");
+                player.sendMessage(ChatColor.WHITE + worldName + "での発見数: " + ChatColor.AQUA + worldChunks);
+            })
+        ).exceptionally(throwable -> notifyBusy(player));
     }
 
     private void handleReloadCommand(CommandSender sender) {
@@ -223,22 +300,141 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
 
         sender.sendMessage(ChatColor.YELLOW + "設定をリロードしています...");
 
-        try {
-            plugin.reloadPluginConfig();
-            sender.sendMessage(ChatColor.GREEN + "設定のリロードが完了しました。ワールドボーダーサイズは保持されています。");
-        } catch (Exception e) {
-            plugin.getLogger().severe("設定リロード中にエラーが発生しました: " + e.getMessage());
-            sender.sendMessage(ChatColor.RED + "設定のリロード中にエラーが発生しました。");
+        // 読み込み・検証はメインスレッド以外で行われ、完了後に結果を通知する
+        plugin.reloadPluginConfigAsync().whenComplete((timings, throwable) ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (throwable != null) {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    plugin.getLogger().severe("設定リロード中にエラーが発生しました: " + cause.getMessage());
+                    sender.sendMessage(ChatColor.RED + "設定のリロード中にエラーが発生しました: " + cause.getMessage());
+                    return;
+                }
+                sender.sendMessage(ChatColor.GREEN + "設定のリロードが完了しました。ワールドボーダーサイズは保持されています。");
+                sender.sendMessage(ChatColor.GRAY + String.format("読み込み・検証: %dms / 反映（メインスレッド）: %dms",
+                        timings.parseMillis(), timings.commitMillis()));
+            })
+        );
+    }
+
+    private void handleMetricsCommand(CommandSender sender) {
+        if (!sender.hasPermission("chunkdiscovery.admin")) {
+            sender.sendMessage(ChatColor.RED + "このコマンドを実行する権限がありません。");
+            return;
+        }
+
+        DiscoveredChunkCache cache = discoveryService.getChunkCache();
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        long lookups = hits + misses;
+        double hitRate = lookups == 0 ? 0.0 : hits * 100.0 / lookups;
+
+        sender.sendMessage(ChatColor.AQUA + "=== ChunkDiscovery メトリクス ===");
+        sender.sendMessage(ChatColor.WHITE + "発見済みキャッシュ: " + ChatColor.YELLOW + cache.getCachedPlayerCount() + " プレイヤー");
+        sender.sendMessage(ChatColor.WHITE + "キャッシュヒット: " + ChatColor.GREEN + hits +
+                ChatColor.WHITE + " / ミス: " + ChatColor.RED + misses +
+                ChatColor.WHITE + " (ヒット率 " + String.format("%.1f", hitRate) + "%)" +
+                ChatColor.WHITE + " / 読み込み失敗: " + ChatColor.RED + cache.getFailedLoads());
+        sender.sendMessage(ChatColor.WHITE + "処理中の発見: " + ChatColor.YELLOW + discoveryService.getInFlightCount() +
+                ChatColor.WHITE + " / 重複抑止: " + ChatColor.GREEN + discoveryService.getSuppressedDuplicates());
+
+        DiscoveryCounters counters = discoveryService.getCounters();
+        sender.sendMessage(ChatColor.WHITE + "発見数カウンター: " + (counters.isLoaded()
+                ? ChatColor.YELLOW + String.valueOf(counters.getGlobalTotal()) + " チャンク"
+                : ChatColor.RED + "読み込み中"));
+
+        PlayerRanking ranking = discoveryService.getRanking();
+        sender.sendMessage(ChatColor.WHITE + "ランキング: " + (ranking.isLoaded()
+                ? ChatColor.YELLOW + String.valueOf(ranking.size()) + " 人"
+                : ChatColor.RED + "読み込み中"));
+
+        DiscoveryWriteBehind writeBehind = discoveryService.getWriteBehind();
+        if (writeBehind != null) {
+            long flushCount = writeBehind.getFlushCount();
+            long flushed = writeBehind.getFlushedEntries();
+            double averageBatch = flushCount == 0 ? 0.0 : (double) flushed / flushCount;
+            sender.sendMessage(ChatColor.WHITE + "書き込みキュー: " + ChatColor.YELLOW + writeBehind.getQueuedCount() + " 件待ち" +
+                    ChatColor.WHITE + " (書き込み " + flushCount + " 回 / " + flushed + " 件, 平均 " +
+                    String.format("%.1f", averageBatch) + " 件/回)");
+            sender.sendMessage(ChatColor.WHITE + "書き込み再試行: " + ChatColor.YELLOW + writeBehind.getRetryingCount() + " 件待ち" +
+                    ChatColor.WHITE + " (延べ " + writeBehind.getRetriedEntries() + " 件 / 破棄 " +
+                    ChatColor.RED + writeBehind.getFailedEntries() + ChatColor.WHITE + " 件)");
+        }
+
+        WorldBorderUpdateScheduler borderUpdates = WorldBorderConfig.getBorderUpdates();
+        if (borderUpdates != null) {
+            sender.sendMessage(ChatColor.WHITE + "ボーダー拡張: " + ChatColor.YELLOW + borderUpdates.getPendingCount() + " ワールド待ち" +
+                    ChatColor.WHITE + " (要求 " + borderUpdates.getRequestCount() + " 回 / 適用 " + borderUpdates.getUpdateCount() + " 回)");
+        }
+        WorldBorderWriteBehind borderState = WorldBorderConfig.getBorderState();
+        if (borderState != null) {
+            sender.sendMessage(ChatColor.WHITE + "ボーダー書き込み: " + ChatColor.YELLOW + borderState.getPendingCount() + " ワールド待ち" +
+                    ChatColor.WHITE + " (更新 " + borderState.getUpdateCount() + " 回 / 書き込み " + borderState.getWriteCount() + " 回)");
+        }
+
+        DbExecutor db = ExecutorRegistry.db();
+        sender.sendMessage(ChatColor.WHITE + "DBスレッド" + (db.isVirtual() ? "（仮想）" : "") + ": " +
+                ChatColor.YELLOW + db.getActiveCount() + "/" + db.getThreadCount() + " 実行中" +
+                ChatColor.WHITE + " / 待ち行列 " + ChatColor.YELLOW + db.getQueuedCount() + "/" + db.getQueueCapacity() +
+                ChatColor.WHITE + " (待ち時間 平均 " + String.format("%.1f", db.getAverageWaitMillis()) +
+                "ms / 最大 " + String.format("%.1f", db.getMaxWaitMillis()) + "ms)");
+        sender.sendMessage(ChatColor.WHITE + "DB処理の拒否: " +
+                ChatColor.RED + db.getRejectedCount(DbExecutor.Priority.DISCOVERY) + ChatColor.WHITE + " 発見 / " +
+                ChatColor.RED + db.getRejectedCount(DbExecutor.Priority.BACKGROUND) + ChatColor.WHITE + " その他 / " +
+                ChatColor.RED + db.getRejectedCount(DbExecutor.Priority.STATS) + ChatColor.WHITE + " 統計" +
+                " (完了 " + db.getCompletedCount() + " 件)");
+        if (PrimaryThreadGuard.isEnabled()) {
+            sender.sendMessage(ChatColor.WHITE + "メインスレッドでのDBアクセス: " +
+                    ChatColor.RED + PrimaryThreadGuard.getViolationCount() + ChatColor.WHITE + " 件");
+        }
+        VirtualThreadPinningMonitor pinning = ExecutorRegistry.pinningMonitor();
+        if (pinning != null) {
+            sender.sendMessage(ChatColor.WHITE + "仮想スレッドのピン留め: " + ChatColor.RED + pinning.getPinnedCount() +
+                    ChatColor.WHITE + " 件 (JDBCドライバ内 " + pinning.getDriverPinnedCount() + " 件)");
+        }
+
+        BedrockVerdictCache verdictCache = plugin.getBedrockVerdictCache();
+        if (verdictCache != null) {
+            sender.sendMessage(ChatColor.WHITE + "岩盤判定キャッシュ: " + ChatColor.YELLOW + verdictCache.size() + " 件" +
+                    ChatColor.WHITE + " (メモリ " + ChatColor.GREEN + verdictCache.getMemoryHits() +
+                    ChatColor.WHITE + " / チャンク保存 " + ChatColor.GREEN + verdictCache.getStoredHits() +
+                    ChatColor.WHITE + " / 走査 " + ChatColor.RED + verdictCache.getMisses() + ChatColor.WHITE + ")");
         }
     }
 
-    private String getPlayerNameFromId(String playerId) {
-        try {
-            Player player = Bukkit.getPlayer(java.util.UUID.fromString(playerId));
-            return player != null ? player.getName() : "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
+    private void handleInvalidateCommand(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("chunkdiscovery.admin")) {
+            sender.sendMessage(ChatColor.RED + "このコマンドを実行する権限がありません。");
+            return;
         }
+
+        BedrockVerdictCache verdictCache = plugin.getBedrockVerdictCache();
+        if (verdictCache == null) {
+            sender.sendMessage(ChatColor.RED + "岩盤判定キャッシュは無効化されています。");
+            return;
+        }
+
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /chunkdiscovery invalidate <ワールド名>");
+            return;
+        }
+
+        World world = Bukkit.getWorld(args[1]);
+        if (world == null) {
+            sender.sendMessage(ChatColor.RED + "ワールド '" + args[1] + "' が見つかりません。");
+            return;
+        }
+
+        int version = verdictCache.invalidateWorld(world);
+        plugin.getLogger().info("ワールド " + world.getName() + " の岩盤判定キャッシュを無効化しました (バージョン: " + version + ")");
+        sender.sendMessage(ChatColor.GREEN + "ワールド " + world.getName() + " の岩盤判定キャッシュを無効化しました。");
+    }
+
+    /**
+     * 解決済みの名前を取得（名前が記録されていないプレイヤーは "Unknown"）
+     */
+    private static String nameOf(Map<String, String> names, String playerId) {
+        return names.getOrDefault(playerId, "Unknown");
     }
 
     /**
@@ -257,9 +453,13 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            List<String> subcommands = Arrays.asList("stats", "top", "info", "check", "world");
+            List<String> subcommands = new ArrayList<>(Arrays.asList("stats", "top", "info", "check", "world"));
             if (sender.hasPermission("chunkdiscovery.reload")) {
-                subcommands = Arrays.asList("stats", "top", "info", "check", "reload", "world");
+                subcommands.add("reload");
+            }
+            if (sender.hasPermission("chunkdiscovery.admin")) {
+                subcommands.add("metrics");
+                subcommands.add("invalidate");
             }
             return subcommands.stream()
                     .filter(sub -> sub.startsWith(args[0].toLowerCase()))
@@ -273,7 +473,7 @@ public class ChunkDiscoveryCommand implements CommandExecutor, TabCompleter {
                         .map(Player::getName)
                         .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
                         .collect(Collectors.toList());
-            } else if (args[0].equalsIgnoreCase("world")) {
+            } else if (args[0].equalsIgnoreCase("world") || args[0].equalsIgnoreCase("invalidate")) {
                 // ワールド名の補完
                 return Bukkit.getWorlds().stream()
                         .map(WorldInfo::getName)
@@ -0,0 +1,161 @@
+package io.wax100.chunkDiscovery.config;
+
+import io.wax100.chunkDiscovery.config.WorldBorderConfig.WorldBorderSetting;
+import io.wax100.chunkDiscovery.manager.MilestoneConfig;
+import io.wax100.chunkDiscovery.manager.MilestoneConfig.MilestoneEntry;
+import io.wax100.chunkDiscovery.manager.RewardManager;
+import io.wax100.chunkDiscovery.model.RewardItem;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * 設定ファイルから読み込んだ内容の不変スナップショット
+ *
+ * ワールド別のボーダー設定・マイルストーン・報酬を読み込み時にまとめて構築・索引化し、
+ * 1つの volatile 参照で公開する。読み込み側は {@link #current()} を1回読むだけで、
+ * 読み込み途中の設定を参照することはない。リロード時は新しいスナップショットを構築してから差し替える。
+ *
+ * @param borders ボーダー設定
+ * @param milestones マイルストーン
+ * @param rewards 報酬
+ */
+public record ConfigSnapshot(Borders borders, Milestones milestones, Rewards rewards) {
+
+    /**
+     * 設定を読み込む前の空のスナップショット
+     */
+    public static final ConfigSnapshot EMPTY = new ConfigSnapshot(Borders.DEFAULT, Milestones.EMPTY, Rewards.EMPTY);
+
+    private static volatile ConfigSnapshot current = EMPTY;
+
+    /**
+     * 公開中のスナップショットを取得
+     */
+    public static ConfigSnapshot current() {
+        return current;
+    }
+
+    /**
+     * スナップショットを公開する（以降の読み込みはすべて新しいスナップショットを参照する）
+     */
+    public static void publish(ConfigSnapshot snapshot) {
+        current = snapshot;
+    }
+
+    /**
+     * 設定ファイルからスナップショットを構築する（公開はしない）
+     * @param config 設定ファイルのルート
+     * @param worlds ワールドタイプ別設定を適用するワールド
+     * @param logger ロガー
+     */
+    public static ConfigSnapshot load(ConfigurationSection config, Collection<? extends World> worlds, Logger logger) {
+        Borders borders = WorldBorderConfig.readSettings(config, worlds, logger);
+        Milestones milestones = MilestoneConfig.readMilestones(config, logger);
+        Rewards rewards = RewardManager.readRewards(config, logger);
+        return new ConfigSnapshot(borders, milestones != null ? milestones : Milestones.EMPTY, rewards);
+    }
+
+    /**
+     * ワールド別のボーダー設定
+     * @param defaultSetting 個別設定のないワールドの設定
+     * @param worlds ワールド名 -> 設定
+     */
+    public record Borders(WorldBorderSetting defaultSetting, Map<String, WorldBorderSetting> worlds) {
+
+        public static final Borders DEFAULT = new Borders(new WorldBorderSetting(100.0, 1.0), Map.of());
+
+        public Borders {
+            worlds = Map.copyOf(worlds);
+        }
+
+        /**
+         * ワールドの設定を取得（個別設定がない場合はデフォルト設定）
+         */
+        public WorldBorderSetting forWorld(String worldName) {
+            return worlds.getOrDefault(worldName, defaultSetting);
+        }
+    }
+
+    /**
+     * 発見数で索引化したマイルストーン
+     */
+    public static final class Milestones {
+
+        public static final Milestones EMPTY = new Milestones(List.of(), List.of());
+
+        private final List<MilestoneEntry> personal;
+        private final List<MilestoneEntry> global;
+        private final Map<Integer, MilestoneEntry> personalIndex;
+        private final Map<Integer, MilestoneEntry> globalIndex;
+
+        /**
+         * @param personal 個人マイルストーン
+         * @param global グローバルマイルストーン
+         */
+        public Milestones(List<MilestoneEntry> personal, List<MilestoneEntry> global) {
+            this.personal = sorted(personal);
+            this.global = sorted(global);
+            this.personalIndex = index(this.personal);
+            this.globalIndex = index(this.global);
+        }
+
+        private static List<MilestoneEntry> sorted(List<MilestoneEntry> entries) {
+            return entries.stream()
+                    .sorted(Comparator.comparingInt(entry -> entry.discoveryCount))
+                    .toList();
+        }
+
+        private static Map<Integer, MilestoneEntry> index(List<MilestoneEntry> entries) {
+            Map<Integer, MilestoneEntry> index = new HashMap<>();
+            for (MilestoneEntry entry : entries) {
+                // 同じ発見数が複数ある場合は最初のものを使用
+                index.putIfAbsent(entry.discoveryCount, entry);
+            }
+            return Map.copyOf(index);
+        }
+
+        /**
+         * 個人マイルストーン（発見数の昇順）
+         */
+        public List<MilestoneEntry> personal() {
+            return personal;
+        }
+
+        /**
+         * グローバルマイルストーン（発見数の昇順）
+         */
+        public List<MilestoneEntry> global() {
+            return global;
+        }
+
+        /**
+         * 発見数に一致するマイルストーンを取得
+         * @return 一致するものがない場合は null
+         */
+        public MilestoneEntry find(int discoveryCount, boolean isGlobal) {
+            return (isGlobal ? globalIndex : personalIndex).get(discoveryCount);
+        }
+    }
+
+    /**
+     * 報酬のテンプレート
+     * @param worldFirst 世界初発見時の報酬（未設定の場合は null）
+     * @param personalFirst 個人初発見時の報酬（未設定の場合は null）
+     * @param milestones 発見数 -> マイルストーン到達時の報酬
+     */
+    public record Rewards(RewardItem worldFirst, RewardItem personalFirst, Map<Integer, RewardItem> milestones) {
+
+        public static final Rewards EMPTY = new Rewards(null, null, Map.of());
+
+        public Rewards {
+            milestones = Map.copyOf(milestones);
+        }
+    }
+}
@@ -5,37 +5,104 @@ import io.wax100.chunkDiscovery.database.WorldBorderRepository;
 import io.wax100.chunkDiscovery.database.DatabaseManager;
 import org.bukkit.World;
 import org.bukkit.Location;
+import org.bukkit.WorldBorder;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.logging.Logger;
 
 /**
  * ワールド別のボーダー設定を管理するクラス（DB永続化対応）
+ *
+ * ワールド別の設定は {@link ConfigSnapshot} として読み込み・公開し、参照時は公開中のスナップショットを使用する。
+ * 現在のボーダーサイズはメモリ上に保持し、変更は {@link WorldBorderWriteBehind} で一定間隔ごとにまとめてDBへ書き込む。
+ * ワールドボーダーへの反映は {@link WorldBorderUpdateScheduler} で一定間隔ごとにまとめて行う。
  */
 public class WorldBorderConfig {
-    private static final Map<String, WorldBorderSetting> worldSettings = new HashMap<>();
-    private static WorldBorderSetting defaultSetting;
     private static ChunkDiscoveryPlugin plugin;
     private static WorldBorderRepository borderRepository;
+    private static WorldBorderWriteBehind borderState;
+    private static WorldBorderUpdateScheduler borderUpdates;
+    private static BukkitTask borderUpdateTask;
 
+    /**
+     * DB接続後に保存先を準備する（ワールドにはアクセスしないため、メインスレッド以外からも呼び出せる）
+     */
     public static void init(ChunkDiscoveryPlugin pluginInstance) {
         plugin = pluginInstance;
-        borderRepository = new WorldBorderRepository(DatabaseManager.getDataSource());
-        loadSettings();
-        applyBordersFromDatabase();
+        borderRepository = new WorldBorderRepository(DatabaseManager.getRepositoryDataSource());
+        if (borderState != null) {
+            borderState.shutdown();
+        }
+        long flushInterval = Math.max(100, plugin.getConfig().getLong("border.flush_interval_ms", 5000));
+        borderState = new WorldBorderWriteBehind(borderRepository, plugin.getLogger(), flushInterval);
+    }
+
+    /**
+     * 読み込んだボーダーサイズを反映し、ボーダー拡張の適用を開始する（メインスレッドから呼び出す）
+     * @param savedSizes {@link #readBorderSizes} の結果（読み込みに失敗した場合は null）
+     */
+    public static void start(Map<String, Double> savedSizes) {
+        if (savedSizes != null) {
+            applyBorders(savedSizes);
+        } else {
+            // DBから読み込めなかった場合は設定ファイルの初期値を適用
+            applyInitialBorders();
+        }
+        startBorderUpdates();
     }
 
-    private static void loadSettings() {
-        worldSettings.clear();
+    /**
+     * ボーダー拡張の適用を一定間隔ごとに実行する
+     */
+    private static void startBorderUpdates() {
+        if (borderUpdateTask != null) {
+            borderUpdateTask.cancel();
+        }
+        long windowTicks = Math.max(1, plugin.getConfig().getLong("border.update_window_ticks", 20));
+        long animationSeconds = Math.max(0, plugin.getConfig().getLong("border.animation_seconds", 1));
+        borderUpdates = new WorldBorderUpdateScheduler(plugin.getServer()::getWorld, animationSeconds);
+        borderUpdateTask = plugin.getServer().getScheduler().runTaskTimer(plugin, borderUpdates, windowTicks, windowTicks);
+    }
+
+    /**
+     * 書き込み待ちのボーダーサイズをDBへ書き込み、書き込みスレッドを停止する（プラグイン無効化時）
+     */
+    public static void shutdown() {
+        if (borderUpdateTask != null) {
+            borderUpdateTask.cancel();
+            borderUpdateTask = null;
+        }
+        if (borderUpdates != null) {
+            // 適用待ちの拡張はアニメーションせずに反映する
+            borderUpdates.flush();
+            borderUpdates = null;
+        }
+        if (borderState != null) {
+            borderState.shutdown();
+            borderState = null;
+        }
+    }
+
+    /**
+     * 設定ファイルからワールド別のボーダー設定を読み込む
+     * @param config 設定ファイルのルート
+     * @param worlds ワールドタイプ別設定を適用するワールド
+     * @param logger ロガー
+     */
+    static ConfigSnapshot.Borders readSettings(ConfigurationSection config, Collection<? extends World> worlds, Logger logger) {
+        Map<String, WorldBorderSetting> worldSettings = new HashMap<>();
 
         // デフォルト設定を読み込み
-        double defaultInitSize = plugin.getConfig().getDouble("border.initial_size", 100.0);
-        double defaultPerChunk = plugin.getConfig().getDouble("border.expansion_per_chunk", 1.0);
-        defaultSetting = new WorldBorderSetting(defaultInitSize, defaultPerChunk);
+        double defaultInitSize = config.getDouble("border.initial_size", 100.0);
+        double defaultPerChunk = config.getDouble("border.expansion_per_chunk", 1.0);
+        WorldBorderSetting defaultSetting = new WorldBorderSetting(defaultInitSize, defaultPerChunk);
 
         // ワールド別設定を読み込み
-        ConfigurationSection worldSection = plugin.getConfig().getConfigurationSection("border.worlds");
+        ConfigurationSection worldSection = config.getConfigurationSection("border.worlds");
         if (worldSection != null) {
             for (String worldName : worldSection.getKeys(false)) {
                 ConfigurationSection settings = worldSection.getConfigurationSection(worldName);
@@ -48,7 +115,7 @@ public class WorldBorderConfig {
         }
 
         // ワールドタイプ別設定を読み込み
-        ConfigurationSection typeSection = plugin.getConfig().getConfigurationSection("border.world_types");
+        ConfigurationSection typeSection = config.getConfigurationSection("border.world_types");
         if (typeSection != null) {
             for (String typeName : typeSection.getKeys(false)) {
                 ConfigurationSection settings = typeSection.getConfigurationSection(typeName);
@@ -57,7 +124,7 @@ public class WorldBorderConfig {
                     double perChunk = settings.getDouble("expansion_per_chunk", defaultPerChunk);
 
                     // 該当するワールドタイプの全ワールドに適用
-                    for (World world : plugin.getServer().getWorlds()) {
+                    for (World world : worlds) {
                         if (matchesWorldType(world, typeName)) {
                             // 個別設定がない場合のみタイプ設定を適用
                             if (!worldSettings.containsKey(world.getName())) {
@@ -69,7 +136,8 @@ public class WorldBorderConfig {
             }
         }
 
-        plugin.getLogger().info("ワールドボーダー設定を読み込みました。設定済みワールド数: " + worldSettings.size());
+        logger.info("ワールドボーダー設定を読み込みました。設定済みワールド数: " + worldSettings.size());
+        return new ConfigSnapshot.Borders(defaultSetting, worldSettings);
     }
 
     private static boolean matchesWorldType(World world, String typeName) {
@@ -82,39 +150,76 @@ public class WorldBorderConfig {
     }
 
     /**
-     * データベースから保存されたボーダーサイズを復元
+     * データベースから保存されたボーダーサイズを読み込む（メインスレッド以外から呼び出す）
+     *
+     * 保存されていないワールドは設定ファイルの初期値をDBに登録する（戻り値には含めない）。
+     * @param worldNames 対象ワールド名
+     * @param borders 初期値の算出に使用するボーダー設定
+     * @return ワールド名 -> 保存されていたボーダーサイズ
      */
-    private static void applyBordersFromDatabase() {
-        try {
-            Map<String, Double> savedBorders = borderRepository.getAllBorderSizes();
-
-            for (World world : plugin.getServer().getWorlds()) {
-                String worldName = world.getName();
-                Double savedSize = savedBorders.get(worldName);
-
-                // スポーン地点を取得してボーダーの中心に設定
-                Location spawnLocation = world.getSpawnLocation();
-                world.getWorldBorder().setCenter(spawnLocation.getX(), spawnLocation.getZ());
-                
-                if (savedSize != null) {
-                    // 保存されたサイズがある場合は復元
-                    world.getWorldBorder().setSize(savedSize);
+    public static Map<String, Double> readBorderSizes(Collection<String> worldNames, ConfigSnapshot.Borders borders) {
+        Map<String, Double> savedSizes = borderRepository.getAllBorderSizes();
+        for (String worldName : worldNames) {
+            if (!savedSizes.containsKey(worldName)) {
+                borderRepository.initializeBorderIfAbsent(worldName, borders.forWorld(worldName).initialSize());
+            }
+        }
+        return savedSizes;
+    }
+
+    /**
+     * 読み込んだボーダーサイズをワールドボーダーに反映する（メインスレッドから呼び出す、DBにはアクセスしない）
+     *
+     * 書き込み待ちの変更があるワールドはメモリ上の値を、記録がないワールドは公開中の設定の初期値を使用する。
+     * @param savedSizes ワールド名 -> DBに保存されていたボーダーサイズ
+     */
+    public static void applyBorders(Map<String, Double> savedSizes) {
+        borderState.load(savedSizes);
+        reapplyBorders();
+    }
+
+    /**
+     * メモリ上のボーダーサイズをワールドボーダーに反映する（メインスレッドから呼び出す、DBにはアクセスしない）
+     *
+     * 設定のリロード時は DB を読み直さずにこちらを使用する。サイズが変わらないワールドは
+     * {@link WorldBorder#setSize} を呼ばないため、進行中のボーダー拡張のアニメーションは中断されない。
+     */
+    public static void reapplyBorders() {
+        for (World world : plugin.getServer().getWorlds()) {
+            String worldName = world.getName();
+            Double savedSize = borderState.getSize(worldName);
+
+            // スポーン地点を取得してボーダーの中心に設定
+            Location spawnLocation = world.getSpawnLocation();
+            world.getWorldBorder().setCenter(spawnLocation.getX(), spawnLocation.getZ());
+
+            if (savedSize != null) {
+                // 保存されたサイズがある場合は復元
+                if (resize(world.getWorldBorder(), savedSize)) {
                     plugin.getLogger().info("ワールド " + worldName + " のボーダーサイズを復元しました: " + savedSize + " (中心: " + spawnLocation.getX() + ", " + spawnLocation.getZ() + ")");
-                } else {
-                    // 保存されたサイズがない場合は初期サイズを設定してDBに保存
-                    WorldBorderSetting setting = getSettingForWorld(worldName);
-                    world.getWorldBorder().setSize(setting.initialSize());
-                    borderRepository.initializeBorderIfAbsent(worldName, setting.initialSize());
-                    plugin.getLogger().info("ワールド " + worldName + " のボーダーサイズを初期化しました: " + setting.initialSize() + " (中心: " + spawnLocation.getX() + ", " + spawnLocation.getZ() + ")");
                 }
+            } else {
+                // 保存されたサイズがない場合は初期サイズを設定（DBへの登録は読み込み時、または次回の拡張時に行われる）
+                WorldBorderSetting setting = getSettingForWorld(worldName);
+                resize(world.getWorldBorder(), setting.initialSize());
+                borderState.load(Map.of(worldName, setting.initialSize()));
+                plugin.getLogger().info("ワールド " + worldName + " のボーダーサイズを初期化しました: " + setting.initialSize() + " (中心: " + spawnLocation.getX() + ", " + spawnLocation.getZ() + ")");
             }
-        } catch (Exception e) {
-            plugin.getLogger().severe("データベースからのボーダーサイズ復元中にエラーが発生しました: " + e.getMessage());
-            // エラー時は設定ファイルの初期値を適用
-            applyInitialBorders();
         }
     }
 
+    /**
+     * ボーダーのサイズを設定する（現在のサイズと同じ場合は設定しない）
+     * @return サイズを変更した場合 true
+     */
+    private static boolean resize(WorldBorder border, double size) {
+        if (border.getSize() == size) {
+            return false;
+        }
+        border.setSize(size);
+        return true;
+    }
+
     /**
      * 設定ファイルの初期値でボーダーを設定（フォールバック用）
      */
@@ -142,18 +247,24 @@ public class WorldBorderConfig {
     }
 
     /**
-     * ワールドボーダーサイズを更新してDBに保存
+     * ワールドボーダーサイズを更新し、DBへの書き込み待ちに記録する
+     *
+     * ワールドボーダーへの反映・DBへの書き込みはいずれも一定間隔ごとにまとめて行う。
      * @param world 対象ワールド
      * @param newSize 新しいボーダーサイズ
      * @param totalChunks 発見済みチャンク総数
      */
     public static void updateBorderSize(World world, double newSize, int totalChunks) {
         try {
-            // ワールドボーダーを更新
-            world.getWorldBorder().setSize(newSize);
+            // ワールドボーダーの拡張を予約（スケジューラー未起動の場合は即座に反映）
+            if (borderUpdates != null) {
+                borderUpdates.request(world.getName(), newSize);
+            } else {
+                world.getWorldBorder().setSize(newSize);
+            }
 
-            // データベースに保存
-            borderRepository.saveBorderSize(world.getName(), newSize, totalChunks);
+            // メモリ上の値を更新（DBへの書き込みは書き込みスレッドで行う）
+            borderState.update(world.getName(), newSize, totalChunks);
 
             plugin.getLogger().fine("ワールド " + world.getName() + " のボーダーサイズを更新しました: " + newSize + " (チャンク数: " + totalChunks + ")");
         } catch (Exception e) {
@@ -162,18 +273,15 @@ public class WorldBorderConfig {
     }
 
     /**
-     * ワールドの現在のボーダーサイズをDBから取得
+     * ワールドの現在のボーダーサイズを取得（DBにはアクセスしない）
      * @param worldName ワールド名
-     * @return 保存されたボーダーサイズ（存在しない場合は設定ファイルの初期値）
+     * @return 現在のボーダーサイズ（記録がない場合は設定ファイルの初期値）
      */
     public static double getCurrentBorderSize(String worldName) {
-        try {
-            Double savedSize = borderRepository.getBorderSize(worldName);
-            if (savedSize != null) {
-                return savedSize;
-            }
-        } catch (Exception e) {
-            plugin.getLogger().warning("ボーダーサイズ取得中にエラーが発生しました: " + e.getMessage());
+        WorldBorderWriteBehind state = borderState;
+        Double size = state != null ? state.getSize(worldName) : null;
+        if (size != null) {
+            return size;
         }
 
         // フォールバック：設定ファイルの初期値を返す
@@ -181,16 +289,25 @@ public class WorldBorderConfig {
         return setting.initialSize();
     }
 
-    public static WorldBorderSetting getSettingForWorld(String worldName) {
-        return worldSettings.getOrDefault(worldName, defaultSetting);
+    /**
+     * ボーダー拡張の適用状況を取得（統計表示用、未初期化の場合は null）
+     */
+    public static WorldBorderUpdateScheduler getBorderUpdates() {
+        return borderUpdates;
     }
 
     /**
-     * 設定とDBからのボーダー復元
+     * ボーダーサイズの保持・書き込み状況を取得（統計表示用、未初期化の場合は null）
      */
-    public static void reloadSettings() {
-        loadSettings();
-        applyBordersFromDatabase();
+    public static WorldBorderWriteBehind getBorderState() {
+        return borderState;
+    }
+
+    /**
+     * ワールドのボーダー設定を取得（公開中の設定スナップショットを参照する）
+     */
+    public static WorldBorderSetting getSettingForWorld(String worldName) {
+        return ConfigSnapshot.current().borders().forWorld(worldName);
     }
 
     /**
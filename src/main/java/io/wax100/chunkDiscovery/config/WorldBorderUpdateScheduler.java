@@ -0,0 +1,104 @@
+package io.wax100.chunkDiscovery.config;
+
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ワールドボーダーの拡張をまとめて適用するスケジューラー（メインスレッドで一定間隔ごとに実行）
+ *
+ * 発見ごとの拡張要求はワールドごとの目標サイズ（最大値）として溜め、実行間隔ごとに1回だけ
+ * {@link WorldBorder#setSize(double, long)} で目標サイズまで滑らかに拡張する。
+ * ボーダーの更新パケットは発見の頻度にかかわらずワールドごとに実行間隔あたり最大1回になる。
+ */
+public class WorldBorderUpdateScheduler implements Runnable {
+    private final Function<String, World> worldLookup;
+    private final long animationSeconds;
+
+    private final Map<String, Double> targets = new ConcurrentHashMap<>();
+    private final Map<String, Double> applied = new HashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+
+    /**
+     * @param worldLookup ワールド名からワールドを取得する関数
+     * @param animationSeconds 拡張にかける秒数（0 の場合は即座に変更）
+     */
+    public WorldBorderUpdateScheduler(Function<String, World> worldLookup, long animationSeconds) {
+        this.worldLookup = worldLookup;
+        this.animationSeconds = animationSeconds;
+    }
+
+    /**
+     * ボーダーの目標サイズを記録する（次回の実行時に適用）
+     */
+    public void request(String worldName, double size) {
+        targets.merge(worldName, size, Math::max);
+        requests.increment();
+    }
+
+    /**
+     * 溜まっている目標サイズをアニメーション付きで適用する
+     */
+    @Override
+    public void run() {
+        apply(animationSeconds);
+    }
+
+    /**
+     * 溜まっている目標サイズを即座に適用する（プラグイン無効化時）
+     */
+    public void flush() {
+        apply(0);
+    }
+
+    private void apply(long seconds) {
+        Iterator<Map.Entry<String, Double>> it = targets.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Double> entry = it.next();
+            it.remove();
+            String worldName = entry.getKey();
+            double target = entry.getValue();
+
+            World world = worldLookup.apply(worldName);
+            if (world == null) {
+                continue;
+            }
+            Double last = applied.get(worldName);
+            if (last != null && last >= target && seconds > 0) {
+                continue;
+            }
+
+            WorldBorder border = world.getWorldBorder();
+            if (seconds > 0) {
+                border.setSize(target, seconds);
+            } else {
+                border.setSize(target);
+            }
+            applied.put(worldName, target);
+            updates.increment();
+        }
+    }
+
+    /**
+     * 適用を待っているワールド数を取得
+     */
+    public int getPendingCount() {
+        return targets.size();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getUpdateCount() {
+        return updates.sum();
+    }
+}
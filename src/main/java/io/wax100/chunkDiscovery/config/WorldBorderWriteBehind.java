@@ -0,0 +1,173 @@
+package io.wax100.chunkDiscovery.config;
+
+import io.wax100.chunkDiscovery.database.WorldBorderRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * ワールドごとのボーダーサイズをメモリ上に保持し、変更をまとめてDBへ書き込む
+ *
+ * 読み取りはすべてメモリ上の値から返す。更新は書き込み待ちとして記録し、
+ * 一定間隔（flushIntervalMillis）ごとに専用スレッドからワールドごとに最新の値を1回だけ書き込む。
+ * 停止時には残っている変更を書き込む。
+ */
+public class WorldBorderWriteBehind {
+    private final WorldBorderRepository repository;
+    private final Logger logger;
+    private final ScheduledExecutorService flusher;
+
+    private final Map<String, BorderState> states = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private Map<String, BorderState> dirty = new HashMap<>();
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    /**
+     * ワールドのボーダーサイズと、その時点の発見済みチャンク総数
+     */
+    public record BorderState(double size, int totalChunks) {}
+
+    /**
+     * @param repository 書き込み先
+     * @param logger ロガー
+     * @param flushIntervalMillis 書き込み間隔（ミリ秒）
+     */
+    public WorldBorderWriteBehind(WorldBorderRepository repository, Logger logger, long flushIntervalMillis) {
+        this.repository = repository;
+        this.logger = logger;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ChunkDiscovery-BorderWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * DBから読み込んだサイズを反映する
+     *
+     * 書き込み待ちの変更があるワールドはそちらを残し、メモリ上のサイズの方が大きいワールドは縮小しない
+     * （読み込み後に書き込まれた拡張を古い値で巻き戻さないため）。
+     */
+    public void load(Map<String, Double> sizes) {
+        synchronized (lock) {
+            sizes.forEach((worldName, size) -> {
+                if (dirty.containsKey(worldName)) {
+                    return;
+                }
+                BorderState current = states.get(worldName);
+                if (current == null) {
+                    states.put(worldName, new BorderState(size, 0));
+                } else if (size > current.size()) {
+                    states.put(worldName, new BorderState(size, current.totalChunks()));
+                }
+            });
+        }
+    }
+
+    /**
+     * ボーダーサイズを更新し、書き込み待ちとして記録する
+     *
+     * 発見済みチャンク総数が記録済みの値より少ない（古い）更新は無視する。
+     * @return 更新した場合 true
+     */
+    public boolean update(String worldName, double size, int totalChunks) {
+        BorderState state = new BorderState(size, totalChunks);
+        synchronized (lock) {
+            BorderState current = states.get(worldName);
+            if (current != null && current.totalChunks() > totalChunks) {
+                return false;
+            }
+            states.put(worldName, state);
+            dirty.put(worldName, state);
+        }
+        updates.increment();
+        return true;
+    }
+
+    /**
+     * メモリ上のボーダーサイズを取得
+     * @return 記録がない場合は null
+     */
+    public Double getSize(String worldName) {
+        BorderState state = states.get(worldName);
+        return state != null ? state.size() : null;
+    }
+
+    /**
+     * 全ワールドのメモリ上のボーダーサイズを取得
+     */
+    public Map<String, Double> getSizes() {
+        Map<String, Double> sizes = new HashMap<>();
+        states.forEach((worldName, state) -> sizes.put(worldName, state.size()));
+        return sizes;
+    }
+
+    /**
+     * 書き込み待ちの変更を書き込む（書き込みスレッド、または停止時に呼び出し元スレッドで実行）
+     */
+    void flush() {
+        Map<String, BorderState> batch;
+        synchronized (lock) {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            batch = dirty;
+            dirty = new HashMap<>();
+        }
+
+        for (Map.Entry<String, BorderState> entry : batch.entrySet()) {
+            String worldName = entry.getKey();
+            BorderState state = entry.getValue();
+            try {
+                repository.saveBorderSize(worldName, state.size(), state.totalChunks());
+                writes.increment();
+            } catch (Exception e) {
+                logger.warning("ワールド " + worldName + " のボーダーサイズ保存に失敗しました。次回の書き込みで再試行します: " + e.getMessage());
+                synchronized (lock) {
+                    dirty.putIfAbsent(worldName, state);
+                }
+            }
+        }
+    }
+
+    /**
+     * 書き込みスレッドを停止し、残っている変更を書き込む（プラグイン無効化時）
+     */
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("ボーダー書き込みスレッドの停止待ちがタイムアウトしました。");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * 書き込み待ちのワールド数を取得
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return dirty.size();
+        }
+    }
+
+    public long getUpdateCount() {
+        return updates.sum();
+    }
+
+    public long getWriteCount() {
+        return writes.sum();
+    }
+}
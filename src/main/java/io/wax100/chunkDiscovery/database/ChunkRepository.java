@@ -1,17 +1,34 @@
 package io.wax100.chunkDiscovery.database;
 
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.UuidBytes;
 import org.bukkit.Chunk;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ChunkRepository {
     private final DataSource ds;
+    private final WorldDictionary worlds;
+    private final SchemaLayout layout;
 
     public ChunkRepository(DataSource ds) {
+        this(ds, new WorldDictionary(ds));
+    }
+
+    public ChunkRepository(DataSource ds, WorldDictionary worlds) {
+        this(ds, worlds, new SchemaLayout());
+    }
+
+    public ChunkRepository(DataSource ds, WorldDictionary worlds, SchemaLayout layout) {
         this.ds = ds;
+        this.worlds = worlds;
+        this.layout = layout;
     }
 
     /**
@@ -22,19 +39,16 @@ public class ChunkRepository {
      */
     public boolean saveIfAbsent(Chunk chunk, String playerId) {
         String world = chunk.getWorld().getName();
-        int x = chunk.getX(), z = chunk.getZ();
-        String sql = "INSERT IGNORE INTO global_chunks(world, chunk_x, chunk_z, discovered_by) VALUES(?,?,?,?)";
+        int worldId = worlds.idOf(world);
 
-        try (Connection conn = ds.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, world);
-            ps.setInt(2, x);
-            ps.setInt(3, z);
-            ps.setString(4, playerId);
-            int affected = ps.executeUpdate();
-            return affected > 0;
+        layout.enter();
+        try (Connection conn = ds.getConnection()) {
+            return layout.insertGlobal(conn, List.of(
+                    new SchemaLayout.ChunkRow(playerId, world, worldId, chunk.getX(), chunk.getZ())))[0];
         } catch (SQLException e) {
             throw new RuntimeException("グローバルチャンク保存中にエラーが発生しました", e);
+        } finally {
+            layout.exit();
         }
     }
 
@@ -61,11 +75,15 @@ public class ChunkRepository {
      * @return 該当ワールドの発見済みチャンク総数
      */
     public int getTotalDiscoveredChunksByWorld(String worldName) {
-        String sql = "SELECT COUNT(*) as total FROM global_chunks WHERE world = ?";
+        int worldId = worlds.findId(worldName);
+        if (worldId == WorldDictionary.UNKNOWN) {
+            return 0;
+        }
+        String sql = "SELECT COUNT(*) as total FROM global_chunks WHERE world_id = ?";
 
         try (Connection conn = ds.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, worldName);
+            ps.setInt(1, worldId);
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next() ? rs.getInt("total") : 0;
             }
@@ -74,19 +92,56 @@ public class ChunkRepository {
         }
     }
 
+    /**
+     * ワールドごとの発見済みチャンク数を一括取得（カウンターの読み込み・補正用）
+     * @return ワールド名 -> 発見済みチャンク数
+     */
+    public Map<String, Integer> getDiscoveredChunkCountsByWorld() {
+        layout.enter();
+        try {
+            if (layout.isGlobalV1()) {
+                try (Connection conn = ds.getConnection()) {
+                    return layout.globalCountsV1(conn);
+                }
+            }
+            return countByWorldId();
+        } catch (SQLException e) {
+            throw new RuntimeException("ワールド別統計取得中にエラーが発生しました", e);
+        } finally {
+            layout.exit();
+        }
+    }
+
+    private Map<String, Integer> countByWorldId() throws SQLException {
+        String sql = "SELECT world_id, COUNT(*) as total FROM global_chunks GROUP BY world_id";
+        Map<String, Integer> counts = new HashMap<>();
+
+        try (Connection conn = ds.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                counts.put(worlds.nameOf(rs.getInt("world_id")), rs.getInt("total"));
+            }
+            return counts;
+        }
+    }
+
     /**
      * 特定のチャンクが既に発見されているかチェック
      * @param chunk チェック対象のチャンク
      * @return 発見済みならtrue
      */
     public boolean isChunkDiscovered(Chunk chunk) {
-        String sql = "SELECT 1 FROM global_chunks WHERE world = ? AND chunk_x = ? AND chunk_z = ? LIMIT 1";
+        int worldId = worlds.findId(chunk.getWorld().getName());
+        if (worldId == WorldDictionary.UNKNOWN) {
+            return false;
+        }
+        String sql = "SELECT 1 FROM global_chunks WHERE world_id = ? AND chunk_key = ? LIMIT 1";
 
         try (Connection conn = ds.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, chunk.getWorld().getName());
-            ps.setInt(2, chunk.getX());
-            ps.setInt(3, chunk.getZ());
+            ps.setInt(1, worldId);
+            ps.setLong(2, ChunkKey.of(chunk));
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next();
             }
@@ -105,7 +160,7 @@ public class ChunkRepository {
 
         try (Connection conn = ds.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, playerId);
+            ps.setBytes(1, UuidBytes.toBytes(playerId));
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next() ? rs.getInt("total") : 0;
             }
@@ -120,7 +175,7 @@ public class ChunkRepository {
      * @return 最近発見されたチャンクの情報
      */
     public java.util.List<io.wax100.chunkDiscovery.model.DiscoveredChunk> getRecentDiscoveries(int limit) {
-        String sql = "SELECT world, chunk_x, chunk_z, discovered_by, discovered_at " +
+        String sql = "SELECT world_id, chunk_key, discovered_by, discovered_at " +
                 "FROM global_chunks ORDER BY discovered_at DESC LIMIT ?";
 
         java.util.List<io.wax100.chunkDiscovery.model.DiscoveredChunk> discoveries = new java.util.ArrayList<>();
@@ -130,11 +185,12 @@ public class ChunkRepository {
             ps.setInt(1, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
+                    long key = rs.getLong("chunk_key");
                     discoveries.add(new io.wax100.chunkDiscovery.model.DiscoveredChunk(
-                            rs.getString("world"),
-                            rs.getInt("chunk_x"),
-                            rs.getInt("chunk_z"),
-                            rs.getString("discovered_by"),
+                            worlds.nameOf(rs.getInt("world_id")),
+                            ChunkKey.x(key),
+                            ChunkKey.z(key),
+                            UuidBytes.toString(rs.getBytes("discovered_by")),
                             rs.getTimestamp("discovered_at").toLocalDateTime()
                     ));
                 }
@@ -0,0 +1,276 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.RegionBitmap;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 複数のチャンク発見をまとめてDBに書き込むリポジトリ
+ *
+ * 1回の書き込みは1コネクション・1トランザクションで行う。
+ * - global_chunks は INSERT IGNORE のバッチ実行（ワールドID・パック済みキーで保存）。
+ *   世界初の判定は行ごとの更新件数から行うため、同じDBに書き込む他のサーバーや
+ *   {@link DiscoveryCommit} と同時に書き込んでも、世界初になるのは1件だけ
+ * - player_regions は対象リージョンの行をまとめてロックし、ビットを立てたビットマップを書き戻す
+ * - players.total_chunks / player_world_stats.chunk_count は +k をバッチ実行
+ *
+ * スキーマ移行中は {@link SchemaLayout} に従い、入れ替え前のテーブルで世界初・個人初を判定する。
+ */
+public class DiscoveryBatchRepository {
+    private final DataSource ds;
+    private final WorldDictionary worlds;
+    private final SchemaLayout layout;
+
+    public DiscoveryBatchRepository(DataSource ds) {
+        this(ds, new WorldDictionary(ds));
+    }
+
+    public DiscoveryBatchRepository(DataSource ds, WorldDictionary worlds) {
+        this(ds, worlds, new SchemaLayout());
+    }
+
+    public DiscoveryBatchRepository(DataSource ds, WorldDictionary worlds, SchemaLayout layout) {
+        this.ds = ds;
+        this.worlds = worlds;
+        this.layout = layout;
+    }
+
+    /**
+     * 書き込み対象の発見
+     */
+    public record Entry(String playerId, String world, int chunkX, int chunkZ) {}
+
+    /**
+     * 書き込み結果（entries と同じ順序で返す）
+     * @param globalFirst 世界初発見か
+     * @param personalFirst 個人初発見か
+     * @param totalChunks 個人初発見時点のプレイヤー発見総数（個人初発見でない場合は0）
+     * @param worldChunks 個人初発見時点のワールド別発見数（個人初発見でない場合は0）
+     */
+    public record Outcome(boolean globalFirst, boolean personalFirst, int totalChunks, int worldChunks) {}
+
+    /**
+     * 発見をまとめて書き込む
+     *
+     * 同じバッチ内では先に並んでいる発見が優先される（世界初・個人初の判定）。
+     * @param entries 書き込む発見（発生順）
+     * @return 各発見の判定結果
+     */
+    public List<Outcome> commit(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        int[] worldIds = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            worldIds[i] = worlds.idOf(entries.get(i).world());
+        }
+
+        layout.enter();
+        try (Connection conn = ds.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<Outcome> outcomes = commit(conn, entries, worldIds);
+                conn.commit();
+                return outcomes;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("チャンク発見の一括書き込み中にエラーが発生しました", e);
+        } finally {
+            layout.exit();
+        }
+    }
+
+    private List<Outcome> commit(Connection conn, List<Entry> entries, int[] worldIds) throws SQLException {
+        List<SchemaLayout.ChunkRow> rows = rows(entries, worldIds);
+        boolean[] globalFirst = layout.insertGlobal(conn, rows);
+        Map<PlayerRegions.Region, byte[]> regions = PlayerRegions.lock(conn, personalRegions(entries, worldIds));
+        Map<PlayerRegions.Region, byte[]> changedRegions = new HashMap<>();
+
+        // バッチ内の重複を除きつつ、個人初を判定
+        boolean[] personalFirst = new boolean[entries.size()];
+        Map<String, Integer> increments = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry e = entries.get(i);
+            PlayerRegions.Region region = PlayerRegions.Region.of(e.playerId(), worldIds[i], e.chunkX(), e.chunkZ());
+            byte[] bitmap = regions.get(region);
+            personalFirst[i] = RegionBitmap.set(bitmap, RegionBitmap.bitIndex(e.chunkX(), e.chunkZ()));
+            if (personalFirst[i]) {
+                changedRegions.put(region, bitmap);
+                increments.merge(e.playerId(), 1, Integer::sum);
+            }
+        }
+
+        PlayerRegions.update(conn, changedRegions);
+        if (layout.playerChunks() != SchemaLayout.PlayerChunks.NONE) {
+            // player_regions は移行途中のため、入れ替え前の player_chunks で個人初を判定する
+            personalFirst = layout.insertPlayerChunks(conn, rows);
+            increments.clear();
+            for (int i = 0; i < entries.size(); i++) {
+                if (personalFirst[i]) {
+                    increments.merge(entries.get(i).playerId(), 1, Integer::sum);
+                }
+            }
+        }
+        if (increments.isEmpty()) {
+            List<Outcome> outcomes = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                outcomes.add(new Outcome(globalFirst[i], false, 0, 0));
+            }
+            return outcomes;
+        }
+
+        Map<String, Integer> worldIncrements = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (personalFirst[i]) {
+                worldIncrements.merge(worldKey(entries.get(i)), 1, Integer::sum);
+            }
+        }
+
+        incrementTotals(conn, increments);
+        incrementWorldStats(conn, entries, personalFirst);
+        Map<String, Integer> totals = selectTotals(conn, increments.keySet());
+        Map<String, Integer> worldCounts = selectWorldCounts(conn, increments.keySet());
+
+        // 書き込み後の値から、各発見時点の値を逆算する（バッチ内の順序どおりに加算）
+        Map<String, Integer> totalCursor = new HashMap<>();
+        Map<String, Integer> worldCursor = new HashMap<>();
+
+        List<Outcome> outcomes = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry e = entries.get(i);
+            if (!personalFirst[i]) {
+                outcomes.add(new Outcome(globalFirst[i], false, 0, 0));
+                continue;
+            }
+            String worldKey = worldKey(e);
+            int total = totalCursor.merge(e.playerId(),
+                    totals.getOrDefault(e.playerId(), 0) - increments.get(e.playerId()) + 1,
+                    (current, ignored) -> current + 1);
+            int world = worldCursor.merge(worldKey,
+                    worldCounts.getOrDefault(worldKey, 0) - worldIncrements.get(worldKey) + 1,
+                    (current, ignored) -> current + 1);
+            outcomes.add(new Outcome(globalFirst[i], true, total, world));
+        }
+        return outcomes;
+    }
+
+    private static List<SchemaLayout.ChunkRow> rows(List<Entry> entries, int[] worldIds) {
+        List<SchemaLayout.ChunkRow> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry e = entries.get(i);
+            rows.add(new SchemaLayout.ChunkRow(e.playerId(), e.world(), worldIds[i], e.chunkX(), e.chunkZ()));
+        }
+        return rows;
+    }
+
+    private static Set<PlayerRegions.Region> personalRegions(List<Entry> entries, int[] worldIds) {
+        Set<PlayerRegions.Region> regions = new LinkedHashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry e = entries.get(i);
+            regions.add(PlayerRegions.Region.of(e.playerId(), worldIds[i], e.chunkX(), e.chunkZ()));
+        }
+        return regions;
+    }
+
+    private void incrementTotals(Connection conn, Map<String, Integer> increments) throws SQLException {
+        String sql = "INSERT INTO players(player_id, total_chunks) VALUES(?, ?) " +
+                "ON DUPLICATE KEY UPDATE total_chunks = total_chunks + VALUES(total_chunks)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, Integer> e : increments.entrySet()) {
+                ps.setString(1, e.getKey());
+                ps.setInt(2, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void incrementWorldStats(Connection conn, List<Entry> entries, boolean[] personalFirst) throws SQLException {
+        Map<List<String>, Integer> increments = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (personalFirst[i]) {
+                increments.merge(List.of(entries.get(i).playerId(), entries.get(i).world()), 1, Integer::sum);
+            }
+        }
+
+        String sql = "INSERT INTO player_world_stats(player_id, world, chunk_count) VALUES(?,?,?) " +
+                "ON DUPLICATE KEY UPDATE chunk_count = chunk_count + VALUES(chunk_count)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Map.Entry<List<String>, Integer> e : increments.entrySet()) {
+                ps.setString(1, e.getKey().get(0));
+                ps.setString(2, e.getKey().get(1));
+                ps.setInt(3, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private Map<String, Integer> selectTotals(Connection conn, Set<String> playerIds) throws SQLException {
+        String sql = "SELECT player_id, total_chunks FROM players WHERE player_id IN (" +
+                repeat("?", ",", playerIds.size()) + ")";
+        Map<String, Integer> totals = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int idx = 1;
+            for (String playerId : playerIds) {
+                ps.setString(idx++, playerId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(rs.getString("player_id"), rs.getInt("total_chunks"));
+                }
+            }
+        }
+        return totals;
+    }
+
+    private Map<String, Integer> selectWorldCounts(Connection conn, Set<String> playerIds) throws SQLException {
+        String sql = "SELECT player_id, world, chunk_count FROM player_world_stats WHERE player_id IN (" +
+                repeat("?", ",", playerIds.size()) + ")";
+        Map<String, Integer> counts = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int idx = 1;
+            for (String playerId : playerIds) {
+                ps.setString(idx++, playerId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getString("player_id") + '/' + rs.getString("world"), rs.getInt("chunk_count"));
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static String worldKey(Entry e) {
+        return e.playerId() + '/' + e.world();
+    }
+
+    private static String repeat(String part, String separator, int times) {
+        StringBuilder sb = new StringBuilder(times * (part.length() + separator.length()));
+        for (int i = 0; i < times; i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(part);
+        }
+        return sb.toString();
+    }
+}
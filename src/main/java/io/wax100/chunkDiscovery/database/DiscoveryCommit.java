@@ -0,0 +1,143 @@
+package io.wax100.chunkDiscovery.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 1件のチャンク発見を1コネクション・1トランザクションで確定するクラス
+ *
+ * ChunkRepository / PlayerRepository を個別に呼び出すと1件の発見で4回コネクションを借りるため、
+ * 発見処理に必要な書き込みと集計をまとめて実行し、結果を1行で返す。
+ * スキーマ移行中は {@link SchemaLayout} に従い、入れ替え前のテーブルで世界初・個人初を判定する。
+ */
+public class DiscoveryCommit {
+    private static final String INCREMENT_TOTAL =
+            "INSERT INTO players(player_id, total_chunks) VALUES(?, 1) " +
+            "ON DUPLICATE KEY UPDATE total_chunks = total_chunks + 1";
+    private static final String SELECT_COUNTS =
+            "SELECT (SELECT total_chunks FROM players WHERE player_id = ?) AS total_chunks, " +
+            "(SELECT chunk_count FROM player_world_stats WHERE player_id = ? AND world = ?) AS world_chunks";
+
+    private final DataSource ds;
+    private final WorldDictionary worlds;
+    private final SchemaLayout layout;
+
+    public DiscoveryCommit(DataSource ds) {
+        this(ds, new WorldDictionary(ds));
+    }
+
+    public DiscoveryCommit(DataSource ds, WorldDictionary worlds) {
+        this(ds, worlds, new SchemaLayout());
+    }
+
+    public DiscoveryCommit(DataSource ds, WorldDictionary worlds, SchemaLayout layout) {
+        this.ds = ds;
+        this.worlds = worlds;
+        this.layout = layout;
+    }
+
+    /**
+     * 発見の確定結果
+     * @param globalFirst 世界初発見か
+     * @param personalFirst 個人初発見か
+     * @param totalChunks プレイヤーの発見総数
+     * @param worldChunks プレイヤーのワールド別発見数
+     */
+    public record Result(boolean globalFirst, boolean personalFirst, int totalChunks, int worldChunks) {}
+
+    /**
+     * チャンク発見を確定する
+     * @param playerId 発見者のUUID
+     * @param world ワールド名
+     * @param chunkX チャンクX座標
+     * @param chunkZ チャンクZ座標
+     * @return 確定結果
+     */
+    public Result execute(String playerId, String world, int chunkX, int chunkZ) {
+        int worldId = worlds.idOf(world);
+        return inTransaction(conn -> execute(conn, playerId, world, worldId, chunkX, chunkZ));
+    }
+
+    /**
+     * 発見済みの判定を済ませた個人初発見について、発見数を加算して確定結果を返す
+     *
+     * チャンクの発見状況をDB以外（{@link RegionBitmapStore}）に保存する場合に使用する。
+     * @param globalFirst 判定済みの世界初発見フラグ（結果にそのまま含める）
+     */
+    Result commitPersonalFirst(String playerId, String world, boolean globalFirst) {
+        return inTransaction(conn -> {
+            incrementCounts(conn, playerId, world);
+            return selectCounts(conn, playerId, world, globalFirst, true);
+        });
+    }
+
+    private Result inTransaction(Work work) {
+        layout.enter();
+        try (Connection conn = ds.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Result result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("チャンク発見の確定中にエラーが発生しました", e);
+        } finally {
+            layout.exit();
+        }
+    }
+
+    private Result execute(Connection conn, String playerId, String world, int worldId, int chunkX, int chunkZ) throws SQLException {
+        List<SchemaLayout.ChunkRow> rows = List.of(new SchemaLayout.ChunkRow(playerId, world, worldId, chunkX, chunkZ));
+        boolean globalFirst = layout.insertGlobal(conn, rows)[0];
+
+        boolean personalFirst = PlayerRegions.add(conn, playerId, worldId, chunkX, chunkZ);
+        if (layout.playerChunks() != SchemaLayout.PlayerChunks.NONE) {
+            // player_regions は移行途中のため、入れ替え前の player_chunks で個人初を判定する
+            personalFirst = layout.insertPlayerChunks(conn, rows)[0];
+        }
+
+        if (personalFirst) {
+            incrementCounts(conn, playerId, world);
+        }
+        return selectCounts(conn, playerId, world, globalFirst, personalFirst);
+    }
+
+    private static void incrementCounts(Connection conn, String playerId, String world) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INCREMENT_TOTAL)) {
+            ps.setString(1, playerId);
+            ps.executeUpdate();
+        }
+        PlayerRepository.incrementWorldStats(conn, playerId, world, 1);
+    }
+
+    private static Result selectCounts(Connection conn, String playerId, String world,
+                                       boolean globalFirst, boolean personalFirst) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_COUNTS)) {
+            ps.setString(1, playerId);
+            ps.setString(2, playerId);
+            ps.setString(3, world);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new Result(globalFirst, personalFirst, rs.getInt("total_chunks"), rs.getInt("world_chunks"));
+            }
+        }
+    }
+
+    /**
+     * トランザクション内で実行する処理
+     */
+    @FunctionalInterface
+    private interface Work {
+        Result run(Connection conn) throws SQLException;
+    }
+}
@@ -0,0 +1,119 @@
+package io.wax100.chunkDiscovery.database;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * プラグインフォルダ内のファイルに保存する組み込みH2データベースのストレージ
+ *
+ * 外部のDBサーバーを用意できない小規模サーバーやステージング環境向け。
+ * MySQL 互換モードで接続するため、リポジトリのSQLはそのまま使用できる。
+ */
+public class H2Backend implements StorageBackend {
+    private final String url;
+
+    /**
+     * @param databaseFile データベースファイルのパス（拡張子 .mv.db は自動で付与される）
+     */
+    public H2Backend(File databaseFile) {
+        this("jdbc:h2:file:" + databaseFile.getAbsolutePath());
+    }
+
+    H2Backend(String baseUrl) {
+        this.url = baseUrl + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+    }
+
+    @Override
+    public String name() {
+        return "H2";
+    }
+
+    @Override
+    public HikariConfig createPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("org.h2.Driver");
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setPassword("");
+        // 組み込みDBのため接続数は少なくてよい
+        config.setMaximumPoolSize(4);
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(10000);
+        config.setPoolName("ChunkDiscoveryPool");
+        return config;
+    }
+
+    @Override
+    public List<String> tableDefinitions() {
+        return List.of(
+            """
+            CREATE TABLE IF NOT EXISTS players (
+                player_id CHAR(36) NOT NULL PRIMARY KEY,
+                total_chunks INT NOT NULL DEFAULT 0,
+                last_name VARCHAR(16) NULL,
+                last_update TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_players_total_chunks ON players(total_chunks DESC)",
+
+            """
+            CREATE TABLE IF NOT EXISTS worlds (
+                world_id SMALLINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                name VARCHAR(64) NOT NULL UNIQUE
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS global_chunks (
+                world_id SMALLINT NOT NULL,
+                chunk_key BIGINT NOT NULL,
+                discovered_by BINARY(16) NOT NULL,
+                discovered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (world_id, chunk_key)
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_global_chunks_discovered_by ON global_chunks(discovered_by)",
+            "CREATE INDEX IF NOT EXISTS idx_global_chunks_discovered_at ON global_chunks(discovered_at)",
+
+            """
+            CREATE TABLE IF NOT EXISTS player_regions (
+                player_id BINARY(16) NOT NULL,
+                world_id SMALLINT NOT NULL,
+                region_x INT NOT NULL,
+                region_z INT NOT NULL,
+                bitmap BINARY(128) NOT NULL,
+                PRIMARY KEY (player_id, world_id, region_x, region_z)
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS player_world_stats (
+                player_id CHAR(36) NOT NULL,
+                world VARCHAR(64) NOT NULL,
+                chunk_count INT NOT NULL DEFAULT 0,
+                PRIMARY KEY (player_id, world)
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INT NOT NULL PRIMARY KEY,
+                description VARCHAR(255) NOT NULL,
+                resume_from VARCHAR(512) NULL,
+                completed_at TIMESTAMP NULL
+            )
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS world_borders (
+                world_name VARCHAR(64) NOT NULL PRIMARY KEY,
+                border_size DOUBLE NOT NULL,
+                total_chunks_discovered INT NOT NULL DEFAULT 0,
+                last_update TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            )
+            """
+        );
+    }
+}
@@ -0,0 +1,156 @@
+package io.wax100.chunkDiscovery.database;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.util.List;
+
+/**
+ * MySQL（InnoDB）のストレージ
+ */
+public class MySqlBackend implements StorageBackend {
+    private final String host;
+    private final int port;
+    private final String db;
+    private final String user;
+    private final String pass;
+
+    public MySqlBackend(String host, int port, String db, String user, String pass) {
+        this.host = host;
+        this.port = port;
+        this.db = db;
+        this.user = user;
+        this.pass = pass;
+    }
+
+    @Override
+    public String name() {
+        return "MySQL";
+    }
+
+    @Override
+    public HikariConfig createPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(String.format("jdbc:mysql://%s:%d/%s?useSSL=false&serverTimezone=UTC&autoReconnect=true", 
+            host, port, db));
+        config.setUsername(user);
+        config.setPassword(pass);
+        config.setMaximumPoolSize(10);
+        config.setMinimumIdle(2);
+        config.setConnectionTimeout(10000);
+        config.setIdleTimeout(300000);
+        config.setMaxLifetime(1800000);
+        config.setLeakDetectionThreshold(60000);
+        config.setPoolName("ChunkDiscoveryPool");
+        
+        // コネクションプールの健全性チェック
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        // rewriteBatchedStatements は有効にしない（INSERT IGNORE のバッチで行ごとの更新件数から世界初を判定するため）
+        
+        return config;
+    }
+
+    @Override
+    public List<String> tableDefinitions() {
+        return List.of(
+            """
+            CREATE TABLE IF NOT EXISTS players (
+                player_id CHAR(36) NOT NULL PRIMARY KEY,
+                total_chunks INT NOT NULL DEFAULT 0,
+                last_name VARCHAR(16) NULL,
+                last_update DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                INDEX idx_total_chunks (total_chunks DESC)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS worlds (
+                world_id SMALLINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                name VARCHAR(64) NOT NULL,
+                UNIQUE KEY uk_name (name)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """,
+
+            globalChunksDdl("global_chunks"),
+
+            """
+            CREATE TABLE IF NOT EXISTS player_regions (
+                player_id BINARY(16) NOT NULL,
+                world_id SMALLINT NOT NULL,
+                region_x INT NOT NULL,
+                region_z INT NOT NULL,
+                bitmap BINARY(128) NOT NULL,
+                PRIMARY KEY (player_id, world_id, region_x, region_z)
+            ) ENGINE=InnoDB
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS player_world_stats (
+                player_id CHAR(36) NOT NULL,
+                world VARCHAR(64) NOT NULL,
+                chunk_count INT NOT NULL DEFAULT 0,
+                PRIMARY KEY (player_id, world)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INT NOT NULL PRIMARY KEY,
+                description VARCHAR(255) NOT NULL,
+                resume_from VARCHAR(512) NULL,
+                completed_at DATETIME NULL
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """,
+
+            """
+            CREATE TABLE IF NOT EXISTS world_borders (
+                world_name VARCHAR(64) NOT NULL PRIMARY KEY,
+                border_size DOUBLE NOT NULL,
+                total_chunks_discovered INT NOT NULL DEFAULT 0,
+                last_update DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """
+        );
+    }
+
+    /**
+     * global_chunks（v2）の定義
+     *
+     * ワールドは worlds テーブルのID、座標は {@link io.wax100.chunkDiscovery.util.ChunkKey} でパックした値、
+     * 発見者は BINARY(16) のUUIDで保存する。
+     * @param table テーブル名（移行時は一時テーブル名を指定する）
+     */
+    static String globalChunksDdl(String table) {
+        return """
+            CREATE TABLE IF NOT EXISTS %s (
+                world_id SMALLINT NOT NULL,
+                chunk_key BIGINT NOT NULL,
+                discovered_by BINARY(16) NOT NULL,
+                discovered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (world_id, chunk_key),
+                INDEX idx_discovered_by (discovered_by),
+                INDEX idx_discovered_at (discovered_at)
+            ) ENGINE=InnoDB
+            """.formatted(table);
+    }
+
+    /**
+     * player_chunks（v2）の定義（v1 からの移行時のみ使用し、その後 player_regions へ移行する）
+     *
+     * (player_id, world_id) での検索は主キーの先頭で賄えるため、専用のインデックスは持たない。
+     * @param table テーブル名（移行時は一時テーブル名を指定する）
+     */
+    static String playerChunksDdl(String table) {
+        return """
+            CREATE TABLE IF NOT EXISTS %s (
+                player_id BINARY(16) NOT NULL,
+                world_id SMALLINT NOT NULL,
+                chunk_key BIGINT NOT NULL,
+                discovered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (player_id, world_id, chunk_key),
+                INDEX idx_discovered_at (discovered_at)
+            ) ENGINE=InnoDB
+            """.formatted(table);
+    }
+}
@@ -0,0 +1,48 @@
+package io.wax100.chunkDiscovery.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * players テーブルに最後に確認した名前（last_name）のカラムを追加する手順
+ *
+ * 新規作成したテーブルには作成時からカラムがあるため対象外。
+ * カラムを追加するまで名前は保存しない（{@link SchemaLayout#hasLastNameColumn()}）。
+ */
+class PlayerLastNameColumn implements SchemaMigration {
+    private final SchemaLayout layout;
+
+    PlayerLastNameColumn() {
+        this(new SchemaLayout());
+    }
+
+    PlayerLastNameColumn(SchemaLayout layout) {
+        this.layout = layout;
+    }
+
+    @Override
+    public int version() {
+        return 5;
+    }
+
+    @Override
+    public String description() {
+        return "players.last_name の追加";
+    }
+
+    @Override
+    public String migrateBatch(Connection conn, String resumeFrom, int batchSize) {
+        return null;
+    }
+
+    @Override
+    public void complete(Connection conn) throws SQLException {
+        if (!DatabaseManager.hasColumn(conn, "players", "last_name")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE players ADD COLUMN last_name VARCHAR(16) NULL");
+            }
+        }
+        layout.lastNameColumnAdded();
+    }
+}
@@ -0,0 +1,229 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.LongHashSet;
+import io.wax100.chunkDiscovery.util.RegionBitmap;
+import io.wax100.chunkDiscovery.util.UuidBytes;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * player_regions テーブルの操作
+ *
+ * プレイヤーの発見済みチャンクを (プレイヤー, ワールド, リージョン) ごとに1行の128バイトのビットマップで保持する。
+ * ビットの追加は行をロックして読み込み、OR した結果を書き戻す。
+ * 新しく立ったビットかどうか（個人初発見か）をその場で判定でき、MySQL / H2 で同じSQLを使用できる。
+ */
+final class PlayerRegions {
+
+    private static final String SELECT_FOR_UPDATE =
+            "SELECT bitmap FROM player_regions WHERE player_id = ? AND world_id = ? AND region_x = ? AND region_z = ? FOR UPDATE";
+    private static final String INSERT =
+            "INSERT IGNORE INTO player_regions(player_id, world_id, region_x, region_z, bitmap) VALUES(?,?,?,?,?)";
+    private static final String UPDATE =
+            "UPDATE player_regions SET bitmap = ? WHERE player_id = ? AND world_id = ? AND region_x = ? AND region_z = ?";
+
+    /** 1回のSQLで扱うリージョン数（プレースホルダ数の上限対策） */
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    private PlayerRegions() {
+    }
+
+    /**
+     * プレイヤーのリージョン
+     * @param playerId プレイヤーのUUID
+     * @param worldId ワールドID
+     * @param regionX リージョンX座標
+     * @param regionZ リージョンZ座標
+     */
+    record Region(String playerId, int worldId, int regionX, int regionZ) {
+        /**
+         * チャンクが属するリージョン（UUIDはDBから読み込んだ値と比較できるよう正規化する）
+         */
+        static Region of(String playerId, int worldId, int chunkX, int chunkZ) {
+            return new Region(UUID.fromString(playerId).toString(), worldId,
+                    RegionBitmap.region(chunkX), RegionBitmap.region(chunkZ));
+        }
+    }
+
+    /**
+     * チャンクを発見済みにする（呼び出し元のトランザクション内で実行）
+     * @return 新しく発見済みにした場合 true
+     */
+    static boolean add(Connection conn, String playerId, int worldId, int chunkX, int chunkZ) throws SQLException {
+        Region region = Region.of(playerId, worldId, chunkX, chunkZ);
+        byte[] bitmap = selectForUpdate(conn, region);
+        if (bitmap == null) {
+            try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+                bind(ps, 1, region);
+                ps.setBytes(5, RegionBitmap.of(chunkX, chunkZ));
+                if (ps.executeUpdate() > 0) {
+                    return true;
+                }
+            }
+            // 他のトランザクションが同じリージョンの行を先に作成した
+            bitmap = selectForUpdate(conn, region);
+        }
+
+        if (!RegionBitmap.set(bitmap, RegionBitmap.bitIndex(chunkX, chunkZ))) {
+            return false;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(UPDATE)) {
+            ps.setBytes(1, bitmap);
+            bind(ps, 2, region);
+            ps.executeUpdate();
+        }
+        return true;
+    }
+
+    /**
+     * 複数のリージョンの行をロックしてビットマップを取得する（呼び出し元のトランザクション内で実行）
+     *
+     * 行のないリージョンは空のビットマップで作成してからロックする。
+     * @return リージョン -> ビットマップ（{@link #update} で書き戻す）
+     */
+    static Map<Region, byte[]> lock(Connection conn, Collection<Region> regions) throws SQLException {
+        Map<Region, byte[]> bitmaps = new HashMap<>();
+        List<Region> list = new ArrayList<>(regions);
+        for (int from = 0; from < list.size(); from += LOCK_CHUNK_SIZE) {
+            lock(conn, list.subList(from, Math.min(from + LOCK_CHUNK_SIZE, list.size())), bitmaps);
+        }
+        return bitmaps;
+    }
+
+    private static void lock(Connection conn, List<Region> regions, Map<Region, byte[]> bitmaps) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT IGNORE INTO player_regions(player_id, world_id, region_x, region_z, bitmap) VALUES " +
+                repeat("(?,?,?,?,?)", ",", regions.size()))) {
+            int idx = 1;
+            byte[] empty = new byte[RegionBitmap.BYTES];
+            for (Region region : regions) {
+                idx = bind(ps, idx, region);
+                ps.setBytes(idx++, empty);
+            }
+            ps.executeUpdate();
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT player_id, world_id, region_x, region_z, bitmap FROM player_regions WHERE " +
+                repeat("(player_id = ? AND world_id = ? AND region_x = ? AND region_z = ?)", " OR ", regions.size()) +
+                " FOR UPDATE")) {
+            int idx = 1;
+            for (Region region : regions) {
+                idx = bind(ps, idx, region);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    bitmaps.put(new Region(UuidBytes.toString(rs.getBytes("player_id")), rs.getInt("world_id"),
+                            rs.getInt("region_x"), rs.getInt("region_z")), read(rs));
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link #lock} で取得したビットマップを書き戻す（呼び出し元のトランザクション内で実行）
+     */
+    static void update(Connection conn, Map<Region, byte[]> bitmaps) throws SQLException {
+        if (bitmaps.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(UPDATE)) {
+            for (Map.Entry<Region, byte[]> e : bitmaps.entrySet()) {
+                ps.setBytes(1, e.getValue());
+                bind(ps, 2, e.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * チャンクが発見済みか
+     */
+    static boolean contains(Connection conn, String playerId, int worldId, int chunkX, int chunkZ) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT bitmap FROM player_regions WHERE player_id = ? AND world_id = ? AND region_x = ? AND region_z = ?")) {
+            bind(ps, 1, Region.of(playerId, worldId, chunkX, chunkZ));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && RegionBitmap.get(read(rs), RegionBitmap.bitIndex(chunkX, chunkZ));
+            }
+        }
+    }
+
+    /**
+     * ワールドでの発見数（ビットマップの popcount の合計）
+     */
+    static int count(Connection conn, String playerId, int worldId) throws SQLException {
+        int total = 0;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT bitmap FROM player_regions WHERE player_id = ? AND world_id = ?")) {
+            ps.setBytes(1, UuidBytes.toBytes(playerId));
+            ps.setInt(2, worldId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    total += RegionBitmap.popcount(read(rs));
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 発見済みの全チャンクをワールドID別に取得
+     * @return ワールドID -> パック済みチャンクキーのセット
+     */
+    static Map<Integer, LongHashSet> chunkKeys(Connection conn, String playerId) throws SQLException {
+        Map<Integer, LongHashSet> byWorldId = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT world_id, region_x, region_z, bitmap FROM player_regions WHERE player_id = ?")) {
+            ps.setBytes(1, UuidBytes.toBytes(playerId));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    LongHashSet keys = byWorldId.computeIfAbsent(rs.getInt("world_id"), w -> new LongHashSet());
+                    RegionBitmap.collectChunkKeys(
+                            ChunkKey.pack(rs.getInt("region_x"), rs.getInt("region_z")),
+                            read(rs), keys);
+                }
+            }
+        }
+        return byWorldId;
+    }
+
+    private static byte[] selectForUpdate(Connection conn, Region region) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_FOR_UPDATE)) {
+            bind(ps, 1, region);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? read(rs) : null;
+            }
+        }
+    }
+
+    private static int bind(PreparedStatement ps, int idx, Region region) throws SQLException {
+        ps.setBytes(idx++, UuidBytes.toBytes(region.playerId()));
+        ps.setInt(idx++, region.worldId());
+        ps.setInt(idx++, region.regionX());
+        ps.setInt(idx++, region.regionZ());
+        return idx;
+    }
+
+    private static byte[] read(ResultSet rs) throws SQLException {
+        byte[] bitmap = rs.getBytes("bitmap");
+        return bitmap.length == RegionBitmap.BYTES ? bitmap : Arrays.copyOf(bitmap, RegionBitmap.BYTES);
+    }
+
+    private static String repeat(String part, String separator, int times) {
+        return String.join(separator, Collections.nCopies(times, part));
+    }
+}
@@ -0,0 +1,134 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.RegionBitmap;
+import io.wax100.chunkDiscovery.util.UuidBytes;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * player_chunks（v2、1チャンク1行）を player_regions（1リージョン1行のビットマップ）へ移行する手順
+ *
+ * 主キー (player_id, world_id, chunk_key) 順にバッチ単位で読み込み、リージョンごとにビットを OR する。
+ * 完了後、旧テーブルは player_chunks_v2 として残す。
+ * 移行中のチャンク発見は player_chunks で個人初を判定し、player_regions にも書き込まれる（{@link SchemaLayout}）。
+ */
+class PlayerRegionsMigration implements SchemaMigration {
+    private final SchemaLayout layout;
+    private final Logger logger;
+
+    private long rows;
+
+    PlayerRegionsMigration(Logger logger) {
+        this(new SchemaLayout(), logger);
+    }
+
+    PlayerRegionsMigration(SchemaLayout layout, Logger logger) {
+        this.layout = layout;
+        this.logger = logger;
+    }
+
+    @Override
+    public int version() {
+        return 4;
+    }
+
+    @Override
+    public String description() {
+        return "player_chunks のリージョン単位のビットマップ（player_regions）への移行";
+    }
+
+    /**
+     * v1 の player_chunks は先に v2 へ移行されてからこの手順で移行されるため、どちらの形式でも行数を数える
+     */
+    @Override
+    public long estimateRows(Connection conn) throws SQLException {
+        boolean target = DatabaseManager.hasColumn(conn, "player_chunks", "chunk_key")
+                || DatabaseManager.hasColumn(conn, "player_chunks", "world");
+        return target ? SchemaMigration.approximateRows(conn, "player_chunks") : 0;
+    }
+
+    /**
+     * 再開位置は "player_id,world_id,chunk_key" 形式
+     */
+    @Override
+    public String migrateBatch(Connection conn, String resumeFrom, int batchSize) throws SQLException {
+        if (!DatabaseManager.hasColumn(conn, "player_chunks", "chunk_key")) {
+            return null;
+        }
+
+        String select = "SELECT player_id, world_id, chunk_key FROM player_chunks " +
+                (resumeFrom != null ? "WHERE player_id > ? OR (player_id = ? AND (world_id > ? OR " +
+                        "(world_id = ? AND chunk_key > ?))) " : "") +
+                "ORDER BY player_id, world_id, chunk_key LIMIT ?";
+
+        Map<PlayerRegions.Region, byte[]> batch = new LinkedHashMap<>();
+        String last = null;
+        try (PreparedStatement ps = conn.prepareStatement(select)) {
+            int idx = 1;
+            if (resumeFrom != null) {
+                String[] parts = resumeFrom.split(",", 3);
+                byte[] playerId = UuidBytes.toBytes(parts[0]);
+                int worldId = Integer.parseInt(parts[1]);
+                ps.setBytes(idx++, playerId);
+                ps.setBytes(idx++, playerId);
+                ps.setInt(idx++, worldId);
+                ps.setInt(idx++, worldId);
+                ps.setLong(idx++, Long.parseLong(parts[2]));
+            }
+            ps.setInt(idx, batchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String playerId = UuidBytes.toString(rs.getBytes("player_id"));
+                    int worldId = rs.getInt("world_id");
+                    long chunkKey = rs.getLong("chunk_key");
+                    int x = ChunkKey.x(chunkKey);
+                    int z = ChunkKey.z(chunkKey);
+                    RegionBitmap.set(batch.computeIfAbsent(PlayerRegions.Region.of(playerId, worldId, x, z),
+                            r -> new byte[RegionBitmap.BYTES]), RegionBitmap.bitIndex(x, z));
+                    last = playerId + "," + worldId + "," + chunkKey;
+                    rows++;
+                }
+            }
+        }
+        if (last == null) {
+            return null;
+        }
+
+        // 前のバッチと同じリージョンにまたがる場合があるため、既存の行に OR する
+        Map<PlayerRegions.Region, byte[]> bitmaps = PlayerRegions.lock(conn, batch.keySet());
+        for (Map.Entry<PlayerRegions.Region, byte[]> e : batch.entrySet()) {
+            byte[] bitmap = bitmaps.get(e.getKey());
+            byte[] bits = e.getValue();
+            for (int i = 0; i < RegionBitmap.BYTES; i++) {
+                bitmap[i] |= bits[i];
+            }
+        }
+        PlayerRegions.update(conn, bitmaps);
+        return last;
+    }
+
+    @Override
+    public void complete(Connection conn) throws SQLException {
+        if (!DatabaseManager.hasColumn(conn, "player_chunks", "chunk_key")) {
+            return;
+        }
+
+        layout.beginChange();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE player_chunks RENAME TO player_chunks_v2");
+            layout.playerChunksRetired();
+        } finally {
+            layout.endChange();
+        }
+        logger.info("player_chunks を player_regions へ移行しました（" + rows + " 行）。" +
+                "旧テーブルは player_chunks_v2 として残しています。");
+    }
+}
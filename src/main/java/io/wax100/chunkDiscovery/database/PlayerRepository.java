@@ -1,34 +1,82 @@
 package io.wax100.chunkDiscovery.database;
 
 import io.wax100.chunkDiscovery.model.PlayerData;
+import io.wax100.chunkDiscovery.util.LongHashSet;
 import org.bukkit.Chunk;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PlayerRepository {
     private final DataSource ds;
+    private final WorldDictionary worlds;
+    private final SchemaLayout layout;
 
     public PlayerRepository(DataSource ds) {
+        this(ds, new WorldDictionary(ds));
+    }
+
+    public PlayerRepository(DataSource ds, WorldDictionary worlds) {
+        this(ds, worlds, new SchemaLayout());
+    }
+
+    public PlayerRepository(DataSource ds, WorldDictionary worlds, SchemaLayout layout) {
         this.ds = ds;
+        this.worlds = worlds;
+        this.layout = layout;
     }
 
+    /**
+     * プレイヤーの発見チャンクを保存し、ワールド別発見数を同じトランザクションで加算する
+     * @return 新規追加された場合true
+     */
     public boolean saveIfAbsentChunk(String playerId, Chunk chunk) {
         String world = chunk.getWorld().getName();
-        int x = chunk.getX(), z = chunk.getZ();
-        String sql = "INSERT IGNORE INTO player_chunks(player_id, world, chunk_x, chunk_z) VALUES(?,?,?,?)";
-        try (Connection conn = ds.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, playerId);
-            ps.setString(2, world);
-            ps.setInt(3, x);
-            ps.setInt(4, z);
-            int affected = ps.executeUpdate();
-            return affected > 0;
+        int worldId = worlds.idOf(world);
+        layout.enter();
+        try (Connection conn = ds.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean inserted = PlayerRegions.add(conn, playerId, worldId, chunk.getX(), chunk.getZ());
+                if (layout.playerChunks() != SchemaLayout.PlayerChunks.NONE) {
+                    inserted = layout.insertPlayerChunks(conn, List.of(
+                            new SchemaLayout.ChunkRow(playerId, world, worldId, chunk.getX(), chunk.getZ())))[0];
+                }
+                if (inserted) {
+                    incrementWorldStats(conn, playerId, world, 1);
+                }
+                conn.commit();
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } finally {
+            layout.exit();
+        }
+    }
+
+    /**
+     * ワールド別発見数を加算する（呼び出し元のトランザクション内で実行）
+     */
+    static void incrementWorldStats(Connection conn, String playerId, String world, int delta) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO player_world_stats(player_id, world, chunk_count) VALUES(?,?,?) " +
+                "ON DUPLICATE KEY UPDATE chunk_count = chunk_count + VALUES(chunk_count)")) {
+            ps.setString(1, playerId);
+            ps.setString(2, world);
+            ps.setInt(3, delta);
+            ps.executeUpdate();
         }
     }
 
@@ -78,13 +126,13 @@ public class PlayerRepository {
     }
 
     /**
-     * 特定ワールドでのプレイヤーのチャンク発見数を取得
+     * 特定ワールドでのプレイヤーのチャンク発見数を取得（player_world_stats の主キー検索）
      * @param playerId プレイヤーのUUID
      * @param worldName ワールド名
      * @return そのワールドでの発見数
      */
     public int getPlayerChunksInWorld(String playerId, String worldName) {
-        String sql = "SELECT COUNT(*) as chunk_count FROM player_chunks WHERE player_id = ? AND world = ?";
+        String sql = "SELECT chunk_count FROM player_world_stats WHERE player_id = ? AND world = ?";
         try (Connection conn = ds.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, playerId);
@@ -97,8 +145,26 @@ public class PlayerRepository {
         }
     }
 
+    /**
+     * 特定ワールドでのプレイヤーのチャンク発見数をリージョンのビットマップから数え直す（集計値の検証・修復用）
+     *
+     * プレイヤーの全リージョンの行を読むため、コマンドなどの通常の表示には {@link #getPlayerChunksInWorld} を使用する。
+     */
+    public int countPlayerChunksInWorld(String playerId, String worldName) {
+        int worldId = worlds.findId(worldName);
+        if (worldId == WorldDictionary.UNKNOWN) {
+            return 0;
+        }
+        try (Connection conn = ds.getConnection()) {
+            return PlayerRegions.count(conn, playerId, worldId);
+        } catch (SQLException e) {
+            throw new RuntimeException("ワールド別チャンク数の集計中にエラーが発生しました", e);
+        }
+    }
+
     public List<PlayerData> getTopPlayers(int limit) {
-        String sql = "SELECT player_id, total_chunks FROM players ORDER BY total_chunks DESC LIMIT ?";
+        // ログイン時に名前だけ登録された未発見のプレイヤーは含めない
+        String sql = "SELECT player_id, total_chunks FROM players WHERE total_chunks > 0 ORDER BY total_chunks DESC LIMIT ?";
         List<PlayerData> list = new ArrayList<>();
         try (Connection conn = ds.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -114,19 +180,123 @@ public class PlayerRepository {
         }
     }
 
-    public boolean hasDiscoveredChunk(String playerId, Chunk chunk) {
-        String sql = "SELECT 1 FROM player_chunks WHERE player_id = ? AND world = ? AND chunk_x = ? AND chunk_z = ? LIMIT 1";
+    /**
+     * プレイヤーの最後に確認した名前を保存する（ログイン時）
+     *
+     * 移行前のDBで last_name カラムがまだない場合は保存しない。
+     */
+    public void updateLastName(String playerId, String name) {
+        if (!layout.hasLastNameColumn()) {
+            return;
+        }
+        String sql = "INSERT INTO players(player_id, last_name) VALUES(?,?) " +
+                "ON DUPLICATE KEY UPDATE last_name = VALUES(last_name)";
         try (Connection conn = ds.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, playerId);
-            ps.setString(2, chunk.getWorld().getName());
-            ps.setInt(3, chunk.getX());
-            ps.setInt(4, chunk.getZ());
+            ps.setString(2, name);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 複数のプレイヤーの最後に確認した名前を1回のクエリで取得
+     * @return プレイヤーID -> 名前（名前が保存されていないプレイヤーは含まない）
+     */
+    public Map<String, String> getLastNames(Collection<String> playerIds) {
+        Map<String, String> names = new HashMap<>();
+        if (playerIds.isEmpty() || !layout.hasLastNameColumn()) {
+            return names;
+        }
+        String sql = "SELECT player_id, last_name FROM players WHERE last_name IS NOT NULL AND player_id IN (" +
+                String.join(",", Collections.nCopies(playerIds.size(), "?")) + ")";
+        try (Connection conn = ds.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int idx = 1;
+            for (String playerId : playerIds) {
+                ps.setString(idx++, playerId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.put(rs.getString("player_id"), rs.getString("last_name"));
+                }
+            }
+            return names;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 1チャンク以上発見した全プレイヤーの発見総数を取得（ランキング読み込み用）
+     */
+    public List<PlayerData> getAllPlayerTotals() {
+        String sql = "SELECT player_id, total_chunks FROM players WHERE total_chunks > 0";
+        List<PlayerData> list = new ArrayList<>();
+        try (Connection conn = ds.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
             try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
+                while (rs.next()) {
+                    list.add(new PlayerData(rs.getString("player_id"), rs.getInt("total_chunks")));
+                }
             }
+            return list;
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    public boolean hasDiscoveredChunk(String playerId, Chunk chunk) {
+        return hasDiscoveredChunk(playerId, chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * プレイヤーがチャンクを発見済みか確認（座標指定、メインスレッド以外から呼ぶ場合用）
+     */
+    public boolean hasDiscoveredChunk(String playerId, String worldName, int chunkX, int chunkZ) {
+        int worldId = worlds.findId(worldName);
+        layout.enter();
+        try (Connection conn = ds.getConnection()) {
+            // v1 の player_chunks はワールド名で保存されているため、ワールドIDが未登録でも確認する
+            if (layout.playerChunks() == SchemaLayout.PlayerChunks.V1) {
+                return layout.containsPlayerChunk(conn, playerId, worldName, worldId, chunkX, chunkZ);
+            }
+            if (worldId == WorldDictionary.UNKNOWN) {
+                return false;
+            }
+            if (layout.playerChunks() == SchemaLayout.PlayerChunks.V2) {
+                return layout.containsPlayerChunk(conn, playerId, worldName, worldId, chunkX, chunkZ);
+            }
+            return PlayerRegions.contains(conn, playerId, worldId, chunkX, chunkZ);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            layout.exit();
+        }
+    }
+
+    /**
+     * プレイヤーが発見済みの全チャンクをワールド別に取得（キャッシュ読み込み用）
+     * @param playerId プレイヤーのUUID
+     * @return ワールド名 -> パック済みチャンクキーのセット
+     */
+    public Map<String, LongHashSet> getDiscoveredChunkKeys(String playerId) {
+        layout.enter();
+        try (Connection conn = ds.getConnection()) {
+            if (layout.playerChunks() != SchemaLayout.PlayerChunks.NONE) {
+                return layout.playerChunkKeys(conn, playerId, worlds);
+            }
+            Map<String, LongHashSet> result = new HashMap<>();
+            for (Map.Entry<Integer, LongHashSet> e : PlayerRegions.chunkKeys(conn, playerId).entrySet()) {
+                result.put(worlds.nameOf(e.getKey()), e.getValue());
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new RuntimeException("発見済みチャンク一覧取得中にエラーが発生しました", e);
+        } finally {
+            layout.exit();
+        }
+    }
+}
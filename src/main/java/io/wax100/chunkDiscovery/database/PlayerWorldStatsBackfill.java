@@ -0,0 +1,66 @@
+package io.wax100.chunkDiscovery.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * player_world_stats を既存の player_chunks（v1）から作成する手順
+ *
+ * player_id の範囲ごとに集計し、範囲内のプレイヤーの件数を上書きする。
+ * v2 の player_chunks は作成時から集計テーブルを更新しているため対象外。
+ */
+class PlayerWorldStatsBackfill implements SchemaMigration {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public String description() {
+        return "player_world_stats の作成";
+    }
+
+    @Override
+    public long estimateRows(Connection conn) throws SQLException {
+        return DatabaseManager.hasColumn(conn, "player_chunks", "world")
+                ? SchemaMigration.approximateRows(conn, "player_chunks") : 0;
+    }
+
+    @Override
+    public String migrateBatch(Connection conn, String resumeFrom, int batchSize) throws SQLException {
+        if (!DatabaseManager.hasColumn(conn, "player_chunks", "world")) {
+            return null;
+        }
+
+        String from = resumeFrom != null ? resumeFrom : "";
+        String to = null;
+        // 約 batchSize 行後の player_id を範囲の終端にする（プレイヤー単位で区切る）
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT player_id FROM player_chunks WHERE player_id > ? ORDER BY player_id LIMIT 1 OFFSET ?")) {
+            ps.setString(1, from);
+            ps.setInt(2, Math.max(0, batchSize - 1));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    to = rs.getString("player_id");
+                }
+            }
+        }
+
+        String sql = "INSERT INTO player_world_stats(player_id, world, chunk_count) " +
+                "SELECT player_id, world, COUNT(*) FROM player_chunks WHERE player_id > ?" +
+                (to != null ? " AND player_id <= ?" : "") +
+                " GROUP BY player_id, world " +
+                "ON DUPLICATE KEY UPDATE chunk_count = VALUES(chunk_count)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, from);
+            if (to != null) {
+                ps.setString(2, to);
+            }
+            ps.executeUpdate();
+        }
+        return to;
+    }
+}
@@ -0,0 +1,29 @@
+package io.wax100.chunkDiscovery.database;
+
+import javax.sql.DataSource;
+
+/**
+ * 発見済みチャンクを {@link RegionBitmapStore} に保存する確定処理（db.chunk_store: region_file）
+ *
+ * 世界初・個人初の判定はリージョンファイルのビット操作のみで行い、global_chunks / player_regions には書き込まない。
+ * DBへは個人初発見の場合に players.total_chunks / player_world_stats.chunk_count を加算する1トランザクションのみ実行し、
+ * 発見済みのチャンクではDBにアクセスしない。
+ * 加算に失敗した場合もチャンクは発見済みとしてファイルに残るため、その発見は発見数に含まれない。
+ */
+public class RegionBitmapDiscoveryCommit extends DiscoveryCommit {
+    private final RegionBitmapStore store;
+
+    public RegionBitmapDiscoveryCommit(DataSource ds, WorldDictionary worlds, RegionBitmapStore store) {
+        super(ds, worlds);
+        this.store = store;
+    }
+
+    @Override
+    public Result execute(String playerId, String world, int chunkX, int chunkZ) {
+        boolean globalFirst = store.saveIfAbsent(world, chunkX, chunkZ);
+        if (!store.saveIfAbsentChunk(playerId, world, chunkX, chunkZ)) {
+            return new Result(globalFirst, false, 0, 0);
+        }
+        return commitPersonalFirst(playerId, world, globalFirst);
+    }
+}
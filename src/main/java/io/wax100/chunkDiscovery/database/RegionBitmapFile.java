@@ -0,0 +1,318 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.LongHashSet;
+import io.wax100.chunkDiscovery.util.RegionBitmap;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * 1ワールド分のリージョンビットマップを保持するファイル
+ *
+ * regions.dat はヘッダー（16バイト）に続けて
+ * 所有者UUID(16) + リージョンキー(8) + ビットマップ(128) のレコードを並べたもので、
+ * メモリマップして直接ビットを立てる。
+ * changes.log は所有者UUID(16) + チャンクキー(8) + CRC32(4) を追記する変更ログで、
+ * マップしたページがディスクへ書き出される前にOSごと停止した場合に、開く際の再生で変更を復元する。
+ * regions.dat を書き出した時点（チェックポイント）でログは空にする。
+ */
+final class RegionBitmapFile implements Closeable {
+    static final String DATA_FILE = "regions.dat";
+    static final String LOG_FILE = "changes.log";
+
+    private static final int MAGIC = 0x43445242; // "CDRB"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int BITMAP_OFFSET = 24;
+    static final int RECORD_BYTES = BITMAP_OFFSET + RegionBitmap.BYTES;
+    static final int LOG_ENTRY_BYTES = 28;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+
+    private final Path directory;
+    private final long checkpointLogBytes;
+    private final FileChannel dataChannel;
+    private final FileChannel logChannel;
+    private final Map<Slot, Integer> index = new HashMap<>();
+    private final Map<UUID, List<Integer>> slotsByOwner = new HashMap<>();
+    private final ByteBuffer logEntry = ByteBuffer.allocate(LOG_ENTRY_BYTES);
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer data;
+    private int capacity;
+    private int count;
+    private long logBytes;
+    private int replayedEntries;
+
+    private record Slot(UUID owner, long regionKey) {}
+
+    /**
+     * ファイルを開き、前回のチェックポイント以降の変更ログを再生する
+     * @param directory ワールドのディレクトリ
+     * @param checkpointLogBytes 変更ログがこのサイズに達したらチェックポイントを行う
+     */
+    RegionBitmapFile(Path directory, long checkpointLogBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.checkpointLogBytes = checkpointLogBytes;
+        this.dataChannel = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel log = null;
+        try {
+            log = FileChannel.open(directory.resolve(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.logChannel = log;
+            loadData();
+            replayLog();
+        } catch (IOException | RuntimeException e) {
+            dataChannel.close();
+            if (log != null) {
+                log.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * チャンクのビットを立てる
+     * @return 新しく立てた場合 true、既に立っていた場合 false
+     */
+    synchronized boolean set(UUID owner, int chunkX, int chunkZ) throws IOException {
+        long regionKey = RegionBitmap.regionKey(chunkX, chunkZ);
+        int bit = RegionBitmap.bitIndex(chunkX, chunkZ);
+        Integer slot = index.get(new Slot(owner, regionKey));
+        if (slot != null && getBit(slot, bit)) {
+            return false;
+        }
+
+        // マップしたページより先にログへ書き込む
+        appendLog(owner, ChunkKey.pack(chunkX, chunkZ));
+        setBit(slot != null ? slot : allocate(owner, regionKey), bit);
+
+        if (logBytes >= checkpointLogBytes) {
+            checkpoint();
+        }
+        return true;
+    }
+
+    /**
+     * チャンクのビットが立っているか
+     */
+    synchronized boolean get(UUID owner, int chunkX, int chunkZ) {
+        Integer slot = index.get(new Slot(owner, RegionBitmap.regionKey(chunkX, chunkZ)));
+        return slot != null && getBit(slot, RegionBitmap.bitIndex(chunkX, chunkZ));
+    }
+
+    /**
+     * 所有者の発見済みチャンク数
+     */
+    synchronized int count(UUID owner) {
+        int total = 0;
+        for (int slot : slotsByOwner.getOrDefault(owner, List.of())) {
+            int offset = bitmapOffset(slot);
+            for (int i = 0; i < RegionBitmap.BYTES; i += Long.BYTES) {
+                total += Long.bitCount(data.getLong(offset + i));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 所有者の発見済みチャンクのキーを取得
+     */
+    synchronized LongHashSet chunkKeys(UUID owner) {
+        LongHashSet keys = new LongHashSet();
+        byte[] bitmap = new byte[RegionBitmap.BYTES];
+        for (int slot : slotsByOwner.getOrDefault(owner, List.of())) {
+            data.get(bitmapOffset(slot), bitmap);
+            RegionBitmap.collectChunkKeys(data.getLong(recordOffset(slot) + 16), bitmap, keys);
+        }
+        return keys;
+    }
+
+    /**
+     * 開く際に変更ログから復元した変更の件数
+     */
+    int replayedEntries() {
+        return replayedEntries;
+    }
+
+    /**
+     * 変更ログをディスクへ書き出す（OSの停止に備える場合に定期的に呼び出す）
+     */
+    synchronized void flush() throws IOException {
+        logChannel.force(false);
+    }
+
+    /**
+     * regions.dat をディスクへ書き出し、変更ログを空にする
+     */
+    synchronized void checkpoint() throws IOException {
+        data.force();
+        logChannel.truncate(0);
+        logChannel.force(true);
+        logBytes = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            checkpoint();
+        } finally {
+            try {
+                logChannel.close();
+            } finally {
+                dataChannel.close();
+            }
+        }
+    }
+
+    private void loadData() throws IOException {
+        long size = dataChannel.size();
+        if (size < HEADER_BYTES) {
+            capacity = INITIAL_CAPACITY;
+            map();
+            data.putInt(0, MAGIC);
+            data.putInt(4, FORMAT_VERSION);
+            data.putInt(COUNT_OFFSET, 0);
+            return;
+        }
+
+        capacity = (int) ((size - HEADER_BYTES) / RECORD_BYTES);
+        map();
+        if (data.getInt(0) != MAGIC || data.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("リージョンファイルの形式が不正です: " + directory.resolve(DATA_FILE));
+        }
+
+        int stored = Math.min(data.getInt(COUNT_OFFSET), capacity);
+        for (int slot = 0; slot < stored; slot++) {
+            int offset = recordOffset(slot);
+            Slot key = new Slot(new UUID(data.getLong(offset), data.getLong(offset + 8)), data.getLong(offset + 16));
+            Integer existing = index.get(key);
+            if (existing != null) {
+                // 書き出しが途中で止まった場合の重複レコードは先のレコードへまとめる
+                for (int i = 0; i < RegionBitmap.BYTES; i++) {
+                    int target = bitmapOffset(existing) + i;
+                    data.put(target, (byte) (data.get(target) | data.get(bitmapOffset(slot) + i)));
+                }
+                continue;
+            }
+            register(key, slot);
+        }
+        count = stored;
+    }
+
+    private void replayLog() throws IOException {
+        if (logChannel.size() == 0) {
+            return;
+        }
+
+        byte[] entry = new byte[LOG_ENTRY_BYTES];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(directory.resolve(LOG_FILE))))) {
+            while (true) {
+                try {
+                    in.readFully(entry);
+                } catch (EOFException e) {
+                    break;
+                }
+                ByteBuffer buf = ByteBuffer.wrap(entry);
+                crc.reset();
+                crc.update(entry, 0, LOG_ENTRY_BYTES - 4);
+                if ((int) crc.getValue() != buf.getInt(LOG_ENTRY_BYTES - 4)) {
+                    // 書き込み途中で停止したエントリ以降は無視する
+                    break;
+                }
+                UUID owner = new UUID(buf.getLong(0), buf.getLong(8));
+                long chunkKey = buf.getLong(16);
+                long regionKey = RegionBitmap.regionKey(ChunkKey.x(chunkKey), ChunkKey.z(chunkKey));
+                Integer slot = index.get(new Slot(owner, regionKey));
+                setBit(slot != null ? slot : allocate(owner, regionKey),
+                        RegionBitmap.bitIndex(ChunkKey.x(chunkKey), ChunkKey.z(chunkKey)));
+                replayedEntries++;
+            }
+        }
+        checkpoint();
+        logChannel.position(0);
+    }
+
+    private void appendLog(UUID owner, long chunkKey) throws IOException {
+        logEntry.clear();
+        logEntry.putLong(owner.getMostSignificantBits());
+        logEntry.putLong(owner.getLeastSignificantBits());
+        logEntry.putLong(chunkKey);
+        crc.reset();
+        crc.update(logEntry.array(), 0, LOG_ENTRY_BYTES - 4);
+        logEntry.putInt((int) crc.getValue());
+        logEntry.flip();
+        while (logEntry.hasRemaining()) {
+            logChannel.write(logEntry);
+        }
+        logBytes += LOG_ENTRY_BYTES;
+    }
+
+    private int allocate(UUID owner, long regionKey) throws IOException {
+        if (count == capacity) {
+            // マップできるのは 2GB まで（1ワールドあたり約1400万レコード）
+            int grown = (int) Math.min((long) capacity * 2, MAX_CAPACITY);
+            if (grown == capacity) {
+                throw new IOException("リージョンファイルが上限に達しました: " + directory.resolve(DATA_FILE));
+            }
+            capacity = grown;
+            map();
+        }
+        int slot = count;
+        int offset = recordOffset(slot);
+        data.putLong(offset, owner.getMostSignificantBits());
+        data.putLong(offset + 8, owner.getLeastSignificantBits());
+        data.putLong(offset + 16, regionKey);
+        data.put(bitmapOffset(slot), new byte[RegionBitmap.BYTES]);
+        count++;
+        data.putInt(COUNT_OFFSET, count);
+        register(new Slot(owner, regionKey), slot);
+        return slot;
+    }
+
+    private void register(Slot key, int slot) {
+        index.put(key, slot);
+        slotsByOwner.computeIfAbsent(key.owner(), o -> new ArrayList<>()).add(slot);
+    }
+
+    private void map() throws IOException {
+        data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+    }
+
+    private boolean getBit(int slot, int bit) {
+        return (data.get(bitmapOffset(slot) + (bit >>> 3)) & (1 << (bit & 7))) != 0;
+    }
+
+    private void setBit(int slot, int bit) {
+        int offset = bitmapOffset(slot) + (bit >>> 3);
+        data.put(offset, (byte) (data.get(offset) | (1 << (bit & 7))));
+    }
+
+    private static int recordOffset(int slot) {
+        return HEADER_BYTES + slot * RECORD_BYTES;
+    }
+
+    private static int bitmapOffset(int slot) {
+        return recordOffset(slot) + BITMAP_OFFSET;
+    }
+}
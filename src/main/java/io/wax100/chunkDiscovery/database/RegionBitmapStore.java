@@ -0,0 +1,229 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.LongHashSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 発見済みチャンクを32×32チャンクのリージョン単位のビットマップでファイルに保存するストア（SQL不使用）
+ *
+ * ワールドごとにディレクトリを作り、サーバー全体とプレイヤーごとのビットマップを
+ * メモリマップしたファイルへ直接書き込む。1件の発見はビット演算と変更ログへの追記のみで完了する。
+ * 複数サーバーでデータを共有しない構成向けで、発見者や発見日時は保持しない。
+ * db.chunk_store: region_file の場合に {@link RegionBitmapDiscoveryCommit} から使用する。
+ */
+public class RegionBitmapStore implements AutoCloseable {
+
+    /** サーバー全体の発見を記録する所有者 */
+    static final UUID GLOBAL = new UUID(0L, 0L);
+
+    /** 変更ログがこのサイズに達したらチェックポイントを行う */
+    private static final long DEFAULT_CHECKPOINT_LOG_BYTES = 4L * 1024 * 1024;
+
+    private final Path directory;
+    private final long checkpointLogBytes;
+    private final Map<String, RegionBitmapFile> worlds = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * ストアを開く（前回停止時に書き出されていない変更はログから復元する）
+     * @param directory 保存先ディレクトリ
+     */
+    public RegionBitmapStore(File directory) {
+        this(directory.toPath(), DEFAULT_CHECKPOINT_LOG_BYTES);
+    }
+
+    RegionBitmapStore(Path directory, long checkpointLogBytes) {
+        this.directory = directory;
+        this.checkpointLogBytes = checkpointLogBytes;
+
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(directory, Files::isDirectory)) {
+                for (Path child : children) {
+                    world(child.getFileName().toString());
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException("リージョンストアの読み込み中にエラーが発生しました", e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * サーバー全体で未発見のチャンクを記録する（ChunkRepository#saveIfAbsent に相当）
+     * @return 新規に記録した場合 true、既に発見済みの場合 false
+     */
+    public boolean saveIfAbsent(String worldName, int chunkX, int chunkZ) {
+        return set(GLOBAL, worldName, chunkX, chunkZ);
+    }
+
+    /**
+     * サーバー全体で発見済みか（ChunkRepository#isChunkDiscovered に相当）
+     */
+    public boolean isChunkDiscovered(String worldName, int chunkX, int chunkZ) {
+        RegionBitmapFile file = worlds.get(worldName);
+        return file != null && file.get(GLOBAL, chunkX, chunkZ);
+    }
+
+    /**
+     * プレイヤーが未発見のチャンクを記録する（PlayerRepository#saveIfAbsentChunk に相当）
+     * @return 新規に記録した場合 true、既に発見済みの場合 false
+     */
+    public boolean saveIfAbsentChunk(String playerId, String worldName, int chunkX, int chunkZ) {
+        return set(UUID.fromString(playerId), worldName, chunkX, chunkZ);
+    }
+
+    /**
+     * プレイヤーが発見済みか（PlayerRepository#hasDiscoveredChunk に相当）
+     */
+    public boolean hasDiscoveredChunk(String playerId, String worldName, int chunkX, int chunkZ) {
+        RegionBitmapFile file = worlds.get(worldName);
+        return file != null && file.get(UUID.fromString(playerId), chunkX, chunkZ);
+    }
+
+    /**
+     * ワールドでのプレイヤーの発見数
+     */
+    public int getPlayerChunksInWorld(String playerId, String worldName) {
+        RegionBitmapFile file = worlds.get(worldName);
+        return file != null ? file.count(UUID.fromString(playerId)) : 0;
+    }
+
+    /**
+     * ワールドでのサーバー全体の発見数
+     */
+    public int getTotalDiscoveredChunksByWorld(String worldName) {
+        RegionBitmapFile file = worlds.get(worldName);
+        return file != null ? file.count(GLOBAL) : 0;
+    }
+
+    /**
+     * ワールド別のサーバー全体の発見数（ChunkRepository#getDiscoveredChunkCountsByWorld に相当）
+     * @return ワールド名 -> 発見数
+     */
+    public Map<String, Integer> getDiscoveredChunkCountsByWorld() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, RegionBitmapFile> e : worlds.entrySet()) {
+            int count = e.getValue().count(GLOBAL);
+            if (count > 0) {
+                counts.put(e.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 開いているワールド数
+     */
+    public int getWorldCount() {
+        return worlds.size();
+    }
+
+    /**
+     * 開く際に変更ログから復元した変更の件数（前回停止時にチェックポイントされていなかった発見）
+     */
+    public int getReplayedEntries() {
+        int total = 0;
+        for (RegionBitmapFile file : worlds.values()) {
+            total += file.replayedEntries();
+        }
+        return total;
+    }
+
+    /**
+     * プレイヤーが発見済みの全チャンクをワールド別に取得（キャッシュ読み込み用）
+     * @return ワールド名 -> パック済みチャンクキーのセット
+     */
+    public Map<String, LongHashSet> getDiscoveredChunkKeys(String playerId) {
+        UUID owner = UUID.fromString(playerId);
+        Map<String, LongHashSet> result = new HashMap<>();
+        for (Map.Entry<String, RegionBitmapFile> e : worlds.entrySet()) {
+            LongHashSet keys = e.getValue().chunkKeys(owner);
+            if (!keys.isEmpty()) {
+                result.put(e.getKey(), keys);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 変更ログをディスクへ書き出す
+     */
+    public void flush() {
+        for (RegionBitmapFile file : worlds.values()) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                throw new RuntimeException("リージョンストアの書き出し中にエラーが発生しました", e);
+            }
+        }
+    }
+
+    /**
+     * ビットマップをディスクへ書き出し、変更ログを空にする（定期的に呼び出す）
+     */
+    public void checkpoint() {
+        for (RegionBitmapFile file : worlds.values()) {
+            try {
+                file.checkpoint();
+            } catch (IOException e) {
+                throw new RuntimeException("リージョンストアのチェックポイント中にエラーが発生しました", e);
+            }
+        }
+    }
+
+    /**
+     * ビットマップを書き出してファイルを閉じる（以降の記録は例外となる）
+     */
+    @Override
+    public void close() {
+        closed = true;
+        RuntimeException failure = null;
+        for (RegionBitmapFile file : worlds.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = new RuntimeException("リージョンストアのクローズ中にエラーが発生しました", e);
+                }
+            }
+        }
+        worlds.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private boolean set(UUID owner, String worldName, int chunkX, int chunkZ) {
+        try {
+            return world(worldName).set(owner, chunkX, chunkZ);
+        } catch (IOException e) {
+            throw new RuntimeException("リージョンストアへの書き込み中にエラーが発生しました", e);
+        }
+    }
+
+    private RegionBitmapFile world(String worldName) {
+        if (closed) {
+            throw new IllegalStateException("リージョンストアは閉じられています");
+        }
+        return worlds.computeIfAbsent(worldName, name -> {
+            try {
+                return new RegionBitmapFile(directory.resolve(name), checkpointLogBytes);
+            } catch (IOException e) {
+                throw new RuntimeException("リージョンファイルを開けませんでした: " + name, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,371 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.LongHashSet;
+import io.wax100.chunkDiscovery.util.UuidBytes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 発見済みチャンクのテーブル構成（スキーマ移行中の読み書き先）
+ *
+ * 移行中もチャンク発見とコマンドを止めないため、各テーブルは RENAME で入れ替わるまで旧テーブルを正とし、
+ * 世界初・個人初の判定と読み込みは旧テーブルで行う。旧テーブルに追加した発見は移行先
+ * （コピー中の *_v2 と player_regions）にも書き込むため、コピーが通過した後の発見も移行先に残り、
+ * 入れ替え後に差分を取り込む必要はない。
+ *
+ * 構成の切り替え（移行先の作成・RENAME）は {@link #beginChange()} の排他ロック内で行い、
+ * リポジトリは {@link #enter()} / {@link #exit()} の間で現在の構成を参照する。
+ * 切り替えをまたぐトランザクションはないが、同じDBを共有する他のサーバーのトランザクションは対象外のため、
+ * 移行中は1台のサーバーのみで接続すること。
+ */
+public class SchemaLayout {
+
+    /**
+     * player_chunks（移行前の1チャンク1行のテーブル）の形式
+     */
+    enum PlayerChunks {
+        /** テーブルなし（player_regions が正） */
+        NONE,
+        /** v1（ワールド名・UUID文字列・X/Z座標） */
+        V1,
+        /** v2（ワールドID・BINARY(16)・パック済みキー） */
+        V2
+    }
+
+    /**
+     * 書き込む発見（1チャンク分）
+     */
+    record ChunkRow(String playerId, String world, int worldId, int chunkX, int chunkZ) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean globalV1;
+    private volatile boolean globalCopying;
+    private volatile PlayerChunks playerChunks = PlayerChunks.NONE;
+    private volatile boolean playerCopying;
+    private volatile boolean lastNameColumn = true;
+
+    /**
+     * DBのテーブル構成を読み込む（起動時、リポジトリの使用前に呼び出す）
+     */
+    public void detect(DataSource ds) throws SQLException {
+        try (Connection conn = ds.getConnection()) {
+            detect(conn);
+        }
+    }
+
+    void detect(Connection conn) throws SQLException {
+        beginChange();
+        try {
+            globalV1 = DatabaseManager.hasColumn(conn, "global_chunks", "world");
+            globalCopying = globalV1 && DatabaseManager.hasColumn(conn, "global_chunks_v2", "world_id");
+            if (DatabaseManager.hasColumn(conn, "player_chunks", "world")) {
+                playerChunks = PlayerChunks.V1;
+            } else if (DatabaseManager.hasColumn(conn, "player_chunks", "chunk_key")) {
+                playerChunks = PlayerChunks.V2;
+            } else {
+                playerChunks = PlayerChunks.NONE;
+            }
+            playerCopying = playerChunks == PlayerChunks.V1 && DatabaseManager.hasColumn(conn, "player_chunks_v2", "chunk_key");
+            lastNameColumn = DatabaseManager.hasColumn(conn, "players", "last_name");
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * 現在の構成での読み書きを開始する（コネクションの取得前に呼び出し、終了後に {@link #exit()} を呼び出す）
+     */
+    public void enter() {
+        lock.readLock().lock();
+    }
+
+    public void exit() {
+        lock.readLock().unlock();
+    }
+
+    /**
+     * 構成の切り替えを開始する（実行中の読み書きの完了を待ち、終了後に {@link #endChange()} を呼び出す）
+     */
+    void beginChange() {
+        lock.writeLock().lock();
+    }
+
+    void endChange() {
+        lock.writeLock().unlock();
+    }
+
+    /**
+     * global_chunks が v1 のまま（移行が完了していない）か
+     */
+    boolean isGlobalV1() {
+        return globalV1;
+    }
+
+    /**
+     * 旧 player_chunks の形式（player_regions へ移行済みの場合は NONE）
+     */
+    PlayerChunks playerChunks() {
+        return playerChunks;
+    }
+
+    /**
+     * players.last_name カラムがあるか（移行前のDBでは追加されるまで名前を保存しない）
+     */
+    public boolean hasLastNameColumn() {
+        return lastNameColumn;
+    }
+
+    void globalCopyStarted() {
+        globalCopying = true;
+    }
+
+    void globalSwapped() {
+        globalV1 = false;
+        globalCopying = false;
+    }
+
+    void playerCopyStarted() {
+        playerCopying = true;
+    }
+
+    void playerChunksSwapped() {
+        playerChunks = PlayerChunks.V2;
+        playerCopying = false;
+    }
+
+    void playerChunksRetired() {
+        playerChunks = PlayerChunks.NONE;
+    }
+
+    void lastNameColumnAdded() {
+        lastNameColumn = true;
+    }
+
+    /**
+     * 全体の発見を記録する（呼び出し元のトランザクション内で実行）
+     *
+     * バッチ内で同じチャンクが重複する場合は最初の1件のみ書き込む。
+     * 挿入した行は確定までロックされるため、同時に同じチャンクを書き込んだ他のトランザクションは世界初にならない。
+     * @return rows と同じ順序の世界初フラグ
+     */
+    boolean[] insertGlobal(Connection conn, List<ChunkRow> rows) throws SQLException {
+        if (!globalV1) {
+            return insertIgnore(conn,
+                    "INSERT IGNORE INTO global_chunks(world_id, chunk_key, discovered_by) VALUES(?,?,?)",
+                    rows, SchemaLayout::bindGlobalV2, SchemaLayout::globalKey, true);
+        }
+        boolean[] inserted = insertIgnore(conn,
+                "INSERT IGNORE INTO global_chunks(world, chunk_x, chunk_z, discovered_by) VALUES(?,?,?,?)",
+                rows, SchemaLayout::bindGlobalV1, SchemaLayout::globalKey, true);
+        if (globalCopying) {
+            insertIgnore(conn,
+                    "INSERT IGNORE INTO global_chunks_v2(world_id, chunk_key, discovered_by) VALUES(?,?,?)",
+                    inserted(rows, inserted), SchemaLayout::bindGlobalV2, SchemaLayout::globalKey, false);
+        }
+        return inserted;
+    }
+
+    /**
+     * 旧 player_chunks に個人の発見を記録する（player_chunks がある場合のみ、呼び出し元のトランザクション内で実行）
+     *
+     * player_regions への書き込みは呼び出し元で行う。
+     * @return rows と同じ順序の個人初フラグ
+     */
+    boolean[] insertPlayerChunks(Connection conn, List<ChunkRow> rows) throws SQLException {
+        if (playerChunks == PlayerChunks.V2) {
+            return insertIgnore(conn,
+                    "INSERT IGNORE INTO player_chunks(player_id, world_id, chunk_key) VALUES(?,?,?)",
+                    rows, SchemaLayout::bindPlayerV2, SchemaLayout::playerKey, true);
+        }
+        boolean[] inserted = insertIgnore(conn,
+                "INSERT IGNORE INTO player_chunks(player_id, world, chunk_x, chunk_z) VALUES(?,?,?,?)",
+                rows, SchemaLayout::bindPlayerV1, SchemaLayout::playerKey, true);
+        if (playerCopying) {
+            insertIgnore(conn,
+                    "INSERT IGNORE INTO player_chunks_v2(player_id, world_id, chunk_key) VALUES(?,?,?)",
+                    inserted(rows, inserted), SchemaLayout::bindPlayerV2, SchemaLayout::playerKey, false);
+        }
+        return inserted;
+    }
+
+    /**
+     * 旧 player_chunks でチャンクが発見済みか
+     */
+    boolean containsPlayerChunk(Connection conn, String playerId, String world, int worldId, int chunkX, int chunkZ)
+            throws SQLException {
+        boolean v1 = playerChunks == PlayerChunks.V1;
+        String sql = v1
+                ? "SELECT 1 FROM player_chunks WHERE player_id = ? AND world = ? AND chunk_x = ? AND chunk_z = ?"
+                : "SELECT 1 FROM player_chunks WHERE player_id = ? AND world_id = ? AND chunk_key = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (v1) {
+                bindPlayerV1(ps, new ChunkRow(playerId, world, worldId, chunkX, chunkZ));
+            } else {
+                bindPlayerV2(ps, new ChunkRow(playerId, world, worldId, chunkX, chunkZ));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * 旧 player_chunks から発見済みの全チャンクをワールド別に取得
+     * @return ワールド名 -> パック済みチャンクキーのセット
+     */
+    Map<String, LongHashSet> playerChunkKeys(Connection conn, String playerId, WorldDictionary worlds) throws SQLException {
+        Map<String, LongHashSet> result = new HashMap<>();
+        if (playerChunks == PlayerChunks.V1) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT world, chunk_x, chunk_z FROM player_chunks WHERE player_id = ?")) {
+                ps.setString(1, playerId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        result.computeIfAbsent(rs.getString("world"), w -> new LongHashSet())
+                                .add(ChunkKey.pack(rs.getInt("chunk_x"), rs.getInt("chunk_z")));
+                    }
+                }
+            }
+            return result;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT world_id, chunk_key FROM player_chunks WHERE player_id = ?")) {
+            ps.setBytes(1, UuidBytes.toBytes(playerId));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    result.computeIfAbsent(worlds.nameOf(rs.getInt("world_id")), w -> new LongHashSet())
+                            .add(rs.getLong("chunk_key"));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * v1 の global_chunks のワールド別の発見数
+     * @return ワールド名 -> 発見数
+     */
+    Map<String, Integer> globalCountsV1(Connection conn) throws SQLException {
+        Map<String, Integer> counts = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT world, COUNT(*) AS total FROM global_chunks GROUP BY world");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                counts.put(rs.getString("world"), rs.getInt("total"));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 旧テーブルに挿入した行（コピー先へ書き込む行）
+     *
+     * 旧テーブルに既にあった行はコピーで移行先へ入るため、書き込むと発見者・発見日時が上書きされてしまう。
+     */
+    private static List<ChunkRow> inserted(List<ChunkRow> rows, boolean[] inserted) {
+        List<ChunkRow> result = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (inserted[i]) {
+                result.add(rows.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 重複を除いて INSERT IGNORE をバッチ実行する
+     * @param counted 行ごとの更新件数から挿入したかを判定する場合 true
+     * @return rows と同じ順序の挿入フラグ（counted が false の場合はすべて false）
+     */
+    private static boolean[] insertIgnore(Connection conn, String sql, List<ChunkRow> rows, Binder binder,
+                                          KeyFunction key, boolean counted) throws SQLException {
+        boolean[] inserted = new boolean[rows.size()];
+        int[] positions = new int[rows.size()];
+        int batched = 0;
+        Set<String> seen = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < rows.size(); i++) {
+                ChunkRow row = rows.get(i);
+                if (!seen.add(key.of(row))) {
+                    continue;
+                }
+                binder.bind(ps, row);
+                ps.addBatch();
+                positions[batched++] = i;
+            }
+
+            if (batched == 0) {
+                return inserted;
+            }
+            int[] counts = ps.executeBatch();
+            if (!counted) {
+                return inserted;
+            }
+            for (int j = 0; j < counts.length; j++) {
+                if (counts[j] == Statement.SUCCESS_NO_INFO) {
+                    // rewriteBatchedStatements などで行ごとの件数が返らない場合は初発見を判定できない
+                    throw new SQLException("INSERT IGNORE のバッチ実行で行ごとの更新件数を取得できませんでした");
+                }
+                inserted[positions[j]] = counts[j] > 0;
+            }
+        }
+        return inserted;
+    }
+
+    private static void bindGlobalV1(PreparedStatement ps, ChunkRow row) throws SQLException {
+        ps.setString(1, row.world());
+        ps.setInt(2, row.chunkX());
+        ps.setInt(3, row.chunkZ());
+        ps.setString(4, row.playerId());
+    }
+
+    private static void bindGlobalV2(PreparedStatement ps, ChunkRow row) throws SQLException {
+        ps.setInt(1, row.worldId());
+        ps.setLong(2, ChunkKey.pack(row.chunkX(), row.chunkZ()));
+        ps.setBytes(3, UuidBytes.toBytes(row.playerId()));
+    }
+
+    private static void bindPlayerV1(PreparedStatement ps, ChunkRow row) throws SQLException {
+        ps.setString(1, row.playerId());
+        ps.setString(2, row.world());
+        ps.setInt(3, row.chunkX());
+        ps.setInt(4, row.chunkZ());
+    }
+
+    private static void bindPlayerV2(PreparedStatement ps, ChunkRow row) throws SQLException {
+        ps.setBytes(1, UuidBytes.toBytes(row.playerId()));
+        ps.setInt(2, row.worldId());
+        ps.setLong(3, ChunkKey.pack(row.chunkX(), row.chunkZ()));
+    }
+
+    private static String globalKey(ChunkRow row) {
+        return row.worldId() + "/" + ChunkKey.pack(row.chunkX(), row.chunkZ());
+    }
+
+    private static String playerKey(ChunkRow row) {
+        return row.playerId() + '/' + globalKey(row);
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement ps, ChunkRow row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface KeyFunction {
+        String of(ChunkRow row);
+    }
+}
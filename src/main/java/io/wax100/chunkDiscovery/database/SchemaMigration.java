@@ -0,0 +1,67 @@
+package io.wax100.chunkDiscovery.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * スキーマ移行の1手順
+ *
+ * 手順はバッチ単位で実行され、各バッチは schema_version の再開位置の更新と同じトランザクションで確定する。
+ * サーバーが途中で停止した場合は、最後に確定したバッチの次から再開される。
+ */
+public interface SchemaMigration {
+
+    /**
+     * 手順のバージョン（この順に適用される）
+     */
+    int version();
+
+    /**
+     * 手順の説明（ログ・schema_version に記録）
+     */
+    String description();
+
+    /**
+     * 1バッチ分の移行を実行する（呼び出し元のトランザクション内で実行）
+     * @param conn コネクション
+     * @param resumeFrom 前回のバッチが返した再開位置（初回は null）
+     * @param batchSize 1バッチで処理する行数の目安
+     * @return 次の再開位置、残りがない場合は null
+     */
+    String migrateBatch(Connection conn, String resumeFrom, int batchSize) throws SQLException;
+
+    /**
+     * 全バッチの完了後に実行する処理（テーブルの入れ替えなど）
+     *
+     * 完了の記録前に停止した場合は再度呼び出されるため、繰り返し実行できること。
+     */
+    default void complete(Connection conn) throws SQLException {
+    }
+
+    /**
+     * 移行する行数の目安（開始前の所要時間の見積もりに使用）
+     * @return 行数の目安、対象の行がない場合は 0
+     */
+    default long estimateRows(Connection conn) throws SQLException {
+        return 0;
+    }
+
+    /**
+     * テーブルの行数の目安を information_schema から取得する（統計値のため正確な件数ではない）
+     * @return 行数の目安、取得できない場合は 0
+     */
+    static long approximateRows(Connection conn, String table) {
+        String sql = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Math.max(0, rs.getLong(1)) : 0;
+            }
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package io.wax100.chunkDiscovery.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * スキーマ移行手順を schema_version に記録しながら順に適用するクラス
+ *
+ * 未適用の手順はバックグラウンドスレッドでバッチ単位に実行し、バッチの間は
+ * pauseMillis だけ待機してDBの負荷を抑える。各バッチの再開位置を記録するため、
+ * 途中で停止しても次回起動時に続きから再開できる。
+ * 開始前に行数から所要時間を見積もり、実行中は一定間隔で進捗と残り時間をログに出力する。
+ */
+public class SchemaMigrator {
+    /**
+     * 所要時間の見積もりに使う1行あたりの処理時間（マイクロ秒、バッチ間の待機を除く）
+     */
+    static final long ESTIMATED_MICROS_PER_ROW = 100;
+
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final DataSource ds;
+    private final List<SchemaMigration> migrations;
+    private final Logger logger;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    private final LongAdder batches = new LongAdder();
+    private volatile boolean stopped;
+    private volatile boolean complete;
+    private volatile SchemaMigration running;
+    private volatile Thread thread;
+    private volatile long estimatedRows;
+    private volatile long startedAt;
+    private long lastProgressLog;
+
+    /**
+     * 未適用の手順の見積もり
+     * @param rows 移行する行数の目安
+     * @param batches バッチ数の目安
+     * @param seconds 所要時間の目安（秒）
+     */
+    public record Estimate(long rows, long batches, long seconds) {}
+
+    /**
+     * プラグインのスキーマ移行手順で作成する
+     */
+    public SchemaMigrator(DataSource ds, WorldDictionary worlds, Logger logger, int batchSize, long pauseMillis) {
+        this(ds, worlds, new SchemaLayout(), logger, batchSize, pauseMillis);
+    }
+
+    /**
+     * プラグインのスキーマ移行手順で作成する（テーブルの入れ替えを layout に反映し、移行中もチャンク発見を続ける）
+     */
+    public SchemaMigrator(DataSource ds, WorldDictionary worlds, SchemaLayout layout, Logger logger,
+                          int batchSize, long pauseMillis) {
+        this(ds, List.of(
+                new PlayerWorldStatsBackfill(),
+                SchemaV2Migration.globalChunks(worlds, layout, logger),
+                SchemaV2Migration.playerChunks(worlds, layout, logger),
+                new PlayerRegionsMigration(layout, logger),
+                new PlayerLastNameColumn(layout)
+        ), logger, batchSize, pauseMillis);
+    }
+
+    SchemaMigrator(DataSource ds, List<SchemaMigration> migrations, Logger logger, int batchSize, long pauseMillis) {
+        this.ds = ds;
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(SchemaMigration::version));
+        this.logger = logger;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * 未適用の手順があるか
+     */
+    public boolean hasPending() throws SQLException {
+        Map<Integer, Progress> progress = loadProgress();
+        for (SchemaMigration migration : migrations) {
+            Progress p = progress.get(migration.version());
+            if (p == null || !p.completed()) {
+                return true;
+            }
+        }
+        complete = true;
+        return false;
+    }
+
+    /**
+     * 未適用の手順の行数と所要時間を見積もる（DBにアクセスするためメインスレッド以外で呼び出す）
+     *
+     * 行数は information_schema の統計値、所要時間は1行あたりの処理時間の目安とバッチ間の待機時間から求める。
+     * 前回の続きから再開する場合も全行を数えるため、実際より長めになる。
+     */
+    public Estimate estimate() throws SQLException {
+        Map<Integer, Progress> progress = loadProgress();
+        long rows = 0;
+        try (Connection conn = ds.getConnection()) {
+            for (SchemaMigration migration : migrations) {
+                Progress p = progress.get(migration.version());
+                if (p == null || !p.completed()) {
+                    rows += migration.estimateRows(conn);
+                }
+            }
+        }
+        estimatedRows = rows;
+        return estimate(rows, batchSize, pauseMillis);
+    }
+
+    static Estimate estimate(long rows, int batchSize, long pauseMillis) {
+        long batches = (rows + batchSize - 1) / batchSize;
+        long millis = rows * ESTIMATED_MICROS_PER_ROW / 1000 + batches * pauseMillis;
+        return new Estimate(rows, batches, TimeUnit.MILLISECONDS.toSeconds(millis));
+    }
+
+    /**
+     * 未適用の手順をバックグラウンドスレッドで実行する
+     * @return 全手順の完了時（または {@link #stop()} による中断時）に完了する Future
+     */
+    public CompletableFuture<Void> start() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Thread worker = new Thread(() -> {
+            try {
+                runPending();
+                future.complete(null);
+            } catch (Exception e) {
+                logger.severe("データベースの移行に失敗しました: " + e.getMessage());
+                future.completeExceptionally(e);
+            }
+        }, "ChunkDiscovery-Migration");
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+        return future;
+    }
+
+    /**
+     * 実行中の移行を中断する（現在のバッチの確定後に停止する）
+     */
+    public void stop() {
+        stopped = true;
+        Thread worker = thread;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 未適用の手順を呼び出し元スレッドで順に実行する
+     */
+    void runPending() throws SQLException {
+        startedAt = System.nanoTime();
+        lastProgressLog = startedAt;
+        Map<Integer, Progress> progress = loadProgress();
+        for (SchemaMigration migration : migrations) {
+            Progress p = progress.get(migration.version());
+            if (p != null && p.completed()) {
+                continue;
+            }
+            if (!run(migration, p != null ? p.resumeFrom() : null)) {
+                logger.info("データベースの移行を中断しました。次回起動時に続きから再開します。");
+                return;
+            }
+        }
+        running = null;
+        complete = true;
+    }
+
+    /**
+     * 1つの手順を完了まで実行する
+     * @return 完了した場合 true、中断した場合 false
+     */
+    private boolean run(SchemaMigration migration, String resumeFrom) throws SQLException {
+        running = migration;
+        logger.info("データベースを移行しています (v" + migration.version() + " " + migration.description() + ")" +
+                (resumeFrom != null ? " - 前回の続きから再開します" : ""));
+
+        try (Connection conn = ds.getConnection()) {
+            register(conn, migration);
+
+            String cursor = resumeFrom;
+            boolean first = true;
+            do {
+                if (!first && !pause()) {
+                    return false;
+                }
+                first = false;
+
+                conn.setAutoCommit(false);
+                try {
+                    cursor = migration.migrateBatch(conn, cursor, batchSize);
+                    // 最後のバッチでは再開位置を消さない（完了の記録前に停止した場合に最初からやり直さないため）
+                    if (cursor != null) {
+                        saveProgress(conn, migration.version(), cursor);
+                    }
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                batches.increment();
+                logProgress();
+            } while (cursor != null);
+
+            migration.complete(conn);
+            markCompleted(conn, migration.version());
+        }
+        logger.info("データベースの移行が完了しました (v" + migration.version() + " " + migration.description() + ")");
+        return true;
+    }
+
+    /**
+     * 前回の出力から一定時間が経過していれば進捗と残り時間の目安をログに出力する
+     */
+    private void logProgress() {
+        long now = System.nanoTime();
+        if (now - lastProgressLog < PROGRESS_LOG_INTERVAL_NANOS) {
+            return;
+        }
+        lastProgressLog = now;
+        String progress = formatProgress(now);
+        if (progress != null) {
+            logger.info("データベースの移行中です: " + progress);
+        }
+    }
+
+    /**
+     * 処理済みのバッチ数から進捗率と残り時間を求める（見積もりがない場合は null）
+     */
+    private String formatProgress(long now) {
+        long rows = estimatedRows;
+        long done = batches.sum() * batchSize;
+        if (rows <= 0 || done <= 0) {
+            return null;
+        }
+        double ratio = Math.min(0.99, (double) done / rows);
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(now - startedAt);
+        long remainingSeconds = (long) (elapsedSeconds * (1 - ratio) / ratio);
+        return String.format("約 %d%% / 残り約 %s", (int) (ratio * 100), formatDuration(remainingSeconds));
+    }
+
+    /**
+     * 所要時間を表示用の文字列にする
+     */
+    public static String formatDuration(long seconds) {
+        if (seconds < 60) {
+            return "1分未満";
+        }
+        long minutes = (seconds + 59) / 60;
+        return minutes < 60 ? minutes + "分" : (minutes / 60) + "時間" + (minutes % 60) + "分";
+    }
+
+    /**
+     * バッチ間の待機
+     * @return 継続する場合 true、中断が要求された場合 false
+     */
+    private boolean pause() {
+        if (stopped) {
+            return false;
+        }
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return !stopped;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Map<Integer, Progress> loadProgress() throws SQLException {
+        Map<Integer, Progress> progress = new HashMap<>();
+        try (Connection conn = ds.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT version, resume_from, completed_at FROM schema_version");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                progress.put(rs.getInt("version"),
+                        new Progress(rs.getString("resume_from"), rs.getTimestamp("completed_at") != null));
+            }
+        }
+        return progress;
+    }
+
+    private static void register(Connection conn, SchemaMigration migration) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT IGNORE INTO schema_version(version, description) VALUES(?, ?)")) {
+            ps.setInt(1, migration.version());
+            ps.setString(2, migration.description());
+            ps.executeUpdate();
+        }
+    }
+
+    private static void saveProgress(Connection conn, int version, String resumeFrom) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE schema_version SET resume_from = ? WHERE version = ?")) {
+            ps.setString(1, resumeFrom);
+            ps.setInt(2, version);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void markCompleted(Connection conn, int version) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE schema_version SET resume_from = NULL, completed_at = CURRENT_TIMESTAMP WHERE version = ?")) {
+            ps.setInt(1, version);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * 全手順が適用済みか
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * 現在の状態（コマンド表示用）
+     */
+    public String getStatus() {
+        if (complete) {
+            return "完了";
+        }
+        SchemaMigration current = running;
+        if (current == null) {
+            return "待機中";
+        }
+        String progress = formatProgress(System.nanoTime());
+        return "v" + current.version() + " " + current.description() + " (" + batches.sum() + " バッチ処理済み" +
+                (progress != null ? ", " + progress : "") + ")";
+    }
+
+    private record Progress(String resumeFrom, boolean completed) {}
+}
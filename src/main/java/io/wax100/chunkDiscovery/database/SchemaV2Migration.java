@@ -0,0 +1,368 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.UuidBytes;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * global_chunks / player_chunks を v1（ワールド名・UUID文字列・X/Z座標）から
+ * v2（ワールドID・BINARY(16)・パック済みキー）へ移行する手順
+ *
+ * 新しい定義の一時テーブル（*_v2）へ主キー順にバッチ単位でコピーし、
+ * 最後に RENAME TABLE で入れ替える。旧テーブルは *_v1 として残す。
+ * コピー中もチャンク発見は旧テーブルを正として続き、*_v2 にも同じ発見が書き込まれる（{@link SchemaLayout}）。
+ * *_v2 の作成と入れ替えは、実行中の発見の書き込みが終わるのを待ってから行う。
+ */
+abstract class SchemaV2Migration implements SchemaMigration {
+    private final String table;
+    private final String ddl;
+    protected final WorldDictionary worlds;
+    protected final SchemaLayout layout;
+    private final Logger logger;
+
+    private long copied;
+    private long skipped;
+
+    private SchemaV2Migration(String table, String ddl, WorldDictionary worlds, SchemaLayout layout, Logger logger) {
+        this.table = table;
+        this.ddl = ddl;
+        this.worlds = worlds;
+        this.layout = layout;
+        this.logger = logger;
+    }
+
+    /**
+     * global_chunks を移行する手順
+     */
+    static SchemaV2Migration globalChunks(WorldDictionary worlds, Logger logger) {
+        return globalChunks(worlds, new SchemaLayout(), logger);
+    }
+
+    static SchemaV2Migration globalChunks(WorldDictionary worlds, SchemaLayout layout, Logger logger) {
+        return new GlobalChunks(worlds, layout, logger);
+    }
+
+    /**
+     * player_chunks を移行する手順
+     */
+    static SchemaV2Migration playerChunks(WorldDictionary worlds, Logger logger) {
+        return playerChunks(worlds, new SchemaLayout(), logger);
+    }
+
+    static SchemaV2Migration playerChunks(WorldDictionary worlds, SchemaLayout layout, Logger logger) {
+        return new PlayerChunks(worlds, layout, logger);
+    }
+
+    /**
+     * テーブルごとの移行結果
+     * @param table テーブル名
+     * @param rows コピーした行数（再開した場合は今回の起動でコピーした行数）
+     * @param skipped 不正なUUIDのためコピーしなかった行数
+     * @param bytesBefore 移行前のサイズ（データ + インデックス、取得できない場合は -1）
+     * @param bytesAfter 移行後のサイズ（データ + インデックス、取得できない場合は -1）
+     */
+    record TableReport(String table, long rows, long skipped, long bytesBefore, long bytesAfter) {}
+
+    @Override
+    public String description() {
+        return table + " のスキーマv2への移行";
+    }
+
+    @Override
+    public String migrateBatch(Connection conn, String resumeFrom, int batchSize) throws SQLException {
+        if (!DatabaseManager.hasColumn(conn, table, "world")) {
+            return null;
+        }
+        if (resumeFrom == null) {
+            // バッチの最初の文のため、このトランザクションはまだロックを持っていない
+            layout.beginChange();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(ddl);
+                copyStarted();
+            } finally {
+                layout.endChange();
+            }
+        }
+        return copyBatch(conn, table + "_v2", resumeFrom, batchSize);
+    }
+
+    @Override
+    public long estimateRows(Connection conn) throws SQLException {
+        return DatabaseManager.hasColumn(conn, table, "world") ? SchemaMigration.approximateRows(conn, table) : 0;
+    }
+
+    @Override
+    public void complete(Connection conn) throws SQLException {
+        if (!DatabaseManager.hasColumn(conn, table, "world")) {
+            return;
+        }
+
+        long bytesBefore = tableSize(conn, table);
+        layout.beginChange();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("RENAME TABLE " + table + " TO " + table + "_v1, " + table + "_v2 TO " + table);
+            swapped();
+        } finally {
+            layout.endChange();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE TABLE " + table);
+        }
+        long bytesAfter = tableSize(conn, table);
+        logger.info(format(new TableReport(table, copied, skipped, bytesBefore, bytesAfter)));
+    }
+
+    /**
+     * 再開位置の次から主キー順に batchSize 行をコピーする
+     * @return 最後にコピーした行の主キー（再開位置）、残りがない場合は null
+     */
+    protected abstract String copyBatch(Connection conn, String target, String resumeFrom, int batchSize) throws SQLException;
+
+    /**
+     * *_v2 を作成した後、発見の書き込み先に *_v2 を加える
+     */
+    protected abstract void copyStarted();
+
+    /**
+     * 入れ替えた後、発見の読み書き先を v2 に切り替える
+     */
+    protected abstract void swapped();
+
+    protected void countCopied() {
+        copied++;
+    }
+
+    protected void countSkipped() {
+        skipped++;
+    }
+
+    protected static byte[] toBytesOrNull(String uuid) {
+        try {
+            return UuidBytes.toBytes(uuid);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * global_chunks を主キー (world, chunk_x, chunk_z) 順にコピーする
+     *
+     * 再開位置は "chunk_x,chunk_z,world" 形式。
+     */
+    private static final class GlobalChunks extends SchemaV2Migration {
+        GlobalChunks(WorldDictionary worlds, SchemaLayout layout, Logger logger) {
+            super("global_chunks", MySqlBackend.globalChunksDdl("global_chunks_v2"), worlds, layout, logger);
+        }
+
+        @Override
+        public int version() {
+            return 2;
+        }
+
+        @Override
+        protected void copyStarted() {
+            layout.globalCopyStarted();
+        }
+
+        @Override
+        protected void swapped() {
+            layout.globalSwapped();
+        }
+
+        @Override
+        protected String copyBatch(Connection conn, String target, String resumeFrom, int batchSize) throws SQLException {
+            String select = "SELECT world, chunk_x, chunk_z, discovered_by, discovered_at FROM global_chunks " +
+                    (resumeFrom != null ? "WHERE world > ? OR (world = ? AND (chunk_x > ? OR (chunk_x = ? AND chunk_z > ?))) " : "") +
+                    "ORDER BY world, chunk_x, chunk_z LIMIT ?";
+
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            try (PreparedStatement ps = conn.prepareStatement(select)) {
+                int idx = 1;
+                if (resumeFrom != null) {
+                    String[] parts = resumeFrom.split(",", 3);
+                    int x = Integer.parseInt(parts[0]);
+                    int z = Integer.parseInt(parts[1]);
+                    ps.setString(idx++, parts[2]);
+                    ps.setString(idx++, parts[2]);
+                    ps.setInt(idx++, x);
+                    ps.setInt(idx++, x);
+                    ps.setInt(idx++, z);
+                }
+                ps.setInt(idx, batchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(new Object[]{rs.getString("world"), rs.getInt("chunk_x"), rs.getInt("chunk_z"),
+                                rs.getString("discovered_by"), rs.getTimestamp("discovered_at")});
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                return null;
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement("INSERT IGNORE INTO " + target +
+                    "(world_id, chunk_key, discovered_by, discovered_at) VALUES(?,?,?,?)")) {
+                for (Object[] row : rows) {
+                    byte[] discoveredBy = toBytesOrNull((String) row[3]);
+                    if (discoveredBy == null) {
+                        countSkipped();
+                        continue;
+                    }
+                    ps.setInt(1, worlds.idOf((String) row[0]));
+                    ps.setLong(2, ChunkKey.pack((int) row[1], (int) row[2]));
+                    ps.setBytes(3, discoveredBy);
+                    ps.setTimestamp(4, (Timestamp) row[4]);
+                    ps.addBatch();
+                    countCopied();
+                }
+                ps.executeBatch();
+            }
+
+            Object[] last = rows.get(rows.size() - 1);
+            return last[1] + "," + last[2] + "," + last[0];
+        }
+    }
+
+    /**
+     * player_chunks を主キー (player_id, world, chunk_x, chunk_z) 順にコピーする
+     *
+     * 再開位置は "player_id,chunk_x,chunk_z,world" 形式。
+     */
+    private static final class PlayerChunks extends SchemaV2Migration {
+        PlayerChunks(WorldDictionary worlds, SchemaLayout layout, Logger logger) {
+            super("player_chunks", MySqlBackend.playerChunksDdl("player_chunks_v2"), worlds, layout, logger);
+        }
+
+        @Override
+        public int version() {
+            return 3;
+        }
+
+        @Override
+        protected void copyStarted() {
+            layout.playerCopyStarted();
+        }
+
+        @Override
+        protected void swapped() {
+            layout.playerChunksSwapped();
+        }
+
+        @Override
+        protected String copyBatch(Connection conn, String target, String resumeFrom, int batchSize) throws SQLException {
+            String select = "SELECT player_id, world, chunk_x, chunk_z, discovered_at FROM player_chunks " +
+                    (resumeFrom != null ? "WHERE player_id > ? OR (player_id = ? AND (world > ? OR (world = ? AND " +
+                            "(chunk_x > ? OR (chunk_x = ? AND chunk_z > ?))))) " : "") +
+                    "ORDER BY player_id, world, chunk_x, chunk_z LIMIT ?";
+
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            try (PreparedStatement ps = conn.prepareStatement(select)) {
+                int idx = 1;
+                if (resumeFrom != null) {
+                    String[] parts = resumeFrom.split(",", 4);
+                    int x = Integer.parseInt(parts[1]);
+                    int z = Integer.parseInt(parts[2]);
+                    ps.setString(idx++, parts[0]);
+                    ps.setString(idx++, parts[0]);
+                    ps.setString(idx++, parts[3]);
+                    ps.setString(idx++, parts[3]);
+                    ps.setInt(idx++, x);
+                    ps.setInt(idx++, x);
+                    ps.setInt(idx++, z);
+                }
+                ps.setInt(idx, batchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(new Object[]{rs.getString("player_id"), rs.getString("world"),
+                                rs.getInt("chunk_x"), rs.getInt("chunk_z"), rs.getTimestamp("discovered_at")});
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                return null;
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement("INSERT IGNORE INTO " + target +
+                    "(player_id, world_id, chunk_key, discovered_at) VALUES(?,?,?,?)")) {
+                for (Object[] row : rows) {
+                    byte[] player = toBytesOrNull((String) row[0]);
+                    if (player == null) {
+                        countSkipped();
+                        continue;
+                    }
+                    ps.setBytes(1, player);
+                    ps.setInt(2, worlds.idOf((String) row[1]));
+                    ps.setLong(3, ChunkKey.pack((int) row[2], (int) row[3]));
+                    ps.setTimestamp(4, (Timestamp) row[4]);
+                    ps.addBatch();
+                    countCopied();
+                }
+                ps.executeBatch();
+            }
+
+            Object[] last = rows.get(rows.size() - 1);
+            return last[0] + "," + last[2] + "," + last[3] + "," + last[1];
+        }
+    }
+
+    /**
+     * テーブルのサイズ（データ + インデックス）を取得する
+     * @return バイト数、取得できない場合は -1
+     */
+    private static long tableSize(Connection conn, String table) {
+        String sql = "SELECT DATA_LENGTH + INDEX_LENGTH FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 移行結果をログ用の文字列にする
+     */
+    static String format(TableReport report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(report.table()).append(" をスキーマv2へ移行しました: ").append(report.rows()).append(" 行");
+        if (report.skipped() > 0) {
+            sb.append("（不正なUUIDの ").append(report.skipped()).append(" 行は旧テーブルに残しました）");
+        }
+        if (report.bytesBefore() >= 0 && report.bytesAfter() >= 0) {
+            sb.append(", ").append(formatBytes(report.bytesBefore()))
+              .append(" -> ").append(formatBytes(report.bytesAfter()));
+            if (report.bytesBefore() > 0) {
+                double change = (report.bytesAfter() - report.bytesBefore()) * 100.0 / report.bytesBefore();
+                sb.append(String.format(" (%+.1f%%)", change));
+            }
+        }
+        sb.append("。旧テーブルは ").append(report.table()).append("_v1 として残しています。");
+        return sb.toString();
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", value, units[unit]);
+    }
+}
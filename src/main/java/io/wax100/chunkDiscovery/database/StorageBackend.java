@@ -0,0 +1,37 @@
+package io.wax100.chunkDiscovery.database;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.util.List;
+
+/**
+ * 発見データの保存先（db.type で選択）
+ *
+ * 接続設定とテーブル定義のみを提供し、DML はこの SPI の対象外とする。
+ * リポジトリ・スキーマ移行のSQLは MySQL 構文で記述しているため、実装は次の構文をそのまま実行できること
+ * （H2 は MySQL 互換モードで対応している）。
+ * <ul>
+ *   <li>{@code INSERT IGNORE} と {@code INSERT ... ON DUPLICATE KEY UPDATE ... VALUES(col)}</li>
+ *   <li>{@code SELECT ... FOR UPDATE}</li>
+ *   <li>{@code RENAME TABLE a TO b, c TO a} と {@code ALTER TABLE ... RENAME TO}（スキーマ移行）</li>
+ *   <li>{@code information_schema.TABLES} の {@code TABLE_ROWS} / {@code DATA_LENGTH} / {@code INDEX_LENGTH}
+ *       （移行の見積もり・サイズ表示のみ。取得できない場合は表示を省略する）</li>
+ * </ul>
+ */
+public interface StorageBackend {
+
+    /**
+     * ストレージの表示名（ログ用）
+     */
+    String name();
+
+    /**
+     * コネクションプールの設定を作成する
+     */
+    HikariConfig createPoolConfig();
+
+    /**
+     * テーブル定義（起動時に順に実行される。既存のテーブルがある場合は何もしないこと）
+     */
+    List<String> tableDefinitions();
+}
@@ -9,7 +9,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * ワールドボーダーサイズをデータベースで管理するリポジトリクラス（MySQL専用）
+ * ワールドボーダーサイズをデータベースで管理するリポジトリクラス
  */
 public class WorldBorderRepository {
     private final DataSource ds;
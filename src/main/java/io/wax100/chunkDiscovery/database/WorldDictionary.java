@@ -0,0 +1,130 @@
+package io.wax100.chunkDiscovery.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ワールド名と worlds テーブルの SMALLINT ID を相互変換する辞書
+ *
+ * チャンクの各行にワールド名を持たせる代わりにIDを保存する。
+ * 一度解決したIDはメモリに保持し、以降はDBに問い合わせない。
+ */
+public class WorldDictionary {
+    /** 未登録のワールドを表すID */
+    public static final int UNKNOWN = -1;
+
+    private final DataSource ds;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    public WorldDictionary(DataSource ds) {
+        this.ds = ds;
+    }
+
+    /**
+     * ワールドのIDを取得する（未登録の場合は登録する）
+     *
+     * 登録は呼び出し元のトランザクションとは別のコネクションで確定する。
+     * 呼び出し元がロールバックしても、メモリ上のIDとDBが食い違わないようにするため。
+     * @param world ワールド名
+     * @return ワールドID
+     */
+    public int idOf(String world) {
+        Integer cached = ids.get(world);
+        if (cached != null) {
+            return cached;
+        }
+
+        try (Connection conn = ds.getConnection()) {
+            int id = select(conn, world);
+            if (id == UNKNOWN) {
+                try (PreparedStatement ps = conn.prepareStatement("INSERT IGNORE INTO worlds(name) VALUES(?)")) {
+                    ps.setString(1, world);
+                    ps.executeUpdate();
+                }
+                id = select(conn, world);
+            }
+            if (id == UNKNOWN) {
+                throw new SQLException("ワールドIDを登録できませんでした: " + world);
+            }
+            remember(world, id);
+            return id;
+        } catch (SQLException e) {
+            throw new RuntimeException("ワールドID取得中にエラーが発生しました", e);
+        }
+    }
+
+    /**
+     * 登録済みのワールドIDを取得する（読み取り専用の問い合わせ用）
+     * @param world ワールド名
+     * @return ワールドID、未登録の場合は {@link #UNKNOWN}
+     */
+    public int findId(String world) {
+        Integer cached = ids.get(world);
+        if (cached != null) {
+            return cached;
+        }
+
+        try (Connection conn = ds.getConnection()) {
+            int id = select(conn, world);
+            if (id != UNKNOWN) {
+                remember(world, id);
+            }
+            return id;
+        } catch (SQLException e) {
+            throw new RuntimeException("ワールドID取得中にエラーが発生しました", e);
+        }
+    }
+
+    /**
+     * ワールドIDからワールド名を取得する
+     * @param id ワールドID
+     * @return ワールド名
+     * @throws IllegalStateException 未登録のIDの場合
+     */
+    public String nameOf(int id) {
+        String cached = names.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        reload();
+        String name = names.get(id);
+        if (name == null) {
+            throw new IllegalStateException("未登録のワールドIDです: " + id);
+        }
+        return name;
+    }
+
+    private void reload() {
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT world_id, name FROM worlds")) {
+            while (rs.next()) {
+                remember(rs.getString("name"), rs.getInt("world_id"));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("ワールド一覧取得中にエラーが発生しました", e);
+        }
+    }
+
+    private static int select(Connection conn, String world) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT world_id FROM worlds WHERE name = ?")) {
+            ps.setString(1, world);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt("world_id") : UNKNOWN;
+            }
+        }
+    }
+
+    private void remember(String world, int id) {
+        ids.put(world, id);
+        names.put(id, world);
+    }
+}
@@ -0,0 +1,134 @@
+package io.wax100.chunkDiscovery.initializer;
+
+import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
+import io.wax100.chunkDiscovery.config.ConfigSnapshot;
+import io.wax100.chunkDiscovery.config.WorldBorderConfig;
+import io.wax100.chunkDiscovery.exception.ConfigurationException;
+import io.wax100.chunkDiscovery.util.DbExecutor;
+import io.wax100.chunkDiscovery.util.ExecutorRegistry;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 設定ファイルのリロードを担当するクラス
+ *
+ * 準備フェーズ（YAMLの読み込み・検証・設定スナップショットの構築）は DbExecutor で実行し、
+ * メインスレッドでは構築済みの設定の差し替えとワールドボーダーへの反映のみを行う。
+ * ボーダーサイズは DB を読み直さず、発見のたびに更新されているメモリ上の値を反映する
+ * （DB の値は書き込み待ちの拡張を含まないため、読み直すとボーダーが巻き戻ることがある）。
+ */
+public class ConfigReloader {
+
+    private final ChunkDiscoveryPlugin plugin;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    /**
+     * フェーズごとの所要時間
+     * @param parseMillis YAMLの読み込み・検証・設定の構築
+     * @param commitMillis メインスレッドでの差し替え・反映
+     */
+    public record Timings(long parseMillis, long commitMillis) {}
+
+    /**
+     * 準備フェーズの結果
+     */
+    private record Prepared(YamlConfiguration config, ConfigSnapshot snapshot, long parseMillis) {}
+
+    public ConfigReloader(ChunkDiscoveryPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 設定ファイルをリロードする（メインスレッドから呼び出す）
+     * @return 反映完了時にフェーズごとの所要時間で完了する Future（検証エラー・リロード中の場合は例外で完了）
+     */
+    public CompletableFuture<Timings> reload() {
+        if (!reloading.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new ConfigurationException("既にリロード中です。"));
+        }
+        plugin.getLogger().info("設定をリロードしています...");
+
+        try {
+            // ワールド一覧はメインスレッドで取得しておく
+            List<World> worlds = List.copyOf(plugin.getServer().getWorlds());
+            return ExecutorRegistry.db().supply(DbExecutor.Priority.BACKGROUND, () -> prepare(worlds))
+                    .thenCompose(this::commitOnMainThread)
+                    .whenComplete((timings, throwable) -> reloading.set(false));
+        } catch (RuntimeException e) {
+            reloading.set(false);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 準備フェーズ（メインスレッド以外で実行）
+     */
+    private Prepared prepare(List<World> worlds) {
+        long start = System.nanoTime();
+        YamlConfiguration config = loadConfigFile();
+        if (!new ConfigValidator(config, plugin.getLogger()).validate()) {
+            throw new CompletionException(new ConfigurationException("リロードされた設定ファイルに無効な値が含まれています。"));
+        }
+        ConfigSnapshot snapshot = ConfigSnapshot.load(config, worlds, plugin.getLogger());
+        return new Prepared(config, snapshot, toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * JavaPlugin#reloadConfig と同様に config.yml を読み込み、jar 内の config.yml をデフォルト値とする
+     */
+    private YamlConfiguration loadConfigFile() {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(new File(plugin.getDataFolder(), "config.yml"));
+        InputStream defaults = plugin.getResource("config.yml");
+        if (defaults != null) {
+            config.setDefaults(YamlConfiguration.loadConfiguration(new InputStreamReader(defaults, StandardCharsets.UTF_8)));
+        }
+        return config;
+    }
+
+    private CompletableFuture<Timings> commitOnMainThread(Prepared prepared) {
+        CompletableFuture<Timings> committed = new CompletableFuture<>();
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            try {
+                committed.complete(commit(prepared));
+            } catch (Exception e) {
+                committed.completeExceptionally(e);
+            }
+        });
+        return committed;
+    }
+
+    /**
+     * 反映フェーズ（メインスレッドで実行、DBにはアクセスしない）
+     */
+    private Timings commit(Prepared prepared) {
+        long start = System.nanoTime();
+
+        plugin.applyReloadedConfig(prepared.config());
+        PluginInitializer.configurePrimaryThreadGuard(plugin);
+
+        // ボーダー・マイルストーン・報酬の設定を一度に差し替える
+        ConfigSnapshot.publish(prepared.snapshot());
+        WorldBorderConfig.reapplyBorders();
+        plugin.getRewardService().reloadRewards();
+
+        Timings timings = new Timings(prepared.parseMillis(), toMillis(System.nanoTime() - start));
+        plugin.getLogger().info(String.format(
+                "設定ファイルがリロードされました（読み込み・検証 %dms / 反映 %dms）。ワールドボーダーサイズは保持されています。",
+                timings.parseMillis(), timings.commitMillis()));
+        return timings;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -19,7 +19,7 @@ public class ConfigValidator {
      * 設定値の全体的なバリデーション
      */
     public boolean validate() {
-        return validateBorderSettings() && validateDatabaseSettings();
+        return validateBorderSettings() && validateDatabaseSettings() && validateChunkStoreSettings();
     }
     
     private boolean validateBorderSettings() {
@@ -39,7 +39,26 @@ public class ConfigValidator {
         return true;
     }
     
+    private boolean validateChunkStoreSettings() {
+        String store = config.getString("db.chunk_store", "sql");
+        if (store != null && !"sql".equalsIgnoreCase(store) && !"region_file".equalsIgnoreCase(store)) {
+            logger.severe("db.chunk_store は sql または region_file である必要があります: " + store);
+            return false;
+        }
+        return true;
+    }
+
     private boolean validateDatabaseSettings() {
+        String type = config.getString("db.type", "mysql");
+        if ("h2".equalsIgnoreCase(type)) {
+            // 組み込みDBのため接続情報は不要
+            return true;
+        }
+        if (type != null && !"mysql".equalsIgnoreCase(type)) {
+            logger.severe("db.type は mysql または h2 である必要があります: " + type);
+            return false;
+        }
+
         String host = config.getString("db.host");
         int port = config.getInt("db.port", 3306);
         String dbName = config.getString("db.name");
@@ -1,54 +1,213 @@
 package io.wax100.chunkDiscovery.initializer;
 
 import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
+import io.wax100.chunkDiscovery.cache.BedrockVerdictCache;
 import io.wax100.chunkDiscovery.database.DatabaseManager;
+import io.wax100.chunkDiscovery.config.ConfigSnapshot;
 import io.wax100.chunkDiscovery.config.WorldBorderConfig;
-import io.wax100.chunkDiscovery.manager.MilestoneConfig;
 import io.wax100.chunkDiscovery.service.DiscoveryService;
+import io.wax100.chunkDiscovery.service.DiscoveryWriteBehind;
 import io.wax100.chunkDiscovery.service.RewardService;
 import io.wax100.chunkDiscovery.database.PlayerRepository;
 import io.wax100.chunkDiscovery.database.ChunkRepository;
+import io.wax100.chunkDiscovery.database.DiscoveryBatchRepository;
+import io.wax100.chunkDiscovery.database.DiscoveryCommit;
+import io.wax100.chunkDiscovery.database.H2Backend;
+import io.wax100.chunkDiscovery.database.MySqlBackend;
+import io.wax100.chunkDiscovery.database.RegionBitmapDiscoveryCommit;
+import io.wax100.chunkDiscovery.database.RegionBitmapStore;
+import io.wax100.chunkDiscovery.database.StorageBackend;
+import io.wax100.chunkDiscovery.database.SchemaLayout;
+import io.wax100.chunkDiscovery.database.SchemaMigrator;
+import io.wax100.chunkDiscovery.database.WorldDictionary;
+import io.wax100.chunkDiscovery.listener.BedrockFloorValidator;
+import io.wax100.chunkDiscovery.listener.BedrockVerdictListener;
 import io.wax100.chunkDiscovery.listener.ChunkDiscoveryListener;
+import io.wax100.chunkDiscovery.listener.ChunkPositionTracker;
+import io.wax100.chunkDiscovery.listener.ChunkScanTask;
+import io.wax100.chunkDiscovery.listener.PlayerSessionListener;
+import io.wax100.chunkDiscovery.listener.StartupDiscoveryQueue;
 import io.wax100.chunkDiscovery.commands.ChunkDiscoveryCommand;
+import io.wax100.chunkDiscovery.exception.ChunkDiscoveryException;
 import io.wax100.chunkDiscovery.exception.ConfigurationException;
 import io.wax100.chunkDiscovery.exception.DatabaseException;
+import io.wax100.chunkDiscovery.util.ExecutorRegistry;
+import io.wax100.chunkDiscovery.util.PrimaryThreadGuard;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.event.HandlerList;
 
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * プラグインの初期化処理を担当するクラス
  */
 public class PluginInitializer {
+    private static final int STARTUP_THREADS = 2;
+    /** 起動処理中のチャンク移動の再生を、キャッシュの読み込み完了まで待つ最大時間（秒） */
+    private static final long STARTUP_REPLAY_WAIT_SECONDS = 30;
+
     private final ChunkDiscoveryPlugin plugin;
+    private final Map<String, Long> phaseMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile WorldDictionary worldDictionary;
+    private final SchemaLayout schemaLayout = new SchemaLayout();
+    private volatile RegionBitmapStore chunkStore;
+    private StartupDiscoveryQueue startupQueue;
     
     public PluginInitializer(ChunkDiscoveryPlugin plugin) {
         this.plugin = plugin;
     }
     
     /**
-     * プラグインの初期化を実行
+     * プラグインの初期化を開始する（メインスレッドから呼び出す）
+     *
+     * 設定ファイルの検証のみ同期で行い、DB接続・テーブル作成、設定の構築、ボーダーサイズの読み込み、
+     * スキーマの確認、リージョンストアの読み込み（db.chunk_store: region_file の場合）は起動用スレッドで並行して実行する。すべて完了した後、メインスレッドでサービスを作成して
+     * チャンク発見を開始する。それまでのチャンク移動は {@link StartupDiscoveryQueue} に記録し、開始時に再生する。
+     * @return メインスレッドでの反映完了時に完了する Future（初期化に失敗した場合は例外で完了）
      */
-    public InitializationResult initialize() throws ConfigurationException, DatabaseException {
+    public CompletableFuture<InitializationResult> initialize() throws ConfigurationException {
+        long start = System.nanoTime();
+
         // 設定ファイルの保存と検証
         plugin.saveDefaultConfig();
         validateConfiguration();
-        
-        // データベース初期化
-        initializeDatabase();
-        
-        // 各種設定の初期化
-        initializeConfigurations();
-        
+
+        // 準備完了までのチャンク移動を記録し、コマンドは起動処理中である旨を返す
+        startupQueue = new StartupDiscoveryQueue(Math.max(0, plugin.getConfig().getInt("discovery.startup_queue_size", 10000)));
+        plugin.getServer().getPluginManager().registerEvents(startupQueue, plugin);
+        Objects.requireNonNull(plugin.getCommand("chunkdiscovery")).setExecutor((sender, command, label, args) -> {
+            sender.sendMessage(ChatColor.YELLOW + "起動処理中です。しばらくしてから再度お試しください。");
+            return true;
+        });
+
+        // ワールド一覧と設定はメインスレッドで取得しておく
+        List<World> worlds = List.copyOf(plugin.getServer().getWorlds());
+        FileConfiguration config = plugin.getConfig();
+        ExecutorService startupExecutor = Executors.newFixedThreadPool(STARTUP_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "ChunkDiscovery-Startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // 互いに依存しない処理は並行して実行する
+        CompletableFuture<ConfigSnapshot> snapshot = CompletableFuture.supplyAsync(
+            () -> timed("設定の構築", () -> ConfigSnapshot.load(config, worlds, plugin.getLogger())), startupExecutor);
+        CompletableFuture<Void> storage = CompletableFuture.runAsync(
+            () -> timedStep("DB接続・テーブル作成", this::initializeDatabase), startupExecutor);
+        CompletableFuture<Map<String, Double>> borderSizes = storage.thenCombineAsync(snapshot,
+            (ignored, loaded) -> timed("ボーダーサイズの読み込み", () -> readBorderSizes(worlds, loaded)), startupExecutor);
+        CompletableFuture<MigrationCheck> migrations = storage.thenApplyAsync(
+            ignored -> timed("スキーマの確認", this::checkMigrations), startupExecutor);
+        CompletableFuture<Void> regionStore = isRegionFileStore()
+            ? CompletableFuture.runAsync(() -> timedStep("リージョンストアの読み込み", this::openChunkStore), startupExecutor)
+            : CompletableFuture.completedFuture(null);
+
+        CompletableFuture<InitializationResult> result = new CompletableFuture<>();
+        CompletableFuture.allOf(snapshot, borderSizes, migrations, regionStore).whenComplete((ignored, error) -> {
+            startupExecutor.shutdown();
+            if (!plugin.isEnabled()) {
+                // 起動処理の完了前に無効化された場合は、後から開いた接続とファイルを閉じる
+                ExecutorRegistry.shutdown(0);
+                DatabaseManager.shutdown();
+                closeChunkStore();
+                return;
+            }
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (error != null) {
+                    closeChunkStore();
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+                    return;
+                }
+                try {
+                    result.complete(commit(snapshot.join(), borderSizes.join(), migrations.join(), start));
+                } catch (Exception e) {
+                    closeChunkStore();
+                    result.completeExceptionally(e);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * 起動処理の反映（メインスレッドで実行）
+     */
+    private InitializationResult commit(ConfigSnapshot snapshot, Map<String, Double> borderSizes,
+                                        MigrationCheck migrations, long start) {
+        long commitStart = System.nanoTime();
+
+        // 各種設定の反映
+        ConfigSnapshot.publish(snapshot);
+        WorldBorderConfig.start(borderSizes);
+
         // サービス層の初期化
         ServiceContainer services = initializeServices();
-        
-        // イベントリスナーとコマンドの登録
-        registerListenersAndCommands(services);
-        
+        startChunkStoreSync(services.discoveryService());
+
+        // スキーマ移行（移行が必要な場合はバックグラウンドで実行し、完了後にリスナーとコマンドを登録）
+        SchemaMigrator migrator = startMigrations(services, migrations);
+        phaseMillis.put("反映（メインスレッド）", toMillis(System.nanoTime() - commitStart));
+
+        logStartupTimings(start);
         plugin.getLogger().info("ChunkDiscoveryPlugin が正常に有効化されました。");
-        return new InitializationResult(services.discoveryService(), services.rewardService());
+        return new InitializationResult(services.discoveryService(), services.rewardService(), services.bedrockVerdictCache(),
+                migrator);
     }
-    
+
+    private <T> T timed(String phase, Supplier<T> step) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            phaseMillis.put(phase, toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private void timedStep(String phase, StartupStep step) {
+        timed(phase, () -> {
+            try {
+                step.run();
+            } catch (ChunkDiscoveryException e) {
+                throw new CompletionException(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 起動処理のフェーズごとの所要時間をログに出力する
+     */
+    private void logStartupTimings(long start) {
+        StringBuilder message = new StringBuilder("起動処理が完了しました（合計 ")
+            .append(toMillis(System.nanoTime() - start)).append("ms）");
+        synchronized (phaseMillis) {
+            phaseMillis.forEach((phase, millis) -> message.append(" / ").append(phase).append(" ").append(millis).append("ms"));
+        }
+        plugin.getLogger().info(message.toString());
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
     private void validateConfiguration() throws ConfigurationException {
         ConfigValidator validator = new ConfigValidator(plugin.getConfig(), plugin.getLogger());
         if (!validator.validate()) {
@@ -58,64 +217,356 @@ public class PluginInitializer {
     
     private void initializeDatabase() throws DatabaseException {
         try {
-            DatabaseManager.init(
-                plugin.getConfig().getString("db.host"),
-                plugin.getConfig().getInt("db.port"),
-                plugin.getConfig().getString("db.name"),
-                plugin.getConfig().getString("db.user"),
-                plugin.getConfig().getString("db.pass")
-            );
-            plugin.getLogger().info("MySQL データベース接続が確立されました。");
+            StorageBackend backend = createStorageBackend();
+            DatabaseManager.init(backend);
+            plugin.getLogger().info(backend.name() + " データベース接続が確立されました。");
+            configurePrimaryThreadGuard(plugin);
+
+            // DBアクセスは接続数と同じスレッド数の専用プールで実行する
+            int threads = DatabaseManager.getDataSource().getMaximumPoolSize();
+            int queueCapacity = Math.max(1, plugin.getConfig().getInt("db.executor.queue_capacity", 1000));
+            ExecutorRegistry.start(threads, queueCapacity, isVirtualThreadMode(), plugin.getLogger());
+            if (ExecutorRegistry.db().isVirtual()) {
+                plugin.getLogger().info("DBアクセスを仮想スレッドで実行します（同時実行数 " + threads + "）。");
+            }
+
+            worldDictionary = new WorldDictionary(DatabaseManager.getRepositoryDataSource());
         } catch (Exception e) {
             throw new DatabaseException("データベース初期化に失敗しました", e);
         }
     }
+
+    /**
+     * debug.primary_thread_check に応じてメインスレッドからのDBアクセスの検出を切り替える（リロード時も使用）
+     */
+    public static void configurePrimaryThreadGuard(ChunkDiscoveryPlugin plugin) {
+        boolean enabled = plugin.getConfig().getBoolean("debug.primary_thread_check", false);
+        PrimaryThreadGuard.configure(enabled, plugin.getLogger());
+        if (enabled) {
+            plugin.getLogger().info("メインスレッドからのDBアクセスを検出します（debug.primary_thread_check）。");
+        }
+    }
+
+    private boolean isVirtualThreadMode() {
+        String mode = plugin.getConfig().getString("db.executor.mode", "platform");
+        if ("virtual".equalsIgnoreCase(mode)) {
+            return true;
+        }
+        if (!"platform".equalsIgnoreCase(mode)) {
+            plugin.getLogger().warning("db.executor.mode の値が不正です（platform / virtual）。platform で動作します: " + mode);
+        }
+        return false;
+    }
+
+    /**
+     * db.type に応じた保存先を作成する（mysql / h2）
+     */
+    private StorageBackend createStorageBackend() {
+        String type = plugin.getConfig().getString("db.type", "mysql");
+        if ("h2".equalsIgnoreCase(type)) {
+            String file = plugin.getConfig().getString("db.h2.file", "chunkdiscovery");
+            return new H2Backend(new File(plugin.getDataFolder(), file));
+        }
+        return new MySqlBackend(
+            plugin.getConfig().getString("db.host"),
+            plugin.getConfig().getInt("db.port"),
+            plugin.getConfig().getString("db.name"),
+            plugin.getConfig().getString("db.user"),
+            plugin.getConfig().getString("db.pass")
+        );
+    }
     
-    private void initializeConfigurations() {
+    /**
+     * DBから保存済みのボーダーサイズを読み込む（起動用スレッドで実行）
+     * @return 読み込みに失敗した場合は null（設定ファイルの初期値を適用する）
+     */
+    private Map<String, Double> readBorderSizes(List<World> worlds, ConfigSnapshot snapshot) {
+        WorldBorderConfig.init(plugin);
         try {
-            WorldBorderConfig.init(plugin);
-            
-            // MilestoneConfigのインスタンスを作成
-            MilestoneConfig milestoneConfig = new MilestoneConfig(plugin.getLogger());
-            milestoneConfig.loadConfiguration(plugin.getConfig());
-            MilestoneConfig.setInstance(milestoneConfig);
-            
-            plugin.getLogger().info("各種設定を読み込みました。");
+            List<String> worldNames = worlds.stream().map(World::getName).toList();
+            return WorldBorderConfig.readBorderSizes(worldNames, snapshot.borders());
         } catch (Exception e) {
-            plugin.getLogger().warning("設定の読み込みに失敗しました: " + e.getMessage());
+            plugin.getLogger().severe("データベースからのボーダーサイズ復元中にエラーが発生しました: " + e.getMessage());
+            return null;
         }
     }
     
     private ServiceContainer initializeServices() {
         RewardService rewardService = new RewardService(plugin);
+        DataSource ds = DatabaseManager.getRepositoryDataSource();
+        RegionBitmapStore store = chunkStore;
         DiscoveryService discoveryService = new DiscoveryService(
-            new PlayerRepository(DatabaseManager.getDataSource()),
-            new ChunkRepository(DatabaseManager.getDataSource()),
+            new PlayerRepository(ds, worldDictionary, schemaLayout),
+            new ChunkRepository(ds, worldDictionary, schemaLayout),
             rewardService,
-            plugin
+            plugin,
+            store != null
+                ? new RegionBitmapDiscoveryCommit(ds, worldDictionary, store)
+                : new DiscoveryCommit(ds, worldDictionary, schemaLayout),
+            // リージョンストアへの記録はビット操作のみで完了するため、まとめて書き込まない
+            store != null ? null : createWriteBehind(),
+            store
         );
         
-        return new ServiceContainer(discoveryService, rewardService);
+        return new ServiceContainer(discoveryService, rewardService, createBedrockVerdictCache());
+    }
+
+    /**
+     * db.chunk_store に応じて発見済みチャンクの保存先を判定する（sql / region_file）
+     */
+    private boolean isRegionFileStore() {
+        String store = plugin.getConfig().getString("db.chunk_store", "sql");
+        return "region_file".equalsIgnoreCase(store);
+    }
+
+    /**
+     * リージョンストアを開く（起動用スレッドで実行、前回停止時にチェックポイントされていない変更はログから復元する）
+     */
+    private void openChunkStore() throws DatabaseException {
+        File directory = new File(plugin.getDataFolder(), plugin.getConfig().getString("db.region_file.directory", "regions"));
+        try {
+            RegionBitmapStore store = new RegionBitmapStore(directory);
+            chunkStore = store;
+            plugin.getLogger().info(String.format(
+                "発見済みチャンクをリージョンファイルに保存します（%d ワールド、変更ログから %d 件を復元）: %s",
+                store.getWorldCount(), store.getReplayedEntries(), directory.getPath()));
+        } catch (RuntimeException e) {
+            throw new DatabaseException("リージョンストアの読み込みに失敗しました", e);
+        }
+    }
+
+    /**
+     * リージョンストアの変更ログを定期的にディスクへ同期する（OSの停止に備える）
+     */
+    private void startChunkStoreSync(DiscoveryService discoveryService) {
+        if (discoveryService.getChunkStore() == null) {
+            return;
+        }
+        long intervalMillis = Math.max(50, plugin.getConfig().getLong("db.region_file.sync_interval_ms", 1000));
+        long period = intervalMillis / 50;
+        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, discoveryService::syncChunkStore, period, period);
+    }
+
+    private void closeChunkStore() {
+        RegionBitmapStore store = chunkStore;
+        if (store == null) {
+            return;
+        }
+        chunkStore = null;
+        try {
+            store.close();
+        } catch (RuntimeException e) {
+            plugin.getLogger().severe("リージョンストアのクローズ中にエラーが発生しました: " + e.getMessage());
+        }
+    }
+
+    private DiscoveryWriteBehind createWriteBehind() {
+        if (!plugin.getConfig().getBoolean("discovery.write_behind.enabled", true)) {
+            return null;
+        }
+        long interval = Math.max(10, plugin.getConfig().getLong("discovery.write_behind.flush_interval_ms", 250));
+        int batchSize = Math.max(1, plugin.getConfig().getInt("discovery.write_behind.max_batch_size", 200));
+        return new DiscoveryWriteBehind(
+            new DiscoveryBatchRepository(DatabaseManager.getRepositoryDataSource(), worldDictionary, schemaLayout),
+            plugin.getLogger(),
+            interval,
+            batchSize
+        );
+    }
+
+    private BedrockVerdictCache createBedrockVerdictCache() {
+        if (!plugin.getConfig().getBoolean("discovery.bedrock_cache.enabled", true)) {
+            return null;
+        }
+        int lruSize = plugin.getConfig().getInt("discovery.bedrock_cache.lru_size", 4096);
+        return new BedrockVerdictCache(plugin, Math.max(1, lruSize));
     }
     
+    /**
+     * 現在のテーブル構成を読み込み、未適用のスキーマ移行があるかを確認する（起動用スレッドで実行）
+     */
+    private MigrationCheck checkMigrations() {
+        SchemaMigrator migrator = new SchemaMigrator(
+            DatabaseManager.getRepositoryDataSource(),
+            worldDictionary,
+            schemaLayout,
+            plugin.getLogger(),
+            Math.max(1, plugin.getConfig().getInt("db.migration.batch_size", 5000)),
+            Math.max(0, plugin.getConfig().getLong("db.migration.pause_ms", 50))
+        );
+
+        try {
+            schemaLayout.detect(DatabaseManager.getRepositoryDataSource());
+            if (!migrator.hasPending()) {
+                return new MigrationCheck(migrator, false, null);
+            }
+            return new MigrationCheck(migrator, true, migrator.estimate());
+        } catch (SQLException e) {
+            throw new CompletionException(new DatabaseException("スキーマのバージョン確認に失敗しました", e));
+        }
+    }
+
+    /**
+     * 未適用のスキーマ移行があればバックグラウンドで実行する
+     *
+     * 移行中もチャンク発見とコマンドは受け付け、テーブルが入れ替わるまでは旧テーブルで判定する（{@link SchemaLayout}）。
+     */
+    private SchemaMigrator startMigrations(ServiceContainer services, MigrationCheck migrations) {
+        SchemaMigrator migrator = migrations.migrator();
+        registerListenersAndCommands(services);
+        if (!migrations.pending()) {
+            return migrator;
+        }
+
+        SchemaMigrator.Estimate estimate = migrations.estimate();
+        plugin.getLogger().warning(String.format(
+            "データベースの移行をバックグラウンドで実行します（約 %d 行・%d バッチ、所要時間の目安 %s）。" +
+            "移行中もチャンク発見は続けます。同じデータベースを使う他のサーバーは移行の完了まで停止してください。",
+            estimate.rows(), estimate.batches(), SchemaMigrator.formatDuration(estimate.seconds())));
+
+        migrator.start().whenComplete((ignored, error) -> {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (error != null) {
+                    plugin.getLogger().severe("データベースの移行に失敗したため、プラグインを無効化します。");
+                    plugin.getServer().getPluginManager().disablePlugin(plugin);
+                } else if (migrator.isComplete()) {
+                    plugin.getLogger().info("データベースの移行が完了しました。");
+                }
+            });
+        });
+        return migrator;
+    }
+
     private void registerListenersAndCommands(ServiceContainer services) {
-        plugin.getServer().getPluginManager().registerEvents(
-            new ChunkDiscoveryListener(services.discoveryService()), 
-            plugin
+        Executor mainThread = task -> plugin.getServer().getScheduler().runTask(plugin, task);
+        BedrockFloorValidator bedrockValidator = new BedrockFloorValidator(
+            ForkJoinPool.commonPool(),
+            mainThread,
+            services.bedrockVerdictCache()
         );
+        ChunkPositionTracker positionTracker = new ChunkPositionTracker();
+        ChunkDiscoveryListener discoveryListener = new ChunkDiscoveryListener(
+            services.discoveryService(), positionTracker, bedrockValidator, mainThread, plugin.getLogger());
+        plugin.getServer().getPluginManager().registerEvents(
+            new PlayerSessionListener(services.discoveryService(), positionTracker), plugin);
+        if (isTickScanMode()) {
+            startChunkScan(positionTracker, services.discoveryService(), bedrockValidator, mainThread);
+        } else {
+            plugin.getServer().getPluginManager().registerEvents(discoveryListener, plugin);
+        }
+        if (services.bedrockVerdictCache() != null) {
+            plugin.getServer().getPluginManager().registerEvents(
+                new BedrockVerdictListener(services.bedrockVerdictCache()),
+                plugin
+            );
+        }
         
         Objects.requireNonNull(plugin.getCommand("chunkdiscovery")).setExecutor(
             new ChunkDiscoveryCommand(services.discoveryService(), plugin)
         );
+
+        // リロード時など既にオンラインのプレイヤーのキャッシュを読み込む
+        CompletableFuture<?>[] cacheLoads = plugin.getServer().getOnlinePlayers().stream()
+            .map(services.discoveryService()::loadPlayerCache)
+            .toArray(CompletableFuture[]::new);
+
+        startCounterReconcile(services.discoveryService());
+        services.discoveryService().loadRanking();
+
+        // 以降の移動はリスナーで処理するため記録を終了し、記録済みの移動はキャッシュの読み込み後に再生する
+        HandlerList.unregisterAll(startupQueue);
+        CompletableFuture.allOf(cacheLoads)
+            .completeOnTimeout(null, STARTUP_REPLAY_WAIT_SECONDS, TimeUnit.SECONDS)
+            .whenComplete((ignored, throwable) -> {
+                if (plugin.isEnabled()) {
+                    mainThread.execute(() -> replayStartupQueue(discoveryListener));
+                }
+            });
+    }
+
+    /**
+     * 起動処理中に記録したチャンク移動を発見処理へ渡す（メインスレッドで実行）
+     *
+     * 再生はオンラインのプレイヤーのキャッシュの読み込み完了（または待機時間の経過）後に行うため、
+     * 発見済みの判定はメモリ上のキャッシュで行われる。
+     */
+    private void replayStartupQueue(ChunkDiscoveryListener discoveryListener) {
+        int replayed = startupQueue.open(plugin.getServer()::getPlayer, plugin.getServer()::getWorld,
+            discoveryListener::handleCrossing);
+        if (replayed > 0 || startupQueue.getDroppedCount() > 0) {
+            plugin.getLogger().info("起動処理中のチャンク移動 " + replayed + " 件を発見処理へ渡しました（上限超過で破棄: "
+                + startupQueue.getDroppedCount() + " 件）。");
+        }
+    }
+
+    /**
+     * 発見数カウンターを読み込み、定期的にDBと突き合わせる
+     */
+    private void startCounterReconcile(DiscoveryService discoveryService) {
+        discoveryService.loadCounters();
+
+        long minutes = Math.max(1, plugin.getConfig().getLong("discovery.counter_reconcile_minutes", 10));
+        long period = minutes * 60 * 20;
+        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, discoveryService::reconcileCounters, period, period);
     }
     
+    private boolean isTickScanMode() {
+        String mode = plugin.getConfig().getString("discovery.mode", "event");
+        if ("tick".equalsIgnoreCase(mode)) {
+            return true;
+        }
+        if (!"event".equalsIgnoreCase(mode)) {
+            plugin.getLogger().warning("discovery.mode の値が不正です（event / tick）。event モードで動作します: " + mode);
+        }
+        return false;
+    }
+
+    /**
+     * 定期スキャンでチャンク移動を検出する（PlayerMoveEvent は購読しない）
+     */
+    private void startChunkScan(ChunkPositionTracker positionTracker, DiscoveryService discoveryService,
+                                BedrockFloorValidator bedrockValidator, Executor mainThread) {
+        long interval = Math.max(1, plugin.getConfig().getInt("discovery.scan_interval_ticks", 5));
+        int maxInterpolated = Math.max(1, plugin.getConfig().getInt("discovery.max_interpolated_chunks", 16));
+        ChunkScanTask scanTask = new ChunkScanTask(
+            plugin.getServer()::getOnlinePlayers,
+            positionTracker,
+            discoveryService,
+            bedrockValidator,
+            maxInterpolated,
+            mainThread,
+            plugin.getLogger()
+        );
+        plugin.getServer().getScheduler().runTaskTimer(plugin, scanTask, interval, interval);
+        plugin.getLogger().info("チャンク発見を " + interval + " tick ごとのスキャンで検出します。");
+    }
+
     /**
      * 初期化結果を保持するレコード
      */
-    public record InitializationResult(DiscoveryService discoveryService, RewardService rewardService) {}
+    public record InitializationResult(DiscoveryService discoveryService, RewardService rewardService,
+                                       BedrockVerdictCache bedrockVerdictCache, SchemaMigrator schemaMigrator) {}
     
+    /**
+     * スキーマの確認結果
+     * @param estimate 未適用の手順の見積もり（未適用の手順がない場合は null）
+     */
+    private record MigrationCheck(SchemaMigrator migrator, boolean pending, SchemaMigrator.Estimate estimate) {}
+
+    /**
+     * 起動用スレッドで実行する処理
+     */
+    @FunctionalInterface
+    private interface StartupStep {
+        void run() throws ChunkDiscoveryException;
+    }
+
     /**
      * サービスコンテナ
      */
-    private record ServiceContainer(DiscoveryService discoveryService, RewardService rewardService) {}
+    private record ServiceContainer(DiscoveryService discoveryService, RewardService rewardService,
+                                    BedrockVerdictCache bedrockVerdictCache) {}
 }
\ No newline at end of file
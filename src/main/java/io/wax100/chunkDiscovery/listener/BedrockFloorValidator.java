@@ -0,0 +1,98 @@
+package io.wax100.chunkDiscovery.listener;
+
+import io.wax100.chunkDiscovery.Constants;
+import io.wax100.chunkDiscovery.cache.BedrockVerdictCache;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * チャンク最下層が岩盤で埋まっているかを検証するクラス
+ *
+ * メインスレッドでは ChunkSnapshot の取得のみを行い、
+ * 16×16 ブロックの走査は非同期スレッドで実行する。
+ * - NORMAL / NETHER / その他: 最下層（ワールドの最小Y）がすべて岩盤なら有効
+ * - THE_END: 発見対象外
+ *
+ * 判定キャッシュが設定されている場合は、保存済みの判定結果を優先して使用する。
+ */
+public class BedrockFloorValidator {
+    private static final CompletableFuture<Boolean> VALID = CompletableFuture.completedFuture(true);
+    private static final CompletableFuture<Boolean> INVALID = CompletableFuture.completedFuture(false);
+
+    private final Executor executor;
+    private final Executor syncExecutor;
+    private final BedrockVerdictCache verdictCache;
+
+    public BedrockFloorValidator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor 岩盤走査を実行するExecutor
+     */
+    public BedrockFloorValidator(Executor executor) {
+        this(executor, null, null);
+    }
+
+    /**
+     * @param executor 岩盤走査を実行するExecutor
+     * @param syncExecutor 判定結果をキャッシュへ書き込むメインスレッドのExecutor
+     * @param verdictCache 判定結果キャッシュ（null の場合は毎回走査する）
+     */
+    public BedrockFloorValidator(Executor executor, Executor syncExecutor, BedrockVerdictCache verdictCache) {
+        this.executor = executor;
+        this.syncExecutor = syncExecutor;
+        this.verdictCache = verdictCache;
+    }
+
+    /**
+     * チャンクの岩盤検証を開始する（メインスレッドから呼び出すこと）
+     * @param chunk 検証対象のチャンク
+     * @return 岩盤で埋まっていれば true を返す Future
+     */
+    public CompletableFuture<Boolean> validate(Chunk chunk) {
+        World world = chunk.getWorld();
+        if (world.getEnvironment() == World.Environment.THE_END) {
+            // エンドでは岩盤チェックは行わない
+            return INVALID;
+        }
+
+        if (verdictCache != null) {
+            switch (verdictCache.get(chunk)) {
+                case VALID -> { return VALID; }
+                case INVALID -> { return INVALID; }
+                default -> { }
+            }
+        }
+
+        int minY = world.getMinHeight();
+        ChunkSnapshot snapshot = chunk.getChunkSnapshot(false, false, false);
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(() -> hasBedrockFloor(snapshot, minY), executor);
+        if (verdictCache != null) {
+            // PersistentDataContainer はメインスレッドで書き込む
+            result.thenAcceptAsync(valid -> verdictCache.put(chunk, valid), syncExecutor);
+        }
+        return result;
+    }
+
+    /**
+     * スナップショットの最下層がすべて岩盤かを判定（スレッドセーフ）
+     */
+    static boolean hasBedrockFloor(ChunkSnapshot snapshot, int minY) {
+        int size = Constants.World.CHUNK_SIZE;
+        for (int dx = 0; dx < size; dx++) {
+            for (int dz = 0; dz < size; dz++) {
+                if (snapshot.getBlockType(dx, minY, dz) != Material.BEDROCK) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package io.wax100.chunkDiscovery.listener;
+
+import io.wax100.chunkDiscovery.cache.BedrockVerdictCache;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+
+/**
+ * 最下層のブロックが変化したチャンクの岩盤判定キャッシュを破棄するリスナー
+ */
+public class BedrockVerdictListener implements Listener {
+
+    private final BedrockVerdictCache verdictCache;
+
+    public BedrockVerdictListener(BedrockVerdictCache verdictCache) {
+        this.verdictCache = verdictCache;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent e) {
+        invalidateIfFloor(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent e) {
+        invalidateIfFloor(e.getBlock());
+    }
+
+    private void invalidateIfFloor(Block block) {
+        if (block.getY() == block.getWorld().getMinHeight()) {
+            verdictCache.invalidate(block.getChunk());
+        }
+    }
+}
@@ -2,29 +2,57 @@ package io.wax100.chunkDiscovery.listener;
 
 import io.wax100.chunkDiscovery.service.DiscoveryService;
 import org.bukkit.Chunk;
-import org.bukkit.Material;
+import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
-import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.entity.Player;
 
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * PlayerMoveEvent からチャンク移動を検出し、発見処理へ渡すリスナー（discovery.mode: event）
+ *
+ * ログイン・ログアウト時の処理は {@link PlayerSessionListener} が行う。
+ */
 public class ChunkDiscoveryListener implements Listener {
 
     private final DiscoveryService discoveryService;
+    private final BedrockFloorValidator bedrockValidator;
+    private final Executor syncExecutor;
+    private final Logger logger;
 
     // プレイヤーの最後のチャンク位置をキャッシュ
-    private final Map<UUID, ChunkPosition> lastChunkPositions = new ConcurrentHashMap<>();
+    private final ChunkPositionTracker positionTracker;
 
     public ChunkDiscoveryListener(DiscoveryService discoveryService) {
+        this(discoveryService, new BedrockFloorValidator());
+    }
+
+    public ChunkDiscoveryListener(DiscoveryService discoveryService, BedrockFloorValidator bedrockValidator) {
+        this(discoveryService, new ChunkPositionTracker(), bedrockValidator, Runnable::run,
+                Logger.getLogger("ChunkDiscovery"));
+    }
+
+    /**
+     * @param discoveryService 発見処理サービス
+     * @param positionTracker 最終チャンク位置（ログイン・ログアウト時の更新は PlayerSessionListener が行う）
+     * @param bedrockValidator 岩盤検証
+     * @param syncExecutor 岩盤チェックの結果をメインスレッドへ戻すExecutor
+     * @param logger ロガー
+     */
+    public ChunkDiscoveryListener(DiscoveryService discoveryService, ChunkPositionTracker positionTracker,
+                                  BedrockFloorValidator bedrockValidator, Executor syncExecutor, Logger logger) {
         this.discoveryService = discoveryService;
+        this.positionTracker = positionTracker;
+        this.bedrockValidator = bedrockValidator;
+        this.syncExecutor = syncExecutor;
+        this.logger = logger;
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -34,149 +62,65 @@ public class ChunkDiscoveryListener implements Listener {
                 return;
             }
             
-            Player player = e.getPlayer();
-            Chunk toChunk = e.getTo().getChunk();
-            
-            updatePlayerPosition(player, toChunk);
-            
-            if (shouldDiscoverChunk(player, toChunk)) {
-                discoveryService.handleDiscovery(player, toChunk);
-            }
+            handleCrossing(e.getPlayer(), e.getTo().getChunk());
             
         } catch (Exception ex) {
             // エラーでもプレイヤーの移動を妨げない
-            System.err.println("チャンク発見処理中にエラー: " + ex.getMessage());
+            logger.log(Level.WARNING, "チャンク発見処理中にエラーが発生しました: " + ex.getMessage(), ex);
         }
     }
-    
+
     /**
-     * 移動イベントを処理すべきかどうかを判定
+     * チャンクに入ったプレイヤーの発見処理（起動処理中に記録した移動の再生にも使用する）
      */
-    private boolean shouldProcessMove(PlayerMoveEvent e) {
-        if (e.getTo() == null) {
-            return false;
+    public void handleCrossing(Player player, Chunk toChunk) {
+        // 既に発見済みなら無視
+        if (discoveryService.isDiscovered(player, toChunk)) {
+            return;
         }
-        
-        // 同じチャンク内の移動は無視
-        ChunkPosition currentPos = createChunkPosition(e.getTo().getChunk());
-        ChunkPosition lastPos = lastChunkPositions.get(e.getPlayer().getUniqueId());
-        
-        return !currentPos.equals(lastPos);
-    }
-    
-    /**
-     * プレイヤーの位置を更新
-     */
-    private void updatePlayerPosition(Player player, Chunk chunk) {
-        ChunkPosition currentPos = createChunkPosition(chunk);
-        lastChunkPositions.put(player.getUniqueId(), currentPos);
+
+        // 岩盤チェックは非同期で行い、有効なチャンクのみメインスレッドで発見処理へ渡す
+        // （判定キャッシュにより既に完了している場合は、このスレッドでそのまま処理する）
+        CompletableFuture<Boolean> validation = bedrockValidator.validate(toChunk);
+        validation
+            .thenAcceptAsync(valid -> {
+                if (valid) {
+                    discoveryService.handleDiscovery(player, toChunk);
+                }
+            }, validation.isDone() ? Runnable::run : syncExecutor)
+            .exceptionally(throwable -> {
+                logger.log(Level.WARNING, "岩盤チェック中にエラーが発生しました: " + throwable.getMessage(), throwable);
+                return null;
+            });
     }
     
     /**
-     * チャンクを発見すべきかどうかを判定
+     * 移動イベントを処理すべきかどうかを判定し、最終チャンク位置を更新
+     * （同一チャンク内の移動ではオブジェクトを生成しない）
      */
-    private boolean shouldDiscoverChunk(Player player, Chunk chunk) {
-        // 既に発見済みなら無視
-        if (discoveryService.isDiscovered(player, chunk)) {
+    private boolean shouldProcessMove(PlayerMoveEvent e) {
+        Location to = e.getTo();
+        if (to == null) {
             return false;
         }
-
-        // 岩盤じゃないので発見対象外(ENDは必ず失敗する)
-        if (!isValidChunkChunk(player)) {
+        World world = to.getWorld();
+        if (world == null) {
             return false;
         }
-
-        // チャンクの岩盤チェック
-        return checkBedrockAtBottom(chunk);
-    }
-    
-    /**
-     * ChunkPositionオブジェクトを作成
-     */
-    private ChunkPosition createChunkPosition(Chunk chunk) {
-        return new ChunkPosition(
-                chunk.getWorld().getName(),
-                chunk.getX(),
-                chunk.getZ()
-        );
-    }
-
-    @EventHandler
-    public void onPlayerJoin(PlayerJoinEvent e) {
-        Player player = e.getPlayer();
         
-        // プレイヤーがログインした際に初期位置を記録
-        Chunk chunk = player.getLocation().getChunk();
-        ChunkPosition pos = createChunkPosition(chunk);
-        lastChunkPositions.put(player.getUniqueId(), pos);
-    }
-
-    @EventHandler
-    public void onPlayerQuit(org.bukkit.event.player.PlayerQuitEvent e) {
-        lastChunkPositions.remove(e.getPlayer().getUniqueId());
-    }
-
-    /**
-     * チャンク位置
-     */
-    private record ChunkPosition(String worldName, int x, int z) {
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            ChunkPosition that = (ChunkPosition) obj;
-            return x == that.x && z == that.z &&
-                    java.util.Objects.equals(worldName, that.worldName);
-        }
-
-        @Override
-        public int hashCode() {
-            return java.util.Objects.hash(worldName, x, z);
-        }
-    }
-
-    /**
-     * チャンクが有効な発見対象かどうかをチェック
-     * - NORMAL: Y=-64の岩盤チェック
-     * - NETHER: Y=0の岩盤チェック
-     * - THE_END: 岩盤チェックはスキップ
-     */
-    private boolean isValidChunkChunk(Player player) {
-        World world = player.getWorld();
-        int x = player.getLocation().getBlockX();
-        int minY = world.getMinHeight();
-        int z = player.getLocation().getBlockZ();
-
-        switch (world.getEnvironment()) {
-            case NORMAL, NETHER -> {
-                return world.getBlockAt(x, minY, z).getType() == Material.BEDROCK;
-            }
-            case THE_END -> {
-                // エンドでは岩盤チェックは行わない
-                return false;
-            }
-            default -> {
-                // 他の環境は無視
-                return true;
-            }
-        }
+        // 同じチャンク内の移動は無視
+        return positionTracker.update(
+                e.getPlayer().getUniqueId(),
+                world.getName(),
+                to.getBlockX(),
+                to.getBlockZ()
+        );
     }
-
+    
     /**
-     * 実際のチャンク検証を行う
+     * 最終チャンク位置の追跡
      */
-    private boolean checkBedrockAtBottom(Chunk chunk) {
-        World world = chunk.getWorld();
-        int minY = world.getMinHeight();
-
-        for (int dx = 0; dx < 16; dx++) {
-            for (int dz = 0; dz < 16; dz++) {
-                Block block = chunk.getBlock(dx, minY, dz);
-                if (block.getType() != Material.BEDROCK) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    public ChunkPositionTracker getPositionTracker() {
+        return positionTracker;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package io.wax100.chunkDiscovery.listener;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * プレイヤーごとの最終チャンク位置をプリミティブ値で追跡するクラス
+ *
+ * PlayerMoveEvent は1tickに何度も発火するため、同一チャンク内の移動判定では
+ * オブジェクトを一切生成しない（ワールドIDとパック済みチャンクキーの比較のみ）。
+ */
+public class ChunkPositionTracker {
+
+    /** 直前の位置が存在しないことを表す値（previousChunkKey の戻り値） */
+    public static final long NO_POSITION = Long.MIN_VALUE;
+
+    /** ブロック座標からチャンク座標へのシフト量 */
+    private static final int CHUNK_SHIFT = 4;
+
+    private final Map<UUID, PlayerChunkState> states = new ConcurrentHashMap<>();
+    private final Map<String, Integer> worldIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextWorldId = new AtomicInteger();
+
+    /**
+     * 移動先の位置を記録し、前回と異なるチャンクに入ったかを判定する
+     * @param playerId プレイヤーのUUID
+     * @param worldName 移動先のワールド名
+     * @param blockX 移動先のブロックX座標
+     * @param blockZ 移動先のブロックZ座標
+     * @return チャンクが変わった場合true（初回記録時もtrue）
+     */
+    public boolean update(UUID playerId, String worldName, int blockX, int blockZ) {
+        int worldId = worldId(worldName);
+        long chunkKey = ChunkKey.pack(blockX >> CHUNK_SHIFT, blockZ >> CHUNK_SHIFT);
+
+        PlayerChunkState state = states.get(playerId);
+        if (state == null) {
+            states.put(playerId, new PlayerChunkState(worldId, chunkKey));
+            return true;
+        }
+
+        if (state.worldId == worldId && state.chunkKey == chunkKey) {
+            return false;
+        }
+
+        state.worldId = worldId;
+        state.chunkKey = chunkKey;
+        return true;
+    }
+
+    /**
+     * 直前に記録したチャンク位置を取得する（update の前に呼び出すこと）
+     * @param playerId プレイヤーのUUID
+     * @param worldName 比較対象のワールド名
+     * @return パック済みチャンクキー（未記録または別ワールドの場合は NO_POSITION）
+     */
+    public long previousChunkKey(UUID playerId, String worldName) {
+        PlayerChunkState state = states.get(playerId);
+        if (state == null || state.worldId != worldId(worldName)) {
+            return NO_POSITION;
+        }
+        return state.chunkKey;
+    }
+
+    /**
+     * 現在位置を記録する（ログイン時など、発見判定を伴わない初期化用）
+     */
+    public void reset(UUID playerId, String worldName, int blockX, int blockZ) {
+        states.remove(playerId);
+        update(playerId, worldName, blockX, blockZ);
+    }
+
+    /**
+     * プレイヤーの追跡を終了する
+     */
+    public void remove(UUID playerId) {
+        states.remove(playerId);
+    }
+
+    /**
+     * 追跡中のプレイヤー数を取得
+     */
+    public int size() {
+        return states.size();
+    }
+
+    private int worldId(String worldName) {
+        Integer id = worldIds.get(worldName);
+        if (id != null) {
+            return id;
+        }
+        return worldIds.computeIfAbsent(worldName, name -> nextWorldId.getAndIncrement());
+    }
+
+    /**
+     * プレイヤーの最終チャンク位置（メインスレッドからのみ更新される）
+     */
+    private static final class PlayerChunkState {
+        private int worldId;
+        private long chunkKey;
+
+        private PlayerChunkState(int worldId, long chunkKey) {
+            this.worldId = worldId;
+            this.chunkKey = chunkKey;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.wax100.chunkDiscovery.listener;
+
+import io.wax100.chunkDiscovery.service.DiscoveryService;
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * オンラインプレイヤーの位置を一定tickごとに確認するスキャンタスク
+ *
+ * PlayerMoveEvent の代わりに使用する（discovery.mode: tick）。
+ * - 前回確認時とチャンク座標が変わったプレイヤーのみ処理
+ * - 高速移動で飛ばしたチャンクは直線補間して発見候補に含める（読み込み済みのみ）
+ * - 1回のスキャンで見つかった発見はまとめて DiscoveryService に渡す
+ */
+public class ChunkScanTask implements Runnable {
+
+    private final Supplier<? extends Collection<? extends Player>> onlinePlayers;
+    private final ChunkPositionTracker positionTracker;
+    private final DiscoveryService discoveryService;
+    private final BedrockFloorValidator bedrockValidator;
+    private final int maxInterpolatedChunks;
+    private final Executor syncExecutor;
+    private final Logger logger;
+
+    /**
+     * @param onlinePlayers オンラインプレイヤーの取得元
+     * @param positionTracker 最終チャンク位置（ログイン・ログアウト時の更新はリスナーが行う）
+     * @param discoveryService 発見処理サービス
+     * @param bedrockValidator 岩盤検証
+     * @param maxInterpolatedChunks 補間する最大チャンク数（これを超える移動はテレポートとみなす）
+     * @param syncExecutor 岩盤チェックの結果をメインスレッドへ戻すExecutor
+     * @param logger ロガー
+     */
+    public ChunkScanTask(Supplier<? extends Collection<? extends Player>> onlinePlayers,
+                         ChunkPositionTracker positionTracker,
+                         DiscoveryService discoveryService,
+                         BedrockFloorValidator bedrockValidator,
+                         int maxInterpolatedChunks,
+                         Executor syncExecutor,
+                         Logger logger) {
+        this.onlinePlayers = onlinePlayers;
+        this.positionTracker = positionTracker;
+        this.discoveryService = discoveryService;
+        this.bedrockValidator = bedrockValidator;
+        this.maxInterpolatedChunks = maxInterpolatedChunks;
+        this.syncExecutor = syncExecutor;
+        this.logger = logger;
+    }
+
+    @Override
+    public void run() {
+        List<CompletableFuture<DiscoveryService.Discovery>> candidates = new ArrayList<>();
+
+        for (Player player : onlinePlayers.get()) {
+            try {
+                scanPlayer(player, candidates);
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "チャンクスキャン中にエラーが発生しました: " + e.getMessage(), e);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 岩盤チェックがすべて終わった時点で、有効なチャンクをメインスレッドで1回で発見処理へ渡す
+        // （判定キャッシュによりすべて完了している場合は、このスレッドでそのまま処理する）
+        CompletableFuture<Void> validations = CompletableFuture.allOf(candidates.toArray(new CompletableFuture[0]));
+        validations
+            .thenRunAsync(() -> discoveryService.handleDiscoveries(candidates.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList()), validations.isDone() ? Runnable::run : syncExecutor)
+            .exceptionally(throwable -> {
+                logger.log(Level.WARNING, "岩盤チェック中にエラーが発生しました: " + throwable.getMessage(), throwable);
+                return null;
+            });
+    }
+
+    private void scanPlayer(Player player, List<CompletableFuture<DiscoveryService.Discovery>> candidates) {
+        Location location = player.getLocation();
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+
+        long previous = positionTracker.previousChunkKey(player.getUniqueId(), world.getName());
+        if (!positionTracker.update(player.getUniqueId(), world.getName(), location.getBlockX(), location.getBlockZ())) {
+            return;
+        }
+
+        int toX = location.getBlockX() >> 4;
+        int toZ = location.getBlockZ() >> 4;
+        if (previous != ChunkPositionTracker.NO_POSITION) {
+            interpolate(player, world, ChunkKey.x(previous), ChunkKey.z(previous), toX, toZ, candidates);
+        }
+        addCandidate(player, world.getChunkAt(toX, toZ), candidates);
+    }
+
+    /**
+     * 前回位置から現在位置までの間のチャンクを直線上にたどる（両端は含まない）
+     */
+    private void interpolate(Player player, World world, int fromX, int fromZ, int toX, int toZ,
+                             List<CompletableFuture<DiscoveryService.Discovery>> candidates) {
+        int dx = Math.abs(toX - fromX);
+        int dz = Math.abs(toZ - fromZ);
+        if (Math.max(dx, dz) <= 1 || Math.max(dx, dz) > maxInterpolatedChunks) {
+            return;
+        }
+
+        int stepX = fromX < toX ? 1 : -1;
+        int stepZ = fromZ < toZ ? 1 : -1;
+        int err = dx - dz;
+        int x = fromX;
+        int z = fromZ;
+
+        while (true) {
+            int err2 = err * 2;
+            if (err2 > -dz) {
+                err -= dz;
+                x += stepX;
+            }
+            if (err2 < dx) {
+                err += dx;
+                z += stepZ;
+            }
+            if (x == toX && z == toZ) {
+                return;
+            }
+            // 補間のためにチャンクを読み込ませない
+            if (world.isChunkLoaded(x, z)) {
+                addCandidate(player, world.getChunkAt(x, z), candidates);
+            }
+        }
+    }
+
+    private void addCandidate(Player player, Chunk chunk,
+                              List<CompletableFuture<DiscoveryService.Discovery>> candidates) {
+        if (discoveryService.isDiscovered(player, chunk)) {
+            return;
+        }
+        candidates.add(bedrockValidator.validate(chunk)
+            .thenApply(valid -> valid ? new DiscoveryService.Discovery(player, chunk) : null));
+    }
+}
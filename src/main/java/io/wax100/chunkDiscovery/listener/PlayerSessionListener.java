@@ -0,0 +1,56 @@
+package io.wax100.chunkDiscovery.listener;
+
+import io.wax100.chunkDiscovery.service.DiscoveryService;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * ログイン・ログアウト時の処理を担当するリスナー（発見の検出方式によらず登録する）
+ *
+ * 責任：
+ * - 最終チャンク位置の初期化・破棄
+ * - 発見済みチャンクキャッシュの読み込み・破棄
+ * - ランキング表示用の名前の記録
+ */
+public class PlayerSessionListener implements Listener {
+
+    private final DiscoveryService discoveryService;
+    private final ChunkPositionTracker positionTracker;
+
+    /**
+     * @param discoveryService 発見処理サービス
+     * @param positionTracker 最終チャンク位置（移動の検出と共有する）
+     */
+    public PlayerSessionListener(DiscoveryService discoveryService, ChunkPositionTracker positionTracker) {
+        this.discoveryService = discoveryService;
+        this.positionTracker = positionTracker;
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent e) {
+        Player player = e.getPlayer();
+
+        // プレイヤーがログインした際に初期位置を記録
+        Location location = player.getLocation();
+        if (location.getWorld() != null) {
+            positionTracker.reset(player.getUniqueId(), location.getWorld().getName(),
+                    location.getBlockX(), location.getBlockZ());
+        }
+
+        // 発見済みチャンクを非同期でキャッシュに読み込む
+        discoveryService.loadPlayerCache(player);
+
+        // ランキング表示用に最後に確認した名前を記録
+        discoveryService.rememberPlayerName(player);
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        positionTracker.remove(e.getPlayer().getUniqueId());
+        discoveryService.unloadPlayerCache(e.getPlayer());
+    }
+}
@@ -0,0 +1,126 @@
+package io.wax100.chunkDiscovery.listener;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 起動処理中（DB接続・スキーマ移行の完了前）のチャンク移動を記録し、準備完了後に発見処理へ渡すリスナー
+ *
+ * プラグイン有効化の直後に登録し、準備完了時に {@link #open} で記録した移動を再生する。
+ * 同じプレイヤーの同じチャンクへの移動は1件にまとめ、上限件数を超えた分は破棄する。
+ */
+public class StartupDiscoveryQueue implements Listener {
+
+    private static final int CHUNK_SHIFT = 4;
+
+    private final ChunkPositionTracker positionTracker = new ChunkPositionTracker();
+    private final Set<Crossing> queued = new LinkedHashSet<>();
+    private final int maxSize;
+    private volatile boolean ready;
+    private int dropped;
+
+    /**
+     * 記録したチャンク移動
+     */
+    public record Crossing(UUID playerId, String worldName, int chunkX, int chunkZ) {}
+
+    /**
+     * @param maxSize 記録する移動の上限件数
+     */
+    public StartupDiscoveryQueue(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent e) {
+        if (ready) {
+            return;
+        }
+        Location to = e.getTo();
+        if (to == null || to.getWorld() == null) {
+            return;
+        }
+        UUID playerId = e.getPlayer().getUniqueId();
+        String worldName = to.getWorld().getName();
+        if (positionTracker.update(playerId, worldName, to.getBlockX(), to.getBlockZ())) {
+            record(new Crossing(playerId, worldName, to.getBlockX() >> CHUNK_SHIFT, to.getBlockZ() >> CHUNK_SHIFT));
+        }
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        positionTracker.remove(e.getPlayer().getUniqueId());
+    }
+
+    synchronized void record(Crossing crossing) {
+        if (queued.size() >= maxSize && !queued.contains(crossing)) {
+            dropped++;
+            return;
+        }
+        queued.add(crossing);
+    }
+
+    /**
+     * 準備完了とし、記録した移動を記録順に再生する（メインスレッドから呼び出す）
+     *
+     * ログアウトしたプレイヤー・読み込まれていないチャンクへの移動は再生しない。
+     * @param playerLookup UUID からオンラインのプレイヤーを取得（オフラインの場合は null）
+     * @param worldLookup ワールド名からワールドを取得（存在しない場合は null）
+     * @param replay 移動の再生先
+     * @return 再生した件数
+     */
+    public int open(Function<UUID, ? extends Player> playerLookup, Function<String, World> worldLookup,
+                    BiConsumer<Player, Chunk> replay) {
+        ready = true;
+        List<Crossing> crossings;
+        synchronized (this) {
+            crossings = new ArrayList<>(queued);
+            queued.clear();
+        }
+
+        int replayed = 0;
+        for (Crossing crossing : crossings) {
+            Player player = playerLookup.apply(crossing.playerId());
+            World world = worldLookup.apply(crossing.worldName());
+            if (player == null || world == null || !world.isChunkLoaded(crossing.chunkX(), crossing.chunkZ())) {
+                continue;
+            }
+            replay.accept(player, world.getChunkAt(crossing.chunkX(), crossing.chunkZ()));
+            replayed++;
+        }
+        return replayed;
+    }
+
+    /**
+     * 準備完了済みか（false の間は移動を記録する）
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized int getQueuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * 上限件数を超えて破棄した移動の件数
+     */
+    public synchronized int getDroppedCount() {
+        return dropped;
+    }
+}
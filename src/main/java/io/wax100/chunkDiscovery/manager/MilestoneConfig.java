@@ -1,14 +1,19 @@
 package io.wax100.chunkDiscovery.manager;
 
+import io.wax100.chunkDiscovery.config.ConfigSnapshot;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.java.JavaPlugin;
 import io.wax100.chunkDiscovery.model.RewardItem;
 import java.util.*;
 import java.util.logging.Logger;
 
+/**
+ * マイルストーン設定を保持するクラス
+ *
+ * 読み込んだ設定は不変の {@link ConfigSnapshot.Milestones} として保持し、読み込みのたびに差し替える。
+ */
 public class MilestoneConfig {
-    private final List<MilestoneEntry> personalMilestones = new ArrayList<>();
-    private final List<MilestoneEntry> globalMilestones = new ArrayList<>();
+    private volatile ConfigSnapshot.Milestones milestones = ConfigSnapshot.Milestones.EMPTY;
     private final Logger logger;
 
     public MilestoneConfig(Logger logger) {
@@ -16,42 +21,47 @@ public class MilestoneConfig {
     }
 
     public void loadConfiguration(ConfigurationSection config) {
+        ConfigSnapshot.Milestones loaded = readMilestones(config, logger);
+        if (loaded != null) {
+            milestones = loaded;
+        }
+    }
+
+    /**
+     * 設定ファイルからマイルストーンを読み込む
+     * @param config 設定ファイルのルート
+     * @param logger ロガー
+     * @return マイルストーン設定がない場合は null
+     */
+    public static ConfigSnapshot.Milestones readMilestones(ConfigurationSection config, Logger logger) {
         ConfigurationSection milestonesSection = config.getConfigurationSection("rewards.milestones");
         if (milestonesSection == null) {
             logger.warning("マイルストーン設定が見つかりません");
-            return;
+            return null;
         }
 
-        personalMilestones.clear();
-        globalMilestones.clear();
-
-        loadMilestones(milestonesSection);
-        
-        // グローバルマイルストーンは今のところ個人マイルストーンと同じ設定を使用
-        globalMilestones.addAll(personalMilestones);
-        
-        logger.info(String.format("マイルストーン設定を読み込みました: %d個", personalMilestones.size()));
-    }
-
-    private void loadMilestones(ConfigurationSection milestonesSection) {
+        List<MilestoneEntry> personal = new ArrayList<>();
         for (String key : milestonesSection.getKeys(false)) {
             try {
                 int discoveryCount = Integer.parseInt(key);
                 ConfigurationSection milestoneSection = milestonesSection.getConfigurationSection(key);
                 
                 if (milestoneSection != null) {
-                    MilestoneEntry entry = createMilestoneEntry(discoveryCount, milestoneSection);
-                    personalMilestones.add(entry);
+                    personal.add(createMilestoneEntry(discoveryCount, milestoneSection, logger));
                 }
             } catch (NumberFormatException e) {
                 logger.warning("Invalid milestone key: " + key);
             }
         }
-        
-        personalMilestones.sort(Comparator.comparingInt(entry -> entry.discoveryCount));
+
+        // グローバルマイルストーンは今のところ個人マイルストーンと同じ設定を使用
+        ConfigSnapshot.Milestones loaded = new ConfigSnapshot.Milestones(personal, personal);
+
+        logger.info(String.format("マイルストーン設定を読み込みました: %d個", loaded.personal().size()));
+        return loaded;
     }
 
-    private MilestoneEntry createMilestoneEntry(int discoveryCount, ConfigurationSection section) {
+    private static MilestoneEntry createMilestoneEntry(int discoveryCount, ConfigurationSection section, Logger logger) {
         MilestoneEntry entry = new MilestoneEntry();
         entry.discoveryCount = discoveryCount;
         entry.items = new ArrayList<>();
@@ -71,18 +81,15 @@ public class MilestoneConfig {
     }
 
     public List<MilestoneEntry> getPersonalMilestones() {
-        return Collections.unmodifiableList(personalMilestones);
+        return milestones.personal();
     }
 
     public List<MilestoneEntry> getGlobalMilestones() {
-        return Collections.unmodifiableList(globalMilestones);
+        return milestones.global();
     }
 
     public Optional<MilestoneEntry> getMilestone(int discoveryCount, boolean isGlobal) {
-        List<MilestoneEntry> milestones = isGlobal ? globalMilestones : personalMilestones;
-        return milestones.stream()
-            .filter(entry -> entry.discoveryCount == discoveryCount)
-            .findFirst();
+        return Optional.ofNullable(milestones.find(discoveryCount, isGlobal));
     }
 
     public static class MilestoneEntry {
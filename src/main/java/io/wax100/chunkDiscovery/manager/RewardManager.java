@@ -1,6 +1,7 @@
 package io.wax100.chunkDiscovery.manager;
 
 import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
+import io.wax100.chunkDiscovery.config.ConfigSnapshot;
 import io.wax100.chunkDiscovery.model.RewardItem;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -8,31 +9,32 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.configuration.ConfigurationSection;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
 
 /**
  * 報酬アイテムやマイルストーン設定を管理し、実際の付与を行うクラス（レガシーAPI対応）
+ *
+ * 報酬設定は公開中の {@link ConfigSnapshot} から参照する。
  */
 public class RewardManager {
     private final ChunkDiscoveryPlugin plugin;
-    private final Map<Integer, RewardItem> milestoneRewards = new ConcurrentHashMap<>();
-    private RewardItem worldFirstReward;
-    private RewardItem personalFirstReward;
 
     public RewardManager(ChunkDiscoveryPlugin plugin) {
         this.plugin = plugin;
     }
 
     /**
-     * 設定ファイルまたは初期値からマイルストーン報酬をロード
+     * 設定ファイルまたは初期値から報酬設定を読み込む
+     * @param config 設定ファイルのルート
+     * @param logger ロガー
      */
-    public void loadMilestoneRewards() {
+    public static ConfigSnapshot.Rewards readRewards(ConfigurationSection config, Logger logger) {
+        Map<Integer, RewardItem> milestoneRewards = new HashMap<>();
         try {
-            milestoneRewards.clear();
-
             // config.yml の milestones セクションを読み込む
-            ConfigurationSection milestonesSection = plugin.getConfig().getConfigurationSection("rewards.milestones");
+            ConfigurationSection milestonesSection = config.getConfigurationSection("rewards.milestones");
             if (milestonesSection != null) {
                 for (String key : milestonesSection.getKeys(false)) {
                     try {
@@ -43,57 +45,65 @@ public class RewardManager {
                             milestoneRewards.put(milestone, rewardItem);
                         }
                     } catch (NumberFormatException e) {
-                        plugin.getLogger().warning("無効なマイルストーン値です: " + key);
+                        logger.warning("無効なマイルストーン値です: " + key);
                     }
                 }
             }
 
             // 世界初/個人初も config から
-            ConfigurationSection worldFirstSection = plugin.getConfig().getConfigurationSection("rewards.world_first");
-            this.worldFirstReward = RewardItem.fromConfig(worldFirstSection);
-
-            ConfigurationSection personalFirstSection = plugin.getConfig().getConfigurationSection("rewards.personal_first");
-            this.personalFirstReward = RewardItem.fromConfig(personalFirstSection);
+            RewardItem worldFirstReward = RewardItem.fromConfig(config.getConfigurationSection("rewards.world_first"));
+            RewardItem personalFirstReward = RewardItem.fromConfig(config.getConfigurationSection("rewards.personal_first"));
 
-            plugin.getLogger().info("マイルストーン報酬を読み込みました。設定済み: " + milestoneRewards.size() + " 個");
+            logger.info("マイルストーン報酬を読み込みました。設定済み: " + milestoneRewards.size() + " 個");
+            return new ConfigSnapshot.Rewards(worldFirstReward, personalFirstReward, milestoneRewards);
 
         } catch (Exception e) {
-            plugin.getLogger().severe("報酬設定の読み込み中にエラーが発生しました: " + e.getMessage());
+            logger.severe("報酬設定の読み込み中にエラーが発生しました: " + e.getMessage());
             // デフォルト値で初期化
-            initializeDefaultRewards();
+            return defaultRewards(milestoneRewards, logger);
         }
     }
 
     /**
      * デフォルト報酬の初期化
      */
-    private void initializeDefaultRewards() {
+    private static ConfigSnapshot.Rewards defaultRewards(Map<Integer, RewardItem> milestoneRewards, Logger logger) {
         try {
             // デフォルトの世界初報酬
-            this.worldFirstReward = new RewardItem(
+            RewardItem worldFirstReward = new RewardItem(
                     new ItemStack(org.bukkit.Material.DIAMOND, 1),
                     100,
                     java.util.List.of()
             );
 
             // デフォルトの個人初報酬
-            this.personalFirstReward = new RewardItem(
+            RewardItem personalFirstReward = new RewardItem(
                     new ItemStack(org.bukkit.Material.BREAD, 5),
                     10,
                     java.util.List.of()
             );
 
-            plugin.getLogger().info("デフォルト報酬設定を適用しました。");
+            logger.info("デフォルト報酬設定を適用しました。");
+            return new ConfigSnapshot.Rewards(worldFirstReward, personalFirstReward, milestoneRewards);
         } catch (Exception e) {
-            plugin.getLogger().severe("デフォルト報酬の初期化に失敗しました: " + e.getMessage());
+            logger.severe("デフォルト報酬の初期化に失敗しました: " + e.getMessage());
+            return new ConfigSnapshot.Rewards(null, null, milestoneRewards);
         }
     }
 
+    /**
+     * 公開中の設定スナップショットの報酬設定
+     */
+    private static ConfigSnapshot.Rewards rewards() {
+        return ConfigSnapshot.current().rewards();
+    }
+
     /**
      * 世界初発見時の報酬を付与
      */
     public void giveWorldFirstRewards(Player player) {
         try {
+            RewardItem worldFirstReward = rewards().worldFirst();
             if (worldFirstReward != null) {
                 giveRewardItem(player, worldFirstReward);
                 player.sendMessage(ChatColor.GOLD + "世界初発見報酬を受け取りました！");
@@ -109,6 +119,7 @@ public class RewardManager {
      */
     public void givePersonalRewards(Player player) {
         try {
+            RewardItem personalFirstReward = rewards().personalFirst();
             if (personalFirstReward != null) {
                 giveRewardItem(player, personalFirstReward);
                 player.sendMessage(ChatColor.GREEN + "個人初発見報酬を受け取りました！");
@@ -124,8 +135,8 @@ public class RewardManager {
      */
     public void checkMilestones(Player player, int totalChunks) {
         try {
-            if (milestoneRewards.containsKey(totalChunks)) {
-                RewardItem reward = milestoneRewards.get(totalChunks);
+            RewardItem reward = rewards().milestones().get(totalChunks);
+            if (reward != null) {
                 giveRewardItem(player, reward);
                 player.sendMessage(ChatColor.AQUA + "" + totalChunks + " チャンク到達報酬を受け取りました！");
             }
@@ -184,16 +195,16 @@ public class RewardManager {
     }
 
     /**
-     * 設定されているマイルストーン一覧を取得
+     * 設定されているマイルストーン一覧を取得（変更不可）
      */
     public Map<Integer, RewardItem> getMilestoneRewards() {
-        return new ConcurrentHashMap<>(milestoneRewards);
+        return rewards().milestones();
     }
 
     /**
      * 特定のマイルストーンが設定されているかチェック
      */
     public boolean hasMilestoneReward(int chunks) {
-        return milestoneRewards.containsKey(chunks);
+        return rewards().milestones().containsKey(chunks);
     }
 }
\ No newline at end of file
@@ -1,68 +1,293 @@
 package io.wax100.chunkDiscovery.service;
 
 import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
+import io.wax100.chunkDiscovery.cache.DiscoveredChunkCache;
+import io.wax100.chunkDiscovery.cache.DiscoveryCounters;
+import io.wax100.chunkDiscovery.cache.PlayerNameCache;
+import io.wax100.chunkDiscovery.cache.PlayerRanking;
 import io.wax100.chunkDiscovery.database.PlayerRepository;
 import io.wax100.chunkDiscovery.database.ChunkRepository;
+import io.wax100.chunkDiscovery.database.DiscoveryBatchRepository;
+import io.wax100.chunkDiscovery.database.DiscoveryCommit;
+import io.wax100.chunkDiscovery.database.RegionBitmapStore;
 import io.wax100.chunkDiscovery.model.PlayerData;
 import io.wax100.chunkDiscovery.config.WorldBorderConfig;
 import io.wax100.chunkDiscovery.util.AsyncUtils;
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.DbExecutor;
 import io.wax100.chunkDiscovery.util.ErrorHandler;
+import io.wax100.chunkDiscovery.util.ExecutorRegistry;
 import io.wax100.chunkDiscovery.util.Validate;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * プレイヤーのチャンク発見処理を担当するサービスクラス
  */
 public class DiscoveryService {
+    // 名前を保持するプレイヤー数の上限（ランキング表示で参照する人数を十分に上回る数）
+    private static final int NAME_CACHE_SIZE = 1000;
+    // 発見済みチャンクキャッシュの読み込みを再試行する間隔（tick、失敗するたびに倍にする）
+    private static final long CACHE_RETRY_BASE_TICKS = 20L;
+    private static final long CACHE_RETRY_MAX_TICKS = 20L * 60;
+
     private final PlayerRepository playerRepo;
     private final ChunkRepository chunkRepo;
     private final RewardService rewardService;
     private final ChunkDiscoveryPlugin plugin;
+    private final DiscoveryCommit discoveryCommit;
+    private final DiscoveryWriteBehind writeBehind;
+    private final RegionBitmapStore chunkStore;
+    private final DiscoveredChunkCache chunkCache = new DiscoveredChunkCache();
+    private final DiscoveryCounters counters = new DiscoveryCounters();
+    private final PlayerRanking ranking = new PlayerRanking();
+    private final PlayerNameCache nameCache = new PlayerNameCache(NAME_CACHE_SIZE);
+
+    // 処理中の発見（同一プレイヤー・同一チャンクの重複処理を防ぐ）
+    private final Map<InFlightKey, CompletableFuture<DiscoveryResult>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder suppressedDuplicates = new LongAdder();
 
     public DiscoveryService(
             PlayerRepository playerRepo,
             ChunkRepository chunkRepo,
             RewardService rewardService,
             ChunkDiscoveryPlugin plugin
+    ) {
+        this(playerRepo, chunkRepo, rewardService, plugin, null, null);
+    }
+
+    /**
+     * @param discoveryCommit 1件の発見を1トランザクションで確定する（null の場合は各リポジトリを個別に呼び出す）
+     * @param writeBehind 発見の書き込みキュー（null の場合は発見ごとに直接書き込む）
+     */
+    public DiscoveryService(
+            PlayerRepository playerRepo,
+            ChunkRepository chunkRepo,
+            RewardService rewardService,
+            ChunkDiscoveryPlugin plugin,
+            DiscoveryCommit discoveryCommit,
+            DiscoveryWriteBehind writeBehind
+    ) {
+        this(playerRepo, chunkRepo, rewardService, plugin, discoveryCommit, writeBehind, null);
+    }
+
+    /**
+     * @param chunkStore 発見済みチャンクの保存先（db.chunk_store: region_file の場合、null の場合はDB）。
+     *                   発見の確定には chunkStore を使う discoveryCommit を渡し、書き込みキューは使用しない
+     */
+    public DiscoveryService(
+            PlayerRepository playerRepo,
+            ChunkRepository chunkRepo,
+            RewardService rewardService,
+            ChunkDiscoveryPlugin plugin,
+            DiscoveryCommit discoveryCommit,
+            DiscoveryWriteBehind writeBehind,
+            RegionBitmapStore chunkStore
     ) {
         this.playerRepo = Validate.requireNonNull(playerRepo, "PlayerRepository cannot be null");
         this.chunkRepo = Validate.requireNonNull(chunkRepo, "ChunkRepository cannot be null");
         this.rewardService = Validate.requireNonNull(rewardService, "RewardService cannot be null");
         this.plugin = Validate.requireNonNull(plugin, "Plugin cannot be null");
+        this.discoveryCommit = discoveryCommit;
+        this.writeBehind = writeBehind;
+        this.chunkStore = chunkStore;
     }
 
     /**
      * チャンク発見時の処理（ワールド別ボーダー対応）
      */
     public void handleDiscovery(Player player, Chunk chunk) {
-        String playerId = player.getUniqueId().toString();
+        UUID playerUuid = player.getUniqueId();
         String worldName = chunk.getWorld().getName();
-        
-        processDiscoveryAsync(playerId, chunk, worldName)
+
+        InFlightKey key = new InFlightKey(playerUuid, worldName, chunk.getX(), chunk.getZ());
+        CompletableFuture<DiscoveryResult> pending = register(key);
+        if (pending == null) {
+            // 先行する処理に合流する（報酬やボーダー更新は先行処理で1回だけ行う）
+            return;
+        }
+
+        processDiscoveryAsync(playerUuid, chunk, worldName)
+            .whenComplete((result, throwable) -> complete(key, pending, result, throwable));
+        pending
             .thenAcceptAsync(result -> processDiscoveryResult(player, result, worldName), 
                 runnable -> Bukkit.getScheduler().runTask(plugin, runnable))
             .exceptionally(throwable -> handleDiscoveryError(player, throwable));
     }
 
-    private CompletableFuture<DiscoveryResult> processDiscoveryAsync(String playerId, Chunk chunk, String worldName) {
-        return CompletableFuture.supplyAsync(() -> {
+    /**
+     * 複数のチャンク発見をまとめて処理する（tickスキャン用）
+     *
+     * DB処理は1つの非同期タスク（書き込みキュー有効時はキュー）にまとめ、結果の反映もメインスレッドへ1回で戻す。
+     * @param candidates 同一tick内に検出された発見候補
+     */
+    public void handleDiscoveries(List<Discovery> candidates) {
+        List<Discovery> discoveries = new ArrayList<>(candidates.size());
+        List<InFlightKey> keys = new ArrayList<>(candidates.size());
+        List<CompletableFuture<DiscoveryResult>> pendings = new ArrayList<>(candidates.size());
+        for (Discovery discovery : candidates) {
+            Chunk chunk = discovery.chunk();
+            InFlightKey key = new InFlightKey(discovery.player().getUniqueId(), chunk.getWorld().getName(),
+                chunk.getX(), chunk.getZ());
+            CompletableFuture<DiscoveryResult> pending = register(key);
+            if (pending != null) {
+                discoveries.add(discovery);
+                keys.add(key);
+                pendings.add(pending);
+            }
+        }
+        if (discoveries.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<List<DiscoveryResult>> batch = writeBehind != null
+            ? submitAll(discoveries, keys, pendings)
+            : ExecutorRegistry.db().supply(DbExecutor.Priority.DISCOVERY, () -> processAll(discoveries, keys, pendings))
+                .whenComplete((results, throwable) -> {
+                    if (throwable != null) {
+                        // 混雑により受け付けられなかった場合は処理中の登録を解除する
+                        for (int i = 0; i < keys.size(); i++) {
+                            complete(keys.get(i), pendings.get(i), null, throwable);
+                        }
+                    }
+                });
+
+        batch.thenAcceptAsync(results -> {
+            for (int i = 0; i < results.size(); i++) {
+                DiscoveryResult result = results.get(i);
+                if (result != null) {
+                    Discovery discovery = discoveries.get(i);
+                    processDiscoveryResult(discovery.player(), result, discovery.chunk().getWorld().getName());
+                }
+            }
+        }, runnable -> Bukkit.getScheduler().runTask(plugin, runnable))
+        .exceptionally(throwable -> {
+            plugin.getLogger().severe("チャンク発見の一括処理中に予期しないエラーが発生しました: " + throwable.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * 発見をDBへ順に書き込む（書き込みキュー無効時、非同期スレッドで実行）
+     */
+    private List<DiscoveryResult> processAll(List<Discovery> discoveries, List<InFlightKey> keys,
+                                             List<CompletableFuture<DiscoveryResult>> pendings) {
+        List<DiscoveryResult> results = new ArrayList<>(discoveries.size());
+        for (int i = 0; i < discoveries.size(); i++) {
+            Chunk chunk = discoveries.get(i).chunk();
+            DiscoveryResult result = null;
+            Exception error = null;
             try {
-                boolean isGlobalFirst = chunkRepo.saveIfAbsent(chunk, playerId);
-                boolean isPersonalFirst = playerRepo.saveIfAbsentChunk(playerId, chunk);
-                
-                PlayerData globalData = null;
-                if (isPersonalFirst) {
-                    globalData = playerRepo.incrementTotalChunks(playerId);
+                result = processDiscovery(discoveries.get(i).player().getUniqueId(), chunk, chunk.getWorld().getName());
+            } catch (Exception e) {
+                // 1件の失敗で同じtickの他の発見を取りこぼさない
+                plugin.getLogger().severe("チャンク発見処理中にデータベースエラーが発生しました: " + e.getMessage());
+                error = e;
+            }
+            complete(keys.get(i), pendings.get(i), result, error);
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * 発見を書き込みキューへまとめて追加する（失敗した発見の結果は null）
+     */
+    private CompletableFuture<List<DiscoveryResult>> submitAll(List<Discovery> discoveries, List<InFlightKey> keys,
+                                                               List<CompletableFuture<DiscoveryResult>> pendings) {
+        List<CompletableFuture<DiscoveryResult>> futures = new ArrayList<>(discoveries.size());
+        for (int i = 0; i < discoveries.size(); i++) {
+            Chunk chunk = discoveries.get(i).chunk();
+            InFlightKey key = keys.get(i);
+            CompletableFuture<DiscoveryResult> pending = pendings.get(i);
+            CompletableFuture<DiscoveryResult> future =
+                submitWriteBehind(discoveries.get(i).player().getUniqueId(), chunk, chunk.getWorld().getName());
+            future.whenComplete((result, throwable) -> complete(key, pending, result, throwable));
+            futures.add(future.exceptionally(throwable -> null));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * 発見を書き込みキューへ追加する
+     *
+     * 発見済みキャッシュは書き込みを待たずに更新し、以降の移動判定ではDBを参照しない。
+     * 再試行しても書き込めなかった場合はキャッシュから取り消し、次にチャンクへ入った時に再び発見処理へ渡す。
+     * 世界初・個人初の判定は書き込み時にDBの既存行と突き合わせて確定する。
+     */
+    private CompletableFuture<DiscoveryResult> submitWriteBehind(UUID playerUuid, Chunk chunk, String worldName) {
+        String playerId = playerUuid.toString();
+        long chunkKey = ChunkKey.of(chunk);
+        chunkCache.markDiscovered(playerUuid, worldName, chunkKey);
+        return writeBehind.submit(new DiscoveryBatchRepository.Entry(playerId, worldName, chunk.getX(), chunk.getZ()))
+            .whenComplete((outcome, throwable) -> {
+                if (throwable != null) {
+                    chunkCache.unmarkDiscovered(playerUuid, worldName, chunkKey);
                 }
-                
-                int worldChunks = playerRepo.getPlayerChunksInWorld(playerId, worldName);
-                return new DiscoveryResult(isGlobalFirst, isPersonalFirst, globalData, worldChunks);
-                
+            })
+            .thenApply(outcome -> {
+                if (outcome.globalFirst()) {
+                    counters.increment(worldName);
+                }
+                if (outcome.personalFirst()) {
+                    ranking.update(playerId, outcome.totalChunks());
+                }
+                return outcome;
+            })
+            .thenApply(outcome -> new DiscoveryResult(
+                outcome.globalFirst(),
+                outcome.personalFirst(),
+                outcome.personalFirst() ? new PlayerData(playerId, outcome.totalChunks()) : null,
+                outcome.worldChunks()
+            ));
+    }
+
+    /**
+     * 発見処理を処理中として登録する
+     * @return 新規に登録した場合は結果を受け取る Future、既に処理中の場合は null
+     */
+    private CompletableFuture<DiscoveryResult> register(InFlightKey key) {
+        CompletableFuture<DiscoveryResult> pending = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, pending) != null) {
+            suppressedDuplicates.increment();
+            return null;
+        }
+        return pending;
+    }
+
+    /**
+     * 処理中の登録を解除し、結果を通知する
+     */
+    private void complete(InFlightKey key, CompletableFuture<DiscoveryResult> pending,
+                          DiscoveryResult result, Throwable throwable) {
+        inFlight.remove(key, pending);
+        if (throwable != null) {
+            pending.completeExceptionally(throwable);
+        } else {
+            pending.complete(result);
+        }
+    }
+
+    private CompletableFuture<DiscoveryResult> processDiscoveryAsync(UUID playerUuid, Chunk chunk, String worldName) {
+        if (writeBehind != null) {
+            return submitWriteBehind(playerUuid, chunk, worldName);
+        }
+        return ExecutorRegistry.db().supply(DbExecutor.Priority.DISCOVERY, () -> {
+            try {
+                return processDiscovery(playerUuid, chunk, worldName);
             } catch (Exception e) {
                 plugin.getLogger().severe("チャンク発見処理中にデータベースエラーが発生しました: " + e.getMessage());
                 throw new RuntimeException(e);
@@ -70,6 +295,42 @@ public class DiscoveryService {
         });
     }
 
+    private DiscoveryResult processDiscovery(UUID playerUuid, Chunk chunk, String worldName) {
+        String playerId = playerUuid.toString();
+        if (discoveryCommit != null) {
+            DiscoveryCommit.Result committed = discoveryCommit.execute(playerId, worldName, chunk.getX(), chunk.getZ());
+            chunkCache.markDiscovered(playerUuid, worldName, ChunkKey.of(chunk));
+            if (committed.globalFirst()) {
+                counters.increment(worldName);
+            }
+            if (committed.personalFirst()) {
+                ranking.update(playerId, committed.totalChunks());
+            }
+            return new DiscoveryResult(
+                committed.globalFirst(),
+                committed.personalFirst(),
+                committed.personalFirst() ? new PlayerData(playerId, committed.totalChunks()) : null,
+                committed.worldChunks()
+            );
+        }
+
+        boolean isGlobalFirst = chunkRepo.saveIfAbsent(chunk, playerId);
+        if (isGlobalFirst) {
+            counters.increment(worldName);
+        }
+        boolean isPersonalFirst = playerRepo.saveIfAbsentChunk(playerId, chunk);
+        chunkCache.markDiscovered(playerUuid, worldName, ChunkKey.of(chunk));
+
+        PlayerData globalData = null;
+        if (isPersonalFirst) {
+            globalData = playerRepo.incrementTotalChunks(playerId);
+            ranking.update(playerId, globalData.getTotalChunks());
+        }
+
+        int worldChunks = playerRepo.getPlayerChunksInWorld(playerId, worldName);
+        return new DiscoveryResult(isGlobalFirst, isPersonalFirst, globalData, worldChunks);
+    }
+
     private void processDiscoveryResult(Player player, DiscoveryResult result, String worldName) {
         try {
             // 個人発見または世界発見のどちらかがある場合のみ処理
@@ -80,9 +341,10 @@ public class DiscoveryService {
             int totalGlobal = result.playerData.getTotalChunks();
             int totalInWorld = result.worldChunks;
 
-            // 世界発見時のみWorldBorderを更新
-            if (result.globalFirst) {
-                updateWorldBorder(player, totalInWorld);
+            // 世界発見時のみWorldBorderを更新（ワールド全体の発見数に応じたサイズ）
+            // カウンターの読み込みまでは保留し、読み込み完了時にまとめて反映する
+            if (result.globalFirst && counters.isLoaded()) {
+                updateWorldBorder(player, (int) counters.getWorldTotal(worldName));
             }
             
             logDiscovery(player, worldName, totalGlobal, totalInWorld);
@@ -100,7 +362,8 @@ public class DiscoveryService {
     }
 
     private void logDiscovery(Player player, String worldName, int totalGlobal, int totalInWorld) {
-        double borderSize = player.getWorld().getWorldBorder().getSize();
+        // ボーダーは一定間隔ごとにまとめて拡張するため、反映待ちを含む最新のサイズを記録する
+        double borderSize = WorldBorderConfig.getCurrentBorderSize(worldName);
         plugin.getLogger().info(String.format(
             "%s が %s でチャンクを発見: 全体 %d / %s内 %d / ボーダー %.1f",
             player.getName(), worldName, totalGlobal, worldName, totalInWorld, borderSize
@@ -110,9 +373,9 @@ public class DiscoveryService {
     private void grantRewards(Player player, DiscoveryResult result, int totalGlobal) {
         rewardService.grantRewards(player, result.globalFirst, result.personalFirst, totalGlobal);
         
-        // グローバルマイルストーンは世界発見時のみチェック
-        if (result.globalFirst) {
-            rewardService.checkGlobalMilestones(getTotalDiscoveredChunks());
+        // グローバルマイルストーンは世界発見時のみチェック（カウンター読み込み済みの場合のみ、DBでは集計しない）
+        if (result.globalFirst && counters.isLoaded()) {
+            rewardService.checkGlobalMilestones((int) counters.getGlobalTotal());
         }
     }
 
@@ -130,6 +393,7 @@ public class DiscoveryService {
     public CompletableFuture<Integer> getPlayerTotalChunksAsync(String playerId) {
         Validate.requireNonEmpty(playerId, "Player ID cannot be null or empty");
         return AsyncUtils.executeAsyncWithDefault(
+            DbExecutor.Priority.STATS,
             () -> playerRepo.getTotalChunks(playerId),
             plugin.getLogger(),
             "プレイヤー統計取得",
@@ -144,6 +408,7 @@ public class DiscoveryService {
         Validate.requireNonEmpty(playerId, "Player ID cannot be null or empty");
         Validate.requireNonEmpty(worldName, "World name cannot be null or empty");
         return AsyncUtils.executeAsyncWithDefault(
+            DbExecutor.Priority.STATS,
             () -> playerRepo.getPlayerChunksInWorld(playerId, worldName),
             plugin.getLogger(),
             "ワールド別プレイヤー統計取得",
@@ -164,10 +429,13 @@ public class DiscoveryService {
     }
 
     /**
-     * チャンク発見ランキングのトップNを取得（非同期）
+     * チャンク発見ランキングのトップNを取得（非同期、ランキング読み込み済みならDBにアクセスしない）
      */
     public CompletableFuture<List<PlayerData>> getTopPlayersAsync(int limit) {
-        return CompletableFuture.supplyAsync(() -> {
+        if (ranking.isLoaded()) {
+            return CompletableFuture.completedFuture(ranking.top(limit));
+        }
+        return ExecutorRegistry.db().supply(DbExecutor.Priority.STATS, () -> {
             try {
                 return playerRepo.getTopPlayers(limit);
             } catch (Exception e) {
@@ -190,30 +458,315 @@ public class DiscoveryService {
     }
 
     /**
-     * 指定したチャンクがプレイヤーにより既に発見されているか確認
+     * プレイヤーの順位を取得（ランキング未読み込み、またはランキングにいない場合は 0）
+     */
+    public int getPlayerRank(String playerId) {
+        return ranking.rankOf(playerId);
+    }
+
+    /**
+     * プレイヤーの前後の順位のプレイヤーを取得（本人を含む）
+     * @param radius 前後それぞれの人数
+     */
+    public List<PlayerRanking.Ranked> getPlayersAround(String playerId, int radius) {
+        return ranking.around(playerId, radius);
+    }
+
+    /**
+     * ランキングのプレイヤー数を取得
+     */
+    public int getRankedPlayerCount() {
+        return ranking.size();
+    }
+
+    /**
+     * ランキングを取得（統計表示用）
+     */
+    public PlayerRanking getRanking() {
+        return ranking;
+    }
+
+    /**
+     * ランキングをDBから読み込む（起動時、非同期）
+     */
+    public void loadRanking() {
+        AsyncUtils.executeAsyncVoidWithLogging(
+            DbExecutor.Priority.DISCOVERY,
+            () -> {
+                ranking.load(playerRepo.getAllPlayerTotals());
+                plugin.getLogger().info("ランキングを読み込みました（" + ranking.size() + " 人）。");
+            },
+            plugin.getLogger(),
+            "ランキング読み込み"
+        );
+    }
+
+    /**
+     * プレイヤーの名前をキャッシュに登録し、DBに最後に確認した名前として保存する（ログイン時）
+     */
+    public void rememberPlayerName(Player player) {
+        String playerId = player.getUniqueId().toString();
+        String name = player.getName();
+        nameCache.put(playerId, name);
+        AsyncUtils.executeAsyncVoidWithLogging(
+            DbExecutor.Priority.BACKGROUND,
+            () -> playerRepo.updateLastName(playerId, name),
+            plugin.getLogger(),
+            "プレイヤー名保存"
+        );
+    }
+
+    /**
+     * プレイヤーIDから名前をまとめて取得（非同期、キャッシュにない名前は1回のクエリで読み込む）
+     * @return プレイヤーID -> 名前（名前が記録されていないプレイヤーは含まない）
+     */
+    public CompletableFuture<Map<String, String>> resolvePlayerNamesAsync(Collection<String> playerIds) {
+        List<String> missing = new ArrayList<>();
+        Map<String, String> names = nameCache.getAll(playerIds, missing);
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(names);
+        }
+        return ExecutorRegistry.db().supply(DbExecutor.Priority.STATS, () -> {
+            Map<String, String> resolved = new HashMap<>(names);
+            try {
+                Map<String, String> loaded = playerRepo.getLastNames(missing);
+                nameCache.putAll(loaded);
+                resolved.putAll(loaded);
+            } catch (Exception e) {
+                plugin.getLogger().warning("プレイヤー名取得中にエラーが発生しました: " + e.getMessage());
+            }
+            return resolved;
+        });
+    }
+
+    /**
+     * プレイヤー名キャッシュを取得（統計表示用）
+     */
+    public PlayerNameCache getNameCache() {
+        return nameCache;
+    }
+
+    /**
+     * 指定したチャンクがプレイヤーにより既に発見されているか確認（メインスレッドから呼び出す、DBにはアクセスしない）
+     *
+     * キャッシュ未読み込みの場合は発見候補として false を返す。
+     * 個人初・世界初の判定は発見の書き込み時にDBの既存行と突き合わせて確定するため、重複して報酬を付与することはない。
      */
     public boolean isDiscovered(Player player, Chunk chunk) {
-        String pid = player.getUniqueId().toString();
+        DiscoveredChunkCache.Lookup cached =
+            chunkCache.lookup(player.getUniqueId(), chunk.getWorld().getName(), ChunkKey.of(chunk));
+        return cached == DiscoveredChunkCache.Lookup.DISCOVERED;
+    }
+
+    /**
+     * 指定したチャンクがプレイヤーにより既に発見されているか確認（非同期、コマンド用）
+     *
+     * プレイヤーとチャンクの情報は呼び出したスレッドで取得し、キャッシュにない場合のみDBで確認する。
+     */
+    public CompletableFuture<Boolean> isDiscoveredAsync(Player player, Chunk chunk) {
+        UUID playerUuid = player.getUniqueId();
+        String worldName = chunk.getWorld().getName();
+        int chunkX = chunk.getX();
+        int chunkZ = chunk.getZ();
+        DiscoveredChunkCache.Lookup cached =
+            chunkCache.lookup(playerUuid, worldName, ChunkKey.pack(chunkX, chunkZ));
+        if (cached != DiscoveredChunkCache.Lookup.UNKNOWN) {
+            return CompletableFuture.completedFuture(cached == DiscoveredChunkCache.Lookup.DISCOVERED);
+        }
+        if (chunkStore != null) {
+            // メモリマップしたファイルのビットを参照するだけのため、呼び出したスレッドで確認する
+            return CompletableFuture.completedFuture(
+                chunkStore.hasDiscoveredChunk(playerUuid.toString(), worldName, chunkX, chunkZ));
+        }
+        return AsyncUtils.executeAsyncWithDefault(
+            DbExecutor.Priority.STATS,
+            () -> playerRepo.hasDiscoveredChunk(playerUuid.toString(), worldName, chunkX, chunkZ),
+            plugin.getLogger(),
+            "チャンク発見状況確認",
+            false
+        );
+    }
+
+    /**
+     * ワールドの現在のボーダーサイズを取得（コマンド用、メモリ上の値を返すためDBにはアクセスしない）
+     */
+    public CompletableFuture<Double> getBorderSizeAsync(String worldName) {
+        Validate.requireNonEmpty(worldName, "World name cannot be null or empty");
+        return CompletableFuture.completedFuture(WorldBorderConfig.getCurrentBorderSize(worldName));
+    }
+
+    /**
+     * プレイヤーの発見済みチャンクキャッシュを非同期で読み込む（ログイン時）
+     *
+     * 読み込みに失敗した場合（混雑による拒否を含む）は、ログアウトするまで間隔を空けて再試行する。
+     * @return 読み込みが完了した（または再試行を打ち切った）時点で完了する Future
+     */
+    public CompletableFuture<Void> loadPlayerCache(Player player) {
+        UUID playerUuid = player.getUniqueId();
+        DiscoveredChunkCache.PlayerChunks entry = chunkCache.prepare(playerUuid);
+        CompletableFuture<Void> loaded = new CompletableFuture<>();
+        loadPlayerCache(playerUuid, entry, loaded);
+        return loaded;
+    }
+
+    private void loadPlayerCache(UUID playerUuid, DiscoveredChunkCache.PlayerChunks entry, CompletableFuture<Void> loaded) {
+        ExecutorRegistry.db().run(DbExecutor.Priority.DISCOVERY,
+                () -> chunkCache.complete(entry, chunkStore != null
+                    ? chunkStore.getDiscoveredChunkKeys(playerUuid.toString())
+                    : playerRepo.getDiscoveredChunkKeys(playerUuid.toString())))
+            .whenComplete((ignored, throwable) -> {
+                if (throwable == null) {
+                    loaded.complete(null);
+                    return;
+                }
+                chunkCache.fail(entry);
+                if (!chunkCache.isCurrent(playerUuid, entry) || !plugin.isEnabled()) {
+                    // ログアウト済み、またはプラグイン停止中は再試行しない
+                    loaded.complete(null);
+                    return;
+                }
+                long delayTicks = Math.min(CACHE_RETRY_MAX_TICKS, CACHE_RETRY_BASE_TICKS << Math.min(entry.getFailures() - 1, 6));
+                plugin.getLogger().warning(String.format(
+                    "発見済みチャンクキャッシュの読み込みに失敗しました（%d 回目）。%d 秒後に再試行します: %s",
+                    entry.getFailures(), delayTicks / 20, throwable.getMessage()));
+                Bukkit.getScheduler().runTaskLater(plugin, () -> loadPlayerCache(playerUuid, entry, loaded), delayTicks);
+            });
+    }
+
+    /**
+     * プレイヤーの発見済みチャンクキャッシュを破棄する（ログアウト時）
+     */
+    public void unloadPlayerCache(Player player) {
+        chunkCache.invalidate(player.getUniqueId());
+    }
+
+    /**
+     * 発見済みチャンクキャッシュを取得（統計表示用）
+     */
+    public DiscoveredChunkCache getChunkCache() {
+        return chunkCache;
+    }
+
+    /**
+     * 処理中の発見に合流して抑止した重複リクエスト数を取得
+     */
+    public long getSuppressedDuplicates() {
+        return suppressedDuplicates.sum();
+    }
+
+    /**
+     * 現在処理中の発見数を取得
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 発見の書き込みキューを取得（無効の場合は null）
+     */
+    public DiscoveryWriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * 発見済みチャンクの保存先を取得（db.chunk_store: sql の場合は null）
+     */
+    public RegionBitmapStore getChunkStore() {
+        return chunkStore;
+    }
+
+    /**
+     * 発見済みチャンクの保存先の変更ログをディスクへ同期する（非同期スレッドから定期実行、region_file の場合のみ）
+     */
+    public void syncChunkStore() {
+        if (chunkStore == null) {
+            return;
+        }
         try {
-            return playerRepo.hasDiscoveredChunk(pid, chunk);
+            chunkStore.flush();
         } catch (Exception e) {
-            plugin.getLogger().warning("チャンク発見状況確認中にエラーが発生しました: " + e.getMessage());
-            return false; // エラー時は未発見として扱う
+            plugin.getLogger().warning("リージョンストアの同期中にエラーが発生しました: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 書き込み待ちの発見をDBへ反映して停止する（プラグイン無効化時）
+     */
+    public void shutdown() {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    /**
+     * 発見済みチャンクの保存先を閉じる（プラグイン無効化時、DB処理の停止後に呼び出す）
+     */
+    public void closeChunkStore() {
+        if (chunkStore != null) {
+            chunkStore.close();
         }
     }
 
     /**
-     * サーバー全体の発見済みチャンク総数を取得
+     * 発見数カウンターをDBから読み込む（起動時、非同期）
+     *
+     * 読み込みに失敗した場合は、定期的な補正（{@link #reconcileCounters}）で読み込まれる。
+     */
+    public void loadCounters() {
+        AsyncUtils.executeAsyncVoidWithLogging(
+            DbExecutor.Priority.DISCOVERY,
+            this::reconcileCounters,
+            plugin.getLogger(),
+            "発見数カウンター読み込み"
+        );
+    }
+
+    /**
+     * 発見数カウンターをDBの件数（region_file の場合はリージョンファイルの件数）と突き合わせて補正する（非同期スレッドから定期実行）
+     *
+     * 初めて読み込めた時点で、読み込みまでの間に保留したボーダーの拡張をメインスレッドで反映する。
      */
-    private int getTotalDiscoveredChunks() {
+    public void reconcileCounters() {
         try {
-            return chunkRepo.getTotalDiscoveredChunks();
+            DiscoveryCounters.Snapshot before = counters.snapshot();
+            Map<String, Integer> dbCounts = chunkStore != null
+                ? chunkStore.getDiscoveredChunkCountsByWorld()
+                : chunkRepo.getDiscoveredChunkCountsByWorld();
+            boolean wasLoaded = counters.isLoaded();
+            counters.reconcile(before, dbCounts);
+            if (wasLoaded) {
+                long drift = dbCounts.values().stream().mapToLong(Integer::longValue).sum() - before.total();
+                if (drift != 0) {
+                    plugin.getLogger().info("発見数カウンターを補正しました: " + (drift > 0 ? "+" : "") + drift);
+                }
+            } else if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, this::applyCountedBorders);
+            }
         } catch (Exception e) {
-            plugin.getLogger().severe("グローバル統計取得中にエラーが発生しました: " + e.getMessage());
-            return 0;
+            plugin.getLogger().warning("発見数カウンターの補正中にエラーが発生しました: " + e.getMessage());
+        }
+    }
+
+    /**
+     * カウンターのワールド別発見数に応じてボーダーを拡張する（カウンター読み込み直後、メインスレッドで実行）
+     */
+    private void applyCountedBorders() {
+        for (World world : plugin.getServer().getWorlds()) {
+            int totalInWorld = (int) counters.getWorldTotal(world.getName());
+            double newSize = WorldBorderConfig.calculateNewSize(world, totalInWorld);
+            if (newSize > WorldBorderConfig.getCurrentBorderSize(world.getName())) {
+                WorldBorderConfig.updateBorderSize(world, newSize, totalInWorld);
+            }
         }
     }
 
+    /**
+     * 発見数カウンターを取得（統計表示用）
+     */
+    public DiscoveryCounters getCounters() {
+        return counters;
+    }
+
     /**
      * 特定ワールドでのプレイヤーのチャンク発見総数を取得
      * @param playerId プレイヤーID
@@ -229,6 +782,16 @@ public class DiscoveryService {
         }
     }
 
+    /**
+     * 発見候補（プレイヤーと岩盤チェック済みのチャンク）
+     */
+    public record Discovery(Player player, Chunk chunk) {}
+
+    /**
+     * 処理中の発見を識別するキー
+     */
+    private record InFlightKey(UUID playerId, String worldName, int chunkX, int chunkZ) {}
+
     /**
      * 発見結果を格納するためのレコードクラス
      */
@@ -0,0 +1,300 @@
+package io.wax100.chunkDiscovery.service;
+
+import io.wax100.chunkDiscovery.database.DiscoveryBatchRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * チャンク発見の書き込みを溜めてまとめてDBへ反映するキュー
+ *
+ * 一定間隔（flushIntervalMillis）または一定件数（maxBatchSize）に達した時点で
+ * 専用スレッドから {@link DiscoveryBatchRepository#commit} を1回呼び出す。
+ * 世界初・個人初の判定はキューに入った順序で決まり、書き込み時に既存行と突き合わせて確定する。
+ *
+ * 書き込みに失敗した発見は間隔を倍にしながら再試行し、上限回数に達した場合のみ Future を例外で完了する。
+ * 停止時の最後の書き込みは呼び出し元スレッドで数回まで再試行し、それでも書き込めなかった発見は
+ * 後から復旧できるよう1件ずつログに出力する。
+ */
+public class DiscoveryWriteBehind {
+    /** 書き込みを試みる回数の上限（初回を含む） */
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    /** 最初の再試行までの間隔（ミリ秒、以降は失敗するたびに倍にする） */
+    private static final long DEFAULT_RETRY_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+    /** 停止時の書き込みを試みる回数（初回を含む） */
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    /** 停止時の再試行までの間隔の上限（ミリ秒） */
+    private static final long MAX_SHUTDOWN_RETRY_DELAY_MILLIS = 1000;
+
+    private final DiscoveryBatchRepository repository;
+    private final Logger logger;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final ScheduledThreadPoolExecutor flusher;
+
+    private final Object lock = new Object();
+    private List<Pending> queue = new ArrayList<>();
+    // 再試行待ちの発見（再試行時刻の到来後、新しい発見より先に書き込む）
+    private final List<Pending> retries = new ArrayList<>();
+    private boolean shutdown;
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedEntries = new LongAdder();
+    private final LongAdder retriedEntries = new LongAdder();
+    private final LongAdder failedEntries = new LongAdder();
+
+    /**
+     * @param repository 一括書き込み先
+     * @param logger ロガー
+     * @param flushIntervalMillis 書き込み間隔（ミリ秒）
+     * @param maxBatchSize この件数に達したら間隔を待たずに書き込む
+     */
+    public DiscoveryWriteBehind(DiscoveryBatchRepository repository, Logger logger,
+                                long flushIntervalMillis, int maxBatchSize) {
+        this(repository, logger, flushIntervalMillis, maxBatchSize, DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * @param repository 一括書き込み先
+     * @param logger ロガー
+     * @param flushIntervalMillis 書き込み間隔（ミリ秒）
+     * @param maxBatchSize この件数に達したら間隔を待たずに書き込む
+     * @param maxAttempts 書き込みを試みる回数の上限（初回を含む）
+     * @param retryDelayMillis 最初の再試行までの間隔（ミリ秒）
+     */
+    public DiscoveryWriteBehind(DiscoveryBatchRepository repository, Logger logger,
+                                long flushIntervalMillis, int maxBatchSize, int maxAttempts, long retryDelayMillis) {
+        this.repository = repository;
+        this.logger = logger;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = retryDelayMillis;
+        this.flusher = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ChunkDiscovery-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 停止時は再試行の予約を待たず、shutdown() の最後の書き込みで反映する
+        this.flusher.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 発見を書き込みキューに追加する
+     * @return 書き込み完了時に判定結果を返す Future
+     */
+    public CompletableFuture<DiscoveryBatchRepository.Outcome> submit(DiscoveryBatchRepository.Entry entry) {
+        CompletableFuture<DiscoveryBatchRepository.Outcome> future = new CompletableFuture<>();
+        boolean full;
+        synchronized (lock) {
+            if (shutdown) {
+                future.completeExceptionally(new IllegalStateException("書き込みキューは停止済みです"));
+                return future;
+            }
+            queue.add(new Pending(entry, future, 0, 0L));
+            full = queue.size() == maxBatchSize;
+        }
+        if (full) {
+            flusher.execute(this::flush);
+        }
+        return future;
+    }
+
+    /**
+     * キュー内の発見を書き込む（書き込みスレッドで実行）
+     */
+    void flush() {
+        flush(false);
+    }
+
+    /**
+     * キュー内の発見と再試行時刻が到来した発見を書き込む
+     * @param force 再試行時刻を待たずにすべて書き込み、失敗した場合はこのスレッドで再試行する（停止時）
+     */
+    private void flush(boolean force) {
+        List<Pending> batch = new ArrayList<>();
+        synchronized (lock) {
+            long now = System.nanoTime();
+            for (Iterator<Pending> it = retries.iterator(); it.hasNext(); ) {
+                Pending pending = it.next();
+                if (force || now - pending.retryAt() >= 0) {
+                    batch.add(pending);
+                    it.remove();
+                }
+            }
+            if (batch.isEmpty() && queue.isEmpty()) {
+                return;
+            }
+            batch.addAll(queue);
+            queue = new ArrayList<>();
+        }
+
+        // 件数上限ごとに分割して書き込む
+        for (int from = 0; from < batch.size(); from += maxBatchSize) {
+            flush(batch.subList(from, Math.min(batch.size(), from + maxBatchSize)), force);
+        }
+    }
+
+    private void flush(List<Pending> batch, boolean force) {
+        List<DiscoveryBatchRepository.Entry> entries = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            entries.add(pending.entry());
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<DiscoveryBatchRepository.Outcome> outcomes = repository.commit(entries);
+                flushes.increment();
+                flushedEntries.add(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future().complete(outcomes.get(i));
+                }
+                return;
+            } catch (Exception e) {
+                if (!force || attempt >= SHUTDOWN_ATTEMPTS || !awaitShutdownRetry()) {
+                    retryOrFail(batch, e, force);
+                    return;
+                }
+                logger.warning("停止時のチャンク発見の書き込みに失敗しました。再試行します (" + attempt + "/"
+                        + SHUTDOWN_ATTEMPTS + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 停止時の再試行まで待機する
+     * @return 再試行する場合 true、割り込まれた場合 false
+     */
+    private boolean awaitShutdownRetry() {
+        try {
+            Thread.sleep(Math.min(retryDelayMillis, MAX_SHUTDOWN_RETRY_DELAY_MILLIS));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 書き込みに失敗した発見を再試行待ちに戻す（上限回数に達した発見は Future を例外で完了する）
+     */
+    private void retryOrFail(List<Pending> batch, Exception error, boolean force) {
+        List<Pending> retry = new ArrayList<>();
+        List<Pending> failed = new ArrayList<>();
+        long delayMillis = 0;
+        for (Pending pending : batch) {
+            int attempts = pending.attempts() + 1;
+            if (force || attempts >= maxAttempts) {
+                failed.add(pending);
+                continue;
+            }
+            long delay = Math.min(MAX_RETRY_DELAY_MILLIS, retryDelayMillis << Math.min(attempts - 1, 16));
+            delayMillis = Math.max(delayMillis, delay);
+            retry.add(new Pending(pending.entry(), pending.future(), attempts,
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay)));
+        }
+        failedEntries.add(failed.size());
+        retriedEntries.add(retry.size());
+        logger.severe("チャンク発見の一括書き込みに失敗しました (" + batch.size() + "件、再試行 " + retry.size()
+                + "件 / 破棄 " + failed.size() + "件): " + error.getMessage());
+        if (force) {
+            // 停止後はキャッシュから外しても再度書き込まれないため、復旧用に1件ずつ記録する
+            for (Pending pending : failed) {
+                DiscoveryBatchRepository.Entry entry = pending.entry();
+                logger.severe("書き込めなかったチャンク発見: player=" + entry.playerId() + " world=" + entry.world()
+                        + " chunk=" + entry.chunkX() + "," + entry.chunkZ());
+            }
+        }
+        for (Pending pending : failed) {
+            pending.future().completeExceptionally(error);
+        }
+
+        if (retry.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            retries.addAll(retry);
+        }
+        try {
+            flusher.schedule(() -> flush(false), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 停止処理中の場合は shutdown() の最後の書き込みで反映する
+        }
+    }
+
+    /**
+     * キューを停止し、残っている発見を書き込む（プラグイン無効化時）
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("書き込みスレッドの停止待ちがタイムアウトしました。");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(true);
+    }
+
+    /**
+     * 書き込み待ちの件数を取得（再試行待ちを含む）
+     */
+    public int getQueuedCount() {
+        synchronized (lock) {
+            return queue.size() + retries.size();
+        }
+    }
+
+    /**
+     * 再試行待ちの件数を取得
+     */
+    public int getRetryingCount() {
+        synchronized (lock) {
+            return retries.size();
+        }
+    }
+
+    /**
+     * 書き込みに失敗して再試行した延べ件数
+     */
+    public long getRetriedEntries() {
+        return retriedEntries.sum();
+    }
+
+    /**
+     * 再試行の上限に達し、書き込めなかった件数
+     */
+    public long getFailedEntries() {
+        return failedEntries.sum();
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    public long getFlushedEntries() {
+        return flushedEntries.sum();
+    }
+
+    /**
+     * 書き込み待ちの発見
+     * @param attempts 失敗した回数
+     * @param retryAt 再試行時刻（System.nanoTime 基準、初回は 0）
+     */
+    private record Pending(DiscoveryBatchRepository.Entry entry,
+                           CompletableFuture<DiscoveryBatchRepository.Outcome> future,
+                           int attempts, long retryAt) {}
+}
@@ -1,6 +1,7 @@
 package io.wax100.chunkDiscovery.service;
 
 import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
+import io.wax100.chunkDiscovery.config.ConfigSnapshot;
 import io.wax100.chunkDiscovery.manager.EffectManager;
 import io.wax100.chunkDiscovery.manager.MilestoneConfig;
 import io.wax100.chunkDiscovery.manager.RewardManager;
@@ -35,7 +36,7 @@ public class MilestoneProcessor {
     public void processPersonalMilestones(Player player, int totalChunks) {
         logDebug("個人マイルストーンチェック: " + player.getName() + ", チャンク数=" + totalChunks);
         
-        MilestoneConfig.MilestoneEntry milestone = findMatchingMilestone(MilestoneConfig.personal, totalChunks);
+        MilestoneConfig.MilestoneEntry milestone = ConfigSnapshot.current().milestones().find(totalChunks, false);
         if (milestone == null) {
             return;
         }
@@ -49,7 +50,7 @@ public class MilestoneProcessor {
     public void processGlobalMilestones(int totalDiscoveredChunks) {
         logDebug("グローバルマイルストーンチェック: チャンク数=" + totalDiscoveredChunks);
         
-        MilestoneConfig.MilestoneEntry milestone = findMatchingMilestone(MilestoneConfig.global, totalDiscoveredChunks);
+        MilestoneConfig.MilestoneEntry milestone = ConfigSnapshot.current().milestones().find(totalDiscoveredChunks, true);
         if (milestone == null || triggeredGlobalMilestones.contains(milestone.discoveryCount)) {
             return;
         }
@@ -71,15 +72,6 @@ public class MilestoneProcessor {
     
     // Private helper methods
     
-    private MilestoneConfig.MilestoneEntry findMatchingMilestone(Iterable<MilestoneConfig.MilestoneEntry> milestones, int targetCount) {
-        for (MilestoneConfig.MilestoneEntry milestone : milestones) {
-            if (milestone.discoveryCount == targetCount) {
-                return milestone;
-            }
-        }
-        return null;
-    }
-    
     private void executePersonalMilestone(Player player, MilestoneConfig.MilestoneEntry milestone, int totalChunks) {
         try {
             // 報酬アイテム付与
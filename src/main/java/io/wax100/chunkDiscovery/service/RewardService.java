@@ -39,12 +39,9 @@ public class RewardService {
     }
     
     private void initializeRewardSystem() {
-        try {
-            this.rewardManager.loadMilestoneRewards();
-            plugin.getLogger().info("報酬システムが正常に初期化されました");
-        } catch (Exception e) {
-            ErrorHandler.logError(e, plugin.getLogger(), "報酬設定の読み込み");
-        }
+        // 報酬設定は公開済みの設定スナップショットから参照する
+        int milestones = rewardManager.getMilestoneRewards().size();
+        plugin.getLogger().info("報酬システムが正常に初期化されました（マイルストーン報酬: " + milestones + " 個）");
     }
 
     /**
@@ -117,11 +114,10 @@ public class RewardService {
     }
 
     /**
-     * 報酬設定をリロード
+     * 報酬設定をリロード（新しい設定スナップショットの公開後に呼び出す）
      */
     public void reloadRewards() {
         try {
-            rewardManager.loadMilestoneRewards();
             getMilestoneProcessor().resetGlobalMilestoneHistory();
             plugin.getLogger().info("報酬設定がリロードされました。");
         } catch (Exception e) {
@@ -7,6 +7,9 @@ import java.util.logging.Logger;
 
 /**
  * 非同期処理のユーティリティクラス
+ *
+ * 処理は {@link ExecutorRegistry#db()} のスレッドプールで実行する（優先度の指定がない場合は BACKGROUND）。
+ * 混雑により受け付けを拒否した場合、Future は RejectedExecutionException で完了する。
  */
 public class AsyncUtils {
     
@@ -19,7 +22,7 @@ public class AsyncUtils {
      */
     public static <T> CompletableFuture<T> executeAsync(Supplier<T> operation, 
                                                         Consumer<Throwable> errorHandler) {
-        return CompletableFuture.supplyAsync(operation)
+        return ExecutorRegistry.db().supply(DbExecutor.Priority.BACKGROUND, operation)
                                .exceptionally(throwable -> {
                                    errorHandler.accept(throwable);
                                    return null;
@@ -39,7 +42,25 @@ public class AsyncUtils {
                                                                    Logger logger,
                                                                    String operationName,
                                                                    T defaultValue) {
-        return CompletableFuture.supplyAsync(() -> {
+        return executeAsyncWithDefault(DbExecutor.Priority.BACKGROUND, operation, logger, operationName, defaultValue);
+    }
+
+    /**
+     * 優先度を指定したログ付きの非同期実行（デフォルト値返却）
+     * @param priority 優先度
+     * @param operation 実行する処理
+     * @param logger ログ出力用
+     * @param operationName 操作名
+     * @param defaultValue エラー時のデフォルト値
+     * @param <T> 戻り値の型
+     * @return CompletableFuture（混雑により拒否した場合は RejectedExecutionException で完了）
+     */
+    public static <T> CompletableFuture<T> executeAsyncWithDefault(DbExecutor.Priority priority,
+                                                                   Supplier<T> operation,
+                                                                   Logger logger,
+                                                                   String operationName,
+                                                                   T defaultValue) {
+        return ExecutorRegistry.db().supply(priority, () -> {
             try {
                 return operation.get();
             } catch (Exception e) {
@@ -58,7 +79,7 @@ public class AsyncUtils {
      */
     public static CompletableFuture<Void> executeAsyncVoid(Runnable operation,
                                                            Consumer<Throwable> errorHandler) {
-        return CompletableFuture.runAsync(operation)
+        return ExecutorRegistry.db().run(DbExecutor.Priority.BACKGROUND, operation)
                                .exceptionally(throwable -> {
                                    errorHandler.accept(throwable);
                                    return null;
@@ -75,13 +96,31 @@ public class AsyncUtils {
     public static CompletableFuture<Void> executeAsyncVoidWithLogging(Runnable operation,
                                                                       Logger logger,
                                                                       String operationName) {
-        return CompletableFuture.runAsync(() -> {
+        return executeAsyncVoidWithLogging(DbExecutor.Priority.BACKGROUND, operation, logger, operationName);
+    }
+
+    /**
+     * 優先度を指定したログ付きのvoid非同期実行（混雑により拒否した場合もログに出力する）
+     * @param priority 優先度
+     * @param operation 実行する処理
+     * @param logger ログ出力用
+     * @param operationName 操作名
+     * @return CompletableFuture&lt;Void&gt;
+     */
+    public static CompletableFuture<Void> executeAsyncVoidWithLogging(DbExecutor.Priority priority,
+                                                                      Runnable operation,
+                                                                      Logger logger,
+                                                                      String operationName) {
+        return ExecutorRegistry.db().run(priority, () -> {
             try {
                 operation.run();
             } catch (Exception e) {
                 logger.severe(operationName + "中にエラーが発生しました: " + e.getMessage());
                 e.printStackTrace();
             }
+        }).exceptionally(throwable -> {
+            logger.warning(operationName + "を実行できませんでした: " + throwable.getMessage());
+            return null;
         });
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package io.wax100.chunkDiscovery.util;
+
+import org.bukkit.Chunk;
+
+/**
+ * チャンク座標を1つの long 値にパックするユーティリティクラス
+ * （Paper の Chunk#getChunkKey と同じビット配置: 下位32bit = X, 上位32bit = Z）
+ */
+public final class ChunkKey {
+
+    private ChunkKey() {
+        // ユーティリティクラスのためインスタンス化を防ぐ
+    }
+
+    /**
+     * チャンク座標をパックする
+     * @param chunkX チャンクX座標
+     * @param chunkZ チャンクZ座標
+     * @return パック済みキー
+     */
+    public static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX & 0xFFFFFFFFL) | (((long) chunkZ & 0xFFFFFFFFL) << 32);
+    }
+
+    /**
+     * チャンクのキーを取得
+     * @param chunk 対象チャンク
+     * @return パック済みキー
+     */
+    public static long of(Chunk chunk) {
+        return pack(chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * パック済みキーからチャンクX座標を取り出す
+     */
+    public static int x(long key) {
+        return (int) key;
+    }
+
+    /**
+     * パック済みキーからチャンクZ座標を取り出す
+     */
+    public static int z(long key) {
+        return (int) (key >>> 32);
+    }
+}
@@ -0,0 +1,350 @@
+package io.wax100.chunkDiscovery.util;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * DBアクセス専用のスレッドプール
+ *
+ * スレッド数は接続プールの最大接続数に合わせ、待ち行列は優先度順（同じ優先度では投入順）に処理する。
+ * 待ち行列の件数には上限があり、混雑時は統計コマンドの受け付けを先に拒否する。
+ * 拒否した処理の Future は {@link RejectedExecutionException} で完了する。
+ *
+ * 書き込みの遅延バッチ（DiscoveryWriteBehind）・スキーマ移行・ボーダーサイズの書き込み（WorldBorderWriteBehind）・
+ * 発見数カウンターの定期補正・WorldDictionary へのワールド登録は、それぞれのスレッドから接続プールの接続を直接使用するため、
+ * このプールの待ち行列・スレッド数の対象外となる（これらが接続を使用している間、このプールのスレッドは空き接続を待つ）。
+ *
+ * 仮想スレッドモード（{@link #virtual}）では処理ごとに仮想スレッドを作成し、
+ * 同時に実行する処理数をセマフォで接続数までに制限する（許可を得たスレッドが待ち行列の先頭の処理を実行する）。
+ */
+public class DbExecutor {
+
+    /**
+     * 処理の優先度（宣言順に優先）
+     */
+    public enum Priority {
+        /** チャンク発見の書き込みと、発見処理が依存するキャッシュ・カウンター・ランキングの読み込み（待ち行列が満杯になるまで受け付ける） */
+        DISCOVERY(1.0),
+        /** その他のバックグラウンド処理（発見の後に処理し、待ち行列が満杯になるまで受け付ける） */
+        BACKGROUND(1.0),
+        /** 統計コマンド（待ち行列が半分埋まったら拒否） */
+        STATS(0.5);
+
+        private final double admitRatio;
+
+        Priority(double admitRatio) {
+            this.admitRatio = admitRatio;
+        }
+    }
+
+    private final ExecutorService executor;
+    // 仮想スレッドモードのみ使用（プラットフォームスレッドでは ThreadPoolExecutor の待ち行列を使用）
+    private final PriorityBlockingQueue<Task> pending;
+    private final Semaphore permits;
+    private final int threads;
+    private final Logger logger;
+    private final int queueCapacity;
+    private final AtomicLong sequence = new AtomicLong();
+    // 受け付け済みで未開始の件数（上限判定用）
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    private final LongAdder[] rejected = new LongAdder[Priority.values().length];
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * @param threads スレッド数（接続プールの最大接続数）
+     * @param queueCapacity 待ち行列の上限件数
+     * @param logger ロガー
+     */
+    public DbExecutor(int threads, int queueCapacity, Logger logger) {
+        this(platformExecutor(threads), false, threads, queueCapacity, logger);
+    }
+
+    private DbExecutor(ExecutorService executor, boolean virtual, int threads, int queueCapacity, Logger logger) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        }
+        this.executor = executor;
+        this.pending = virtual ? new PriorityBlockingQueue<>() : null;
+        this.permits = virtual ? new Semaphore(threads, true) : null;
+        this.threads = threads;
+        this.logger = logger;
+        this.queueCapacity = queueCapacity;
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 仮想スレッドで実行するプールを作成する
+     * @param permits 同時に実行する処理数の上限（接続プールの最大接続数）
+     * @param queueCapacity 待ち行列の上限件数
+     * @param logger ロガー
+     * @return 仮想スレッドを使用できない（Java 21 未満の）場合は null
+     */
+    public static DbExecutor virtual(int permits, int queueCapacity, Logger logger) {
+        ExecutorService executor = VirtualThreads.newExecutor("ChunkDiscovery-DB-VT-");
+        return executor != null ? new DbExecutor(executor, true, permits, queueCapacity, logger) : null;
+    }
+
+    private static ExecutorService platformExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ChunkDiscovery-DB-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * 値を返す処理を実行する
+     * @return 処理の結果（拒否した場合は RejectedExecutionException で完了）
+     */
+    public <T> CompletableFuture<T> supply(Priority priority, Supplier<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!admit(priority)) {
+            rejected[priority.ordinal()].increment();
+            future.completeExceptionally(new RejectedExecutionException(
+                    shutdown ? "DBスレッドプールは停止済みです" : "DBスレッドプールが混雑しています (" + priority + ")"));
+            return future;
+        }
+
+        Task task = new Task(priority, sequence.getAndIncrement(), System.nanoTime(), future, () -> {
+            try {
+                future.complete(operation.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        try {
+            dispatch(task);
+        } catch (RejectedExecutionException e) {
+            // 上限判定と停止処理が競合した場合
+            queued.decrementAndGet();
+            rejected[priority.ordinal()].increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 値を返さない処理を実行する
+     */
+    public CompletableFuture<Void> run(Priority priority, Runnable operation) {
+        return supply(priority, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private void dispatch(Task task) {
+        if (permits == null) {
+            executor.execute(task);
+            return;
+        }
+        pending.add(task);
+        try {
+            executor.execute(this::runNext);
+        } catch (RejectedExecutionException e) {
+            pending.remove(task);
+            throw e;
+        }
+    }
+
+    /**
+     * 許可を得てから待ち行列の先頭の処理を実行する（仮想スレッドモード、投入1件につき1回呼ばれる）
+     */
+    private void runNext() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // 停止待ちがタイムアウトした場合
+            Task task = pending.poll();
+            if (task != null) {
+                task.cancel();
+            }
+            return;
+        }
+        try {
+            Task task = pending.poll();
+            if (task != null) {
+                task.run();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean admit(Priority priority) {
+        if (shutdown) {
+            return false;
+        }
+        int limit = Math.max(1, (int) (queueCapacity * priority.admitRatio));
+        while (true) {
+            int current = queued.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 新しい処理の受け付けを止め、待ち行列に残っている処理を優先度順に実行してから停止する（プラグイン無効化時）
+     * @param timeoutMillis 完了を待つ最大時間（ミリ秒）
+     */
+    public void shutdown(long timeoutMillis) {
+        shutdown = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                int dropped = cancelQueued();
+                logger.warning("DBスレッドプールの停止待ちがタイムアウトしました（未実行 " + dropped + " 件）。");
+            }
+        } catch (InterruptedException e) {
+            cancelQueued();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int cancelQueued() {
+        if (permits != null) {
+            // 許可を待っている仮想スレッドを割り込みで終了させ、それぞれが処理を取り消す
+            int dropped = pending.size();
+            executor.shutdownNow();
+            return dropped;
+        }
+        List<Runnable> dropped = executor.shutdownNow();
+        for (Runnable runnable : dropped) {
+            ((Task) runnable).cancel();
+        }
+        return dropped.size();
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * 仮想スレッドで実行しているか
+     */
+    public boolean isVirtual() {
+        return permits != null;
+    }
+
+    /**
+     * 待ち行列の件数を取得
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * 実行中の処理数を取得
+     */
+    public int getActiveCount() {
+        if (permits != null) {
+            return threads - permits.availablePermits();
+        }
+        return ((ThreadPoolExecutor) executor).getActiveCount();
+    }
+
+    /**
+     * スレッド数（仮想スレッドモードでは同時に実行する処理数の上限）
+     */
+    public int getThreadCount() {
+        return threads;
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * 混雑または停止により拒否した件数を取得
+     */
+    public long getRejectedCount(Priority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+
+    /**
+     * 投入から実行開始までの平均待ち時間（ミリ秒）
+     */
+    public double getAverageWaitMillis() {
+        long count = started.sum();
+        return count == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    /**
+     * 投入から実行開始までの最大待ち時間（ミリ秒）
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * 待ち行列の要素（優先度、投入順の順に並べる）
+     */
+    private final class Task implements Runnable, Comparable<Task> {
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedAt;
+        private final CompletableFuture<?> future;
+        private final Runnable body;
+
+        Task(Priority priority, long sequence, long enqueuedAt, CompletableFuture<?> future, Runnable body) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+            this.future = future;
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            long wait = System.nanoTime() - enqueuedAt;
+            started.increment();
+            totalWaitNanos.add(wait);
+            maxWaitNanos.accumulateAndGet(wait, Math::max);
+            try {
+                body.run();
+            } finally {
+                completed.increment();
+            }
+        }
+
+        void cancel() {
+            queued.decrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("DBスレッドプールは停止済みです"));
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
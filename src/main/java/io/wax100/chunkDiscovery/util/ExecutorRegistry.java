@@ -0,0 +1,101 @@
+package io.wax100.chunkDiscovery.util;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * プラグインが所有するスレッドプールの登録先
+ *
+ * 起動時に {@link #start} で作成し、無効化時に {@link #shutdown} で停止する。
+ * 起動前（単体テストなど）に使用された場合は小さな既定のプールを作成する。
+ */
+public final class ExecutorRegistry {
+
+    private static final int DEFAULT_THREADS = 2;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    /** この時間以上のピン留めを記録する */
+    private static final Duration PINNING_THRESHOLD = Duration.ofMillis(20);
+
+    private static volatile DbExecutor db;
+    private static VirtualThreadPinningMonitor pinningMonitor;
+
+    private ExecutorRegistry() {
+        // ユーティリティクラスのためインスタンス化を防ぐ
+    }
+
+    /**
+     * DBアクセス用のスレッドプールを作成する（既存のプールは停止する）
+     * @param threads スレッド数（接続プールの最大接続数）
+     * @param queueCapacity 待ち行列の上限件数
+     * @param logger ロガー
+     */
+    public static synchronized void start(int threads, int queueCapacity, Logger logger) {
+        start(threads, queueCapacity, false, logger);
+    }
+
+    /**
+     * DBアクセス用のスレッドプールを作成する（既存のプールは停止する）
+     * @param threads スレッド数（仮想スレッドの場合は同時に実行する処理数の上限）
+     * @param queueCapacity 待ち行列の上限件数
+     * @param virtual 仮想スレッドを使用する（使用できない場合はプラットフォームスレッドで実行）
+     * @param logger ロガー
+     */
+    public static synchronized void start(int threads, int queueCapacity, boolean virtual, Logger logger) {
+        DbExecutor executor = null;
+        if (virtual) {
+            executor = DbExecutor.virtual(threads, queueCapacity, logger);
+            if (executor == null) {
+                logger.warning("この Java では仮想スレッドを使用できないため、プラットフォームスレッドで実行します（Java 21 以上が必要）。");
+            } else if (pinningMonitor == null) {
+                pinningMonitor = VirtualThreadPinningMonitor.start(PINNING_THRESHOLD, logger);
+            }
+        }
+        if (executor == null) {
+            executor = new DbExecutor(threads, queueCapacity, logger);
+        }
+
+        DbExecutor previous = db;
+        db = executor;
+        if (previous != null) {
+            previous.shutdown(10_000);
+        }
+    }
+
+    /**
+     * DBアクセス用のスレッドプールを取得
+     */
+    public static DbExecutor db() {
+        DbExecutor executor = db;
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (ExecutorRegistry.class) {
+            if (db == null) {
+                db = new DbExecutor(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, Logger.getLogger("ChunkDiscovery"));
+            }
+            return db;
+        }
+    }
+
+    /**
+     * 待ち行列の処理を終えてからスレッドプールを停止する（プラグイン無効化時）
+     * @param timeoutMillis 完了を待つ最大時間（ミリ秒）
+     */
+    public static synchronized void shutdown(long timeoutMillis) {
+        if (db != null) {
+            db.shutdown(timeoutMillis);
+        }
+        if (pinningMonitor != null) {
+            pinningMonitor.close();
+            pinningMonitor = null;
+        }
+    }
+
+    /**
+     * 仮想スレッドのピン留め検出（仮想スレッドを使用していない場合は null）
+     */
+    public static synchronized VirtualThreadPinningMonitor pinningMonitor() {
+        return pinningMonitor;
+    }
+}
@@ -0,0 +1,206 @@
+package io.wax100.chunkDiscovery.util;
+
+import java.util.Arrays;
+
+/**
+ * プリミティブ long 専用のハッシュセット（オープンアドレス法・線形探索）
+ * ボクシングを行わないため、大量のチャンクキーを低メモリ・低レイテンシで保持できる。
+ * スレッドセーフではないため、呼び出し側で排他制御を行うこと。
+ */
+public class LongHashSet {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+    /** 空きスロットを表す値（0 自体は hasZero で別管理する） */
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int size;
+    private boolean hasZero;
+    private int resizeThreshold;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 想定要素数（リサイズを避けるための初期容量ヒント）
+     */
+    public LongHashSet(int expectedSize) {
+        Validate.requireNonNegative(expectedSize, "Expected size must be non-negative");
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * 要素を追加する
+     * @return 新規に追加された場合true
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (true) {
+            long current = table[index];
+            if (current == EMPTY) {
+                table[index] = value;
+                if (++size > resizeThreshold) {
+                    rehash(table.length << 1);
+                }
+                return true;
+            }
+            if (current == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 要素が含まれているか確認する
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (true) {
+            long current = table[index];
+            if (current == EMPTY) {
+                return false;
+            }
+            if (current == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 要素を削除する（後続の要素を詰め、探索の連続性を保つ）
+     * @return 含まれていた場合true
+     */
+    public boolean remove(long value) {
+        if (value == EMPTY) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        int gap = mix(value) & mask;
+        while (table[gap] != value) {
+            if (table[gap] == EMPTY) {
+                return false;
+            }
+            gap = (gap + 1) & mask;
+        }
+
+        int next = (gap + 1) & mask;
+        while (table[next] != EMPTY) {
+            int home = mix(table[next]) & mask;
+            // 本来の位置から見て空きが手前にある要素だけを移動する
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * 別のセットの全要素を追加する
+     */
+    public void addAll(LongHashSet other) {
+        if (other.hasZero) {
+            add(EMPTY);
+        }
+        for (long value : other.table) {
+            if (value != EMPTY) {
+                add(value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * 全要素を配列として取得する（順序は不定）
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int i = 0;
+        if (hasZero) {
+            result[i++] = EMPTY;
+        }
+        for (long value : table) {
+            if (value != EMPTY) {
+                result[i++] = value;
+            }
+        }
+        return result;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] old = table;
+        allocate(newCapacity);
+        int mask = table.length - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = mix(value) & mask;
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < needed && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * チャンクキーは上位/下位32bitに座標が入っているため、両方を攪拌してから使う
+     */
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
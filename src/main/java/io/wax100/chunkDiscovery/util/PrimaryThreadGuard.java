@@ -0,0 +1,59 @@
+package io.wax100.chunkDiscovery.util;
+
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * メインスレッドからのDBアクセスを検出するデバッグ用のチェック
+ *
+ * 有効な場合、メインスレッドでDB接続を取得するとスタックトレース付きで警告を出力する。
+ * 無効な場合は volatile の読み取り1回のみで、Bukkit にはアクセスしない。
+ */
+public final class PrimaryThreadGuard {
+
+    private static volatile boolean enabled;
+    private static volatile Logger logger;
+    private static final LongAdder violations = new LongAdder();
+
+    private PrimaryThreadGuard() {
+        // ユーティリティクラスのためインスタンス化を防ぐ
+    }
+
+    /**
+     * チェックの有効・無効を設定する（起動時・リロード時）
+     */
+    public static void configure(boolean enable, Logger log) {
+        logger = log;
+        enabled = enable;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * メインスレッドで実行されている場合に警告を出力する
+     * @param operation 実行中の操作名
+     */
+    public static void check(String operation) {
+        if (!enabled || !Bukkit.isPrimaryThread()) {
+            return;
+        }
+        violations.increment();
+        Logger log = logger;
+        if (log != null) {
+            log.log(Level.WARNING, "メインスレッドでDBにアクセスしました: " + operation,
+                    new IllegalStateException("DB access on primary thread"));
+        }
+    }
+
+    /**
+     * 検出したメインスレッドからのDBアクセスの件数
+     */
+    public static long getViolationCount() {
+        return violations.sum();
+    }
+}
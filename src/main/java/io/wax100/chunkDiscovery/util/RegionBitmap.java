@@ -0,0 +1,108 @@
+package io.wax100.chunkDiscovery.util;
+
+/**
+ * 32×32チャンクのリージョンを128バイトのビットマップで表すユーティリティクラス
+ *
+ * リージョン内のチャンク (x &amp; 31, z &amp; 31) を bit = z * 32 + x に割り当て、
+ * bit / 8 バイト目の (bit % 8) ビット目を立てる。
+ */
+public final class RegionBitmap {
+
+    /** リージョン1辺のチャンク数 */
+    public static final int REGION_SIZE = 32;
+
+    /** ビットマップのバイト数 */
+    public static final int BYTES = REGION_SIZE * REGION_SIZE / 8;
+
+    private RegionBitmap() {
+        // ユーティリティクラスのためインスタンス化を防ぐ
+    }
+
+    /**
+     * チャンク座標からリージョン座標を求める
+     * @param chunkCoord チャンクX座標またはZ座標
+     * @return リージョン座標
+     */
+    public static int region(int chunkCoord) {
+        return chunkCoord >> 5;
+    }
+
+    /**
+     * チャンクが属するリージョンのキーを取得（ChunkKey と同じビット配置）
+     * @param chunkX チャンクX座標
+     * @param chunkZ チャンクZ座標
+     * @return パック済みリージョンキー
+     */
+    public static long regionKey(int chunkX, int chunkZ) {
+        return ChunkKey.pack(region(chunkX), region(chunkZ));
+    }
+
+    /**
+     * リージョン内でのチャンクのビット位置を取得
+     * @param chunkX チャンクX座標
+     * @param chunkZ チャンクZ座標
+     * @return 0〜1023のビット位置
+     */
+    public static int bitIndex(int chunkX, int chunkZ) {
+        return ((chunkZ & 31) << 5) | (chunkX & 31);
+    }
+
+    /**
+     * ビットが立っているか
+     */
+    public static boolean get(byte[] bitmap, int bit) {
+        return (bitmap[bit >>> 3] & (1 << (bit & 7))) != 0;
+    }
+
+    /**
+     * ビットを立てる
+     * @return 新しく立てた場合 true、既に立っていた場合 false
+     */
+    public static boolean set(byte[] bitmap, int bit) {
+        int mask = 1 << (bit & 7);
+        int index = bit >>> 3;
+        if ((bitmap[index] & mask) != 0) {
+            return false;
+        }
+        bitmap[index] |= (byte) mask;
+        return true;
+    }
+
+    /**
+     * 1チャンクだけを含むビットマップを作成
+     * @param chunkX チャンクX座標
+     * @param chunkZ チャンクZ座標
+     */
+    public static byte[] of(int chunkX, int chunkZ) {
+        byte[] bitmap = new byte[BYTES];
+        set(bitmap, bitIndex(chunkX, chunkZ));
+        return bitmap;
+    }
+
+    /**
+     * 立っているビットの数（リージョン内の発見済みチャンク数）
+     */
+    public static int popcount(byte[] bitmap) {
+        int count = 0;
+        for (byte b : bitmap) {
+            count += Integer.bitCount(b & 0xFF);
+        }
+        return count;
+    }
+
+    /**
+     * 立っているビットのチャンクキーをセットに追加する
+     * @param regionKey リージョンキー
+     * @param bitmap ビットマップ
+     * @param keys 追加先
+     */
+    public static void collectChunkKeys(long regionKey, byte[] bitmap, LongHashSet keys) {
+        int baseX = ChunkKey.x(regionKey) << 5;
+        int baseZ = ChunkKey.z(regionKey) << 5;
+        for (int bit = 0; bit < REGION_SIZE * REGION_SIZE; bit++) {
+            if (get(bitmap, bit)) {
+                keys.add(ChunkKey.pack(baseX + (bit & 31), baseZ + (bit >>> 5)));
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.wax100.chunkDiscovery.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * UUID と BINARY(16) カラム用の16バイト配列を相互変換するユーティリティクラス
+ */
+public final class UuidBytes {
+
+    private UuidBytes() {
+        // ユーティリティクラスのためインスタンス化を防ぐ
+    }
+
+    /**
+     * UUID を16バイトに変換する（上位64bit → 下位64bit の順）
+     */
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * UUID文字列を16バイトに変換する
+     * @throws IllegalArgumentException UUIDとして不正な文字列の場合
+     */
+    public static byte[] toBytes(String uuid) {
+        return toBytes(UUID.fromString(uuid));
+    }
+
+    /**
+     * 16バイトから UUID を復元する
+     * @throws IllegalArgumentException 16バイトでない場合
+     */
+    public static UUID toUuid(byte[] bytes) {
+        if (bytes == null || bytes.length != 16) {
+            throw new IllegalArgumentException("UUIDのバイト列は16バイトである必要があります");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * 16バイトから UUID 文字列を復元する
+     */
+    public static String toString(byte[] bytes) {
+        return toUuid(bytes).toString();
+    }
+}
@@ -0,0 +1,126 @@
+package io.wax100.chunkDiscovery.util;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * 仮想スレッドのピン留め（synchronized ブロック内でのブロッキングによりキャリアスレッドを占有した状態）を検出する
+ *
+ * JFR の jdk.VirtualThreadPinned イベントを購読し、発生件数を数えて、発生箇所ごとに1回ログに出力する。
+ * JDBCドライバ・接続プール内で発生した場合は該当フレームを示す。
+ */
+public final class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final List<String> DRIVER_PACKAGES = List.of(
+            "com.mysql.", "org.h2.", "com.zaxxer.hikari.", "io.wax100.chunkdiscovery.lib.");
+    private static final int MAX_FRAMES = 8;
+
+    private final RecordingStream stream;
+    private final Logger logger;
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder driverPinned = new LongAdder();
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    private VirtualThreadPinningMonitor(RecordingStream stream, Logger logger) {
+        this.stream = stream;
+        this.logger = logger;
+    }
+
+    /**
+     * 検出を開始する
+     * @param threshold この時間以上ピン留めされた場合に記録する
+     * @param logger ロガー
+     * @return JFR を使用できない場合は null
+     */
+    public static VirtualThreadPinningMonitor start(Duration threshold, Logger logger) {
+        try {
+            RecordingStream stream = new RecordingStream();
+            VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(stream, logger);
+            stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(EVENT, monitor::onPinned);
+            stream.startAsync();
+            return monitor;
+        } catch (RuntimeException | LinkageError e) {
+            // jdk.jfr モジュールを含まない実行環境
+            logger.warning("仮想スレッドのピン留め検出を開始できませんでした: " + e);
+            return null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+
+        RecordedFrame driverFrame = null;
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && isDriverFrame(frame)) {
+                driverFrame = frame;
+                break;
+            }
+        }
+        if (driverFrame != null) {
+            driverPinned.increment();
+        }
+
+        RecordedFrame location = driverFrame != null ? driverFrame : (frames.isEmpty() ? null : frames.get(0));
+        String key = location != null ? describe(location) : "(unknown)";
+        if (!reported.add(key)) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder()
+                .append("仮想スレッドがピン留めされました（")
+                .append(event.getDuration().toMillis()).append("ms")
+                .append(driverFrame != null ? ", JDBCドライバ内" : "")
+                .append("）: ").append(key);
+        for (int i = 0; i < Math.min(MAX_FRAMES, frames.size()); i++) {
+            message.append("\n    at ").append(describe(frames.get(i)));
+        }
+        logger.warning(message.toString());
+    }
+
+    private static boolean isDriverFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        for (String prefix : DRIVER_PACKAGES) {
+            if (type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() +
+                ":" + frame.getLineNumber();
+    }
+
+    /**
+     * 検出したピン留めの件数
+     */
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    /**
+     * そのうちJDBCドライバ・接続プール内で発生した件数
+     */
+    public long getDriverPinnedCount() {
+        return driverPinned.sum();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -0,0 +1,56 @@
+package io.wax100.chunkDiscovery.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 仮想スレッド（Java 21）をリフレクションで使用するユーティリティクラス
+ *
+ * ビルドは Java 17 を対象とするため、API を直接参照せず実行時に利用可能かを判定する。
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+        // ユーティリティクラスのためインスタンス化を防ぐ
+    }
+
+    /**
+     * 実行中の JVM で仮想スレッドを使用できるか
+     */
+    public static boolean isAvailable() {
+        return newThreadFactory("ChunkDiscovery-probe-") != null;
+    }
+
+    /**
+     * 処理ごとに仮想スレッドを作成する ExecutorService を作成
+     * @param namePrefix スレッド名の接頭辞（連番を付与する）
+     * @return 仮想スレッドを使用できない場合は null
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        ThreadFactory factory = newThreadFactory(namePrefix);
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory newThreadFactory(String namePrefix) {
+        try {
+            // Thread.ofVirtual().name(namePrefix, 1).factory()
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 21 未満（Java 19/20 でプレビュー機能が無効の場合を含む）
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.wax100.chunkDiscovery.cache;
+
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BedrockVerdictCacheTest {
+
+    @Mock private Plugin plugin;
+    @Mock private World world;
+    @Mock private Chunk chunk;
+    @Mock private PersistentDataContainer chunkData;
+    @Mock private PersistentDataContainer worldData;
+
+    private final Map<NamespacedKey, Integer> chunkStore = new HashMap<>();
+    private final Map<NamespacedKey, Integer> worldStore = new HashMap<>();
+
+    private BedrockVerdictCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(plugin.getName()).thenReturn("ChunkDiscovery");
+        when(world.getName()).thenReturn("world");
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getX()).thenReturn(3);
+        when(chunk.getZ()).thenReturn(-7);
+        when(chunk.isLoaded()).thenReturn(true);
+        when(chunk.getPersistentDataContainer()).thenReturn(chunkData);
+        when(world.getPersistentDataContainer()).thenReturn(worldData);
+        backWithMap(chunkData, chunkStore);
+        backWithMap(worldData, worldStore);
+
+        cache = new BedrockVerdictCache(plugin, 16);
+    }
+
+    private static void backWithMap(PersistentDataContainer container, Map<NamespacedKey, Integer> store) {
+        when(container.has(any(NamespacedKey.class), eq(PersistentDataType.INTEGER)))
+                .thenAnswer(inv -> store.containsKey(inv.<NamespacedKey>getArgument(0)));
+        when(container.get(any(NamespacedKey.class), eq(PersistentDataType.INTEGER)))
+                .thenAnswer(inv -> store.get(inv.<NamespacedKey>getArgument(0)));
+        doAnswer(inv -> store.put(inv.getArgument(0), inv.getArgument(2)))
+                .when(container).set(any(NamespacedKey.class), eq(PersistentDataType.INTEGER), anyInt());
+        doAnswer(inv -> store.remove(inv.<NamespacedKey>getArgument(0)))
+                .when(container).remove(any(NamespacedKey.class));
+    }
+
+    @Test
+    void testGet_UnknownWhenNothingStored() {
+        assertEquals(BedrockVerdictCache.Verdict.UNKNOWN, cache.get(chunk));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testPut_ServedFromMemory() {
+        cache.put(chunk, true);
+
+        assertEquals(BedrockVerdictCache.Verdict.VALID, cache.get(chunk));
+        assertEquals(1, cache.getMemoryHits());
+        assertEquals(1, chunkStore.size());
+    }
+
+    @Test
+    void testStoredVerdict_SurvivesRestart() {
+        cache.put(chunk, false);
+
+        // 再起動を想定し、新しいキャッシュ（空のLRU）から読み込む
+        BedrockVerdictCache restarted = new BedrockVerdictCache(plugin, 16);
+        assertEquals(BedrockVerdictCache.Verdict.INVALID, restarted.get(chunk));
+        assertEquals(1, restarted.getStoredHits());
+    }
+
+    @Test
+    void testPut_UnloadedChunkIsNotWritten() {
+        when(chunk.isLoaded()).thenReturn(false);
+
+        cache.put(chunk, true);
+
+        assertTrue(chunkStore.isEmpty());
+        assertEquals(BedrockVerdictCache.Verdict.VALID, cache.get(chunk));
+    }
+
+    @Test
+    void testInvalidateWorld_DiscardsStoredVerdicts() {
+        cache.put(chunk, true);
+
+        assertEquals(1, cache.invalidateWorld(world));
+
+        assertEquals(0, cache.size());
+        assertEquals(BedrockVerdictCache.Verdict.UNKNOWN, cache.get(chunk));
+
+        cache.put(chunk, true);
+        assertEquals(BedrockVerdictCache.Verdict.VALID, new BedrockVerdictCache(plugin, 16).get(chunk));
+    }
+
+    @Test
+    void testInvalidateWorld_StaleVerdictStaysInvalidAfterManyInvalidations() {
+        cache.put(chunk, true);
+
+        // 以前の1バイト形式では64回でバージョンが一巡し、古い判定結果が有効に戻っていた
+        for (int i = 0; i < 64; i++) {
+            cache.invalidateWorld(world);
+        }
+
+        assertEquals(64, worldStore.values().iterator().next());
+        assertEquals(BedrockVerdictCache.Verdict.UNKNOWN, cache.get(chunk));
+        assertEquals(BedrockVerdictCache.Verdict.UNKNOWN, new BedrockVerdictCache(plugin, 16).get(chunk));
+    }
+
+    @Test
+    void testInvalidateChunk() {
+        cache.put(chunk, true);
+
+        cache.invalidate(chunk);
+
+        assertTrue(chunkStore.isEmpty());
+        assertEquals(BedrockVerdictCache.Verdict.UNKNOWN, cache.get(chunk));
+    }
+
+    @Test
+    void testLruEvictsOldestEntries() {
+        BedrockVerdictCache small = new BedrockVerdictCache(plugin, 2);
+        when(chunk.isLoaded()).thenReturn(false);
+        for (int x = 0; x < 5; x++) {
+            when(chunk.getX()).thenReturn(x);
+            small.put(chunk, true);
+        }
+
+        assertEquals(2, small.size());
+    }
+}
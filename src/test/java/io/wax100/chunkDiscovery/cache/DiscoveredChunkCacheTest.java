@@ -0,0 +1,109 @@
+package io.wax100.chunkDiscovery.cache;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.LongHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscoveredChunkCacheTest {
+
+    private DiscoveredChunkCache cache;
+    private final UUID playerId = UUID.randomUUID();
+    private final String worldName = "world";
+
+    @BeforeEach
+    void setUp() {
+        cache = new DiscoveredChunkCache();
+    }
+
+    @Test
+    void testLookup_NotLoaded() {
+        assertEquals(DiscoveredChunkCache.Lookup.UNKNOWN, cache.lookup(playerId, worldName, 0L));
+
+        cache.prepare(playerId);
+        assertEquals(DiscoveredChunkCache.Lookup.UNKNOWN, cache.lookup(playerId, worldName, 0L));
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testLookup_Loaded() {
+        DiscoveredChunkCache.PlayerChunks entry = cache.prepare(playerId);
+        LongHashSet keys = new LongHashSet();
+        keys.add(ChunkKey.pack(3, -4));
+        cache.complete(entry, Map.of(worldName, keys));
+
+        assertEquals(DiscoveredChunkCache.Lookup.DISCOVERED, cache.lookup(playerId, worldName, ChunkKey.pack(3, -4)));
+        assertEquals(DiscoveredChunkCache.Lookup.UNDISCOVERED, cache.lookup(playerId, worldName, ChunkKey.pack(4, -4)));
+        assertEquals(DiscoveredChunkCache.Lookup.UNDISCOVERED, cache.lookup(playerId, "world_nether", ChunkKey.pack(3, -4)));
+        assertEquals(3, cache.getHits());
+    }
+
+    @Test
+    void testMarkDiscoveredDuringLoadIsMerged() {
+        DiscoveredChunkCache.PlayerChunks entry = cache.prepare(playerId);
+        cache.markDiscovered(playerId, worldName, ChunkKey.pack(1, 1));
+
+        LongHashSet keys = new LongHashSet();
+        keys.add(ChunkKey.pack(2, 2));
+        cache.complete(entry, Map.of(worldName, keys));
+
+        assertEquals(DiscoveredChunkCache.Lookup.DISCOVERED, cache.lookup(playerId, worldName, ChunkKey.pack(1, 1)));
+        assertEquals(DiscoveredChunkCache.Lookup.DISCOVERED, cache.lookup(playerId, worldName, ChunkKey.pack(2, 2)));
+    }
+
+    @Test
+    void testMarkDiscoveredAfterLoad() {
+        DiscoveredChunkCache.PlayerChunks entry = cache.prepare(playerId);
+        cache.complete(entry, Map.of());
+
+        cache.markDiscovered(playerId, worldName, ChunkKey.pack(5, 5));
+
+        assertEquals(DiscoveredChunkCache.Lookup.DISCOVERED, cache.lookup(playerId, worldName, ChunkKey.pack(5, 5)));
+    }
+
+    @Test
+    void testInvalidate() {
+        DiscoveredChunkCache.PlayerChunks entry = cache.prepare(playerId);
+        cache.complete(entry, Map.of());
+        assertEquals(1, cache.getCachedPlayerCount());
+
+        cache.invalidate(playerId);
+
+        assertEquals(0, cache.getCachedPlayerCount());
+        assertEquals(DiscoveredChunkCache.Lookup.UNKNOWN, cache.lookup(playerId, worldName, 0L));
+        // 破棄後の追加は無視される
+        cache.markDiscovered(playerId, worldName, 0L);
+        assertEquals(0, cache.getCachedPlayerCount());
+    }
+
+    @Test
+    void testLookup_ChunkDiscoveredDuringLoad() {
+        cache.prepare(playerId);
+        cache.markDiscovered(playerId, worldName, ChunkKey.pack(1, 1));
+
+        assertEquals(DiscoveredChunkCache.Lookup.DISCOVERED, cache.lookup(playerId, worldName, ChunkKey.pack(1, 1)));
+        assertEquals(DiscoveredChunkCache.Lookup.UNKNOWN, cache.lookup(playerId, worldName, ChunkKey.pack(2, 2)));
+    }
+
+    @Test
+    void testFail_KeepsEntryForRetry() {
+        DiscoveredChunkCache.PlayerChunks entry = cache.prepare(playerId);
+        cache.fail(entry);
+
+        assertEquals(1, entry.getFailures());
+        assertEquals(1, cache.getFailedLoads());
+        assertTrue(cache.isCurrent(playerId, entry));
+
+        cache.complete(entry, Map.of());
+        assertEquals(DiscoveredChunkCache.Lookup.UNDISCOVERED, cache.lookup(playerId, worldName, 0L));
+
+        cache.invalidate(playerId);
+        assertFalse(cache.isCurrent(playerId, entry));
+    }
+}
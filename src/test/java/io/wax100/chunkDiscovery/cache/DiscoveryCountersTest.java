@@ -0,0 +1,89 @@
+package io.wax100.chunkDiscovery.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscoveryCountersTest {
+
+    private DiscoveryCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new DiscoveryCounters();
+    }
+
+    @Test
+    void testInitialLoad() {
+        assertFalse(counters.isLoaded());
+
+        counters.reconcile(counters.snapshot(), Map.of("world", 10, "world_nether", 5));
+
+        assertTrue(counters.isLoaded());
+        assertEquals(15, counters.getGlobalTotal());
+        assertEquals(10, counters.getWorldTotal("world"));
+        assertEquals(5, counters.getWorldTotal("world_nether"));
+        assertEquals(0, counters.getWorldTotal("world_the_end"));
+    }
+
+    @Test
+    void testIncrement() {
+        counters.reconcile(counters.snapshot(), Map.of("world", 10));
+
+        counters.increment("world");
+        counters.increment("world_nether");
+
+        assertEquals(12, counters.getGlobalTotal());
+        assertEquals(11, counters.getWorldTotal("world"));
+        assertEquals(1, counters.getWorldTotal("world_nether"));
+    }
+
+    @Test
+    void testReconcile_CorrectsDrift() {
+        counters.reconcile(counters.snapshot(), Map.of("world", 10));
+        counters.increment("world");
+
+        // DB上では2件増えていた（加算漏れ）
+        counters.reconcile(counters.snapshot(), Map.of("world", 12));
+
+        assertEquals(12, counters.getGlobalTotal());
+        assertEquals(12, counters.getWorldTotal("world"));
+    }
+
+    @Test
+    void testReconcile_RemovedWorld() {
+        counters.reconcile(counters.snapshot(), Map.of("world", 10, "old_world", 3));
+
+        counters.reconcile(counters.snapshot(), Map.of("world", 10));
+
+        assertEquals(10, counters.getGlobalTotal());
+        assertEquals(0, counters.getWorldTotal("old_world"));
+    }
+
+    @Test
+    void testReconcile_KeepsIncrementsMadeDuringQuery() {
+        counters.reconcile(counters.snapshot(), Map.of("world", 10));
+        DiscoveryCounters.Snapshot before = counters.snapshot();
+
+        // DBの件数取得中の発見は、DBの件数に上乗せして保持する
+        counters.increment("world");
+        counters.reconcile(before, Map.of("world", 10));
+
+        assertEquals(11, counters.getGlobalTotal());
+        assertEquals(11, counters.getWorldTotal("world"));
+    }
+
+    @Test
+    void testLoad_CompletesEvenWhenIncrementedDuringQuery() {
+        DiscoveryCounters.Snapshot before = counters.snapshot();
+        counters.increment("world");
+
+        counters.reconcile(before, Map.of("world", 40));
+
+        assertTrue(counters.isLoaded());
+        assertEquals(41, counters.getWorldTotal("world"));
+    }
+}
@@ -0,0 +1,49 @@
+package io.wax100.chunkDiscovery.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerNameCacheTest {
+
+    @Test
+    void testGetAll_ReturnsHitsAndCollectsMisses() {
+        PlayerNameCache cache = new PlayerNameCache(10);
+        cache.put("a", "Alice");
+        cache.putAll(Map.of("b", "Bob"));
+
+        List<String> missing = new ArrayList<>();
+        Map<String, String> names = cache.getAll(List.of("a", "b", "c"), missing);
+
+        assertEquals(Map.of("a", "Alice", "b", "Bob"), names);
+        assertEquals(List.of("c"), missing);
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        PlayerNameCache cache = new PlayerNameCache(2);
+        cache.put("a", "Alice");
+        cache.put("b", "Bob");
+        cache.get("a");
+        cache.put("c", "Carol");
+
+        assertEquals(2, cache.size());
+        assertEquals("Alice", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("Carol", cache.get("c"));
+    }
+
+    @Test
+    void testPut_UpdatesRenamedPlayer() {
+        PlayerNameCache cache = new PlayerNameCache(2);
+        cache.put("a", "Alice");
+        cache.put("a", "Alicia");
+
+        assertEquals("Alicia", cache.get("a"));
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,117 @@
+package io.wax100.chunkDiscovery.cache;
+
+import io.wax100.chunkDiscovery.model.PlayerData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerRankingTest {
+
+    private PlayerRanking ranking;
+
+    @BeforeEach
+    void setUp() {
+        ranking = new PlayerRanking();
+    }
+
+    @Test
+    void testLoad_OrdersByTotalThenPlayerId() {
+        assertFalse(ranking.isLoaded());
+
+        ranking.load(List.of(
+            new PlayerData("b", 10),
+            new PlayerData("a", 10),
+            new PlayerData("c", 30),
+            new PlayerData("d", 5)
+        ));
+
+        assertTrue(ranking.isLoaded());
+        assertEquals(4, ranking.size());
+        assertEquals(List.of("c", "a", "b", "d"), ids(ranking.top(10)));
+        assertEquals(List.of("c", "a"), ids(ranking.top(2)));
+        assertEquals(1, ranking.rankOf("c"));
+        assertEquals(3, ranking.rankOf("b"));
+        assertEquals(0, ranking.rankOf("unknown"));
+    }
+
+    @Test
+    void testUpdate_MovesPlayerAndIgnoresStaleTotals() {
+        ranking.load(List.of(new PlayerData("a", 10), new PlayerData("b", 20)));
+
+        assertTrue(ranking.update("a", 21));
+        assertEquals(1, ranking.rankOf("a"));
+        assertEquals(2, ranking.rankOf("b"));
+
+        // 並行して届いた古い加算結果は無視する
+        assertFalse(ranking.update("a", 15));
+        assertEquals(21, ranking.top(1).get(0).getTotalChunks());
+
+        assertTrue(ranking.update("new", 1));
+        assertEquals(3, ranking.size());
+        assertEquals(3, ranking.rankOf("new"));
+    }
+
+    @Test
+    void testLoad_KeepsHigherTotalsUpdatedDuringLoad() {
+        ranking.update("a", 12);
+
+        ranking.load(List.of(new PlayerData("a", 11), new PlayerData("b", 3)));
+
+        assertEquals(12, ranking.top(1).get(0).getTotalChunks());
+        assertEquals(2, ranking.size());
+    }
+
+    @Test
+    void testAround_ReturnsNeighborsClampedToRanking() {
+        for (int i = 1; i <= 5; i++) {
+            ranking.update("p" + i, 100 - i);
+        }
+
+        List<PlayerRanking.Ranked> middle = ranking.around("p3", 1);
+        assertEquals(List.of(2, 3, 4), middle.stream().map(PlayerRanking.Ranked::rank).toList());
+        assertEquals(List.of("p2", "p3", "p4"), ids(middle.stream().map(PlayerRanking.Ranked::player).toList()));
+
+        List<PlayerRanking.Ranked> first = ranking.around("p1", 2);
+        assertEquals(List.of("p1", "p2", "p3"), ids(first.stream().map(PlayerRanking.Ranked::player).toList()));
+
+        List<PlayerRanking.Ranked> last = ranking.around("p5", 2);
+        assertEquals(List.of(3, 4, 5), last.stream().map(PlayerRanking.Ranked::rank).toList());
+
+        assertTrue(ranking.around("unknown", 1).isEmpty());
+    }
+
+    @Test
+    void testRandomUpdates_MatchSortedOrder() {
+        Random random = new Random(42);
+        List<PlayerData> expected = new ArrayList<>();
+        int[] totals = new int[500];
+        for (int i = 0; i < 20_000; i++) {
+            int player = random.nextInt(totals.length);
+            totals[player] += 1 + random.nextInt(3);
+            ranking.update("player-" + player, totals[player]);
+        }
+        for (int i = 0; i < totals.length; i++) {
+            if (totals[i] > 0) {
+                expected.add(new PlayerData("player-" + i, totals[i]));
+            }
+        }
+        expected.sort(Comparator.comparingInt(PlayerData::getTotalChunks).reversed()
+            .thenComparing(PlayerData::getPlayerId));
+
+        assertEquals(expected.size(), ranking.size());
+        assertEquals(ids(expected), ids(ranking.top(expected.size())));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, ranking.rankOf(expected.get(i).getPlayerId()));
+        }
+    }
+
+    private static List<String> ids(List<PlayerData> players) {
+        return players.stream().map(PlayerData::getPlayerId).toList();
+    }
+}
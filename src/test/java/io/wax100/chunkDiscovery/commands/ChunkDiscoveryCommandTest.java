@@ -1,6 +1,8 @@
 package io.wax100.chunkDiscovery.commands;
 
 import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
+import io.wax100.chunkDiscovery.cache.PlayerRanking;
+import io.wax100.chunkDiscovery.initializer.ConfigReloader;
 import io.wax100.chunkDiscovery.model.PlayerData;
 import io.wax100.chunkDiscovery.service.DiscoveryService;
 import org.bukkit.Bukkit;
@@ -20,7 +22,9 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
@@ -93,6 +97,11 @@ class ChunkDiscoveryCommandTest {
         
         when(targetPlayer.getUniqueId()).thenReturn(targetPlayerId);
         when(targetPlayer.getName()).thenReturn("TargetPlayer");
+
+        when(discoveryService.resolvePlayerNamesAsync(any()))
+            .thenReturn(CompletableFuture.completedFuture(Map.of()));
+        when(discoveryService.getBorderSizeAsync(anyString()))
+            .thenReturn(CompletableFuture.completedFuture(100.0));
     }
 
     @Test
@@ -214,6 +223,31 @@ class ChunkDiscoveryCommandTest {
         }
     }
 
+    @Test
+    void testTopCommand_ResolvesNamesInOneBatch() {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(() -> Bukkit.getScheduler()).thenReturn(scheduler);
+
+            List<PlayerData> topPlayers = Arrays.asList(
+                new PlayerData("player1", 100),
+                new PlayerData("player2", 90)
+            );
+            when(discoveryService.getTopPlayersAsync(2))
+                .thenReturn(CompletableFuture.completedFuture(topPlayers));
+            when(discoveryService.getPlayerRank(playerId.toString())).thenReturn(5);
+            when(discoveryService.getPlayersAround(playerId.toString(), 1)).thenReturn(List.of(
+                new PlayerRanking.Ranked(4, new PlayerData("player4", 60)),
+                new PlayerRanking.Ranked(5, new PlayerData(playerId.toString(), 50))
+            ));
+
+            chunkCommand.onCommand(player, command, "chunkdiscovery", new String[]{"top", "2"});
+
+            // 上位と前後のプレイヤーの名前を1回でまとめて解決する
+            verify(discoveryService, times(1)).resolvePlayerNamesAsync(
+                new LinkedHashSet<>(List.of("player1", "player2", "player4", playerId.toString())));
+        }
+    }
+
     @Test
     void testTopCommand_InvalidLimit() {
         boolean result = chunkCommand.onCommand(consoleSender, command, "chunkdiscovery", 
@@ -258,29 +292,92 @@ class ChunkDiscoveryCommandTest {
 
     @Test
     void testCheckCommand_ChunkDiscovered() {
-        when(discoveryService.isDiscovered(player, chunk)).thenReturn(true);
-        when(discoveryService.getPlayerChunksInWorld(playerId.toString(), worldName)).thenReturn(25);
-        
-        boolean result = chunkCommand.onCommand(player, command, "chunkdiscovery", new String[]{"check"});
-        
-        assertTrue(result);
-        verify(discoveryService).isDiscovered(player, chunk);
-        verify(discoveryService).getPlayerChunksInWorld(playerId.toString(), worldName);
-        verify(player).sendMessage(contains("既に発見済み"));
-        verify(player).sendMessage(contains("での発見数: "));
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(() -> Bukkit.getScheduler()).thenReturn(scheduler);
+            runTasksImmediately();
+            when(discoveryService.isDiscoveredAsync(player, chunk))
+                .thenReturn(CompletableFuture.completedFuture(true));
+            when(discoveryService.getPlayerWorldChunksAsync(playerId.toString(), worldName))
+                .thenReturn(CompletableFuture.completedFuture(25));
+
+            boolean result = chunkCommand.onCommand(player, command, "chunkdiscovery", new String[]{"check"});
+
+            assertTrue(result);
+            verify(discoveryService).isDiscoveredAsync(player, chunk);
+            verify(discoveryService).getPlayerWorldChunksAsync(playerId.toString(), worldName);
+            verify(discoveryService, never()).isDiscovered(any(), any());
+            verify(discoveryService, never()).getPlayerChunksInWorld(anyString(), anyString());
+            verify(player).sendMessage(contains("既に発見済み"));
+            verify(player).sendMessage(contains("での発見数: "));
+        }
     }
 
     @Test
     void testCheckCommand_ChunkNotDiscovered() {
-        when(discoveryService.isDiscovered(player, chunk)).thenReturn(false);
-        when(discoveryService.getPlayerChunksInWorld(playerId.toString(), worldName)).thenReturn(10);
-        
-        boolean result = chunkCommand.onCommand(player, command, "chunkdiscovery", new String[]{"check"});
-        
-        assertTrue(result);
-        verify(discoveryService).isDiscovered(player, chunk);
-        verify(discoveryService).getPlayerChunksInWorld(playerId.toString(), worldName);
-        verify(player).sendMessage(contains("未発見"));
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(() -> Bukkit.getScheduler()).thenReturn(scheduler);
+            runTasksImmediately();
+            when(discoveryService.isDiscoveredAsync(player, chunk))
+                .thenReturn(CompletableFuture.completedFuture(false));
+            when(discoveryService.getPlayerWorldChunksAsync(playerId.toString(), worldName))
+                .thenReturn(CompletableFuture.completedFuture(10));
+
+            boolean result = chunkCommand.onCommand(player, command, "chunkdiscovery", new String[]{"check"});
+
+            assertTrue(result);
+            verify(discoveryService).isDiscoveredAsync(player, chunk);
+            verify(discoveryService).getPlayerWorldChunksAsync(playerId.toString(), worldName);
+            verify(player).sendMessage(contains("未発見"));
+        }
+    }
+
+    @Test
+    void testCheckCommand_SendsNothingUntilQueriesComplete() {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(() -> Bukkit.getScheduler()).thenReturn(scheduler);
+            runTasksImmediately();
+            CompletableFuture<Boolean> discovered = new CompletableFuture<>();
+            when(discoveryService.isDiscoveredAsync(player, chunk)).thenReturn(discovered);
+            when(discoveryService.getPlayerWorldChunksAsync(playerId.toString(), worldName))
+                .thenReturn(CompletableFuture.completedFuture(10));
+
+            chunkCommand.onCommand(player, command, "chunkdiscovery", new String[]{"check"});
+
+            // DBの応答待ちの間、コマンドはメインスレッドを塞がずに戻る
+            verify(player, never()).sendMessage(anyString());
+
+            discovered.complete(true);
+            verify(player).sendMessage(contains("既に発見済み"));
+        }
+    }
+
+    @Test
+    void testStatsCommand_ShowsBorderSizeFromAsyncQuery() {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(() -> Bukkit.getScheduler()).thenReturn(scheduler);
+            runTasksImmediately();
+            when(discoveryService.getPlayerTotalChunksAsync(playerId.toString()))
+                .thenReturn(CompletableFuture.completedFuture(42));
+            when(discoveryService.getPlayerWorldChunksAsync(playerId.toString(), worldName))
+                .thenReturn(CompletableFuture.completedFuture(15));
+            when(discoveryService.getBorderSizeAsync(worldName))
+                .thenReturn(CompletableFuture.completedFuture(250.0));
+
+            chunkCommand.onCommand(player, command, "chunkdiscovery", new String[]{"stats"});
+
+            verify(discoveryService).getBorderSizeAsync(worldName);
+            verify(player).sendMessage(contains("250.0"));
+        }
+    }
+
+    /**
+     * メインスレッドへの切り替えをその場で実行する
+     */
+    private void runTasksImmediately() {
+        when(scheduler.runTask(eq(plugin), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        });
     }
 
     @Test
@@ -295,26 +392,58 @@ class ChunkDiscoveryCommandTest {
 
     @Test
     void testReloadCommand_WithPermission() {
-        when(consoleSender.hasPermission("chunkdiscovery.reload")).thenReturn(true);
-        
-        boolean result = chunkCommand.onCommand(consoleSender, command, "chunkdiscovery", new String[]{"reload"});
-        
-        assertTrue(result);
-        verify(plugin).reloadPluginConfig();
-        verify(consoleSender).sendMessage(contains("設定のリロードが完了しました"));
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(() -> Bukkit.getScheduler()).thenReturn(scheduler);
+            runTasksImmediately();
+            when(consoleSender.hasPermission("chunkdiscovery.reload")).thenReturn(true);
+            when(plugin.reloadPluginConfigAsync())
+                .thenReturn(CompletableFuture.completedFuture(new ConfigReloader.Timings(12, 1)));
+
+            boolean result = chunkCommand.onCommand(consoleSender, command, "chunkdiscovery", new String[]{"reload"});
+
+            assertTrue(result);
+            verify(plugin).reloadPluginConfigAsync();
+            verify(consoleSender).sendMessage(contains("設定のリロードが完了しました"));
+            verify(consoleSender).sendMessage(contains("読み込み・検証: 12ms / 反映（メインスレッド）: 1ms"));
+        }
+    }
+
+    @Test
+    void testReloadCommand_ReportsOnlyAfterReloadCompletes() {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(() -> Bukkit.getScheduler()).thenReturn(scheduler);
+            runTasksImmediately();
+            when(consoleSender.hasPermission("chunkdiscovery.reload")).thenReturn(true);
+            CompletableFuture<ConfigReloader.Timings> reload = new CompletableFuture<>();
+            when(plugin.reloadPluginConfigAsync()).thenReturn(reload);
+
+            chunkCommand.onCommand(consoleSender, command, "chunkdiscovery", new String[]{"reload"});
+
+            verify(consoleSender).sendMessage(contains("設定をリロードしています"));
+            verify(consoleSender, never()).sendMessage(contains("設定のリロードが完了しました"));
+
+            reload.complete(new ConfigReloader.Timings(0, 0));
+
+            verify(consoleSender).sendMessage(contains("設定のリロードが完了しました"));
+        }
     }
 
     @Test
     void testReloadCommand_Exception() {
-        when(consoleSender.hasPermission("chunkdiscovery.reload")).thenReturn(true);
-        doThrow(new RuntimeException("Test exception")).when(plugin).reloadPluginConfig();
-        
-        boolean result = chunkCommand.onCommand(consoleSender, command, "chunkdiscovery", new String[]{"reload"});
-        
-        assertTrue(result);
-        verify(plugin).reloadPluginConfig();
-        verify(consoleSender).sendMessage(contains("設定のリロード中にエラーが発生しました"));
-        verify(logger).severe(contains("設定リロード中にエラーが発生しました"));
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(() -> Bukkit.getScheduler()).thenReturn(scheduler);
+            runTasksImmediately();
+            when(consoleSender.hasPermission("chunkdiscovery.reload")).thenReturn(true);
+            when(plugin.reloadPluginConfigAsync())
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
+
+            boolean result = chunkCommand.onCommand(consoleSender, command, "chunkdiscovery", new String[]{"reload"});
+
+            assertTrue(result);
+            verify(plugin).reloadPluginConfigAsync();
+            verify(consoleSender).sendMessage(contains("設定のリロード中にエラーが発生しました"));
+            verify(logger).severe(contains("設定リロード中にエラーが発生しました"));
+        }
     }
 
     @Test
@@ -0,0 +1,94 @@
+package io.wax100.chunkDiscovery.config;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigSnapshotTest {
+
+    private final Logger logger = Logger.getAnonymousLogger();
+
+    @AfterEach
+    void tearDown() {
+        ConfigSnapshot.publish(ConfigSnapshot.EMPTY);
+    }
+
+    private static YamlConfiguration config(String yaml) {
+        return YamlConfiguration.loadConfiguration(new StringReader(yaml));
+    }
+
+    @Test
+    void testLoad_IndexesBordersAndMilestones() {
+        YamlConfiguration config = config("""
+            border:
+              initial_size: 50.0
+              expansion_per_chunk: 2.0
+              worlds:
+                world_nether:
+                  initial_size: 30.0
+            rewards:
+              milestones:
+                25:
+                  experience: 100
+                5:
+                  experience: 25
+                  message: "5チャンク発見おめでとう！"
+            """);
+
+        ConfigSnapshot snapshot = ConfigSnapshot.load(config, List.of(), logger);
+
+        assertEquals(new WorldBorderConfig.WorldBorderSetting(50.0, 2.0), snapshot.borders().forWorld("world"));
+        assertEquals(new WorldBorderConfig.WorldBorderSetting(30.0, 2.0), snapshot.borders().forWorld("world_nether"));
+
+        assertEquals(List.of(5, 25), snapshot.milestones().personal().stream().map(entry -> entry.discoveryCount).toList());
+        assertEquals("5チャンク発見おめでとう！", snapshot.milestones().find(5, false).message);
+        assertSame(snapshot.milestones().find(25, false), snapshot.milestones().find(25, true));
+        assertNull(snapshot.milestones().find(10, false));
+
+        assertEquals(2, snapshot.rewards().milestones().size());
+        assertEquals(100, snapshot.rewards().milestones().get(25).experience());
+    }
+
+    @Test
+    void testLoad_SnapshotIsImmutable() {
+        ConfigSnapshot snapshot = ConfigSnapshot.load(config("""
+            rewards:
+              milestones:
+                5:
+                  experience: 25
+            """), List.of(), logger);
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.borders().worlds().clear());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.milestones().personal().clear());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.rewards().milestones().clear());
+    }
+
+    @Test
+    void testLoad_MissingMilestonesGivesEmptyIndex() {
+        ConfigSnapshot snapshot = ConfigSnapshot.load(config("border:\n  initial_size: 80.0\n"), List.of(), logger);
+
+        assertTrue(snapshot.milestones().personal().isEmpty());
+        assertNull(snapshot.milestones().find(5, true));
+        assertEquals(80.0, snapshot.borders().forWorld("world").initialSize());
+    }
+
+    @Test
+    void testPublish_SwapsWholeSnapshotAtOnce() {
+        ConfigSnapshot first = ConfigSnapshot.load(config("border:\n  initial_size: 80.0\n"), List.of(), logger);
+        ConfigSnapshot second = ConfigSnapshot.load(config("border:\n  initial_size: 120.0\n"), List.of(), logger);
+
+        ConfigSnapshot.publish(first);
+        assertSame(first, ConfigSnapshot.current());
+        assertEquals(80.0, WorldBorderConfig.getSettingForWorld("world").initialSize());
+
+        ConfigSnapshot.publish(second);
+        assertSame(second, ConfigSnapshot.current());
+        assertEquals(120.0, WorldBorderConfig.getSettingForWorld("world").initialSize());
+    }
+}
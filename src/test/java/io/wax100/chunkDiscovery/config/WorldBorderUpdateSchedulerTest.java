@@ -0,0 +1,69 @@
+package io.wax100.chunkDiscovery.config;
+
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WorldBorderUpdateSchedulerTest {
+
+    private final World world = mock(World.class);
+    private final WorldBorder border = mock(WorldBorder.class);
+    private WorldBorderUpdateScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(world.getWorldBorder()).thenReturn(border);
+        scheduler = new WorldBorderUpdateScheduler(Map.of("world", world)::get, 1);
+    }
+
+    @Test
+    void testRun_AppliesLargestTargetOncePerWindow() {
+        for (int i = 1; i <= 10; i++) {
+            scheduler.request("world", 100 + i);
+        }
+        verifyNoInteractions(border);
+
+        scheduler.run();
+
+        verify(border, times(1)).setSize(110.0, 1L);
+        assertEquals(10, scheduler.getRequestCount());
+        assertEquals(1, scheduler.getUpdateCount());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    void testRun_SkipsWindowsWithoutGrowth() {
+        scheduler.request("world", 120);
+        scheduler.run();
+        scheduler.run();
+        scheduler.request("world", 120);
+        scheduler.run();
+
+        verify(border, times(1)).setSize(anyDouble(), anyLong());
+    }
+
+    @Test
+    void testRun_IgnoresUnloadedWorlds() {
+        scheduler.request("world_unloaded", 120);
+
+        assertDoesNotThrow(scheduler::run);
+        assertEquals(0, scheduler.getUpdateCount());
+    }
+
+    @Test
+    void testFlush_AppliesPendingTargetImmediately() {
+        scheduler.request("world", 130);
+
+        scheduler.flush();
+
+        verify(border).setSize(130.0);
+        verify(border, never()).setSize(anyDouble(), anyLong());
+    }
+}
@@ -0,0 +1,119 @@
+package io.wax100.chunkDiscovery.config;
+
+import io.wax100.chunkDiscovery.database.WorldBorderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldBorderWriteBehindTest {
+
+    private final List<String> saves = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private WorldBorderWriteBehind borders;
+
+    /**
+     * 書き込み内容を記録するリポジトリ
+     */
+    private final WorldBorderRepository repository = new WorldBorderRepository(null) {
+        @Override
+        public void saveBorderSize(String worldName, double borderSize, int totalChunks) {
+            if (failing.get()) {
+                throw new RuntimeException("connection lost");
+            }
+            saves.add(worldName + "=" + borderSize + "/" + totalChunks);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (borders != null) {
+            borders.shutdown();
+        }
+    }
+
+    @Test
+    void testFlush_WritesLatestSizeOncePerWorld() {
+        borders = new WorldBorderWriteBehind(repository, Logger.getAnonymousLogger(), 60_000);
+        for (int i = 1; i <= 10; i++) {
+            borders.update("world", 100 + i, i);
+        }
+        borders.update("world_nether", 50, 1);
+
+        assertEquals(110.0, borders.getSize("world"));
+        assertTrue(saves.isEmpty());
+
+        borders.flush();
+
+        assertEquals(2, saves.size());
+        assertTrue(saves.contains("world=110.0/10"));
+        assertTrue(saves.contains("world_nether=50.0/1"));
+        assertEquals(0, borders.getPendingCount());
+        assertEquals(11, borders.getUpdateCount());
+        assertEquals(2, borders.getWriteCount());
+    }
+
+    @Test
+    void testUpdate_IgnoresStaleTotals() {
+        borders = new WorldBorderWriteBehind(repository, Logger.getAnonymousLogger(), 60_000);
+        assertTrue(borders.update("world", 120, 10));
+        assertFalse(borders.update("world", 110, 5));
+
+        assertEquals(120.0, borders.getSize("world"));
+    }
+
+    @Test
+    void testLoad_KeepsPendingChanges() {
+        borders = new WorldBorderWriteBehind(repository, Logger.getAnonymousLogger(), 60_000);
+        borders.update("world", 150, 25);
+        borders.load(Map.of("world", 100.0, "world_the_end", 500.0));
+
+        assertEquals(150.0, borders.getSize("world"));
+        assertEquals(500.0, borders.getSize("world_the_end"));
+        assertEquals(1, borders.getPendingCount());
+    }
+
+    @Test
+    void testLoad_NeverShrinksSizeInMemory() {
+        borders = new WorldBorderWriteBehind(repository, Logger.getAnonymousLogger(), 60_000);
+        borders.update("world", 150, 25);
+        borders.flush();
+
+        // 書き込み前に読み込まれた古いサイズでは巻き戻さない
+        borders.load(Map.of("world", 100.0));
+        assertEquals(150.0, borders.getSize("world"));
+
+        borders.load(Map.of("world", 180.0));
+        assertEquals(180.0, borders.getSize("world"));
+    }
+
+    @Test
+    void testFlush_RetriesFailedWrites() {
+        borders = new WorldBorderWriteBehind(repository, Logger.getAnonymousLogger(), 60_000);
+        borders.update("world", 120, 10);
+
+        failing.set(true);
+        borders.flush();
+        assertEquals(1, borders.getPendingCount());
+
+        failing.set(false);
+        borders.flush();
+        assertEquals(List.of("world=120.0/10"), saves);
+    }
+
+    @Test
+    void testShutdown_FlushesPendingChanges() {
+        borders = new WorldBorderWriteBehind(repository, Logger.getAnonymousLogger(), 60_000);
+        borders.update("world", 130, 15);
+
+        borders.shutdown();
+
+        assertEquals(List.of("world=130.0/15"), saves);
+    }
+}
@@ -1,6 +1,9 @@
 package io.wax100.chunkDiscovery.database;
 
 import io.wax100.chunkDiscovery.exception.DatabaseException;
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.RegionBitmap;
+import io.wax100.chunkDiscovery.util.UuidBytes;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,7 +49,7 @@ class DatabaseManagerTest {
 
     @Test
     void testTablesAreCreated() throws SQLException {
-        String[] expectedTables = {"players", "global_chunks", "player_chunks", "world_borders"};
+        String[] expectedTables = {"players", "worlds", "global_chunks", "player_regions", "world_borders"};
         
         try (Connection conn = DatabaseManager.getDataSource().getConnection()) {
             for (String tableName : expectedTables) {
@@ -134,29 +137,31 @@ class DatabaseManagerTest {
         int chunkZ = 20;
         
         try (Connection conn = DatabaseManager.getDataSource().getConnection()) {
+            int worldId = new WorldDictionary(DatabaseManager.getDataSource()).idOf(world);
+            long chunkKey = ChunkKey.pack(chunkX, chunkZ);
+
             try (PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT INTO global_chunks (world, chunk_x, chunk_z, discovered_by) VALUES (?, ?, ?, ?)")) {
-                stmt.setString(1, world);
-                stmt.setInt(2, chunkX);
-                stmt.setInt(3, chunkZ);
-                stmt.setString(4, testPlayerId);
+                    "INSERT INTO global_chunks (world_id, chunk_key, discovered_by) VALUES (?, ?, ?)")) {
+                stmt.setInt(1, worldId);
+                stmt.setLong(2, chunkKey);
+                stmt.setBytes(3, UuidBytes.toBytes(testPlayerId));
                 assertEquals(1, stmt.executeUpdate());
             }
             
             try (PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT INTO player_chunks (player_id, world, chunk_x, chunk_z) VALUES (?, ?, ?, ?)")) {
-                stmt.setString(1, testPlayerId);
-                stmt.setString(2, world);
-                stmt.setInt(3, chunkX);
-                stmt.setInt(4, chunkZ);
+                    "INSERT INTO player_regions (player_id, world_id, region_x, region_z, bitmap) VALUES (?, ?, ?, ?, ?)")) {
+                stmt.setBytes(1, UuidBytes.toBytes(testPlayerId));
+                stmt.setInt(2, worldId);
+                stmt.setInt(3, RegionBitmap.region(chunkX));
+                stmt.setInt(4, RegionBitmap.region(chunkZ));
+                stmt.setBytes(5, RegionBitmap.of(chunkX, chunkZ));
                 assertEquals(1, stmt.executeUpdate());
             }
             
             try (PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT COUNT(*) FROM global_chunks WHERE world = ? AND chunk_x = ? AND chunk_z = ?")) {
-                stmt.setString(1, world);
-                stmt.setInt(2, chunkX);
-                stmt.setInt(3, chunkZ);
+                    "SELECT COUNT(*) FROM global_chunks WHERE world_id = ? AND chunk_key = ?")) {
+                stmt.setInt(1, worldId);
+                stmt.setLong(2, chunkKey);
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     assertTrue(rs.next());
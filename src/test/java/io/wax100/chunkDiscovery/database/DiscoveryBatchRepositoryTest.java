@@ -0,0 +1,127 @@
+package io.wax100.chunkDiscovery.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscoveryBatchRepositoryTest {
+
+    private final String alice = UUID.randomUUID().toString();
+    private final String bob = UUID.randomUUID().toString();
+
+    private DataSource ds;
+    private DiscoveryBatchRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ds = H2TestDatabase.create("batch_" + UUID.randomUUID().toString().replace("-", ""));
+        repository = new DiscoveryBatchRepository(ds);
+    }
+
+    @Test
+    void testCommit_FirstDiscoveries() throws SQLException {
+        List<DiscoveryBatchRepository.Outcome> outcomes = repository.commit(List.of(
+                new DiscoveryBatchRepository.Entry(alice, "world", 0, 0),
+                new DiscoveryBatchRepository.Entry(alice, "world", 1, 0),
+                new DiscoveryBatchRepository.Entry(alice, "world_nether", 0, 0)
+        ));
+
+        assertEquals(new DiscoveryBatchRepository.Outcome(true, true, 1, 1), outcomes.get(0));
+        assertEquals(new DiscoveryBatchRepository.Outcome(true, true, 2, 2), outcomes.get(1));
+        assertEquals(new DiscoveryBatchRepository.Outcome(true, true, 3, 1), outcomes.get(2));
+        assertEquals(3, totalChunks(alice));
+        assertEquals(2, new PlayerRepository(ds).getPlayerChunksInWorld(alice, "world"));
+    }
+
+    @Test
+    void testCommit_SameChunkInBatch_FirstEntryWins() throws SQLException {
+        List<DiscoveryBatchRepository.Outcome> outcomes = repository.commit(List.of(
+                new DiscoveryBatchRepository.Entry(alice, "world", 5, 5),
+                new DiscoveryBatchRepository.Entry(bob, "world", 5, 5),
+                new DiscoveryBatchRepository.Entry(bob, "world", 5, 5)
+        ));
+
+        assertTrue(outcomes.get(0).globalFirst());
+        assertFalse(outcomes.get(1).globalFirst());
+        assertTrue(outcomes.get(1).personalFirst());
+        assertFalse(outcomes.get(2).personalFirst());
+        assertEquals(1, totalChunks(alice));
+        assertEquals(1, totalChunks(bob));
+    }
+
+    @Test
+    void testCommit_ReconcilesWithExistingRows() throws SQLException {
+        repository.commit(List.of(new DiscoveryBatchRepository.Entry(alice, "world", 0, 0)));
+
+        List<DiscoveryBatchRepository.Outcome> outcomes = repository.commit(List.of(
+                new DiscoveryBatchRepository.Entry(alice, "world", 0, 0),
+                new DiscoveryBatchRepository.Entry(bob, "world", 0, 0),
+                new DiscoveryBatchRepository.Entry(alice, "world", 0, 1)
+        ));
+
+        assertEquals(new DiscoveryBatchRepository.Outcome(false, false, 0, 0), outcomes.get(0));
+        assertEquals(new DiscoveryBatchRepository.Outcome(false, true, 1, 1), outcomes.get(1));
+        assertEquals(new DiscoveryBatchRepository.Outcome(true, true, 2, 2), outcomes.get(2));
+        assertEquals(2, totalChunks(alice));
+    }
+
+    @Test
+    void testCommit_ConcurrentWritersReportOneWorldFirst() throws Exception {
+        WorldDictionary worlds = new WorldDictionary(ds);
+        worlds.idOf("world");
+        DiscoveryBatchRepository batchRepository = new DiscoveryBatchRepository(ds, worlds);
+        DiscoveryCommit single = new DiscoveryCommit(ds, worlds);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int x = 0; x < 20; x++) {
+                int chunkX = x;
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Future<Boolean> batch = pool.submit(() -> {
+                    barrier.await();
+                    return batchRepository.commit(List.of(new DiscoveryBatchRepository.Entry(alice, "world", chunkX, 0)))
+                            .get(0).globalFirst();
+                });
+                Future<Boolean> commit = pool.submit(() -> {
+                    barrier.await();
+                    return single.execute(bob, "world", chunkX, 0).globalFirst();
+                });
+
+                // 既存行の確認と挿入の間に割り込まれても、世界初になるのはどちらか一方だけ
+                assertTrue(batch.get(10, TimeUnit.SECONDS) ^ commit.get(10, TimeUnit.SECONDS), "chunk " + chunkX);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(20, totalChunks(alice));
+        assertEquals(20, totalChunks(bob));
+    }
+
+    @Test
+    void testCommit_Empty() {
+        assertTrue(repository.commit(List.of()).isEmpty());
+    }
+
+    private int totalChunks(String playerId) throws SQLException {
+        try (Connection conn = ds.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT total_chunks FROM players WHERE player_id = ?")) {
+            ps.setString(1, playerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
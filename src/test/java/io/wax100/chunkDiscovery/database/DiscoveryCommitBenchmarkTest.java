@@ -0,0 +1,130 @@
+package io.wax100.chunkDiscovery.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 発見1件あたりのDB処理のベンチマーク（H2 MySQL互換モード）
+ *
+ * 従来の経路（リポジトリを個別に呼び出し、4回コネクションを借りる）と
+ * DiscoveryCommit（1コネクション・1トランザクション）を、同じプールサイズで比較する。
+ * 実行方法: ./gradlew test --tests '*DiscoveryCommitBenchmarkTest' -Pbenchmark
+ */
+@EnabledIfSystemProperty(named = "test.benchmark.enabled", matches = "true")
+class DiscoveryCommitBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int DISCOVERIES_PER_THREAD = 500;
+    private static final int POOL_SIZE = 10;
+
+    private HikariDataSource pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String name = "bench_" + UUID.randomUUID().toString().replace("-", "");
+        H2TestDatabase.create(name);
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(POOL_SIZE);
+        pool = new HikariDataSource(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void benchmarkRepositoriesVersusDiscoveryCommit() throws Exception {
+        ChunkRepository chunkRepo = new ChunkRepository(pool);
+        PlayerRepository playerRepo = new PlayerRepository(pool);
+        DiscoveryCommit commit = new DiscoveryCommit(pool);
+        World world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+
+        // ウォームアップ
+        run(0, (playerId, x, z) -> commit.execute(playerId, "world", x, z));
+
+        // 従来経路は Chunk を受け取るため、計測前に用意しておく
+        Chunk[][] chunks = new Chunk[THREADS][DISCOVERIES_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < DISCOVERIES_PER_THREAD; i++) {
+                Chunk chunk = mock(Chunk.class);
+                when(chunk.getWorld()).thenReturn(world);
+                when(chunk.getX()).thenReturn(i);
+                when(chunk.getZ()).thenReturn(THREADS + t);
+                chunks[t][i] = chunk;
+            }
+        }
+
+        long legacy = run(1, (playerId, x, z) -> {
+            Chunk chunk = chunks[z - THREADS][x];
+            chunkRepo.saveIfAbsent(chunk, playerId);
+            if (playerRepo.saveIfAbsentChunk(playerId, chunk)) {
+                playerRepo.incrementTotalChunks(playerId);
+            }
+            playerRepo.getPlayerChunksInWorld(playerId, "world");
+        });
+        long unitOfWork = run(2, (playerId, x, z) -> commit.execute(playerId, "world", x, z));
+
+        int total = THREADS * DISCOVERIES_PER_THREAD;
+        System.out.printf("[benchmark] %d discoveries, %d threads, pool %d%n", total, THREADS, POOL_SIZE);
+        System.out.printf("[benchmark] repositories   : %6d ms (%.0f discoveries/s)%n", legacy / 1_000_000, total * 1e9 / legacy);
+        System.out.printf("[benchmark] DiscoveryCommit: %6d ms (%.0f discoveries/s)%n", unitOfWork / 1_000_000, total * 1e9 / unitOfWork);
+
+        // 両経路とも全件が記録されていること
+        assertEquals(DISCOVERIES_PER_THREAD, playerRepo.getTotalChunks(playerId(1, 0)));
+        assertEquals(DISCOVERIES_PER_THREAD, playerRepo.getTotalChunks(playerId(2, 0)));
+    }
+
+    private long run(int round, Discovery discovery) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String playerId = playerId(round, t);
+                int row = round * THREADS + t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < DISCOVERIES_PER_THREAD; i++) {
+                        discovery.discover(playerId, i, row);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String playerId(int round, int thread) {
+        return new UUID(round, thread).toString();
+    }
+
+    @FunctionalInterface
+    private interface Discovery {
+        void discover(String playerId, int chunkX, int chunkZ);
+    }
+}
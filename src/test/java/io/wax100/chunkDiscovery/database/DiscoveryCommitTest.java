@@ -0,0 +1,58 @@
+package io.wax100.chunkDiscovery.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscoveryCommitTest {
+
+    private final String alice = UUID.randomUUID().toString();
+    private final String bob = UUID.randomUUID().toString();
+
+    private DiscoveryCommit commit;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        commit = new DiscoveryCommit(H2TestDatabase.create("commit_" + UUID.randomUUID().toString().replace("-", "")));
+    }
+
+    @Test
+    void testExecute_FirstDiscovery() {
+        DiscoveryCommit.Result result = commit.execute(alice, "world", 0, 0);
+
+        assertEquals(new DiscoveryCommit.Result(true, true, 1, 1), result);
+    }
+
+    @Test
+    void testExecute_RepeatedDiscovery() {
+        commit.execute(alice, "world", 0, 0);
+
+        DiscoveryCommit.Result result = commit.execute(alice, "world", 0, 0);
+
+        assertEquals(new DiscoveryCommit.Result(false, false, 1, 1), result);
+    }
+
+    @Test
+    void testExecute_ChunkAlreadyFoundByOtherPlayer() {
+        commit.execute(alice, "world", 3, 4);
+
+        DiscoveryCommit.Result result = commit.execute(bob, "world", 3, 4);
+
+        assertEquals(new DiscoveryCommit.Result(false, true, 1, 1), result);
+    }
+
+    @Test
+    void testExecute_CountsPerWorld() {
+        commit.execute(alice, "world", 0, 0);
+        commit.execute(alice, "world", 0, 1);
+
+        DiscoveryCommit.Result result = commit.execute(alice, "world_nether", 0, 0);
+
+        assertEquals(3, result.totalChunks());
+        assertEquals(1, result.worldChunks());
+    }
+}
@@ -0,0 +1,19 @@
+package io.wax100.chunkDiscovery.database;
+
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+
+/**
+ * 組み込みH2（ファイルモード）でストレージの共通テストを実行する
+ */
+class H2StorageContractTest extends StorageContractTest {
+
+    @TempDir
+    File tempDir;
+
+    @Override
+    protected StorageBackend createBackend() {
+        return new H2Backend(new File(tempDir, "chunkdiscovery"));
+    }
+}
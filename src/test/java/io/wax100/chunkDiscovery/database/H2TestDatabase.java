@@ -0,0 +1,35 @@
+package io.wax100.chunkDiscovery.database;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * テスト用のインメモリH2データベース（MySQL互換モード）
+ */
+final class H2TestDatabase {
+
+    private H2TestDatabase() {
+    }
+
+    /**
+     * 本番（{@link H2Backend}）と同じテーブル構成のデータベースを作成する
+     * @param name データベース名（テストごとに一意にすること）
+     */
+    static DataSource create(String name) throws SQLException {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        ds.setUser("sa");
+
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String ddl : new H2Backend("jdbc:h2:mem:" + name).tableDefinitions()) {
+                stmt.execute(ddl);
+            }
+        }
+        return ds;
+    }
+}
@@ -0,0 +1,15 @@
+package io.wax100.chunkDiscovery.database;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * MySQLでストレージの共通テストを実行する
+ */
+@EnabledIfSystemProperty(named = "test.database.enabled", matches = "true")
+class MySqlStorageContractTest extends StorageContractTest {
+
+    @Override
+    protected StorageBackend createBackend() {
+        return new MySqlBackend("localhost", 3306, "test_chunk_discovery", "test", "test");
+    }
+}
@@ -0,0 +1,97 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.UuidBytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerRegionsMigrationTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    private final Logger logger = Logger.getLogger("PlayerRegionsMigrationTest");
+    private final String alice = UUID.randomUUID().toString();
+    private final String bob = UUID.randomUUID().toString();
+
+    private DataSource ds;
+    private WorldDictionary worlds;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ds = H2TestDatabase.create("regions_" + UUID.randomUUID().toString().replace("-", ""));
+        worlds = new WorldDictionary(ds);
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE player_chunks (
+                    player_id BINARY(16) NOT NULL,
+                    world_id SMALLINT NOT NULL,
+                    chunk_key BIGINT NOT NULL,
+                    discovered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (player_id, world_id, chunk_key)
+                )
+                """);
+        }
+    }
+
+    private void insertV2(String playerId, String world, int chunkX, int chunkZ) throws SQLException {
+        try (Connection conn = ds.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO player_chunks(player_id, world_id, chunk_key) VALUES(?,?,?)")) {
+            ps.setBytes(1, UuidBytes.toBytes(playerId));
+            ps.setInt(2, worlds.idOf(world));
+            ps.setLong(3, ChunkKey.pack(chunkX, chunkZ));
+            ps.executeUpdate();
+        }
+    }
+
+    @Test
+    void testMigratesChunksIntoRegionBitmaps() throws SQLException {
+        // 同じリージョンの行がバッチの境界をまたぐ件数を用意する
+        for (int i = 0; i < 7; i++) {
+            insertV2(alice, "world", i, -i);
+        }
+        insertV2(alice, "world_nether", -100, 100);
+        insertV2(bob, "world", 0, 0);
+
+        SchemaMigrator migrator = new SchemaMigrator(ds, List.of(new PlayerRegionsMigration(logger)), logger, BATCH_SIZE, 0);
+        migrator.runPending();
+
+        assertTrue(migrator.isComplete());
+        PlayerRepository players = new PlayerRepository(ds, worlds);
+        assertEquals(7, players.countPlayerChunksInWorld(alice, "world"));
+        assertEquals(1, players.countPlayerChunksInWorld(alice, "world_nether"));
+        assertEquals(1, players.countPlayerChunksInWorld(bob, "world"));
+        assertTrue(players.getDiscoveredChunkKeys(alice).get("world").contains(ChunkKey.pack(6, -6)));
+        assertTrue(players.getDiscoveredChunkKeys(alice).get("world_nether").contains(ChunkKey.pack(-100, 100)));
+        try (Connection conn = ds.getConnection()) {
+            assertFalse(DatabaseManager.hasColumn(conn, "player_chunks", "chunk_key"));
+            assertTrue(DatabaseManager.hasColumn(conn, "player_chunks_v2", "chunk_key"));
+        }
+    }
+
+    @Test
+    void testNothingToMigrateWithoutPlayerChunks() throws SQLException {
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE player_chunks");
+        }
+
+        SchemaMigrator migrator = new SchemaMigrator(ds, List.of(new PlayerRegionsMigration(logger)), logger, BATCH_SIZE, 0);
+        migrator.runPending();
+
+        assertTrue(migrator.isComplete());
+        assertFalse(migrator.hasPending());
+    }
+}
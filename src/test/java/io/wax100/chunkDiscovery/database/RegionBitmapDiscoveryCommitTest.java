@@ -0,0 +1,83 @@
+package io.wax100.chunkDiscovery.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionBitmapDiscoveryCommitTest {
+
+    private final String alice = UUID.randomUUID().toString();
+    private final String bob = UUID.randomUUID().toString();
+
+    @TempDir
+    Path tempDir;
+
+    private DataSource ds;
+    private RegionBitmapStore store;
+    private RegionBitmapDiscoveryCommit commit;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ds = H2TestDatabase.create("region_commit_" + UUID.randomUUID().toString().replace("-", ""));
+        store = new RegionBitmapStore(tempDir.toFile());
+        commit = new RegionBitmapDiscoveryCommit(ds, new WorldDictionary(ds), store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void testExecute_FirstDiscovery() {
+        DiscoveryCommit.Result result = commit.execute(alice, "world", 0, 0);
+
+        assertEquals(new DiscoveryCommit.Result(true, true, 1, 1), result);
+        assertTrue(store.isChunkDiscovered("world", 0, 0));
+        assertTrue(store.hasDiscoveredChunk(alice, "world", 0, 0));
+    }
+
+    @Test
+    void testExecute_RepeatedDiscoveryDoesNotCount() {
+        commit.execute(alice, "world", 0, 0);
+
+        DiscoveryCommit.Result result = commit.execute(alice, "world", 0, 0);
+
+        assertFalse(result.globalFirst());
+        assertFalse(result.personalFirst());
+        assertEquals(1, new PlayerRepository(ds).getTotalChunks(alice));
+    }
+
+    @Test
+    void testExecute_ChunkAlreadyFoundByOtherPlayer() {
+        commit.execute(alice, "world", 3, 4);
+
+        DiscoveryCommit.Result result = commit.execute(bob, "world", 3, 4);
+
+        assertEquals(new DiscoveryCommit.Result(false, true, 1, 1), result);
+    }
+
+    @Test
+    void testExecute_CountsStayInDatabase() {
+        commit.execute(alice, "world", 0, 0);
+        commit.execute(alice, "world", 0, 1);
+
+        DiscoveryCommit.Result result = commit.execute(alice, "world_nether", 0, 0);
+
+        assertEquals(3, result.totalChunks());
+        assertEquals(1, result.worldChunks());
+        PlayerRepository players = new PlayerRepository(ds);
+        assertEquals(2, players.getPlayerChunksInWorld(alice, "world"));
+        // 発見済みの判定はリージョンファイルで行い、チャンクの行はDBに書き込まない
+        assertEquals(0, new ChunkRepository(ds).getTotalDiscoveredChunks());
+        assertFalse(players.hasDiscoveredChunk(alice, "world", 0, 0));
+    }
+}
@@ -0,0 +1,119 @@
+package io.wax100.chunkDiscovery.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RegionBitmapStore とSQL経路（H2 MySQL互換モード）の読み書きのベンチマーク
+ *
+ * 書き込みは発見1件分（全体 + 個人の記録）、読み込みは個人の発見済み判定を1スレッドで計測する。
+ * 実行方法: ./gradlew test --tests '*RegionBitmapStoreBenchmarkTest' -Pbenchmark
+ */
+@EnabledIfSystemProperty(named = "test.benchmark.enabled", matches = "true")
+class RegionBitmapStoreBenchmarkTest {
+
+    private static final int SIDE = 100;
+    private static final int OPERATIONS = SIDE * SIDE;
+
+    private final String playerId = UUID.randomUUID().toString();
+
+    @TempDir
+    Path tempDir;
+
+    private HikariDataSource pool;
+    private RegionBitmapStore store;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String name = "bench_" + UUID.randomUUID().toString().replace("-", "");
+        H2TestDatabase.create(name);
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        pool = new HikariDataSource(config);
+        store = new RegionBitmapStore(tempDir.toFile());
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+        pool.close();
+    }
+
+    @Test
+    void benchmarkSqlVersusRegionBitmapStore() {
+        DiscoveryCommit commit = new DiscoveryCommit(pool);
+        PlayerRepository playerRepo = new PlayerRepository(pool);
+
+        // SQL経路の読み込みは Chunk を受け取るため、計測前に用意しておく
+        World world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+        Chunk[] chunks = new Chunk[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            Chunk chunk = mock(Chunk.class);
+            when(chunk.getWorld()).thenReturn(world);
+            when(chunk.getX()).thenReturn(i % SIDE);
+            when(chunk.getZ()).thenReturn(i / SIDE);
+            chunks[i] = chunk;
+        }
+
+        // ウォームアップ
+        time(i -> {
+            commit.execute(playerId, "warmup", i % SIDE, i / SIDE);
+            store.saveIfAbsentChunk(playerId, "warmup", i % SIDE, i / SIDE);
+            store.hasDiscoveredChunk(playerId, "warmup", i % SIDE, i / SIDE);
+        });
+
+        long sqlWrite = time(i -> commit.execute(playerId, "world", i % SIDE, i / SIDE));
+        long storeWrite = time(i -> {
+            store.saveIfAbsent("world", i % SIDE, i / SIDE);
+            store.saveIfAbsentChunk(playerId, "world", i % SIDE, i / SIDE);
+        });
+        long sqlRead = time(i -> playerRepo.hasDiscoveredChunk(playerId, chunks[i]));
+        long storeRead = time(i -> store.hasDiscoveredChunk(playerId, "world", i % SIDE, i / SIDE));
+
+        System.out.printf("[benchmark] %d discoveries, 1 thread%n", OPERATIONS);
+        print("SQL write   ", sqlWrite);
+        print("bitmap write", storeWrite);
+        print("SQL read    ", sqlRead);
+        print("bitmap read ", storeRead);
+
+        // 両経路とも全件が記録されていること
+        assertEquals(OPERATIONS, playerRepo.getPlayerChunksInWorld(playerId, "world"));
+        assertEquals(OPERATIONS, store.getPlayerChunksInWorld(playerId, "world"));
+        assertEquals(OPERATIONS, store.getTotalDiscoveredChunksByWorld("world"));
+    }
+
+    private static long time(Operation operation) {
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            operation.run(i);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void print(String label, long nanos) {
+        System.out.printf("[benchmark] %s: %6d ms (%.2f µs/op, %.0f ops/s)%n",
+                label, nanos / 1_000_000, nanos / 1e3 / OPERATIONS, OPERATIONS * 1e9 / nanos);
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(int index);
+    }
+}
@@ -0,0 +1,172 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.LongHashSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionBitmapStoreTest {
+
+    private final String alice = UUID.randomUUID().toString();
+    private final String bob = UUID.randomUUID().toString();
+
+    @TempDir
+    Path tempDir;
+
+    private RegionBitmapStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private RegionBitmapStore open() {
+        return new RegionBitmapStore(tempDir, Long.MAX_VALUE);
+    }
+
+    @Test
+    void testGlobalDiscovery() {
+        store = open();
+
+        assertTrue(store.saveIfAbsent("world", -5, 7));
+        assertFalse(store.saveIfAbsent("world", -5, 7));
+        assertTrue(store.isChunkDiscovered("world", -5, 7));
+        assertFalse(store.isChunkDiscovered("world", 7, -5));
+        assertFalse(store.isChunkDiscovered("world_nether", -5, 7));
+        assertEquals(1, store.getTotalDiscoveredChunksByWorld("world"));
+    }
+
+    @Test
+    void testPersonalDiscovery() {
+        store = open();
+
+        assertTrue(store.saveIfAbsentChunk(alice, "world", 1, 2));
+        assertFalse(store.saveIfAbsentChunk(alice, "world", 1, 2));
+        assertTrue(store.saveIfAbsentChunk(bob, "world", 1, 2));
+        store.saveIfAbsentChunk(alice, "world", 100, -100);
+        store.saveIfAbsentChunk(alice, "world_nether", 0, 0);
+
+        assertTrue(store.hasDiscoveredChunk(alice, "world", 1, 2));
+        assertFalse(store.hasDiscoveredChunk(alice, "world", 2, 1));
+        assertFalse(store.isChunkDiscovered("world", 1, 2));
+        assertEquals(2, store.getPlayerChunksInWorld(alice, "world"));
+        assertEquals(1, store.getPlayerChunksInWorld(bob, "world"));
+
+        Map<String, LongHashSet> keys = store.getDiscoveredChunkKeys(alice);
+        assertEquals(2, keys.size());
+        assertTrue(keys.get("world").contains(ChunkKey.pack(100, -100)));
+        assertTrue(keys.get("world_nether").contains(ChunkKey.pack(0, 0)));
+    }
+
+    @Test
+    void testCountsByWorld() {
+        store = open();
+        store.saveIfAbsent("world", 0, 0);
+        store.saveIfAbsent("world", 0, 1);
+        store.saveIfAbsent("world_nether", 0, 0);
+        store.saveIfAbsentChunk(alice, "world_the_end", 0, 0);
+
+        assertEquals(Map.of("world", 2, "world_nether", 1), store.getDiscoveredChunkCountsByWorld());
+        assertEquals(3, store.getWorldCount());
+    }
+
+    @Test
+    void testClosedStoreRejectsWrites() {
+        store = open();
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.saveIfAbsent("world", 0, 0));
+        assertFalse(store.isChunkDiscovered("world", 0, 0));
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        store = open();
+
+        // 1チャンクずつ別リージョンに記録し、ファイルの拡張を起こす
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(store.saveIfAbsentChunk(alice, "world", i * 32, 0));
+        }
+
+        assertEquals(5000, store.getPlayerChunksInWorld(alice, "world"));
+        assertTrue(store.hasDiscoveredChunk(alice, "world", 4999 * 32, 0));
+    }
+
+    @Test
+    void testReopenKeepsDiscoveries() {
+        store = open();
+        store.saveIfAbsent("world", 3, 4);
+        store.saveIfAbsentChunk(alice, "world", 3, 4);
+        store.close();
+
+        store = open();
+
+        assertTrue(store.isChunkDiscovered("world", 3, 4));
+        assertTrue(store.hasDiscoveredChunk(alice, "world", 3, 4));
+        assertFalse(store.saveIfAbsentChunk(alice, "world", 3, 4));
+        assertEquals(0, store.getReplayedEntries());
+    }
+
+    @Test
+    void testReplaysLogWhenDataFileIsLost() throws IOException {
+        store = open();
+        store.saveIfAbsentChunk(alice, "world", 3, 4);
+        store.checkpoint();
+        store.saveIfAbsentChunk(alice, "world", -40, 70);
+        store.flush();
+        Path log = tempDir.resolve("world").resolve(RegionBitmapFile.LOG_FILE);
+        byte[] pending = Files.readAllBytes(log);
+        store.close();
+
+        // チェックポイント前に停止し、ログだけが残った状態を再現する
+        Files.write(log, pending);
+        Files.delete(tempDir.resolve("world").resolve(RegionBitmapFile.DATA_FILE));
+        store = open();
+
+        assertTrue(store.hasDiscoveredChunk(alice, "world", -40, 70));
+        assertEquals(1, store.getPlayerChunksInWorld(alice, "world"));
+        assertEquals(1, store.getReplayedEntries());
+        assertEquals(0, Files.size(log));
+    }
+
+    @Test
+    void testIgnoresTornLogEntry() throws IOException {
+        store = open();
+        store.saveIfAbsentChunk(alice, "world", 1, 1);
+        Path log = tempDir.resolve("world").resolve(RegionBitmapFile.LOG_FILE);
+        byte[] pending = Files.readAllBytes(log);
+        store.close();
+
+        // 最後のエントリが書き込み途中で止まった状態を再現する
+        Files.write(log, pending);
+        Files.write(log, new byte[RegionBitmapFile.LOG_ENTRY_BYTES - 3], StandardOpenOption.APPEND);
+        store = open();
+
+        assertTrue(store.hasDiscoveredChunk(alice, "world", 1, 1));
+        assertEquals(1, store.getPlayerChunksInWorld(alice, "world"));
+    }
+
+    @Test
+    void testCheckpointsWhenLogIsFull() throws IOException {
+        store = new RegionBitmapStore(tempDir, RegionBitmapFile.LOG_ENTRY_BYTES * 10L);
+
+        for (int i = 0; i < 25; i++) {
+            store.saveIfAbsentChunk(alice, "world", i, 0);
+        }
+
+        assertEquals(5L * RegionBitmapFile.LOG_ENTRY_BYTES,
+                Files.size(tempDir.resolve("world").resolve(RegionBitmapFile.LOG_FILE)));
+    }
+}
@@ -0,0 +1,229 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.LongHashSet;
+import io.wax100.chunkDiscovery.util.UuidBytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * スキーマ移行中（v1 のテーブルから *_v2 へコピー中）のチャンク発見の読み書きを検証する
+ */
+class SchemaLayoutTest {
+
+    private final Logger logger = Logger.getLogger("SchemaLayoutTest");
+    private final String alice = UUID.randomUUID().toString();
+    private final String bob = UUID.randomUUID().toString();
+
+    private DataSource ds;
+    private WorldDictionary worlds;
+    private SchemaLayout layout;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ds = H2TestDatabase.create("layout_" + UUID.randomUUID().toString().replace("-", ""));
+        worlds = new WorldDictionary(ds);
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE global_chunks");
+            stmt.execute("ALTER TABLE players DROP COLUMN last_name");
+            stmt.execute("""
+                CREATE TABLE global_chunks (
+                    world VARCHAR(64) NOT NULL,
+                    chunk_x INT NOT NULL,
+                    chunk_z INT NOT NULL,
+                    discovered_by CHAR(36) NOT NULL,
+                    discovered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (world, chunk_x, chunk_z)
+                )
+                """);
+            stmt.execute("""
+                CREATE TABLE global_chunks_v2 (
+                    world_id SMALLINT NOT NULL,
+                    chunk_key BIGINT NOT NULL,
+                    discovered_by BINARY(16) NOT NULL,
+                    discovered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (world_id, chunk_key)
+                )
+                """);
+            stmt.execute("""
+                CREATE TABLE player_chunks (
+                    player_id CHAR(36) NOT NULL,
+                    world VARCHAR(64) NOT NULL,
+                    chunk_x INT NOT NULL,
+                    chunk_z INT NOT NULL,
+                    discovered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (player_id, world, chunk_x, chunk_z)
+                )
+                """);
+            stmt.execute("""
+                CREATE TABLE player_chunks_v2 (
+                    player_id BINARY(16) NOT NULL,
+                    world_id SMALLINT NOT NULL,
+                    chunk_key BIGINT NOT NULL,
+                    discovered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (player_id, world_id, chunk_key)
+                )
+                """);
+        }
+
+        // 移行前から発見済みのチャンク（まだ *_v2 にはコピーされていない）
+        execute("INSERT INTO global_chunks(world, chunk_x, chunk_z, discovered_by) VALUES('world', 1, 1, '" + alice + "')");
+        execute("INSERT INTO player_chunks(player_id, world, chunk_x, chunk_z) VALUES('" + alice + "', 'world', 1, 1)");
+
+        layout = new SchemaLayout();
+        layout.detect(ds);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private int countPlayerChunksV2(String playerId, int chunkX, int chunkZ) throws SQLException {
+        try (Connection conn = ds.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM player_chunks_v2 WHERE player_id = ? AND world_id = ? AND chunk_key = ?")) {
+            ps.setBytes(1, UuidBytes.toBytes(playerId));
+            ps.setInt(2, worlds.idOf("world"));
+            ps.setLong(3, ChunkKey.pack(chunkX, chunkZ));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    @Test
+    void testDetectsCopyInProgress() {
+        assertTrue(layout.isGlobalV1());
+        assertEquals(SchemaLayout.PlayerChunks.V1, layout.playerChunks());
+        assertFalse(layout.hasLastNameColumn());
+    }
+
+    @Test
+    void testDiscoveryDuringCopyIsDecidedByV1AndWrittenToBoth() throws SQLException {
+        DiscoveryCommit commit = new DiscoveryCommit(ds, worlds, layout);
+
+        // player_regions には移行前の発見がまだないが、v1 で判定するため個人初にならない
+        DiscoveryCommit.Result known = commit.execute(alice, "world", 1, 1);
+        assertFalse(known.globalFirst());
+        assertFalse(known.personalFirst());
+
+        DiscoveryCommit.Result first = commit.execute(bob, "world", 2, 2);
+        assertTrue(first.globalFirst());
+        assertTrue(first.personalFirst());
+        assertEquals(1, first.totalChunks());
+        assertFalse(commit.execute(bob, "world", 2, 2).personalFirst());
+
+        assertEquals(2, count("SELECT COUNT(*) FROM global_chunks"));
+        // 移行前からある行はコピーに任せ、発見者を上書きしない
+        assertEquals(1, count("SELECT COUNT(*) FROM global_chunks_v2"));
+        assertEquals(1, count("SELECT COUNT(*) FROM player_chunks WHERE player_id = '" + bob + "'"));
+        assertEquals(0, countPlayerChunksV2(alice, 1, 1));
+        assertEquals(1, countPlayerChunksV2(bob, 2, 2));
+        assertEquals(1, new PlayerRepository(ds, worlds).countPlayerChunksInWorld(bob, "world"));
+    }
+
+    @Test
+    void testBatchDuringCopyIsDecidedByV1AndWrittenToBoth() throws SQLException {
+        DiscoveryBatchRepository repository = new DiscoveryBatchRepository(ds, worlds, layout);
+
+        List<DiscoveryBatchRepository.Outcome> outcomes = repository.commit(List.of(
+                new DiscoveryBatchRepository.Entry(alice, "world", 1, 1),
+                new DiscoveryBatchRepository.Entry(bob, "world", 2, 2),
+                new DiscoveryBatchRepository.Entry(bob, "world", 2, 2),
+                new DiscoveryBatchRepository.Entry(alice, "world", 2, 2)
+        ));
+
+        assertEquals(new DiscoveryBatchRepository.Outcome(false, false, 0, 0), outcomes.get(0));
+        assertEquals(new DiscoveryBatchRepository.Outcome(true, true, 1, 1), outcomes.get(1));
+        assertEquals(new DiscoveryBatchRepository.Outcome(false, false, 0, 0), outcomes.get(2));
+        assertEquals(new DiscoveryBatchRepository.Outcome(false, true, 1, 1), outcomes.get(3));
+
+        assertEquals(2, count("SELECT COUNT(*) FROM global_chunks"));
+        assertEquals(1, count("SELECT COUNT(*) FROM global_chunks_v2"));
+        assertEquals(3, count("SELECT COUNT(*) FROM player_chunks"));
+        assertEquals(1, countPlayerChunksV2(bob, 2, 2));
+        assertEquals(1, countPlayerChunksV2(alice, 2, 2));
+    }
+
+    @Test
+    void testReadsFromV1DuringCopy() {
+        PlayerRepository players = new PlayerRepository(ds, worlds, layout);
+        ChunkRepository chunks = new ChunkRepository(ds, worlds, layout);
+
+        assertTrue(players.hasDiscoveredChunk(alice, "world", 1, 1));
+        assertFalse(players.hasDiscoveredChunk(bob, "world", 1, 1));
+        LongHashSet keys = players.getDiscoveredChunkKeys(alice).get("world");
+        assertEquals(1, keys.size());
+        assertTrue(keys.contains(ChunkKey.pack(1, 1)));
+        assertEquals(Map.of("world", 1), chunks.getDiscoveredChunkCountsByWorld());
+
+        // last_name カラムの追加前は名前を保存しない
+        players.updateLastName(alice, "Alice");
+        assertTrue(players.getLastNames(List.of(alice)).isEmpty());
+    }
+
+    @Test
+    void testPlayerRegionsMigrationKeepsDiscoveriesMadeDuringIt() throws SQLException {
+        // v1 -> v2 のコピーが終わり、player_regions への移行を待っている状態
+        execute("DROP TABLE player_chunks");
+        execute("ALTER TABLE player_chunks_v2 RENAME TO player_chunks");
+        execute("INSERT INTO player_chunks(player_id, world_id, chunk_key) VALUES(X'" + hex(alice) + "', "
+                + worlds.idOf("world") + ", " + ChunkKey.pack(1, 1) + ")");
+        layout.detect(ds);
+        assertEquals(SchemaLayout.PlayerChunks.V2, layout.playerChunks());
+
+        DiscoveryCommit commit = new DiscoveryCommit(ds, worlds, layout);
+        assertFalse(commit.execute(alice, "world", 1, 1).personalFirst());
+        assertTrue(commit.execute(bob, "world", 3, 3).personalFirst());
+
+        SchemaMigrator migrator = new SchemaMigrator(ds, List.of(
+                new PlayerRegionsMigration(layout, logger), new PlayerLastNameColumn(layout)), logger, 1, 0);
+        migrator.runPending();
+
+        assertTrue(migrator.isComplete());
+        assertEquals(SchemaLayout.PlayerChunks.NONE, layout.playerChunks());
+        assertTrue(layout.hasLastNameColumn());
+        PlayerRepository players = new PlayerRepository(ds, worlds, layout);
+        assertTrue(players.hasDiscoveredChunk(alice, "world", 1, 1));
+        assertTrue(players.hasDiscoveredChunk(bob, "world", 3, 3));
+        assertFalse(commit.execute(bob, "world", 3, 3).personalFirst());
+
+        players.updateLastName(alice, "Alice");
+        assertEquals(Map.of(alice, "Alice"), players.getLastNames(List.of(alice)));
+    }
+
+    private static String hex(String uuid) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : UuidBytes.toBytes(uuid)) {
+            sb.append(String.format("%02X", b));
+        }
+        return sb.toString();
+    }
+}
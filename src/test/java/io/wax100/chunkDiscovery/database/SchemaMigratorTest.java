@@ -0,0 +1,162 @@
+package io.wax100.chunkDiscovery.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    private final Logger logger = Logger.getLogger("SchemaMigratorTest");
+    private final List<String> log = new ArrayList<>();
+    private DataSource ds;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ds = H2TestDatabase.create("migrator_" + UUID.randomUUID().toString().replace("-", ""));
+    }
+
+    /**
+     * 0 から total 未満の番号を batchSize 件ずつ処理する手順
+     */
+    private class CountingMigration implements SchemaMigration {
+        private final int version;
+        private final int total;
+        private final int failAt;
+
+        CountingMigration(int version, int total, int failAt) {
+            this.version = version;
+            this.total = total;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public int version() {
+            return version;
+        }
+
+        @Override
+        public String description() {
+            return "test " + version;
+        }
+
+        @Override
+        public String migrateBatch(Connection conn, String resumeFrom, int batchSize) {
+            int from = resumeFrom != null ? Integer.parseInt(resumeFrom) : 0;
+            if (from == failAt) {
+                throw new IllegalStateException("batch failed");
+            }
+            int to = Math.min(total, from + batchSize);
+            for (int i = from; i < to; i++) {
+                log.add(version + ":" + i);
+            }
+            return to < total ? String.valueOf(to) : null;
+        }
+
+        @Override
+        public void complete(Connection conn) {
+            log.add(version + ":complete");
+        }
+
+        @Override
+        public long estimateRows(Connection conn) {
+            return total;
+        }
+    }
+
+    private SchemaMigrator migrator(SchemaMigration... migrations) {
+        return new SchemaMigrator(ds, List.of(migrations), logger, 2, 0);
+    }
+
+    @Test
+    void testRunsInVersionOrder() throws SQLException {
+        SchemaMigrator migrator = migrator(new CountingMigration(2, 1, -1), new CountingMigration(1, 3, -1));
+
+        assertTrue(migrator.hasPending());
+        migrator.runPending();
+
+        assertEquals(List.of("1:0", "1:1", "1:2", "1:complete", "2:0", "2:complete"), log);
+        assertTrue(migrator.isComplete());
+        assertFalse(migrator(new CountingMigration(1, 3, -1), new CountingMigration(2, 1, -1)).hasPending());
+    }
+
+    @Test
+    void testCompletedMigrationsAreSkipped() throws SQLException {
+        migrator(new CountingMigration(1, 1, -1)).runPending();
+        log.clear();
+
+        migrator(new CountingMigration(1, 1, -1), new CountingMigration(2, 1, -1)).runPending();
+
+        assertEquals(List.of("2:0", "2:complete"), log);
+    }
+
+    @Test
+    void testResumesAfterFailedBatch() throws SQLException {
+        assertThrows(IllegalStateException.class,
+                () -> migrator(new CountingMigration(1, 6, 4)).runPending());
+        assertEquals("4", resumeFrom(1));
+        log.clear();
+
+        migrator(new CountingMigration(1, 6, -1)).runPending();
+
+        // 確定済みのバッチ（0〜3）は再実行されない
+        assertEquals(List.of("1:4", "1:5", "1:complete"), log);
+        assertNull(resumeFrom(1));
+    }
+
+    @Test
+    void testStoppedBeforeStart() throws SQLException {
+        SchemaMigrator migrator = migrator(new CountingMigration(1, 6, -1));
+        migrator.stop();
+
+        migrator.runPending();
+
+        // 最初のバッチは確定し、次のバッチの前で中断する
+        assertEquals(List.of("1:0", "1:1"), log);
+        assertFalse(migrator.isComplete());
+        assertEquals("2", resumeFrom(1));
+    }
+
+    @Test
+    void testEstimateCountsOnlyPendingMigrations() throws SQLException {
+        migrator(new CountingMigration(1, 4, -1)).runPending();
+
+        SchemaMigrator.Estimate estimate = migrator(new CountingMigration(1, 4, -1), new CountingMigration(2, 5, -1)).estimate();
+
+        assertEquals(5, estimate.rows());
+        assertEquals(3, estimate.batches());
+    }
+
+    @Test
+    void testEstimateIncludesPauseBetweenBatches() {
+        SchemaMigrator.Estimate estimate = SchemaMigrator.estimate(1_000_000, 5000, 50);
+
+        assertEquals(200, estimate.batches());
+        // 1行 100μs で 100秒 + 待機 200 x 50ms で 10秒
+        assertEquals(110, estimate.seconds());
+        assertEquals("2分", SchemaMigrator.formatDuration(estimate.seconds()));
+        assertEquals("1分未満", SchemaMigrator.formatDuration(59));
+        assertEquals("2時間5分", SchemaMigrator.formatDuration(7500));
+    }
+
+    private String resumeFrom(int version) throws SQLException {
+        try (Connection conn = ds.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT resume_from FROM schema_version WHERE version = ?")) {
+            ps.setInt(1, version);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getString(1);
+            }
+        }
+    }
+}
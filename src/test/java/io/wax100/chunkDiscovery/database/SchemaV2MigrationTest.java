@@ -0,0 +1,202 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SchemaV2MigrationTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Test
+    void testFormatBytes() {
+        assertEquals("512 B", SchemaV2Migration.formatBytes(512));
+        assertEquals("1.5 KB", SchemaV2Migration.formatBytes(1536));
+        assertEquals("2.0 GB", SchemaV2Migration.formatBytes(2L * 1024 * 1024 * 1024));
+    }
+
+    @Test
+    void testFormatReport() {
+        String line = SchemaV2Migration.format(
+                new SchemaV2Migration.TableReport("player_chunks", 1000, 0, 4L * 1024 * 1024, 1024 * 1024));
+
+        assertTrue(line.contains("1000 行"));
+        assertTrue(line.contains("4.0 MB -> 1.0 MB"));
+        assertTrue(line.contains("-75.0%"));
+    }
+
+    @Test
+    void testFormatReport_UnknownSize() {
+        String line = SchemaV2Migration.format(new SchemaV2Migration.TableReport("global_chunks", 10, 0, -1, -1));
+
+        assertFalse(line.contains("->"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "test.database.enabled", matches = "true")
+    void testMigrateFromV1() throws Exception {
+        DatabaseManager.init("localhost", 3306, "test_chunk_discovery", "test", "test");
+        try {
+            DataSource ds = DatabaseManager.getDataSource();
+            String alice = "550e8400-e29b-41d4-a716-446655440000";
+            createV1Tables(ds, alice);
+
+            WorldDictionary worlds = new WorldDictionary(ds);
+            new SchemaMigrator(ds, worlds, Logger.getLogger("test"), BATCH_SIZE, 0).runPending();
+
+            World world = mock(World.class);
+            when(world.getName()).thenReturn("world");
+            Chunk chunk = mock(Chunk.class);
+            when(chunk.getWorld()).thenReturn(world);
+            when(chunk.getX()).thenReturn(-3);
+            when(chunk.getZ()).thenReturn(7);
+
+            ChunkRepository chunks = new ChunkRepository(ds, worlds);
+            PlayerRepository players = new PlayerRepository(ds, worlds);
+            assertTrue(chunks.isChunkDiscovered(chunk));
+            assertTrue(players.hasDiscoveredChunk(alice, chunk));
+            assertEquals(Map.of("world", BATCH_SIZE, "world_nether", 1),
+                    chunks.getDiscoveredChunkCountsByWorld());
+            assertTrue(players.getDiscoveredChunkKeys(alice).get("world").contains(ChunkKey.pack(-3, 7)));
+            assertEquals(1, players.getPlayerChunksInWorld(alice, "world_nether"));
+            assertFalse(new SchemaMigrator(ds, worlds, Logger.getLogger("test"), BATCH_SIZE, 0).hasPending());
+        } finally {
+            try (Connection conn = DatabaseManager.getDataSource().getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS global_chunks_v1, player_chunks_v1, player_chunks_v2");
+                stmt.execute("DELETE FROM player_regions");
+                stmt.execute("DELETE FROM schema_version");
+            }
+            DatabaseManager.shutdown();
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "test.database.enabled", matches = "true")
+    void testDiscoveriesDuringCopyAreKeptAfterSwap() throws Exception {
+        DatabaseManager.init("localhost", 3306, "test_chunk_discovery", "test", "test");
+        try {
+            DataSource ds = DatabaseManager.getDataSource();
+            String alice = "550e8400-e29b-41d4-a716-446655440000";
+            String bob = "6ba7b810-9dad-11d1-80b4-00c04fd430c8";
+            createV1Tables(ds, alice);
+
+            WorldDictionary worlds = new WorldDictionary(ds);
+            SchemaLayout layout = new SchemaLayout();
+            layout.detect(ds);
+            DiscoveryCommit commit = new DiscoveryCommit(ds, worlds, layout);
+            SchemaMigration migration = SchemaV2Migration.globalChunks(worlds, layout, Logger.getLogger("test"));
+
+            try (Connection conn = ds.getConnection()) {
+                String cursor = migration.migrateBatch(conn, null, 10);
+
+                // コピー済みの範囲とまだコピーしていない範囲の両方で発見する
+                assertFalse(commit.execute(bob, "world", 0, 0).globalFirst());
+                assertFalse(commit.execute(bob, "world_nether", 0, 0).globalFirst());
+                assertTrue(commit.execute(bob, "world", 5, 5).globalFirst());
+                assertTrue(commit.execute(bob, "world_the_end", 0, 0).globalFirst());
+
+                while (cursor != null) {
+                    cursor = migration.migrateBatch(conn, cursor, 10);
+                }
+                migration.complete(conn);
+            }
+
+            assertFalse(layout.isGlobalV1());
+            ChunkRepository chunks = new ChunkRepository(ds, worlds, layout);
+            assertEquals(Map.of("world", BATCH_SIZE + 1, "world_nether", 1, "world_the_end", 1),
+                    chunks.getDiscoveredChunkCountsByWorld());
+            // まだコピーしていなかった発見済みチャンクの発見者は元のまま
+            assertEquals(BATCH_SIZE + 1, chunks.getDiscoveredChunksByPlayer(alice));
+            assertEquals(2, chunks.getDiscoveredChunksByPlayer(bob));
+            assertFalse(commit.execute(bob, "world", 5, 5).globalFirst());
+        } finally {
+            try (Connection conn = DatabaseManager.getDataSource().getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TABLE IF EXISTS global_chunks_v1, player_chunks_v1, player_chunks_v2");
+                stmt.execute("DELETE FROM player_regions");
+                stmt.execute("DELETE FROM schema_version");
+            }
+            DatabaseManager.shutdown();
+        }
+    }
+
+    private static void createV1Tables(DataSource ds, String playerId) throws Exception {
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS global_chunks, player_chunks, global_chunks_v1, player_chunks_v1, player_chunks_v2");
+            stmt.execute("DELETE FROM player_regions");
+            stmt.execute("DELETE FROM schema_version");
+            stmt.execute("DELETE FROM player_world_stats");
+            stmt.execute("""
+                CREATE TABLE global_chunks (
+                    world VARCHAR(64) NOT NULL,
+                    chunk_x INT NOT NULL,
+                    chunk_z INT NOT NULL,
+                    discovered_by CHAR(36) NOT NULL,
+                    discovered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (world, chunk_x, chunk_z)
+                )
+                """);
+            stmt.execute("""
+                CREATE TABLE player_chunks (
+                    player_id CHAR(36) NOT NULL,
+                    world VARCHAR(64) NOT NULL,
+                    chunk_x INT NOT NULL,
+                    chunk_z INT NOT NULL,
+                    discovered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (player_id, world, chunk_x, chunk_z)
+                )
+                """);
+
+            // バッチの境界をまたぐ件数を用意する
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO global_chunks(world, chunk_x, chunk_z, discovered_by) VALUES(?,?,?,?)")) {
+                for (int i = 0; i < BATCH_SIZE - 1; i++) {
+                    ps.setString(1, "world");
+                    ps.setInt(2, i);
+                    ps.setInt(3, -i);
+                    ps.setString(4, playerId);
+                    ps.addBatch();
+                }
+                ps.setString(1, "world");
+                ps.setInt(2, -3);
+                ps.setInt(3, 7);
+                ps.setString(4, playerId);
+                ps.addBatch();
+                ps.setString(1, "world_nether");
+                ps.setInt(2, 0);
+                ps.setInt(3, 0);
+                ps.setString(4, playerId);
+                ps.addBatch();
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO player_chunks(player_id, world, chunk_x, chunk_z) VALUES(?,?,?,?)")) {
+                ps.setString(1, playerId);
+                ps.setString(2, "world");
+                ps.setInt(3, -3);
+                ps.setInt(4, 7);
+                ps.addBatch();
+                ps.setString(1, playerId);
+                ps.setString(2, "world_nether");
+                ps.setInt(3, 0);
+                ps.setInt(4, 0);
+                ps.addBatch();
+                ps.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package io.wax100.chunkDiscovery.database;
+
+import io.wax100.chunkDiscovery.model.DiscoveredChunk;
+import io.wax100.chunkDiscovery.model.PlayerData;
+import io.wax100.chunkDiscovery.util.ChunkKey;
+import io.wax100.chunkDiscovery.util.LongHashSet;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * すべての {@link StorageBackend} が満たすべき動作を確認するテスト
+ *
+ * 各ストレージのテストはこのクラスを継承し、接続先のストレージを返す。
+ * リポジトリのSQLは共通のため、同じ結果になることをここで保証する。
+ */
+abstract class StorageContractTest {
+
+    private final String alice = UUID.randomUUID().toString();
+    private final String bob = UUID.randomUUID().toString();
+
+    private DataSource ds;
+    private WorldDictionary worlds;
+
+    /**
+     * テスト対象のストレージを作成する
+     */
+    protected abstract StorageBackend createBackend() throws Exception;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DatabaseManager.init(createBackend());
+        ds = DatabaseManager.getDataSource();
+        clearTables();
+        worlds = new WorldDictionary(ds);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.shutdown();
+    }
+
+    private void clearTables() throws SQLException {
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String table : new String[]{"global_chunks", "player_regions", "player_world_stats", "players", "world_borders", "worlds"}) {
+                stmt.executeUpdate("DELETE FROM " + table);
+            }
+        }
+    }
+
+    private static Chunk chunk(String worldName, int x, int z) {
+        World world = mock(World.class);
+        when(world.getName()).thenReturn(worldName);
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getX()).thenReturn(x);
+        when(chunk.getZ()).thenReturn(z);
+        return chunk;
+    }
+
+    @Test
+    void testInit_IsIdempotentOnExistingTables() throws Exception {
+        DatabaseManager.shutdown();
+
+        DatabaseManager.init(createBackend());
+
+        assertTrue(DatabaseManager.isInitialized());
+    }
+
+    @Test
+    void testChunkRepository_SaveIfAbsent() {
+        ChunkRepository chunks = new ChunkRepository(ds, worlds);
+
+        assertTrue(chunks.saveIfAbsent(chunk("world", -5, 7), alice));
+        assertFalse(chunks.saveIfAbsent(chunk("world", -5, 7), bob));
+        assertTrue(chunks.isChunkDiscovered(chunk("world", -5, 7)));
+        assertFalse(chunks.isChunkDiscovered(chunk("world", 7, -5)));
+        assertFalse(chunks.isChunkDiscovered(chunk("unknown_world", 0, 0)));
+    }
+
+    @Test
+    void testChunkRepository_Counts() {
+        ChunkRepository chunks = new ChunkRepository(ds, worlds);
+        chunks.saveIfAbsent(chunk("world", 0, 0), alice);
+        chunks.saveIfAbsent(chunk("world", 0, 1), alice);
+        chunks.saveIfAbsent(chunk("world_nether", 0, 0), bob);
+
+        assertEquals(3, chunks.getTotalDiscoveredChunks());
+        assertEquals(2, chunks.getTotalDiscoveredChunksByWorld("world"));
+        assertEquals(0, chunks.getTotalDiscoveredChunksByWorld("unknown_world"));
+        assertEquals(Map.of("world", 2, "world_nether", 1), chunks.getDiscoveredChunkCountsByWorld());
+        assertEquals(2, chunks.getDiscoveredChunksByPlayer(alice));
+    }
+
+    @Test
+    void testChunkRepository_RecentDiscoveries() {
+        ChunkRepository chunks = new ChunkRepository(ds, worlds);
+        chunks.saveIfAbsent(chunk("world", -30_000_000 / 16, 12), alice);
+
+        List<DiscoveredChunk> recent = chunks.getRecentDiscoveries(10);
+
+        assertEquals(1, recent.size());
+        DiscoveredChunk found = recent.get(0);
+        assertEquals("world", found.world());
+        assertEquals(-30_000_000 / 16, found.x());
+        assertEquals(12, found.z());
+        assertEquals(alice, found.discoveredBy());
+        assertNotNull(found.discoveredAt());
+    }
+
+    @Test
+    void testPlayerRepository_PersonalChunks() {
+        PlayerRepository players = new PlayerRepository(ds, worlds);
+
+        assertTrue(players.saveIfAbsentChunk(alice, chunk("world", 1, 2)));
+        assertFalse(players.saveIfAbsentChunk(alice, chunk("world", 1, 2)));
+        assertTrue(players.saveIfAbsentChunk(bob, chunk("world", 1, 2)));
+        players.saveIfAbsentChunk(alice, chunk("world_nether", -1, -2));
+
+        assertTrue(players.hasDiscoveredChunk(alice, chunk("world", 1, 2)));
+        assertFalse(players.hasDiscoveredChunk(alice, chunk("world", 2, 1)));
+
+        Map<String, LongHashSet> keys = players.getDiscoveredChunkKeys(alice);
+        assertEquals(2, keys.size());
+        assertTrue(keys.get("world").contains(ChunkKey.pack(1, 2)));
+        assertTrue(keys.get("world_nether").contains(ChunkKey.pack(-1, -2)));
+    }
+
+    @Test
+    void testPlayerRepository_ChunksAcrossRegions() {
+        PlayerRepository players = new PlayerRepository(ds, worlds);
+        // 同じリージョンの両端と、隣接する負のリージョン
+        int[][] coords = {{0, 0}, {31, 31}, {-1, -1}, {-32, 0}, {-33, 0}};
+        for (int[] c : coords) {
+            assertTrue(players.saveIfAbsentChunk(alice, chunk("world", c[0], c[1])));
+        }
+
+        for (int[] c : coords) {
+            assertTrue(players.hasDiscoveredChunk(alice, chunk("world", c[0], c[1])));
+        }
+        assertFalse(players.hasDiscoveredChunk(alice, chunk("world", 1, 0)));
+        assertEquals(coords.length, players.getPlayerChunksInWorld(alice, "world"));
+        assertEquals(coords.length, players.countPlayerChunksInWorld(alice, "world"));
+        assertEquals(0, players.getPlayerChunksInWorld(bob, "world"));
+        assertEquals(coords.length, players.getDiscoveredChunkKeys(alice).get("world").size());
+    }
+
+    @Test
+    void testPlayerRepository_TotalsAndRanking() {
+        PlayerRepository players = new PlayerRepository(ds, worlds);
+        players.incrementTotalChunks(alice);
+        players.incrementTotalChunks(bob);
+        players.incrementTotalChunks(bob);
+
+        assertEquals(1, players.getTotalChunks(alice));
+        assertEquals(0, players.getTotalChunks(UUID.randomUUID().toString()));
+
+        List<PlayerData> top = players.getTopPlayers(10);
+        assertEquals(2, top.size());
+        assertEquals(bob, top.get(0).getPlayerId());
+        assertEquals(2, top.get(0).getTotalChunks());
+        assertEquals(alice, top.get(1).getPlayerId());
+
+        List<PlayerData> all = players.getAllPlayerTotals();
+        assertEquals(2, all.size());
+        assertEquals(3, all.stream().mapToInt(PlayerData::getTotalChunks).sum());
+    }
+
+    @Test
+    void testPlayerRepository_LastNames() {
+        PlayerRepository players = new PlayerRepository(ds, worlds);
+        players.incrementTotalChunks(alice);
+        players.updateLastName(alice, "Alice");
+        players.updateLastName(bob, "Bob");
+        players.updateLastName(bob, "Bobby");
+
+        Map<String, String> names = players.getLastNames(List.of(alice, bob, UUID.randomUUID().toString()));
+        assertEquals(Map.of(alice, "Alice", bob, "Bobby"), names);
+        assertTrue(players.getLastNames(List.of()).isEmpty());
+
+        // 名前のみ記録されたプレイヤーはランキングに含めない
+        assertEquals(1, players.getTotalChunks(alice));
+        assertEquals(List.of(alice), players.getTopPlayers(10).stream().map(PlayerData::getPlayerId).toList());
+    }
+
+    @Test
+    void testDiscoveryCommit() {
+        DiscoveryCommit commit = new DiscoveryCommit(ds, worlds);
+
+        assertEquals(new DiscoveryCommit.Result(true, true, 1, 1), commit.execute(alice, "world", 0, 0));
+        assertEquals(new DiscoveryCommit.Result(false, false, 1, 1), commit.execute(alice, "world", 0, 0));
+        assertEquals(new DiscoveryCommit.Result(false, true, 1, 1), commit.execute(bob, "world", 0, 0));
+        assertEquals(new DiscoveryCommit.Result(true, true, 2, 1), commit.execute(alice, "world_nether", 0, 0));
+
+        assertEquals(1, new PlayerRepository(ds, worlds).getPlayerChunksInWorld(alice, "world_nether"));
+    }
+
+    @Test
+    void testDiscoveryBatchRepository() {
+        DiscoveryBatchRepository batch = new DiscoveryBatchRepository(ds, worlds);
+
+        List<DiscoveryBatchRepository.Outcome> outcomes = batch.commit(List.of(
+                new DiscoveryBatchRepository.Entry(alice, "world", 0, 0),
+                new DiscoveryBatchRepository.Entry(bob, "world", 0, 0),
+                new DiscoveryBatchRepository.Entry(alice, "world", 0, 0)));
+
+        assertEquals(3, outcomes.size());
+        assertTrue(outcomes.get(0).globalFirst());
+        assertTrue(outcomes.get(0).personalFirst());
+        assertFalse(outcomes.get(1).globalFirst());
+        assertTrue(outcomes.get(1).personalFirst());
+        assertFalse(outcomes.get(2).personalFirst());
+        assertEquals(1, new ChunkRepository(ds, worlds).getTotalDiscoveredChunks());
+    }
+
+    @Test
+    void testWorldBorderRepository() {
+        WorldBorderRepository borders = new WorldBorderRepository(ds);
+
+        borders.initializeBorderIfAbsent("world", 16.0);
+        borders.initializeBorderIfAbsent("world", 99.0);
+        assertEquals(16.0, borders.getBorderSize("world").doubleValue());
+
+        borders.saveBorderSize("world", 32.0, 4);
+        assertEquals(32.0, borders.getBorderSize("world").doubleValue());
+        assertEquals(4, borders.getTotalChunksDiscovered("world"));
+        assertEquals(Map.of("world", 32.0), borders.getAllBorderSizes());
+
+        borders.deleteBorderInfo("world");
+        assertNull(borders.getBorderSize("world"));
+    }
+
+    @Test
+    void testSchemaMigrator_NothingPendingOnNewTables() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(ds, worlds, Logger.getLogger("test"), 100, 0);
+
+        migrator.runPending();
+
+        assertTrue(migrator.isComplete());
+    }
+}
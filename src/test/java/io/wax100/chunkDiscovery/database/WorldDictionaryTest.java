@@ -0,0 +1,54 @@
+package io.wax100.chunkDiscovery.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldDictionaryTest {
+
+    private DataSource ds;
+    private WorldDictionary dictionary;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ds = H2TestDatabase.create("worlds_" + UUID.randomUUID().toString().replace("-", ""));
+        dictionary = new WorldDictionary(ds);
+    }
+
+    @Test
+    void testIdOf_RegistersOnce() {
+        int world = dictionary.idOf("world");
+        int nether = dictionary.idOf("world_nether");
+
+        assertNotEquals(world, nether);
+        assertEquals(world, dictionary.idOf("world"));
+        assertEquals(world, new WorldDictionary(ds).idOf("world"));
+    }
+
+    @Test
+    void testFindId_DoesNotRegister() {
+        assertEquals(WorldDictionary.UNKNOWN, dictionary.findId("world"));
+        assertEquals(WorldDictionary.UNKNOWN, new WorldDictionary(ds).findId("world"));
+
+        int id = dictionary.idOf("world");
+
+        assertEquals(id, new WorldDictionary(ds).findId("world"));
+    }
+
+    @Test
+    void testNameOf_LoadsFromDatabase() {
+        int id = dictionary.idOf("world_the_end");
+
+        assertEquals("world_the_end", new WorldDictionary(ds).nameOf(id));
+    }
+
+    @Test
+    void testNameOf_UnknownId() {
+        assertThrows(IllegalStateException.class, () -> dictionary.nameOf(999));
+    }
+}
@@ -0,0 +1,145 @@
+package io.wax100.chunkDiscovery.initializer;
+
+import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
+import io.wax100.chunkDiscovery.config.ConfigSnapshot;
+import io.wax100.chunkDiscovery.config.WorldBorderConfig;
+import io.wax100.chunkDiscovery.exception.ConfigurationException;
+import io.wax100.chunkDiscovery.service.RewardService;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.MockitoAnnotations;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ConfigReloaderTest {
+
+    @Mock
+    private ChunkDiscoveryPlugin plugin;
+
+    @Mock
+    private Server server;
+
+    @Mock
+    private BukkitScheduler scheduler;
+
+    @Mock
+    private RewardService rewardService;
+
+    @TempDir
+    File dataFolder;
+
+    private ConfigReloader reloader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("ConfigReloaderTest"));
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getConfig()).thenReturn(new YamlConfiguration());
+        when(plugin.getRewardService()).thenReturn(rewardService);
+        when(plugin.getServer()).thenReturn(server);
+        when(server.getWorlds()).thenReturn(List.of());
+        when(server.getScheduler()).thenReturn(scheduler);
+
+        writeConfig("db:\n  type: h2\nborder:\n  initial_size: 80.0\n");
+        reloader = new ConfigReloader(plugin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConfigSnapshot.publish(ConfigSnapshot.EMPTY);
+    }
+
+    private void writeConfig(String yaml) throws IOException {
+        Files.writeString(new File(dataFolder, "config.yml").toPath(), yaml, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * メインスレッドへ渡された反映処理を取得する（準備フェーズの完了を待つ）
+     */
+    private Runnable awaitCommit() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, timeout(5000)).runTask(eq(plugin), task.capture());
+        return task.getValue();
+    }
+
+    @Test
+    void testReload_PreparesOffMainThreadAndCommitsOnMainThread() throws Exception {
+        try (MockedStatic<WorldBorderConfig> borders = mockStatic(WorldBorderConfig.class, CALLS_REAL_METHODS)) {
+            borders.when(WorldBorderConfig::reapplyBorders).thenAnswer(invocation -> null);
+
+            CompletableFuture<ConfigReloader.Timings> reload = reloader.reload();
+            Runnable commit = awaitCommit();
+
+            // 準備フェーズの完了時点では、まだ何も差し替えていない
+            assertFalse(reload.isDone());
+            verify(plugin, never()).applyReloadedConfig(any());
+            verify(rewardService, never()).reloadRewards();
+            assertSame(ConfigSnapshot.EMPTY, ConfigSnapshot.current());
+            borders.verify(WorldBorderConfig::reapplyBorders, never());
+
+            commit.run();
+
+            assertNotNull(reload.get(5, TimeUnit.SECONDS));
+            verify(plugin).applyReloadedConfig(any());
+            verify(rewardService).reloadRewards();
+            assertEquals(80.0, ConfigSnapshot.current().borders().forWorld("world").initialSize());
+            // ボーダーはDBを読み直さず、メモリ上のサイズを反映する
+            borders.verify(WorldBorderConfig::reapplyBorders);
+        }
+    }
+
+    @Test
+    void testReload_RejectsConcurrentReload() throws Exception {
+        try (MockedStatic<WorldBorderConfig> borders = mockStatic(WorldBorderConfig.class, CALLS_REAL_METHODS)) {
+            borders.when(WorldBorderConfig::reapplyBorders).thenAnswer(invocation -> null);
+
+            CompletableFuture<ConfigReloader.Timings> first = reloader.reload();
+            CompletableFuture<ConfigReloader.Timings> second = reloader.reload();
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ConfigurationException.class, e.getCause());
+
+            awaitCommit().run();
+            assertNotNull(first.get(5, TimeUnit.SECONDS));
+
+            // 完了後は再びリロードできる
+            CompletableFuture<ConfigReloader.Timings> third = reloader.reload();
+            verify(scheduler, timeout(5000).times(2)).runTask(eq(plugin), any(Runnable.class));
+            assertFalse(third.isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    void testReload_InvalidConfigIsNotCommitted() throws Exception {
+        writeConfig("db:\n  type: h2\nborder:\n  initial_size: -1.0\n");
+
+        CompletableFuture<ConfigReloader.Timings> reload = reloader.reload();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> reload.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ConfigurationException.class, e.getCause());
+        verify(scheduler, never()).runTask(eq(plugin), any(Runnable.class));
+        verify(plugin, never()).applyReloadedConfig(any());
+        assertSame(ConfigSnapshot.EMPTY, ConfigSnapshot.current());
+    }
+}
@@ -238,4 +238,50 @@ class ConfigValidatorTest {
         assertTrue(result);
         verifyNoInteractions(mockLogger);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testValidate_H2_NoConnectionSettingsRequired() {
+        // Arrange
+        when(mockConfig.getDouble("border.initial_size", 100.0)).thenReturn(1000.0);
+        when(mockConfig.getDouble("border.expansion_per_chunk", 1.0)).thenReturn(2.5);
+        when(mockConfig.getString("db.type", "mysql")).thenReturn("h2");
+
+        // Act
+        boolean result = validator.validate();
+
+        // Assert
+        assertTrue(result);
+        verify(mockConfig, never()).getString("db.host");
+    }
+
+    @Test
+    void testValidate_InvalidDatabaseType() {
+        // Arrange
+        when(mockConfig.getDouble("border.initial_size", 100.0)).thenReturn(1000.0);
+        when(mockConfig.getDouble("border.expansion_per_chunk", 1.0)).thenReturn(2.5);
+        when(mockConfig.getString("db.type", "mysql")).thenReturn("postgres");
+
+        // Act
+        boolean result = validator.validate();
+
+        // Assert
+        assertFalse(result);
+        verify(mockLogger).severe(contains("db.type は mysql または h2 である必要があります"));
+    }
+
+    @Test
+    void testValidate_InvalidChunkStore() {
+        // Arrange
+        when(mockConfig.getDouble("border.initial_size", 100.0)).thenReturn(1000.0);
+        when(mockConfig.getDouble("border.expansion_per_chunk", 1.0)).thenReturn(2.5);
+        when(mockConfig.getString("db.type", "mysql")).thenReturn("h2");
+        when(mockConfig.getString("db.chunk_store", "sql")).thenReturn("rocksdb");
+
+        // Act
+        boolean result = validator.validate();
+
+        // Assert
+        assertFalse(result);
+        verify(mockLogger).severe(contains("db.chunk_store は sql または region_file である必要があります"));
+    }
+}
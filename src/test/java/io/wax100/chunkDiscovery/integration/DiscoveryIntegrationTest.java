@@ -20,6 +20,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -178,24 +179,24 @@ class DiscoveryIntegrationTest {
 
     @Test
     void testIsDiscoveredMethod() {
-        // 発見済みチェックのテスト
-        when(playerRepo.hasDiscoveredChunk(playerId, chunk)).thenReturn(true);
-        
+        // キャッシュ未読み込みの場合はDBにアクセスせず発見候補として扱う
         boolean isDiscovered = discoveryService.isDiscovered(player, chunk);
-        
-        assertTrue(isDiscovered);
-        verify(playerRepo).hasDiscoveredChunk(playerId, chunk);
+
+        assertFalse(isDiscovered);
+        verify(playerRepo, never()).hasDiscoveredChunk(anyString(), any(Chunk.class));
     }
 
     @Test
-    void testIsDiscoveredMethodWithException() {
-        // 例外発生時は未発見として扱うことを確認
-        when(playerRepo.hasDiscoveredChunk(playerId, chunk))
-            .thenThrow(new RuntimeException("Database error"));
-        
+    void testIsDiscoveredMethodWithFailedCacheLoad() throws Exception {
+        // キャッシュの読み込みに失敗しても未発見（発見候補）として扱い、DBにはアクセスしない
+        when(playerRepo.getDiscoveredChunkKeys(playerId)).thenThrow(new RuntimeException("Database error"));
+
+        discoveryService.loadPlayerCache(player).get();
         boolean isDiscovered = discoveryService.isDiscovered(player, chunk);
-        
-        assertFalse(isDiscovered); // エラー時は未発見として扱う
+
+        assertFalse(isDiscovered);
+        assertEquals(1, discoveryService.getChunkCache().getFailedLoads());
+        verify(playerRepo, never()).hasDiscoveredChunk(anyString(), any(Chunk.class));
     }
 
 }
\ No newline at end of file
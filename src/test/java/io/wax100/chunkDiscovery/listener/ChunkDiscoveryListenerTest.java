@@ -2,14 +2,12 @@ package io.wax100.chunkDiscovery.listener;
 
 import io.wax100.chunkDiscovery.service.DiscoveryService;
 import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
-import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
-import org.bukkit.event.player.PlayerQuitEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -35,7 +33,7 @@ class ChunkDiscoveryListenerTest {
     private Chunk chunk;
     
     @Mock
-    private Block block;
+    private ChunkSnapshot snapshot;
     
     @Mock
     private Location fromLocation;
@@ -51,7 +49,8 @@ class ChunkDiscoveryListenerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        listener = new ChunkDiscoveryListener(discoveryService);
+        // 岩盤チェックを同期実行して検証しやすくする
+        listener = new ChunkDiscoveryListener(discoveryService, new BedrockFloorValidator(Runnable::run));
         
         // Mock basic setup
         when(player.getUniqueId()).thenReturn(playerId);
@@ -61,37 +60,8 @@ class ChunkDiscoveryListenerTest {
         when(chunk.getZ()).thenReturn(0);
         when(world.getMinHeight()).thenReturn(-64);
         when(world.getEnvironment()).thenReturn(World.Environment.NORMAL);
-    }
-
-    @Test
-    void testPlayerJoinEvent() {
-        // Setup
-        PlayerJoinEvent event = new PlayerJoinEvent(player, "Welcome!");
-        when(player.getLocation()).thenReturn(toLocation);
-        when(toLocation.getChunk()).thenReturn(chunk);
-        
-        // Execute
-        listener.onPlayerJoin(event);
-        
-        // Verify that the player's initial position is recorded
-        verify(player).getLocation();
-        verify(toLocation).getChunk();
-    }
-
-    @Test
-    void testPlayerQuitEvent() {
-        // Setup - simulate player join first
-        PlayerJoinEvent joinEvent = new PlayerJoinEvent(player, "Welcome!");
-        when(player.getLocation()).thenReturn(toLocation);
-        when(toLocation.getChunk()).thenReturn(chunk);
-        listener.onPlayerJoin(joinEvent);
-        
-        // Execute quit event
-        PlayerQuitEvent quitEvent = new PlayerQuitEvent(player, "Goodbye!");
-        listener.onPlayerQuit(quitEvent);
-        
-        // Verify cleanup happened (this is implicit in the implementation)
-        assertDoesNotThrow(() -> listener.onPlayerQuit(quitEvent));
+        when(toLocation.getWorld()).thenReturn(world);
+        when(chunk.getChunkSnapshot(false, false, false)).thenReturn(snapshot);
     }
 
     @Test
@@ -110,6 +80,30 @@ class ChunkDiscoveryListenerTest {
         verify(discoveryService, atMost(1)).isDiscovered(any(Player.class), any(Chunk.class));
     }
 
+    @Test
+    void testPlayerMoveEvent_SameChunkDifferentBlock() {
+        // Setup - first move establishes the chunk (0, 0)
+        PlayerMoveEvent event = new PlayerMoveEvent(player, fromLocation, toLocation);
+        when(toLocation.getChunk()).thenReturn(chunk);
+        when(toLocation.getBlockX()).thenReturn(1);
+        when(toLocation.getBlockZ()).thenReturn(1);
+        when(discoveryService.isDiscovered(player, chunk)).thenReturn(true);
+        listener.onPlayerMove(event);
+
+        // Move to another block inside the same chunk
+        when(toLocation.getBlockX()).thenReturn(15);
+        when(toLocation.getBlockZ()).thenReturn(14);
+        listener.onPlayerMove(event);
+
+        // Move across the chunk boundary
+        when(toLocation.getBlockX()).thenReturn(16);
+        listener.onPlayerMove(event);
+
+        // The chunk is only resolved when the boundary is crossed
+        verify(toLocation, times(2)).getChunk();
+        verify(discoveryService, times(2)).isDiscovered(player, chunk);
+    }
+
     @Test
     void testPlayerMoveEvent_NewChunk_AlreadyDiscovered() {
         // Setup
@@ -132,22 +126,8 @@ class ChunkDiscoveryListenerTest {
         when(toLocation.getChunk()).thenReturn(chunk);
         when(discoveryService.isDiscovered(player, chunk)).thenReturn(false);
         
-        // Mock bedrock check - setup chunk with bedrock at bottom
-        when(player.getWorld()).thenReturn(world);
-        when(player.getLocation()).thenReturn(toLocation);
-        when(toLocation.getBlockX()).thenReturn(0);
-        when(toLocation.getBlockZ()).thenReturn(0);
-        when(world.getBlockAt(0, -64, 0)).thenReturn(block);
-        when(block.getType()).thenReturn(Material.BEDROCK);
-        
-        // Mock chunk bedrock check
-        for (int dx = 0; dx < 16; dx++) {
-            for (int dz = 0; dz < 16; dz++) {
-                Block chunkBlock = mock(Block.class);
-                when(chunk.getBlock(dx, -64, dz)).thenReturn(chunkBlock);
-                when(chunkBlock.getType()).thenReturn(Material.BEDROCK);
-            }
-        }
+        // Mock chunk bedrock check - setup chunk with bedrock at bottom
+        when(snapshot.getBlockType(anyInt(), eq(-64), anyInt())).thenReturn(Material.BEDROCK);
         
         // Execute
         listener.onPlayerMove(event);
@@ -165,12 +145,7 @@ class ChunkDiscoveryListenerTest {
         when(discoveryService.isDiscovered(player, chunk)).thenReturn(false);
         
         // Mock bedrock check - setup chunk WITHOUT bedrock at bottom
-        when(player.getWorld()).thenReturn(world);
-        when(player.getLocation()).thenReturn(toLocation);
-        when(toLocation.getBlockX()).thenReturn(0);
-        when(toLocation.getBlockZ()).thenReturn(0);
-        when(world.getBlockAt(0, -64, 0)).thenReturn(block);
-        when(block.getType()).thenReturn(Material.STONE); // Not bedrock
+        when(snapshot.getBlockType(anyInt(), eq(-64), anyInt())).thenReturn(Material.STONE); // Not bedrock
         
         // Execute
         listener.onPlayerMove(event);
@@ -190,22 +165,8 @@ class ChunkDiscoveryListenerTest {
         when(toLocation.getChunk()).thenReturn(chunk);
         when(discoveryService.isDiscovered(player, chunk)).thenReturn(false);
         
-        // Mock bedrock check for Nether
-        when(player.getWorld()).thenReturn(world);
-        when(player.getLocation()).thenReturn(toLocation);
-        when(toLocation.getBlockX()).thenReturn(0);
-        when(toLocation.getBlockZ()).thenReturn(0);
-        when(world.getBlockAt(0, 0, 0)).thenReturn(block);
-        when(block.getType()).thenReturn(Material.BEDROCK);
-        
         // Mock chunk bedrock check for Nether
-        for (int dx = 0; dx < 16; dx++) {
-            for (int dz = 0; dz < 16; dz++) {
-                Block chunkBlock = mock(Block.class);
-                when(chunk.getBlock(dx, 0, dz)).thenReturn(chunkBlock);
-                when(chunkBlock.getType()).thenReturn(Material.BEDROCK);
-            }
-        }
+        when(snapshot.getBlockType(anyInt(), eq(0), anyInt())).thenReturn(Material.BEDROCK);
         
         // Execute
         listener.onPlayerMove(event);
@@ -224,16 +185,14 @@ class ChunkDiscoveryListenerTest {
         when(toLocation.getChunk()).thenReturn(chunk);
         when(discoveryService.isDiscovered(player, chunk)).thenReturn(false);
         
-        // Mock location for End
-        when(player.getWorld()).thenReturn(world);
-        when(player.getLocation()).thenReturn(toLocation);
-        
         // Execute
         listener.onPlayerMove(event);
         
         // Verify discovery is checked but not processed (End is not valid)
         verify(discoveryService).isDiscovered(player, chunk);
         verify(discoveryService, never()).handleDiscovery(player, chunk);
+        // No snapshot is captured for the End
+        verify(chunk, never()).getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean());
     }
 
     @Test
@@ -270,27 +229,10 @@ class ChunkDiscoveryListenerTest {
         when(toLocation.getChunk()).thenReturn(chunk);
         when(discoveryService.isDiscovered(player, chunk)).thenReturn(false);
         
-        // Mock bedrock check - player position has bedrock
-        when(player.getWorld()).thenReturn(world);
-        when(player.getLocation()).thenReturn(toLocation);
-        when(toLocation.getBlockX()).thenReturn(0);
-        when(toLocation.getBlockZ()).thenReturn(0);
-        when(world.getBlockAt(0, -64, 0)).thenReturn(block);
-        when(block.getType()).thenReturn(Material.BEDROCK);
-        
         // Mock chunk bedrock check - some blocks are not bedrock
-        for (int dx = 0; dx < 16; dx++) {
-            for (int dz = 0; dz < 16; dz++) {
-                Block chunkBlock = mock(Block.class);
-                when(chunk.getBlock(dx, -64, dz)).thenReturn(chunkBlock);
-                // Make one block not bedrock
-                if (dx == 5 && dz == 5) {
-                    when(chunkBlock.getType()).thenReturn(Material.STONE);
-                } else {
-                    when(chunkBlock.getType()).thenReturn(Material.BEDROCK);
-                }
-            }
-        }
+        when(snapshot.getBlockType(anyInt(), eq(-64), anyInt())).thenReturn(Material.BEDROCK);
+        // Make one block not bedrock
+        when(snapshot.getBlockType(5, -64, 5)).thenReturn(Material.STONE);
         
         // Execute
         listener.onPlayerMove(event);
@@ -300,6 +242,63 @@ class ChunkDiscoveryListenerTest {
         verify(discoveryService, never()).handleDiscovery(player, chunk);
     }
 
+    @Test
+    void testPlayerMoveEvent_AlreadyDiscovered_SkipsSnapshot() {
+        PlayerMoveEvent event = new PlayerMoveEvent(player, fromLocation, toLocation);
+        when(toLocation.getChunk()).thenReturn(chunk);
+        when(discoveryService.isDiscovered(player, chunk)).thenReturn(true);
+
+        listener.onPlayerMove(event);
+
+        // The main thread does not pay for a snapshot when the chunk is already discovered
+        verify(chunk, never()).getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void testPlayerMoveEvent_ValidationRunsOnExecutor() {
+        // Validation is deferred to the executor instead of running inline
+        java.util.List<Runnable> pending = new java.util.ArrayList<>();
+        listener = new ChunkDiscoveryListener(discoveryService, new BedrockFloorValidator(pending::add));
+
+        PlayerMoveEvent event = new PlayerMoveEvent(player, fromLocation, toLocation);
+        when(toLocation.getChunk()).thenReturn(chunk);
+        when(discoveryService.isDiscovered(player, chunk)).thenReturn(false);
+        when(snapshot.getBlockType(anyInt(), eq(-64), anyInt())).thenReturn(Material.BEDROCK);
+
+        listener.onPlayerMove(event);
+
+        verify(snapshot, never()).getBlockType(anyInt(), anyInt(), anyInt());
+        verify(discoveryService, never()).handleDiscovery(player, chunk);
+
+        pending.forEach(Runnable::run);
+
+        verify(discoveryService).handleDiscovery(player, chunk);
+    }
+
+    @Test
+    void testPlayerMoveEvent_DiscoveryHandedBackToMainThread() {
+        // The discovery itself runs on the main-thread executor, not on the validation thread
+        java.util.List<Runnable> pending = new java.util.ArrayList<>();
+        java.util.List<Runnable> mainThread = new java.util.ArrayList<>();
+        listener = new ChunkDiscoveryListener(discoveryService, new ChunkPositionTracker(),
+                new BedrockFloorValidator(pending::add), mainThread::add, java.util.logging.Logger.getAnonymousLogger());
+
+        PlayerMoveEvent event = new PlayerMoveEvent(player, fromLocation, toLocation);
+        when(toLocation.getChunk()).thenReturn(chunk);
+        when(discoveryService.isDiscovered(player, chunk)).thenReturn(false);
+        when(snapshot.getBlockType(anyInt(), eq(-64), anyInt())).thenReturn(Material.BEDROCK);
+
+        listener.onPlayerMove(event);
+        pending.forEach(Runnable::run);
+
+        verify(discoveryService, never()).handleDiscovery(player, chunk);
+        assertEquals(1, mainThread.size());
+
+        mainThread.forEach(Runnable::run);
+
+        verify(discoveryService).handleDiscovery(player, chunk);
+    }
+
     @Test
     void testConstructor_ValidService() {
         assertDoesNotThrow(() -> new ChunkDiscoveryListener(discoveryService));
@@ -0,0 +1,103 @@
+package io.wax100.chunkDiscovery.listener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ChunkPositionTrackerTest {
+
+    private ChunkPositionTracker tracker;
+    private final UUID playerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ChunkPositionTracker();
+    }
+
+    @Test
+    void testFirstUpdateIsCrossing() {
+        assertTrue(tracker.update(playerId, "world", 0, 0));
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    void testSameChunkIsIgnored() {
+        tracker.update(playerId, "world", 0, 0);
+
+        assertFalse(tracker.update(playerId, "world", 15, 15));
+        assertFalse(tracker.update(playerId, "world", 7, 3));
+    }
+
+    @Test
+    void testChunkBoundaryCrossing() {
+        tracker.update(playerId, "world", 15, 0);
+
+        assertTrue(tracker.update(playerId, "world", 16, 0));
+        assertTrue(tracker.update(playerId, "world", 16, -1));
+        // 負の座標は切り捨てではなく床関数でチャンクに変換される
+        assertFalse(tracker.update(playerId, "world", 31, -16));
+        assertTrue(tracker.update(playerId, "world", 31, -17));
+    }
+
+    @Test
+    void testWorldChangeIsCrossing() {
+        tracker.update(playerId, "world", 0, 0);
+
+        assertTrue(tracker.update(playerId, "world_nether", 0, 0));
+        assertTrue(tracker.update(playerId, "world", 0, 0));
+    }
+
+    @Test
+    void testResetAndRemove() {
+        tracker.update(playerId, "world", 0, 0);
+        tracker.reset(playerId, "world", 100, 100);
+
+        assertFalse(tracker.update(playerId, "world", 100, 100));
+
+        tracker.remove(playerId);
+        assertEquals(0, tracker.size());
+        assertTrue(tracker.update(playerId, "world", 100, 100));
+    }
+
+    @Test
+    void testSameChunkPathDoesNotAllocate() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "スレッド別アロケーション計測に非対応のJVM");
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported(), "スレッド別アロケーション計測に非対応のJVM");
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        long threadId = Thread.currentThread().getId();
+        String worldName = "world";
+        tracker.update(playerId, worldName, 0, 0);
+
+        // JIT コンパイルを促すためのウォームアップ
+        int iterations = 1_000_000;
+        runSameChunkMoves(iterations, worldName);
+
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        int crossings = runSameChunkMoves(iterations, worldName);
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(0, crossings);
+        // 計測呼び出し自体の誤差を許容しつつ、1イベントあたり0バイトであることを確認
+        assertTrue(allocated < 1024,
+                "同一チャンク内の移動で " + allocated + " バイト割り当てられました (" + iterations + " イベント)");
+    }
+
+    private int runSameChunkMoves(int iterations, String worldName) {
+        int crossings = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (tracker.update(playerId, worldName, i & 15, (i >> 4) & 15)) {
+                crossings++;
+            }
+        }
+        return crossings;
+    }
+}
@@ -0,0 +1,152 @@
+package io.wax100.chunkDiscovery.listener;
+
+import io.wax100.chunkDiscovery.service.DiscoveryService;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChunkScanTaskTest {
+
+    @Mock
+    private DiscoveryService discoveryService;
+
+    @Mock
+    private Player player;
+
+    @Mock
+    private World world;
+
+    @Mock
+    private Location location;
+
+    @Mock
+    private ChunkSnapshot snapshot;
+
+    private final ChunkPositionTracker tracker = new ChunkPositionTracker();
+    private final UUID playerId = UUID.randomUUID();
+    private ChunkScanTask task;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        task = new ChunkScanTask(() -> List.of(player), tracker, discoveryService,
+                new BedrockFloorValidator(Runnable::run), 16, Runnable::run, Logger.getAnonymousLogger());
+
+        when(player.getUniqueId()).thenReturn(playerId);
+        when(player.getLocation()).thenReturn(location);
+        when(location.getWorld()).thenReturn(world);
+        when(world.getName()).thenReturn("world");
+        when(world.getMinHeight()).thenReturn(-64);
+        when(world.getEnvironment()).thenReturn(World.Environment.NORMAL);
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(true);
+        when(world.getChunkAt(anyInt(), anyInt())).thenAnswer(inv -> mockChunk(inv.getArgument(0), inv.getArgument(1)));
+        when(snapshot.getBlockType(anyInt(), eq(-64), anyInt())).thenReturn(Material.BEDROCK);
+    }
+
+    private Chunk mockChunk(int x, int z) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getX()).thenReturn(x);
+        when(chunk.getZ()).thenReturn(z);
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getChunkSnapshot(false, false, false)).thenReturn(snapshot);
+        return chunk;
+    }
+
+    private void moveTo(int blockX, int blockZ) {
+        when(location.getBlockX()).thenReturn(blockX);
+        when(location.getBlockZ()).thenReturn(blockZ);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DiscoveryService.Discovery> captureSubmission() {
+        ArgumentCaptor<List<DiscoveryService.Discovery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(discoveryService).handleDiscoveries(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void testSameChunk_NoSubmission() {
+        tracker.reset(playerId, "world", 0, 0);
+        moveTo(15, 15);
+
+        task.run();
+
+        verify(discoveryService, never()).handleDiscoveries(any());
+        verify(discoveryService, never()).isDiscovered(any(), any());
+    }
+
+    @Test
+    void testCrossing_SubmittedAsBatch() {
+        tracker.reset(playerId, "world", 0, 0);
+        moveTo(16, 0);
+
+        task.run();
+
+        List<DiscoveryService.Discovery> submitted = captureSubmission();
+        assertEquals(1, submitted.size());
+        assertEquals(1, submitted.get(0).chunk().getX());
+        assertEquals(0, submitted.get(0).chunk().getZ());
+    }
+
+    @Test
+    void testFastTravel_InterpolatesSkippedChunks() {
+        tracker.reset(playerId, "world", 0, 0);
+        moveTo(4 * 16, 0);
+
+        task.run();
+
+        List<Integer> xs = captureSubmission().stream().map(d -> d.chunk().getX()).toList();
+        assertEquals(List.of(1, 2, 3, 4), xs);
+    }
+
+    @Test
+    void testInterpolation_SkipsUnloadedChunks() {
+        when(world.isChunkLoaded(2, 0)).thenReturn(false);
+        tracker.reset(playerId, "world", 0, 0);
+        moveTo(4 * 16, 0);
+
+        task.run();
+
+        List<Integer> xs = captureSubmission().stream().map(d -> d.chunk().getX()).toList();
+        assertEquals(List.of(1, 3, 4), xs);
+    }
+
+    @Test
+    void testTeleport_OnlyDestination() {
+        tracker.reset(playerId, "world", 0, 0);
+        moveTo(100 * 16, 0);
+
+        task.run();
+
+        List<DiscoveryService.Discovery> submitted = captureSubmission();
+        assertEquals(1, submitted.size());
+        assertEquals(100, submitted.get(0).chunk().getX());
+    }
+
+    @Test
+    void testDiscoveredChunks_Skipped() {
+        when(discoveryService.isDiscovered(eq(player), any())).thenReturn(true);
+        tracker.reset(playerId, "world", 0, 0);
+        moveTo(16, 0);
+
+        task.run();
+
+        verify(discoveryService, never()).handleDiscoveries(any());
+    }
+}
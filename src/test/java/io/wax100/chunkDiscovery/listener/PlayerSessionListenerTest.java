@@ -0,0 +1,69 @@
+package io.wax100.chunkDiscovery.listener;
+
+import io.wax100.chunkDiscovery.service.DiscoveryService;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PlayerSessionListenerTest {
+
+    @Mock
+    private DiscoveryService discoveryService;
+
+    @Mock
+    private Player player;
+
+    @Mock
+    private World world;
+
+    @Mock
+    private Location location;
+
+    private final ChunkPositionTracker tracker = new ChunkPositionTracker();
+    private final UUID playerId = UUID.randomUUID();
+    private PlayerSessionListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        listener = new PlayerSessionListener(discoveryService, tracker);
+
+        when(player.getUniqueId()).thenReturn(playerId);
+        when(player.getLocation()).thenReturn(location);
+        when(location.getWorld()).thenReturn(world);
+        when(location.getBlockX()).thenReturn(40);
+        when(location.getBlockZ()).thenReturn(-20);
+        when(world.getName()).thenReturn("world");
+    }
+
+    @Test
+    void testPlayerJoinEvent_RecordsPositionAndLoadsCache() {
+        listener.onPlayerJoin(new PlayerJoinEvent(player, "Welcome!"));
+
+        // ログイン位置と同じチャンク内の移動は発見として扱わない
+        assertFalse(tracker.update(playerId, "world", 41, -19));
+        verify(discoveryService).loadPlayerCache(player);
+        verify(discoveryService).rememberPlayerName(player);
+    }
+
+    @Test
+    void testPlayerQuitEvent_ForgetsPositionAndCache() {
+        listener.onPlayerJoin(new PlayerJoinEvent(player, "Welcome!"));
+
+        listener.onPlayerQuit(new PlayerQuitEvent(player, "Goodbye!"));
+
+        assertTrue(tracker.update(playerId, "world", 41, -19));
+        verify(discoveryService).unloadPlayerCache(player);
+    }
+}
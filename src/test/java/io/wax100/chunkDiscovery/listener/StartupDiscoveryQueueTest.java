@@ -0,0 +1,122 @@
+package io.wax100.chunkDiscovery.listener;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StartupDiscoveryQueueTest {
+
+    @Mock
+    private Player player;
+
+    @Mock
+    private World world;
+
+    @Mock
+    private Location from;
+
+    private final UUID playerId = UUID.randomUUID();
+    private final List<Chunk> replayed = new ArrayList<>();
+    private StartupDiscoveryQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        queue = new StartupDiscoveryQueue(3);
+
+        when(player.getUniqueId()).thenReturn(playerId);
+        when(world.getName()).thenReturn("world");
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(true);
+        when(world.getChunkAt(anyInt(), anyInt())).thenAnswer(inv -> mockChunk(inv.getArgument(0), inv.getArgument(1)));
+    }
+
+    private Chunk mockChunk(int x, int z) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getX()).thenReturn(x);
+        when(chunk.getZ()).thenReturn(z);
+        return chunk;
+    }
+
+    private void moveTo(int blockX, int blockZ) {
+        Location to = mock(Location.class);
+        when(to.getWorld()).thenReturn(world);
+        when(to.getBlockX()).thenReturn(blockX);
+        when(to.getBlockZ()).thenReturn(blockZ);
+        queue.onPlayerMove(new PlayerMoveEvent(player, from, to));
+    }
+
+    private int open(Map<UUID, Player> online) {
+        return queue.open(online::get, name -> "world".equals(name) ? world : null,
+                (p, chunk) -> replayed.add(chunk));
+    }
+
+    @Test
+    void testOpen_ReplaysChunkCrossingsInOrder() {
+        moveTo(0, 0);
+        moveTo(5, 3);      // 同じチャンク内の移動は記録しない
+        moveTo(16, 0);
+        moveTo(16, -17);
+
+        assertFalse(queue.isReady());
+        assertEquals(3, queue.getQueuedCount());
+
+        assertEquals(3, open(Map.of(playerId, player)));
+
+        assertEquals(List.of(0, 1, 1), replayed.stream().map(Chunk::getX).toList());
+        assertEquals(List.of(0, 0, -2), replayed.stream().map(Chunk::getZ).toList());
+        assertTrue(queue.isReady());
+        assertEquals(0, queue.getQueuedCount());
+    }
+
+    @Test
+    void testOnPlayerMove_IgnoredOnceReady() {
+        open(Map.of(playerId, player));
+
+        moveTo(32, 32);
+
+        assertEquals(0, queue.getQueuedCount());
+    }
+
+    @Test
+    void testRecord_DropsCrossingsBeyondLimit() {
+        moveTo(0, 0);
+        moveTo(16, 0);
+        moveTo(32, 0);
+        moveTo(48, 0);
+
+        assertEquals(3, queue.getQueuedCount());
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    void testOpen_SkipsOfflinePlayersAndUnloadedChunks() {
+        moveTo(0, 0);
+        moveTo(16, 0);
+        when(world.isChunkLoaded(1, 0)).thenReturn(false);
+
+        assertEquals(1, open(Map.of(playerId, player)));
+        assertEquals(1, replayed.size());
+
+        moveTo(32, 0);
+        assertEquals(0, queue.getQueuedCount());
+
+        StartupDiscoveryQueue offline = new StartupDiscoveryQueue(3);
+        offline.record(new StartupDiscoveryQueue.Crossing(playerId, "world", 0, 0));
+        assertEquals(0, offline.open(id -> null, name -> world, (p, chunk) -> fail("オフラインのプレイヤーは再生しない")));
+    }
+}
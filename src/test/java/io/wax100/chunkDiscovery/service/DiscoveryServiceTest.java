@@ -4,13 +4,18 @@ import io.wax100.chunkDiscovery.ChunkDiscoveryPlugin;
 import io.wax100.chunkDiscovery.database.ChunkRepository;
 import io.wax100.chunkDiscovery.database.PlayerRepository;
 import io.wax100.chunkDiscovery.model.PlayerData;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 
@@ -233,6 +238,60 @@ class DiscoveryServiceTest {
         assertTrue(result.isEmpty()); // Default empty list on error
     }
 
+    @Test
+    void testGetTopPlayersAsync_ServedFromRankingOnceLoaded() throws Exception {
+        when(playerRepo.getAllPlayerTotals()).thenReturn(List.of(
+            new PlayerData("player1", 100),
+            new PlayerData("player2", 90),
+            new PlayerData("player3", 80)
+        ));
+
+        discoveryService.loadRanking();
+        for (int i = 0; i < 100 && !discoveryService.getRanking().isLoaded(); i++) {
+            Thread.sleep(10);
+        }
+
+        List<PlayerData> top = discoveryService.getTopPlayersAsync(2).get();
+        assertEquals(2, top.size());
+        assertEquals("player1", top.get(0).getPlayerId());
+        assertEquals("player2", top.get(1).getPlayerId());
+        assertEquals(3, discoveryService.getPlayerRank("player3"));
+        assertEquals(0, discoveryService.getPlayerRank("unknown"));
+        verify(playerRepo, never()).getTopPlayers(anyInt());
+    }
+
+    @Test
+    void testReconcileCounters_LoadsEvenWhenDiscoveriesArriveDuringQuery() {
+        when(chunkRepo.getDiscoveredChunkCountsByWorld()).thenAnswer(inv -> {
+            // 集計中に世界初発見があった場合も読み込みを完了する
+            discoveryService.getCounters().increment("world");
+            return java.util.Map.of("world", 10);
+        });
+
+        discoveryService.reconcileCounters();
+
+        assertTrue(discoveryService.getCounters().isLoaded());
+        assertEquals(11, discoveryService.getCounters().getWorldTotal("world"));
+        verify(chunkRepo, never()).getTotalDiscoveredChunks();
+    }
+
+    @Test
+    void testIsDiscoveredAsync_QueriesRepositoryByCoordinates() throws Exception {
+        UUID playerUuid = UUID.randomUUID();
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(playerUuid);
+        World world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getX()).thenReturn(3);
+        when(chunk.getZ()).thenReturn(-4);
+        when(playerRepo.hasDiscoveredChunk(playerUuid.toString(), "world", 3, -4)).thenReturn(true);
+
+        assertTrue(discoveryService.isDiscoveredAsync(player, chunk).get());
+        verify(playerRepo, never()).hasDiscoveredChunk(anyString(), any(Chunk.class));
+    }
+
     @Test
     void testGetPlayerChunksInWorld_Success() {
         String playerId = "test-player-id";
@@ -259,4 +318,38 @@ class DiscoveryServiceTest {
         
         assertEquals(0, result); // Default value on error
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandleDiscovery_DuplicateWhileInFlightIsSuppressed() throws InterruptedException {
+        Player player = mock(Player.class);
+        Chunk chunk = mock(Chunk.class);
+        World world = mock(World.class);
+        UUID playerUuid = UUID.randomUUID();
+        String playerId = playerUuid.toString();
+        when(player.getUniqueId()).thenReturn(playerUuid);
+        when(chunk.getWorld()).thenReturn(world);
+        when(world.getName()).thenReturn("world");
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(chunkRepo.saveIfAbsent(chunk, playerId)).thenAnswer(inv -> {
+            release.await();
+            return false;
+        });
+
+        discoveryService.handleDiscovery(player, chunk);
+        discoveryService.handleDiscovery(player, chunk);
+        discoveryService.handleDiscoveries(List.of(new DiscoveryService.Discovery(player, chunk)));
+
+        assertEquals(2, discoveryService.getSuppressedDuplicates());
+        assertEquals(1, discoveryService.getInFlightCount());
+
+        release.countDown();
+        verify(playerRepo, timeout(1000)).getPlayerChunksInWorld(playerId, "world");
+        verify(chunkRepo, times(1)).saveIfAbsent(chunk, playerId);
+
+        for (int i = 0; i < 100 && discoveryService.getInFlightCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, discoveryService.getInFlightCount());
+    }
+}
@@ -0,0 +1,199 @@
+package io.wax100.chunkDiscovery.service;
+
+import io.wax100.chunkDiscovery.database.DiscoveryBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscoveryWriteBehindTest {
+
+    private final List<List<DiscoveryBatchRepository.Entry>> commits = new CopyOnWriteArrayList<>();
+    private DiscoveryWriteBehind writeBehind;
+
+    /**
+     * 書き込み内容を記録し、全件を世界初として返すリポジトリ
+     */
+    private final DiscoveryBatchRepository repository = new DiscoveryBatchRepository(null) {
+        @Override
+        public List<Outcome> commit(List<Entry> entries) {
+            commits.add(List.copyOf(entries));
+            List<Outcome> outcomes = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                outcomes.add(new Outcome(true, true, i + 1, i + 1));
+            }
+            return outcomes;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    private static DiscoveryBatchRepository.Entry entry(int x) {
+        return new DiscoveryBatchRepository.Entry("player", "world", x, 0);
+    }
+
+    @Test
+    void testFlushWhenBatchIsFull() throws Exception {
+        writeBehind = new DiscoveryWriteBehind(repository, Logger.getAnonymousLogger(), 60_000, 3);
+
+        CompletableFuture<DiscoveryBatchRepository.Outcome> first = writeBehind.submit(entry(0));
+        writeBehind.submit(entry(1));
+        CompletableFuture<DiscoveryBatchRepository.Outcome> third = writeBehind.submit(entry(2));
+
+        assertEquals(3, third.get(1, TimeUnit.SECONDS).totalChunks());
+        assertEquals(1, first.get(1, TimeUnit.SECONDS).totalChunks());
+        assertEquals(1, commits.size());
+        assertEquals(3, commits.get(0).size());
+        assertEquals(1, writeBehind.getFlushCount());
+        assertEquals(3, writeBehind.getFlushedEntries());
+    }
+
+    @Test
+    void testFlushOnInterval() throws Exception {
+        writeBehind = new DiscoveryWriteBehind(repository, Logger.getAnonymousLogger(), 20, 100);
+
+        CompletableFuture<DiscoveryBatchRepository.Outcome> future = writeBehind.submit(entry(0));
+
+        assertTrue(future.get(1, TimeUnit.SECONDS).globalFirst());
+        assertEquals(0, writeBehind.getQueuedCount());
+    }
+
+    @Test
+    void testShutdownFlushesRemaining() throws Exception {
+        writeBehind = new DiscoveryWriteBehind(repository, Logger.getAnonymousLogger(), 60_000, 100);
+
+        CompletableFuture<DiscoveryBatchRepository.Outcome> future = writeBehind.submit(entry(0));
+        writeBehind.shutdown();
+
+        assertTrue(future.isDone());
+        assertEquals(1, commits.size());
+
+        CompletableFuture<DiscoveryBatchRepository.Outcome> rejected = writeBehind.submit(entry(1));
+        assertThrows(ExecutionException.class, rejected::get);
+    }
+
+    @Test
+    void testCommitFailureIsRetriedThenCompletesExceptionally() {
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        DiscoveryBatchRepository failing = new DiscoveryBatchRepository(null) {
+            @Override
+            public List<Outcome> commit(List<Entry> entries) {
+                attempts.add(entries.size());
+                throw new RuntimeException("DB down");
+            }
+        };
+        writeBehind = new DiscoveryWriteBehind(failing, Logger.getAnonymousLogger(), 60_000, 1, 3, 10);
+
+        CompletableFuture<DiscoveryBatchRepository.Outcome> future = writeBehind.submit(entry(0));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("DB down", e.getCause().getMessage());
+        assertEquals(3, attempts.size());
+        assertEquals(2, writeBehind.getRetriedEntries());
+        assertEquals(1, writeBehind.getFailedEntries());
+        assertEquals(0, writeBehind.getQueuedCount());
+    }
+
+    @Test
+    void testShutdownRetriesFailedFlush() throws Exception {
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        DiscoveryBatchRepository flaky = new DiscoveryBatchRepository(null) {
+            @Override
+            public List<Outcome> commit(List<Entry> entries) {
+                attempts.add(entries.size());
+                if (attempts.size() == 1) {
+                    throw new RuntimeException("connection reset");
+                }
+                return repository.commit(entries);
+            }
+        };
+        writeBehind = new DiscoveryWriteBehind(flaky, Logger.getAnonymousLogger(), 60_000, 100, 3, 10);
+
+        CompletableFuture<DiscoveryBatchRepository.Outcome> future = writeBehind.submit(entry(3));
+        writeBehind.shutdown();
+
+        assertTrue(future.get(1, TimeUnit.SECONDS).globalFirst());
+        assertEquals(2, attempts.size());
+        assertEquals(0, writeBehind.getFailedEntries());
+    }
+
+    @Test
+    void testShutdownLogsEachDroppedDiscovery() {
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        DiscoveryBatchRepository failing = new DiscoveryBatchRepository(null) {
+            @Override
+            public List<Outcome> commit(List<Entry> entries) {
+                attempts.add(entries.size());
+                throw new RuntimeException("DB down");
+            }
+        };
+        List<String> messages = new CopyOnWriteArrayList<>();
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        writeBehind = new DiscoveryWriteBehind(failing, logger, 60_000, 100, 5, 10);
+
+        CompletableFuture<DiscoveryBatchRepository.Outcome> first = writeBehind.submit(entry(1));
+        CompletableFuture<DiscoveryBatchRepository.Outcome> second = writeBehind.submit(entry(-2));
+        writeBehind.shutdown();
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        // 停止時はこのスレッドで上限回数まで再試行する
+        assertEquals(3, attempts.size());
+        assertEquals(2, writeBehind.getFailedEntries());
+        assertTrue(messages.contains("書き込めなかったチャンク発見: player=player world=world chunk=1,0"));
+        assertTrue(messages.contains("書き込めなかったチャンク発見: player=player world=world chunk=-2,0"));
+    }
+
+    @Test
+    void testTransientFailureIsRetried() throws Exception {
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        DiscoveryBatchRepository flaky = new DiscoveryBatchRepository(null) {
+            @Override
+            public List<Outcome> commit(List<Entry> entries) {
+                attempts.add(entries.size());
+                if (attempts.size() == 1) {
+                    throw new RuntimeException("connection reset");
+                }
+                return repository.commit(entries);
+            }
+        };
+        writeBehind = new DiscoveryWriteBehind(flaky, Logger.getAnonymousLogger(), 60_000, 1, 3, 10);
+
+        DiscoveryBatchRepository.Outcome outcome = writeBehind.submit(entry(7)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(outcome.globalFirst());
+        assertEquals(2, attempts.size());
+        assertEquals(List.of(entry(7)), commits.get(0));
+        assertEquals(0, writeBehind.getFailedEntries());
+    }
+}
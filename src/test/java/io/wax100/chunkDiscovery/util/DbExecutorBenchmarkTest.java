@@ -0,0 +1,126 @@
+package io.wax100.chunkDiscovery.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * プラットフォームスレッドと仮想スレッドの DbExecutor のベンチマーク
+ *
+ * 500件の発見を同時に投入し、スループットと投入から完了までの p99 レイテンシを比較する。
+ * 発見1件は、接続プール（POOL_SIZE 本）から接続を借り、ドライバと同様に接続の synchronized ブロック内で
+ * DBとの往復（DB_ROUND_TRIP_MILLIS）を待つ処理で模擬する。
+ * 仮想スレッドの計測は Java 21 以上が必要。
+ * 実行方法: ./gradlew test --tests '*DbExecutorBenchmarkTest' -Pbenchmark -PtestJava=21
+ */
+@EnabledIfSystemProperty(named = "test.benchmark.enabled", matches = "true")
+class DbExecutorBenchmarkTest {
+
+    private static final int DISCOVERIES = 500;
+    private static final int POOL_SIZE = 10;
+    private static final int ROUNDS = 5;
+    private static final long DB_ROUND_TRIP_MILLIS = 2;
+
+    private final Logger logger = Logger.getAnonymousLogger();
+
+    @Test
+    void benchmarkPlatformVersusVirtualThreads() throws Exception {
+        BlockingQueue<Object> connections = new ArrayBlockingQueue<>(POOL_SIZE);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            connections.add(new Object());
+        }
+
+        Result platform = measure(new DbExecutor(POOL_SIZE, DISCOVERIES * 2, logger), connections);
+        print("platform", platform);
+
+        VirtualThreadPinningMonitor monitor = null;
+        DbExecutor virtualExecutor = DbExecutor.virtual(POOL_SIZE, DISCOVERIES * 2, logger);
+        if (virtualExecutor == null) {
+            System.out.println("[benchmark] virtual : skipped (requires Java 21, running " + Runtime.version() + ")");
+        } else {
+            monitor = VirtualThreadPinningMonitor.start(Duration.ofMillis(1), logger);
+            Result virtual = measure(virtualExecutor, connections);
+            print("virtual ", virtual);
+            if (monitor != null) {
+                // JFR のイベントは非同期に届くため少し待つ
+                Thread.sleep(1000);
+                System.out.printf("[benchmark] virtual thread pinning events: %d (in driver: %d)%n",
+                        monitor.getPinnedCount(), monitor.getDriverPinnedCount());
+                monitor.close();
+            }
+        }
+
+        assertEquals(POOL_SIZE, connections.size());
+    }
+
+    private Result measure(DbExecutor executor, BlockingQueue<Object> connections) throws Exception {
+        try {
+            // ウォームアップ
+            runRound(executor, connections);
+
+            long elapsed = 0;
+            long[] latencies = new long[DISCOVERIES * ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                long[] roundLatencies = runRound(executor, connections);
+                elapsed += System.nanoTime() - start;
+                System.arraycopy(roundLatencies, 0, latencies, round * DISCOVERIES, DISCOVERIES);
+            }
+            Arrays.sort(latencies);
+            return new Result(DISCOVERIES * ROUNDS * 1e9 / elapsed,
+                    latencies[latencies.length / 2] / 1e6,
+                    latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1e6);
+        } finally {
+            executor.shutdown(10_000);
+        }
+    }
+
+    private long[] runRound(DbExecutor executor, BlockingQueue<Object> connections) throws Exception {
+        List<CompletableFuture<Long>> futures = new ArrayList<>(DISCOVERIES);
+        for (int i = 0; i < DISCOVERIES; i++) {
+            long submitted = System.nanoTime();
+            futures.add(executor.supply(DbExecutor.Priority.DISCOVERY, () -> {
+                simulateDiscovery(connections);
+                return System.nanoTime() - submitted;
+            }));
+        }
+        long[] latencies = new long[DISCOVERIES];
+        for (int i = 0; i < DISCOVERIES; i++) {
+            latencies[i] = futures.get(i).get();
+        }
+        return latencies;
+    }
+
+    private static void simulateDiscovery(BlockingQueue<Object> connections) {
+        try {
+            Object connection = connections.take();
+            try {
+                synchronized (connection) {
+                    Thread.sleep(DB_ROUND_TRIP_MILLIS);
+                }
+            } finally {
+                connections.add(connection);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void print(String mode, Result result) {
+        System.out.printf("[benchmark] %s: %7.0f discoveries/s, p50 %6.1f ms, p99 %6.1f ms (%d concurrent, pool %d)%n",
+                mode, result.throughput(), result.p50Millis(), result.p99Millis(), DISCOVERIES, POOL_SIZE);
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis) {}
+}
@@ -0,0 +1,184 @@
+package io.wax100.chunkDiscovery.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DbExecutorTest {
+
+    private DbExecutor executor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        executor = new DbExecutor(1, 10, Logger.getAnonymousLogger());
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown(5_000);
+    }
+
+    /**
+     * 唯一のスレッドを止めて、以降の処理を待ち行列に溜める
+     */
+    private void blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.run(DbExecutor.Priority.DISCOVERY, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSupply_RunsOnNamedThread() throws Exception {
+        String thread = executor.supply(DbExecutor.Priority.DISCOVERY, () -> Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue(thread.startsWith("ChunkDiscovery-DB-"), thread);
+    }
+
+    @Test
+    void testQueue_RunsByPriorityThenSubmissionOrder() throws Exception {
+        blockWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.run(DbExecutor.Priority.STATS, () -> order.add("stats"));
+        executor.run(DbExecutor.Priority.DISCOVERY, () -> order.add("discovery-1"));
+        executor.run(DbExecutor.Priority.BACKGROUND, () -> order.add("background"));
+        CompletableFuture<Void> last = executor.run(DbExecutor.Priority.DISCOVERY, () -> order.add("discovery-2"));
+        assertEquals(4, executor.getQueuedCount());
+
+        release.countDown();
+        last.get(5, TimeUnit.SECONDS);
+        executor.shutdown(5_000);
+
+        assertEquals(List.of("discovery-1", "discovery-2", "background", "stats"), order);
+        assertEquals(0, executor.getQueuedCount());
+    }
+
+    @Test
+    void testAdmission_ShedsOnlyStatsBeforeQueueIsFull() throws Exception {
+        blockWorker();
+        for (int i = 0; i < 5; i++) {
+            executor.run(DbExecutor.Priority.DISCOVERY, () -> {});
+        }
+
+        // 待ち行列が半分埋まった時点で統計は拒否し、発見の書き込みは受け付ける
+        CompletableFuture<Integer> stats = executor.supply(DbExecutor.Priority.STATS, () -> 1);
+        assertTrue(stats.isCompletedExceptionally());
+        ExecutionException e = assertThrows(ExecutionException.class, stats::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1, executor.getRejectedCount(DbExecutor.Priority.STATS));
+
+        // 統計以外は待ち行列が満杯になるまで受け付ける
+        for (int i = 0; i < 4; i++) {
+            assertFalse(executor.run(DbExecutor.Priority.BACKGROUND, () -> {}).isCompletedExceptionally());
+        }
+        assertFalse(executor.run(DbExecutor.Priority.DISCOVERY, () -> {}).isCompletedExceptionally());
+
+        assertTrue(executor.run(DbExecutor.Priority.BACKGROUND, () -> {}).isCompletedExceptionally());
+        assertTrue(executor.run(DbExecutor.Priority.DISCOVERY, () -> {}).isCompletedExceptionally());
+        assertEquals(1, executor.getRejectedCount(DbExecutor.Priority.BACKGROUND));
+        assertEquals(1, executor.getRejectedCount(DbExecutor.Priority.DISCOVERY));
+        assertEquals(10, executor.getQueuedCount());
+    }
+
+    @Test
+    void testShutdown_DrainsQueuedTasksAndRejectsNewOnes() throws Exception {
+        blockWorker();
+        List<CompletableFuture<Integer>> futures = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            futures.add(executor.supply(DbExecutor.Priority.DISCOVERY, () -> value));
+        }
+
+        release.countDown();
+        executor.shutdown(5_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, futures.get(i).getNow(-1));
+        }
+        assertTrue(executor.isShutdown());
+        assertTrue(executor.supply(DbExecutor.Priority.DISCOVERY, () -> 1).isCompletedExceptionally());
+    }
+
+    @Test
+    void testSupply_PropagatesOperationFailure() {
+        CompletableFuture<Integer> future = executor.supply(DbExecutor.Priority.BACKGROUND, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void testVirtual_AvailableOnlyOnJava21() {
+        DbExecutor virtual = DbExecutor.virtual(1, 10, Logger.getAnonymousLogger());
+        try {
+            assertEquals(Runtime.version().feature() >= 21, virtual != null);
+            assertEquals(virtual != null, VirtualThreads.isAvailable());
+        } finally {
+            if (virtual != null) {
+                virtual.shutdown(5_000);
+            }
+        }
+    }
+
+    @Test
+    void testVirtual_LimitsConcurrencyAndKeepsPriorityOrder() throws Exception {
+        DbExecutor virtual = DbExecutor.virtual(1, 10, Logger.getAnonymousLogger());
+        assumeTrue(virtual != null, "仮想スレッドは Java 21 以上が必要");
+        executor.shutdown(5_000);
+        executor = virtual;
+
+        blockWorker();
+        assertEquals(1, executor.getActiveCount());
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.run(DbExecutor.Priority.STATS, () -> order.add("stats"));
+        executor.run(DbExecutor.Priority.DISCOVERY, () -> order.add("discovery"));
+        CompletableFuture<String> thread = executor.supply(DbExecutor.Priority.BACKGROUND,
+                () -> Thread.currentThread().getName());
+
+        release.countDown();
+        executor.shutdown(5_000);
+
+        assertEquals(List.of("discovery", "stats"), order);
+        assertTrue(thread.get().startsWith("ChunkDiscovery-DB-VT-"), thread.get());
+        assertTrue(executor.isVirtual());
+    }
+
+    @Test
+    void testMetrics_RecordWaitTime() throws Exception {
+        blockWorker();
+        CompletableFuture<Void> queued = executor.run(DbExecutor.Priority.DISCOVERY, () -> {});
+        Thread.sleep(20);
+
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+        executor.shutdown(5_000);
+
+        assertEquals(2, executor.getCompletedCount());
+        assertTrue(executor.getMaxWaitMillis() >= 20, "max wait " + executor.getMaxWaitMillis());
+        assertTrue(executor.getAverageWaitMillis() > 0);
+    }
+}
@@ -0,0 +1,123 @@
+package io.wax100.chunkDiscovery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void testAddAndContains() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(42L));
+        assertFalse(set.add(42L));
+        assertTrue(set.contains(42L));
+        assertFalse(set.contains(43L));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void testZeroKey() {
+        // チャンク(0,0)のキーは0になるため特別扱いが必要
+        LongHashSet set = new LongHashSet();
+
+        assertFalse(set.contains(0L));
+        assertTrue(set.add(ChunkKey.pack(0, 0)));
+        assertTrue(set.contains(0L));
+        assertFalse(set.add(0L));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(1234);
+
+        for (int i = 0; i < 10_000; i++) {
+            long key = ChunkKey.pack(random.nextInt(2000) - 1000, random.nextInt(2000) - 1000);
+            assertEquals(expected.add(key), set.add(key));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long key : expected) {
+            assertTrue(set.contains(key));
+        }
+    }
+
+    @Test
+    void testRemoveKeepsProbeChainsIntact() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(5678);
+
+        for (int i = 0; i < 5_000; i++) {
+            long key = ChunkKey.pack(random.nextInt(200) - 100, random.nextInt(200) - 100);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(key), set.add(key));
+            } else {
+                assertEquals(expected.remove(key), set.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (int x = -100; x < 100; x++) {
+            for (int z = -100; z < 100; z++) {
+                long key = ChunkKey.pack(x, z);
+                assertEquals(expected.contains(key), set.contains(key));
+            }
+        }
+        assertTrue(set.add(0L));
+        assertTrue(set.remove(0L));
+        assertFalse(set.remove(0L));
+    }
+
+    @Test
+    void testAddAll() {
+        LongHashSet a = new LongHashSet();
+        a.add(1L);
+        a.add(0L);
+        LongHashSet b = new LongHashSet();
+        b.add(1L);
+        b.add(2L);
+
+        a.addAll(b);
+
+        assertEquals(3, a.size());
+        assertTrue(a.contains(0L));
+        assertTrue(a.contains(2L));
+    }
+
+    @Test
+    void testToArrayAndClear() {
+        LongHashSet set = new LongHashSet();
+        set.add(0L);
+        set.add(-5L);
+        set.add(7L);
+
+        assertEquals(3, set.toArray().length);
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0L));
+        assertFalse(set.contains(7L));
+    }
+
+    @Test
+    void testChunkKeyRoundTrip() {
+        long key = ChunkKey.pack(-123456, 987654);
+
+        assertEquals(-123456, ChunkKey.x(key));
+        assertEquals(987654, ChunkKey.z(key));
+    }
+
+    @Test
+    void testNegativeExpectedSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(-1));
+    }
+}
@@ -0,0 +1,61 @@
+package io.wax100.chunkDiscovery.util;
+
+import org.bukkit.Bukkit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PrimaryThreadGuardTest {
+
+    private final Logger logger = mock(Logger.class);
+
+    @AfterEach
+    void tearDown() {
+        PrimaryThreadGuard.configure(false, null);
+    }
+
+    @Test
+    void testCheck_WarnsWithStackTraceOnPrimaryThread() {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(Bukkit::isPrimaryThread).thenReturn(true);
+            PrimaryThreadGuard.configure(true, logger);
+            long before = PrimaryThreadGuard.getViolationCount();
+
+            PrimaryThreadGuard.check("テスト");
+
+            assertEquals(before + 1, PrimaryThreadGuard.getViolationCount());
+            verify(logger).log(eq(Level.WARNING), contains("テスト"), any(IllegalStateException.class));
+        }
+    }
+
+    @Test
+    void testCheck_IgnoresOtherThreads() {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            bukkit.when(Bukkit::isPrimaryThread).thenReturn(false);
+            PrimaryThreadGuard.configure(true, logger);
+
+            PrimaryThreadGuard.check("テスト");
+
+            verifyNoInteractions(logger);
+        }
+    }
+
+    @Test
+    void testCheck_DisabledDoesNotTouchBukkit() {
+        try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            PrimaryThreadGuard.configure(false, logger);
+
+            PrimaryThreadGuard.check("テスト");
+
+            bukkit.verifyNoInteractions();
+            verifyNoInteractions(logger);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.wax100.chunkDiscovery.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionBitmapTest {
+
+    @Test
+    void testRegionOfNegativeCoordinates() {
+        assertEquals(0, RegionBitmap.region(31));
+        assertEquals(1, RegionBitmap.region(32));
+        assertEquals(-1, RegionBitmap.region(-1));
+        assertEquals(-1, RegionBitmap.region(-32));
+        assertEquals(-2, RegionBitmap.region(-33));
+    }
+
+    @Test
+    void testBitIndexCoversRegion() {
+        assertEquals(0, RegionBitmap.bitIndex(0, 0));
+        assertEquals(1023, RegionBitmap.bitIndex(31, 31));
+        assertEquals(1023, RegionBitmap.bitIndex(-1, -1));
+        assertEquals(32, RegionBitmap.bitIndex(64, 1));
+    }
+
+    @Test
+    void testSetAndGet() {
+        byte[] bitmap = new byte[RegionBitmap.BYTES];
+
+        assertTrue(RegionBitmap.set(bitmap, 1023));
+        assertFalse(RegionBitmap.set(bitmap, 1023));
+        assertTrue(RegionBitmap.get(bitmap, 1023));
+        assertFalse(RegionBitmap.get(bitmap, 1022));
+    }
+
+    @Test
+    void testPopcount() {
+        byte[] bitmap = new byte[RegionBitmap.BYTES];
+        for (int bit = 0; bit < 1024; bit += 3) {
+            RegionBitmap.set(bitmap, bit);
+        }
+
+        assertEquals(342, RegionBitmap.popcount(bitmap));
+        assertEquals(1, RegionBitmap.popcount(RegionBitmap.of(-100, 200)));
+    }
+
+    @Test
+    void testCollectChunkKeys() {
+        byte[] bitmap = RegionBitmap.of(-33, 64);
+        RegionBitmap.set(bitmap, RegionBitmap.bitIndex(-64, 95));
+        LongHashSet keys = new LongHashSet();
+
+        RegionBitmap.collectChunkKeys(RegionBitmap.regionKey(-33, 64), bitmap, keys);
+
+        assertEquals(2, keys.size());
+        assertTrue(keys.contains(ChunkKey.pack(-33, 64)));
+        assertTrue(keys.contains(ChunkKey.pack(-64, 95)));
+    }
+}
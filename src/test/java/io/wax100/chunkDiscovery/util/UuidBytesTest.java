@@ -0,0 +1,42 @@
+package io.wax100.chunkDiscovery.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidBytesTest {
+
+    @Test
+    void testRoundTrip() {
+        UUID uuid = UUID.randomUUID();
+
+        byte[] bytes = UuidBytes.toBytes(uuid);
+
+        assertEquals(16, bytes.length);
+        assertEquals(uuid, UuidBytes.toUuid(bytes));
+        assertEquals(uuid.toString(), UuidBytes.toString(bytes));
+    }
+
+    @Test
+    void testByteOrder() {
+        // MySQL の UNHEX(REPLACE(uuid, '-', '')) と同じ並びになること
+        byte[] bytes = UuidBytes.toBytes("00112233-4455-6677-8899-aabbccddeeff");
+
+        for (int i = 0; i < 16; i++) {
+            assertEquals((byte) (i * 0x11), bytes[i]);
+        }
+    }
+
+    @Test
+    void testInvalidString() {
+        assertThrows(IllegalArgumentException.class, () -> UuidBytes.toBytes("not-a-uuid"));
+    }
+
+    @Test
+    void testInvalidLength() {
+        assertThrows(IllegalArgumentException.class, () -> UuidBytes.toUuid(new byte[15]));
+        assertThrows(IllegalArgumentException.class, () -> UuidBytes.toUuid(null));
+    }
+}